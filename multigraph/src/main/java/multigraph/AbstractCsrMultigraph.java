@@ -0,0 +1,530 @@
+/*
+ * Author: Ryan Nelson
+ * Provided as is without any warranty
+ */
+
+package multigraph;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * This immutable class holds the part of a multigraph in compressed sparse row form that does not depend on how
+ * edge labels are stored: the node index, the packed child edges of every node and the reverse index of parent
+ * edges.  Traversals, views and degrees are all answered from those arrays, so a subclass only stores its labels
+ * and reads them back through labelAt.
+ * All mutating operations throw UnsupportedOperationException.
+ */
+abstract class AbstractCsrMultigraph<N, E> implements Multigraph<N, E> {
+
+    /**
+     * Creates a new compressed multigraph over the given layout
+     * @spec.requires layout != null
+     * @param layout the node index and edge arrays of the graph
+     */
+    AbstractCsrMultigraph(CsrLayout<N, ?> layout){
+        this.index = layout.index;
+        this.childOffsets = layout.childOffsets;
+        this.edgeParents = layout.edgeParents;
+        this.edgeChildren = layout.edgeChildren;
+        this.parentOffsets = layout.parentOffsets;
+        this.parentEdges = layout.parentEdges;
+        this.maxDegree = layout.maxDegree;
+        checkRep();
+    }
+
+    //AF: (this) is a graph made up of nodes index.nodeOf(0..index.size()).  The child edges of node i are the edges
+    //      childOffsets[i] <= e < childOffsets[i + 1], where edge e connects index.nodeOf(edgeParents[e]) to
+    //      index.nodeOf(edgeChildren[e]) with label labelAt(e).  The parent edges of node i are the edges
+    //      parentEdges[parentOffsets[i]..parentOffsets[i + 1])
+    //RI: all arrays != null, index != null
+    //      childOffsets.length == parentOffsets.length == index.size() + 1
+    //      childOffsets and parentOffsets are non-decreasing, start at 0 and end at the edge count
+    //      maxDegree is the largest total degree of any node, or 0 if there are no nodes
+    //      edgeParents, edgeChildren and parentEdges all have length equal to the edge count
+    //      all ids in edgeParents and edgeChildren are valid node ids
+    //      no two edges are equal
+    private final NodeIndex<N> index;
+    private final int[] childOffsets;
+    private final int[] edgeParents;
+    private final int[] edgeChildren;
+    private final int[] parentOffsets;
+    private final int[] parentEdges;
+    private final int maxDegree;
+    private static final boolean debug = false;
+
+    /**
+     * Returns the label of the given edge
+     * @param edge the index of the edge
+     * @spec.requires 0 <= edge < this.edgeCount()
+     * @return the label of the edge
+     */
+    abstract E labelAt(int edge);
+
+    /**
+     * Returns the number of nodes in the graph
+     * @return the number of nodes in the graph
+     */
+    @Override
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * Returns a list containing the unique label of all the nodes in the graph, ordered by node id
+     * Note that the returned list will have at most one of each element (no duplicates)
+     * @return the list of nodes in the graph
+     */
+    @Override
+    public List<N> listNodes() {
+        return new ArrayList<>(index.asList());
+    }
+
+    /**
+     * Returns a list of edges that terminate at childNode
+     * @param childNode the node that all returned edges should terminate at
+     * @spec.requires this.containsNode(childNode)
+     * @return the list of edges that terminate at childNode
+     * @throws NoSuchElementException if this does not contain childNode
+     */
+    @Override
+    public List<Edge<N, E>> listParentEdges(N childNode) {
+        int id = idOf(childNode);
+        List<Edge<N, E>> ret = new ArrayList<>(parentOffsets[id + 1] - parentOffsets[id]);
+        for(int i = parentOffsets[id]; i < parentOffsets[id + 1]; i++){
+            ret.add(edgeAt(parentEdges[i]));
+        }
+        return ret;
+    }
+
+    /**
+     * Returns the list of edges that originate at parentNode
+     * @param parentNode the node that all returned edges should originate at
+     * @spec.requires this.containsNode(parentNode)
+     * @return the list of edges that originate at parentNode
+     * @throws NoSuchElementException if this does not contain parentNode
+     */
+    @Override
+    public List<Edge<N, E>> listChildEdges(N parentNode) {
+        int id = idOf(parentNode);
+        List<Edge<N, E>> ret = new ArrayList<>(childOffsets[id + 1] - childOffsets[id]);
+        for(int e = childOffsets[id]; e < childOffsets[id + 1]; e++){
+            ret.add(edgeAt(e));
+        }
+        return ret;
+    }
+
+    /**
+     * Returns a list of all the edges in the graph
+     * @return a list of all the edges in the graph
+     */
+    @Override
+    public List<Edge<N, E>> listEdges() {
+        List<Edge<N, E>> ret = new ArrayList<>(edgeParents.length);
+        for(int e = 0; e < edgeParents.length; e++){
+            ret.add(edgeAt(e));
+        }
+        return ret;
+    }
+
+    /**
+     * Checks if the graph contains the node label
+     * @param label the label of the node to check for
+     * @spec.requires label != null
+     * @return true if the graph contains the node label
+     */
+    @Override
+    public boolean containsNode(N label) {
+        return index.contains(label);
+    }
+
+    /**
+     * Checks if the graph contains the given edge
+     * The graph contains edge if this.ListEdges().contains(edge)
+     * @param edge the edge to check for
+     * @spec.requires edge != null
+     * @return true if the graph contains edge
+     */
+    @Override
+    public boolean containsEdge(Edge<N, E> edge) {
+        int parent = index.indexOf(edge.getParentNode()), child = index.indexOf(edge.getChildNode());
+        if(parent < 0 || child < 0) return false;
+        for(int e = childOffsets[parent]; e < childOffsets[parent + 1]; e++){
+            if(edgeChildren[e] == child && labelAt(e).equals(edge.getLabel())) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Checks if the graph contains any edge with the given label.  The graph may contain any positive number
+     * of edges label.
+     * @param label the edge to check for
+     * @spec.requires label != null
+     * @return true if the graph contains at least one edge such that edge.label.equals(label)
+     */
+    @Override
+    public boolean containsEdge(E label) {
+        for(int e = 0; e < edgeParents.length; e++){
+            if(labelAt(e).equals(label)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Unsupported, this graph is immutable
+     * @param label ignored
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void addNode(N label) {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " is immutable");
+    }
+
+    /**
+     * Unsupported, this graph is immutable
+     * @param edge ignored
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void addEdge(Edge<N, E> edge) {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " is immutable");
+    }
+
+    /**
+     * Unsupported, this graph is immutable
+     * @param label ignored
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void deleteNode(N label) {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " is immutable");
+    }
+
+    /**
+     * Unsupported, this graph is immutable
+     * @param label ignored
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void deleteEdge(E label) {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " is immutable");
+    }
+
+    /**
+     * Unsupported, this graph is immutable
+     * @param edge ignored
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void deleteEdge(Edge<N, E> edge) {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " is immutable");
+    }
+
+    /**
+     * Returns a read-only view of the nodes in the graph
+     * @return a read-only view of the nodes in the graph
+     */
+    @Override
+    public Set<N> nodes() {
+        return index.asSet();
+    }
+
+    /**
+     * Returns the index that assigns the ids used by idOf and nodeOf.  The graph is immutable, so the index
+     * stays valid for the life of the graph.
+     * @return the node index of the graph
+     */
+    @Override
+    public NodeIndex<N> nodeIndex() {
+        return index;
+    }
+
+    /**
+     * Returns true, the node index is fixed when the graph is built
+     * @return true
+     */
+    @Override
+    public boolean hasStableNodeIndex() {
+        return true;
+    }
+
+    /**
+     * Returns a read-only view of the edges that originate at parentNode.  The edges are created as they are
+     * read, no list of the edges is built up front
+     * @param parentNode the node that all returned edges should originate at
+     * @spec.requires this.containsNode(parentNode)
+     * @return a read-only view of the edges that originate at parentNode
+     * @throws NoSuchElementException if this does not contain parentNode
+     */
+    @Override
+    public Collection<Edge<N, E>> childEdges(N parentNode) {
+        int id = idOf(parentNode);
+        int start = childOffsets[id], end = childOffsets[id + 1];
+        return new AbstractList<>() {
+            @Override
+            public Edge<N, E> get(int index) {
+                Objects.checkIndex(index, end - start);
+                return edgeAt(start + index);
+            }
+
+            @Override
+            public int size() {
+                return end - start;
+            }
+        };
+    }
+
+    /**
+     * Returns a read-only view of the edges that terminate at childNode.  The edges are created as they are
+     * read, no list of the edges is built up front
+     * @param childNode the node that all returned edges should terminate at
+     * @spec.requires this.containsNode(childNode)
+     * @return a read-only view of the edges that terminate at childNode
+     * @throws NoSuchElementException if this does not contain childNode
+     */
+    @Override
+    public Collection<Edge<N, E>> parentEdges(N childNode) {
+        int id = idOf(childNode);
+        int start = parentOffsets[id], end = parentOffsets[id + 1];
+        return new AbstractList<>() {
+            @Override
+            public Edge<N, E> get(int index) {
+                Objects.checkIndex(index, end - start);
+                return edgeAt(parentEdges[start + index]);
+            }
+
+            @Override
+            public int size() {
+                return end - start;
+            }
+        };
+    }
+
+    /**
+     * Performs action on every edge that originates at parentNode, without copying the edges into a list.  A
+     * new Edge is still created for each edge visited; callers that walk edges often can avoid that by reading
+     * ids with idOf, childStart, childEnd and childOf instead.
+     * @param parentNode the node that all visited edges should originate at
+     * @param action the action to perform on each edge
+     * @spec.requires this.containsNode(parentNode) and action != null
+     * @throws NoSuchElementException if this does not contain parentNode
+     */
+    @Override
+    public void forEachChildEdge(N parentNode, Consumer<? super Edge<N, E>> action) {
+        int id = idOf(parentNode);
+        for(int e = childOffsets[id]; e < childOffsets[id + 1]; e++){
+            action.accept(edgeAt(e));
+        }
+    }
+
+    /**
+     * Performs action on every edge that terminates at childNode, without copying the edges into a list.  A
+     * new Edge is still created for each edge visited.
+     * @param childNode the node that all visited edges should terminate at
+     * @param action the action to perform on each edge
+     * @spec.requires this.containsNode(childNode) and action != null
+     * @throws NoSuchElementException if this does not contain childNode
+     */
+    @Override
+    public void forEachParentEdge(N childNode, Consumer<? super Edge<N, E>> action) {
+        int id = idOf(childNode);
+        for(int i = parentOffsets[id]; i < parentOffsets[id + 1]; i++){
+            action.accept(edgeAt(parentEdges[i]));
+        }
+    }
+
+    /**
+     * Performs action on every edge in the graph, without copying the edges into a list.  A new Edge is still
+     * created for each edge visited.
+     * @param action the action to perform on each edge
+     * @spec.requires action != null
+     */
+    @Override
+    public void forEachEdge(Consumer<? super Edge<N, E>> action) {
+        for(int e = 0; e < edgeParents.length; e++){
+            action.accept(edgeAt(e));
+        }
+    }
+
+    /**
+     * Returns a stream of the edges in the graph, in edge id order.  The stream splits evenly by edge id and
+     * knows its exact size, so parallel pipelines divide the edges evenly between cores.
+     * @return a stream of the edges in the graph
+     */
+    @Override
+    public Stream<Edge<N, E>> edgeStream() {
+        return IntStream.range(0, edgeParents.length).mapToObj(this::edgeAt);
+    }
+
+    /**
+     * Returns the total number of edges in the graph
+     * @return the number of edges in the graph
+     */
+    @Override
+    public int edgeCount() {
+        return edgeParents.length;
+    }
+
+    /**
+     * Returns the number of edges that originate at node, read from the row offsets
+     * @param node the node to count the child edges of
+     * @spec.requires this.containsNode(node)
+     * @return the number of edges that originate at node
+     * @throws NoSuchElementException if this does not contain node
+     */
+    @Override
+    public int outDegree(N node) {
+        int id = idOf(node);
+        return childOffsets[id + 1] - childOffsets[id];
+    }
+
+    /**
+     * Returns the number of edges that terminate at node, read from the reverse row offsets
+     * @param node the node to count the parent edges of
+     * @spec.requires this.containsNode(node)
+     * @return the number of edges that terminate at node
+     * @throws NoSuchElementException if this does not contain node
+     */
+    @Override
+    public int inDegree(N node) {
+        int id = idOf(node);
+        return parentOffsets[id + 1] - parentOffsets[id];
+    }
+
+    /**
+     * Returns the largest number of edges connected to any one node, computed once when the graph was built
+     * @return the largest outDegree(n) + inDegree(n) over all nodes n, or 0 if the graph has no nodes
+     */
+    @Override
+    public int maxDegree() {
+        return maxDegree;
+    }
+
+    /**
+     * Returns the id assigned to the given node
+     * @param node the node to look up
+     * @spec.requires this.containsNode(node)
+     * @return the id of node, in the range [0, this.size())
+     * @throws NoSuchElementException if this does not contain node
+     */
+    public int idOf(N node) {
+        return index.idOf(node);
+    }
+
+    /**
+     * Returns the node with the given id
+     * @param id the id of the node
+     * @spec.requires 0 <= id < this.size()
+     * @return the node with the given id
+     */
+    public N nodeOf(int id) {
+        return index.nodeOf(id);
+    }
+
+    /**
+     * Returns the index of the first child edge of the node with the given id.  The child edges of the node
+     * are the edge indices in [childStart(id), childEnd(id))
+     * @param id the id of the parent node
+     * @spec.requires 0 <= id < this.size()
+     * @return the index of the first child edge of node id
+     */
+    public int childStart(int id) {
+        return childOffsets[id];
+    }
+
+    /**
+     * Returns one past the index of the last child edge of the node with the given id
+     * @param id the id of the parent node
+     * @spec.requires 0 <= id < this.size()
+     * @return one past the index of the last child edge of node id
+     */
+    public int childEnd(int id) {
+        return childOffsets[id + 1];
+    }
+
+    /**
+     * Returns the id of the child node of the given edge
+     * @param edge the index of the edge
+     * @spec.requires 0 <= edge < this.edgeCount()
+     * @return the id of the node the edge terminates at
+     */
+    public int childOf(int edge) {
+        return edgeChildren[edge];
+    }
+
+    /**
+     * Returns the id of the parent node of the given edge
+     * @param edge the index of the edge
+     * @spec.requires 0 <= edge < this.edgeCount()
+     * @return the id of the node the edge originates at
+     */
+    public int parentOf(int edge) {
+        return edgeParents[edge];
+    }
+
+    /**
+     * Returns the position of the first parent edge of the node with the given id.  The parent edges of
+     * the node are parentEdge(i) for i in [parentStart(id), parentEnd(id))
+     * @param id the id of the child node
+     * @spec.requires 0 <= id < this.size()
+     * @return the position of the first parent edge of node id
+     */
+    public int parentStart(int id) {
+        return parentOffsets[id];
+    }
+
+    /**
+     * Returns one past the position of the last parent edge of the node with the given id
+     * @param id the id of the child node
+     * @spec.requires 0 <= id < this.size()
+     * @return one past the position of the last parent edge of node id
+     */
+    public int parentEnd(int id) {
+        return parentOffsets[id + 1];
+    }
+
+    /**
+     * Returns the index of the edge stored at the given position of the parent edge table
+     * @param position the position in the parent edge table
+     * @spec.requires 0 <= position < this.edgeCount()
+     * @return the index of the edge at position
+     */
+    public int parentEdge(int position) {
+        return parentEdges[position];
+    }
+
+    /**
+     * Creates the edge object for the edge at the given index
+     * @param e the index of the edge
+     * @return a new edge equal to the edge at index e
+     */
+    private Edge<N, E> edgeAt(int e){
+        return new Edge<>(index.nodeOf(edgeParents[e]), index.nodeOf(edgeChildren[e]), labelAt(e));
+    }
+
+    /**
+     * Checks if the representation invariant is currently met
+     */
+    private void checkRep(){
+        assert index != null;
+        assert childOffsets.length == index.size() + 1;
+        assert parentOffsets.length == index.size() + 1;
+        assert childOffsets[index.size()] == edgeParents.length;
+        assert parentOffsets[index.size()] == edgeParents.length;
+        assert edgeChildren.length == edgeParents.length && parentEdges.length == edgeParents.length;
+        if(debug){
+            for(int i = 0; i < index.size(); i++){
+                assert childOffsets[i] <= childOffsets[i + 1];
+                assert parentOffsets[i] <= parentOffsets[i + 1];
+                for(int e = childOffsets[i]; e < childOffsets[i + 1]; e++){
+                    assert edgeParents[e] == i;
+                }
+                for(int p = parentOffsets[i]; p < parentOffsets[i + 1]; p++){
+                    assert edgeChildren[parentEdges[p]] == i;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Author: Ryan Nelson
+ * Provided as is without any warranty
+ */
+
+package multigraph;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Converts values of one type to and from bytes, so MultigraphSerializer can store node and edge labels of
+ * any type.  A codec either writes every value in the same number of bytes, reported by fixedSize, or writes
+ * values of varying length, reported per value by sizeOf.  The serializer length-prefixes values of varying
+ * length itself, so decode is always handed a buffer holding the whole value.
+ */
+public interface Codec<T> {
+
+    /**
+     * Codec for Double values, 8 bytes each
+     */
+    public static final Codec<Double> DOUBLE = new Codec<>() {
+        @Override
+        public int fixedSize() {
+            return Double.BYTES;
+        }
+
+        @Override
+        public void encode(Double value, ByteBuffer buffer) {
+            buffer.putDouble(value);
+        }
+
+        @Override
+        public Double decode(ByteBuffer buffer) {
+            return buffer.getDouble();
+        }
+    };
+
+    /**
+     * Codec for Integer values, 4 bytes each
+     */
+    public static final Codec<Integer> INTEGER = new Codec<>() {
+        @Override
+        public int fixedSize() {
+            return Integer.BYTES;
+        }
+
+        @Override
+        public void encode(Integer value, ByteBuffer buffer) {
+            buffer.putInt(value);
+        }
+
+        @Override
+        public Integer decode(ByteBuffer buffer) {
+            return buffer.getInt();
+        }
+    };
+
+    /**
+     * Codec for String values, stored as UTF-8
+     */
+    public static final Codec<String> STRING = new Codec<>() {
+        @Override
+        public int sizeOf(String value) {
+            return value.getBytes(StandardCharsets.UTF_8).length;
+        }
+
+        @Override
+        public void encode(String value, ByteBuffer buffer) {
+            buffer.put(value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public String decode(ByteBuffer buffer) {
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    };
+
+    /**
+     * Returns the number of bytes every value is encoded in, or -1 if values vary in length
+     * @return the size of every encoded value, or -1
+     */
+    public default int fixedSize(){
+        return -1;
+    }
+
+    /**
+     * Returns the number of bytes value is encoded in
+     * @param value the value to measure
+     * @spec.requires value != null
+     * @return the number of bytes encode will write for value
+     */
+    public default int sizeOf(T value){
+        return fixedSize();
+    }
+
+    /**
+     * Writes value at the position of buffer, advancing the position by sizeOf(value)
+     * @param value the value to write
+     * @param buffer the buffer to write to
+     * @spec.requires value != null and buffer.remaining() >= sizeOf(value)
+     * @spec.modifies buffer
+     */
+    public void encode(T value, ByteBuffer buffer);
+
+    /**
+     * Reads a value from the position of buffer, which holds exactly the bytes of one value.  Every byte must
+     * be read.
+     * @param buffer the buffer to read from
+     * @spec.modifies buffer
+     * @return the value read
+     */
+    public T decode(ByteBuffer buffer);
+}
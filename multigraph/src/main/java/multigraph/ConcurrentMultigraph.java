@@ -0,0 +1,487 @@
+/*
+ * Author: Ryan Nelson
+ * Provided as is without any warranty
+ */
+
+package multigraph;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * This class represents a thread-safe multigraph.  Reads never block: every node keeps immutable snapshots of
+ * its child and parent edges, and writers replace a snapshot with an updated copy instead of changing it in
+ * place.  Writers are serialized with a single lock.  A read of one node always sees a consistent set of edges
+ * for that node, but a read that spans several nodes may observe a concurrent write to some of them and not
+ * yet to others.  Suited to graphs that are read far more often than they are written.
+ */
+public class ConcurrentMultigraph<N, E> implements Multigraph<N, E> {
+
+    /**
+     * Creates a new, empty multigraph.
+     */
+    public ConcurrentMultigraph(){
+        adjacency = new ConcurrentHashMap<>();
+        labelMap = new ConcurrentHashMap<>();
+        writeLock = new Object();
+        checkRep();
+    }
+
+    /**
+     * Creates a new multigraph that is a copy of graph
+     * @spec.requires graph != null
+     * @param graph the graph to clone
+     * @throws NullPointerException if graph == null
+     */
+    public ConcurrentMultigraph(Multigraph<N, E> graph){
+        this();
+        if(graph == null) throw new NullPointerException();
+        for(N node : graph.listNodes())
+            this.addNode(node);
+        for(Edge<N, E> edge : graph.listEdges())
+            this.addEdge(edge);
+        checkRep();
+    }
+
+    //AF: (this) is a graph made up of nodes adjacency.keySet().  Node n has child edges adjacency.get(n).children
+    //      and parent edges adjacency.get(n).parents
+    //RI: adjacency != null, labelMap != null, writeLock != null
+    //      no key or snapshot in adjacency is null, snapshots are never modified once published
+    //      while no write is in progress:
+    //          every edge in adjacency.get(n).children has parentNode n and is in the parents of its childNode
+    //          every edge in adjacency.get(n).parents has childNode n and is in the children of its parentNode
+    //          labelMap.get(l) is a non-empty snapshot of exactly the edges labelled l
+    //          edgeCount is the number of edges in labelMap
+    private final ConcurrentHashMap<N, Adjacency<N, E>> adjacency;
+    private final ConcurrentHashMap<E, Set<Edge<N, E>>> labelMap;
+    private final Object writeLock;
+    private volatile int edgeCount;
+    boolean debug = false;
+
+    /**
+     * Immutable snapshot of the edges of one node.  Replaced as a whole whenever the edges change.
+     */
+    private static final class Adjacency<N, E> {
+        final List<Edge<N, E>> children;
+        final List<Edge<N, E>> parents;
+
+        Adjacency(List<Edge<N, E>> children, List<Edge<N, E>> parents){
+            this.children = children;
+            this.parents = parents;
+        }
+    }
+
+    /**
+     * Returns the number of nodes in the graph
+     * @return the number of nodes in the graph
+     */
+    @Override
+    public int size() {
+        return adjacency.size();
+    }
+
+    /**
+     * Returns a list containing the unique label of all the nodes in the graph
+     * Note that the returned list will have at most one of each element (no duplicates)
+     * @return the list of nodes in the graph
+     */
+    @Override
+    public List<N> listNodes() {
+        return new ArrayList<>(adjacency.keySet());
+    }
+
+    /**
+     * Returns a list of edges that terminate at childNode
+     * @param childNode the node that all returned edges should terminate at
+     * @spec.requires this.containsNode(childNode)
+     * @return the list of edges that terminate at childNode
+     * @throws NoSuchElementException if this does not contain childNode
+     */
+    @Override
+    public List<Edge<N, E>> listParentEdges(N childNode) {
+        return new ArrayList<>(snapshot(childNode).parents);
+    }
+
+    /**
+     * Returns the list of edges that originate at parentNode
+     * @param parentNode the node that all returned edges should originate at
+     * @spec.requires this.containsNode(parentNode)
+     * @return the list of edges that originate at parentNode
+     * @throws NoSuchElementException if this does not contain parentNode
+     */
+    @Override
+    public List<Edge<N, E>> listChildEdges(N parentNode) {
+        return new ArrayList<>(snapshot(parentNode).children);
+    }
+
+    /**
+     * Returns a list of all the edges in the graph
+     * @return a list of all the edges in the graph
+     */
+    @Override
+    public List<Edge<N, E>> listEdges() {
+        List<Edge<N, E>> ret = new ArrayList<>();
+        for(Adjacency<N, E> node : adjacency.values()){
+            ret.addAll(node.children);
+        }
+        return ret;
+    }
+
+    /**
+     * Checks if the graph contains the node label
+     * @param label the label of the node to check for
+     * @spec.requires label != null
+     * @return true if the graph contains the node label
+     */
+    @Override
+    public boolean containsNode(N label) {
+        return adjacency.containsKey(label);
+    }
+
+    /**
+     * Checks if the graph contains the given edge
+     * The graph contains edge if this.ListEdges().contains(edge)
+     * @param edge the edge to check for
+     * @spec.requires edge != null
+     * @return true if the graph contains edge
+     */
+    @Override
+    public boolean containsEdge(Edge<N, E> edge) {
+        Adjacency<N, E> parent = adjacency.get(edge.getParentNode());
+        return parent != null && parent.children.contains(edge);
+    }
+
+    /**
+     * Checks if the graph contains any edge with the given label.  The graph may contain any positive number
+     * of edges label.
+     * @param label the edge to check for
+     * @spec.requires label != null
+     * @return true if the graph contains at least one edge such that edge.label.equals(label)
+     */
+    @Override
+    public boolean containsEdge(E label) {
+        return label != null && labelMap.containsKey(label);
+    }
+
+    /**
+     * Adds the given node label to the set of nodes
+     * If the node already exists in the set of nodes, no action will be taken
+     * @param label the node to add to the set
+     * @spec.requires label != null
+     * @spec.modifies this
+     * @spec.effects adds 1 or 0 instances of the node label to (this)
+     */
+    @Override
+    public void addNode(N label) {
+        if(label == null) throw new IllegalArgumentException();
+        synchronized(writeLock){
+            adjacency.putIfAbsent(label, new Adjacency<>(List.of(), List.of()));
+        }
+    }
+
+    /**
+     * Adds the given edge to the graph
+     * @param edge the edge to add to the graph
+     * @spec.requires edge != null and edge.label != null and
+     *                this.containsNode(edge.parentNode) and this.containsNode(edge.childNode)
+     * @spec.modifies this
+     * @spec.effects Connects edge.parentNode to edge.childNode with a new edge label
+     * @throws NoSuchElementException if this does not contain edge.parentNode or edge.childNode
+     */
+    @Override
+    public void addEdge(Edge<N, E> edge) {
+        if(edge == null) throw new NullPointerException();
+        if(edge.getLabel() == null) throw new IllegalArgumentException();
+        synchronized(writeLock){
+            Adjacency<N, E> parent = snapshot(edge.getParentNode());
+            snapshot(edge.getChildNode());
+            if(parent.children.contains(edge)) return;
+            adjacency.put(edge.getParentNode(), new Adjacency<>(with(parent.children, edge), parent.parents));
+            //re-read the child, it is the same node for self edges
+            Adjacency<N, E> child = adjacency.get(edge.getChildNode());
+            adjacency.put(edge.getChildNode(), new Adjacency<>(child.children, with(child.parents, edge)));
+            Set<Edge<N, E>> labelled = labelMap.getOrDefault(edge.getLabel(), Set.of());
+            Set<Edge<N, E>> updated = new HashSet<>(labelled);
+            updated.add(edge);
+            labelMap.put(edge.getLabel(), Collections.unmodifiableSet(updated));
+            edgeCount++;
+        }
+        checkRep();
+    }
+
+    /**
+     * Removes the given node label from the graph. If the graph does not contain the node, no action is taken.
+     * Removes all edges that are connected to label
+     * @param label the node to remove from the graph
+     * @spec.requires label != null
+     * @spec.modifies this
+     * @spec.effects Removes 1 or 0 instances of the node label from (this).
+     *               Deletes any edges that are connected to the node label
+     */
+    @Override
+    public void deleteNode(N label) {
+        if(label == null) throw new IllegalArgumentException();
+        synchronized(writeLock){
+            Adjacency<N, E> removed = adjacency.remove(label);
+            if(removed == null) return;
+            for(Edge<N, E> edge : removed.children){
+                unlink(edge);
+            }
+            for(Edge<N, E> edge : removed.parents){
+                unlink(edge);
+            }
+        }
+        checkRep();
+    }
+
+    /**
+     * Removes all edges that have the given label
+     * An adjacent call to containsEdge(label) is guaranteed to return false
+     * @param label the label to remove all edges that have edge.label.equals(label)
+     * @spec.requires label != null
+     * @spec.modifies this
+     * @spec.effects Removes all edges that are labelled with label from the graph
+     */
+    @Override
+    public void deleteEdge(E label) {
+        if(label == null) throw new IllegalArgumentException();
+        synchronized(writeLock){
+            Set<Edge<N, E>> labelled = labelMap.get(label);
+            if(labelled == null) return;
+            for(Edge<N, E> edge : labelled){
+                unlink(edge);
+            }
+        }
+        checkRep();
+    }
+
+    /**
+     * Removes edge that matches the given edge. If the edge is not in the graph, will do nothing, provided
+     * both edge.parentNode and edge.childNode are valid
+     * An adjacent call to containsEdge(edge) is guaranteed to return false
+     * @param edge the edge to remove all instances of
+     * @spec.requires edge != null and this.containsNode(edge.parentNode) and this.containsNode(edge.childNode)
+     * @spec.modifies this
+     * @spec.effects Removes edge from the graph
+     * @throws NoSuchElementException if this does not contain edge.parentNode or edge.childNode
+     */
+    @Override
+    public void deleteEdge(Edge<N, E> edge) {
+        if(edge == null) throw new NullPointerException();
+        if(edge.getLabel() == null) throw new IllegalArgumentException();
+        synchronized(writeLock){
+            snapshot(edge.getParentNode());
+            snapshot(edge.getChildNode());
+            unlink(edge);
+        }
+        checkRep();
+    }
+
+    /**
+     * Returns a read-only view of the nodes in the graph.  The view is weakly consistent: it reflects later
+     * changes to the graph and may be iterated while the graph is being modified.
+     * @return a read-only view of the nodes in the graph
+     */
+    @Override
+    public Set<N> nodes() {
+        return Collections.unmodifiableSet(adjacency.keySet());
+    }
+
+    /**
+     * Returns an immutable snapshot of the edges that originate at parentNode
+     * @param parentNode the node that all returned edges should originate at
+     * @spec.requires this.containsNode(parentNode)
+     * @return the edges that originate at parentNode at the time of the call
+     * @throws NoSuchElementException if this does not contain parentNode
+     */
+    @Override
+    public Collection<Edge<N, E>> childEdges(N parentNode) {
+        return snapshot(parentNode).children;
+    }
+
+    /**
+     * Returns an immutable snapshot of the edges that terminate at childNode
+     * @param childNode the node that all returned edges should terminate at
+     * @spec.requires this.containsNode(childNode)
+     * @return the edges that terminate at childNode at the time of the call
+     * @throws NoSuchElementException if this does not contain childNode
+     */
+    @Override
+    public Collection<Edge<N, E>> parentEdges(N childNode) {
+        return snapshot(childNode).parents;
+    }
+
+    /**
+     * Performs action on every edge that originates at parentNode, without copying the edges into a list.
+     * @param parentNode the node that all visited edges should originate at
+     * @param action the action to perform on each edge
+     * @spec.requires this.containsNode(parentNode) and action != null
+     * @throws NoSuchElementException if this does not contain parentNode
+     */
+    @Override
+    public void forEachChildEdge(N parentNode, Consumer<? super Edge<N, E>> action) {
+        snapshot(parentNode).children.forEach(action);
+    }
+
+    /**
+     * Performs action on every edge that terminates at childNode, without copying the edges into a list.
+     * @param childNode the node that all visited edges should terminate at
+     * @param action the action to perform on each edge
+     * @spec.requires this.containsNode(childNode) and action != null
+     * @throws NoSuchElementException if this does not contain childNode
+     */
+    @Override
+    public void forEachParentEdge(N childNode, Consumer<? super Edge<N, E>> action) {
+        snapshot(childNode).parents.forEach(action);
+    }
+
+    /**
+     * Performs action on every edge in the graph, without copying the edges into a list.
+     * @param action the action to perform on each edge
+     * @spec.requires action != null
+     */
+    @Override
+    public void forEachEdge(Consumer<? super Edge<N, E>> action) {
+        for(Adjacency<N, E> node : adjacency.values()){
+            node.children.forEach(action);
+        }
+    }
+
+    /**
+     * Returns the number of edges in the graph, which is kept up to date by every write.  Like size(), it may
+     * be read while the graph is being modified and sees the count as of the last completed write.
+     * @return the number of edges in the graph
+     */
+    @Override
+    public int edgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * Returns a stream of the edges in the graph, read from the snapshot of each node in turn.  Splitting the
+     * stream divides the nodes between the halves.  Like nodes(), the stream is weakly consistent: it may be
+     * used while the graph is being modified, and sees each node as of some moment during the stream.
+     * @return a stream of the edges in the graph
+     */
+    @Override
+    public Stream<Edge<N, E>> edgeStream() {
+        return StreamSupport.stream(new FlatSpliterator<Adjacency<N, E>, Edge<N, E>>(adjacency.values().spliterator(),
+                node -> node.children, 1, Spliterator.NONNULL | Spliterator.CONCURRENT), false);
+    }
+
+    /**
+     * Returns an immutable copy of the graph as it was at one moment, laid out in compressed sparse row form.
+     * Every node and its list of child edges are captured while holding writeLock, so no write lands between
+     * reading one node and the next, and the compressed arrays are then filled straight from the captured lists
+     * without blocking writers.
+     * @return an immutable copy of this graph
+     */
+    @Override
+    public CsrMultigraph<N, E> freeze() {
+        List<N> nodes;
+        List<List<Edge<N, E>>> children;
+        synchronized(writeLock){
+            nodes = new ArrayList<>(adjacency.size());
+            children = new ArrayList<>(adjacency.size());
+            adjacency.forEach((node, snapshot) -> {
+                nodes.add(node);
+                children.add(snapshot.children);
+            });
+        }
+        return CsrMultigraph.of(nodes, children);
+    }
+
+    /**
+     * Returns the current snapshot of the given node
+     * @param node the node to look up
+     * @return the snapshot of node
+     * @throws NoSuchElementException if this does not contain node
+     */
+    private Adjacency<N, E> snapshot(N node){
+        Adjacency<N, E> ret = node == null ? null : adjacency.get(node);
+        if(ret == null) throw new NoSuchElementException();
+        return ret;
+    }
+
+    /**
+     * Removes edge from the snapshots of whichever of its end nodes are still in the graph and from the label
+     * map.  Must be called while holding writeLock.
+     * @param edge the edge to remove
+     */
+    private void unlink(Edge<N, E> edge){
+        Adjacency<N, E> parent = adjacency.get(edge.getParentNode());
+        if(parent != null && parent.children.contains(edge)){
+            adjacency.put(edge.getParentNode(), new Adjacency<>(without(parent.children, edge), parent.parents));
+        }
+        Adjacency<N, E> child = adjacency.get(edge.getChildNode());
+        if(child != null && child.parents.contains(edge)){
+            adjacency.put(edge.getChildNode(), new Adjacency<>(child.children, without(child.parents, edge)));
+        }
+        Set<Edge<N, E>> labelled = labelMap.get(edge.getLabel());
+        if(labelled != null && labelled.contains(edge)){
+            if(labelled.size() == 1){
+                labelMap.remove(edge.getLabel());
+            }else{
+                Set<Edge<N, E>> updated = new HashSet<>(labelled);
+                updated.remove(edge);
+                labelMap.put(edge.getLabel(), Collections.unmodifiableSet(updated));
+            }
+            edgeCount--;
+        }
+    }
+
+    /**
+     * Returns an immutable copy of edges with edge appended
+     * @param edges the edges to copy
+     * @param edge the edge to append
+     * @return the new list
+     */
+    private static <N, E> List<Edge<N, E>> with(List<Edge<N, E>> edges, Edge<N, E> edge){
+        List<Edge<N, E>> ret = new ArrayList<>(edges.size() + 1);
+        ret.addAll(edges);
+        ret.add(edge);
+        return Collections.unmodifiableList(ret);
+    }
+
+    /**
+     * Returns an immutable copy of edges without edge
+     * @param edges the edges to copy
+     * @param edge the edge to leave out
+     * @return the new list
+     */
+    private static <N, E> List<Edge<N, E>> without(List<Edge<N, E>> edges, Edge<N, E> edge){
+        List<Edge<N, E>> ret = new ArrayList<>(edges);
+        ret.remove(edge);
+        return Collections.unmodifiableList(ret);
+    }
+
+    /**
+     * Checks if the representation invariant is currently met
+     */
+    private void checkRep(){
+        assert adjacency != null;
+        assert labelMap != null;
+        assert writeLock != null;
+        if(debug){
+            synchronized(writeLock){
+                int edges = 0;
+                for(Map.Entry<N, Adjacency<N, E>> entry : adjacency.entrySet()){
+                    edges += entry.getValue().children.size();
+                    for(Edge<N, E> edge : entry.getValue().children){
+                        assert edge.getParentNode().equals(entry.getKey());
+                        assert adjacency.get(edge.getChildNode()).parents.contains(edge);
+                        assert labelMap.get(edge.getLabel()).contains(edge);
+                    }
+                    for(Edge<N, E> edge : entry.getValue().parents){
+                        assert edge.getChildNode().equals(entry.getKey());
+                        assert adjacency.get(edge.getParentNode()).children.contains(edge);
+                    }
+                }
+                assert edges == edgeCount;
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Author: Ryan Nelson
+ * Provided as is without any warranty
+ */
+
+package multigraph;
+
+import java.util.*;
+import java.util.function.IntFunction;
+
+/**
+ * This class lays the edges of a graph out in compressed sparse row form, the layout CsrMultigraph and
+ * DoubleCsrMultigraph share.  The child edges of every node are packed in node id order, and a counting sort of
+ * the edges by child gives the reverse adjacency.  Labels are left to the owning graph, which reads them off
+ * edges in layout order and stores them however suits it.
+ */
+final class CsrLayout<N, L> {
+
+    /**
+     * Lays out the edges of graph with node ids assigned by order
+     * @spec.requires graph != null and order != null and order indexes exactly the nodes of graph
+     * @param graph the graph to lay out
+     * @param order the ids to give the nodes of graph
+     * @throws NullPointerException if graph == null or order == null
+     * @throws IllegalArgumentException if order does not index the same number of nodes as graph
+     * @throws NoSuchElementException if order indexes a node that graph does not contain
+     */
+    CsrLayout(Multigraph<N, ? extends L> graph, NodeIndex<N> order){
+        this(checked(graph, order), id -> graph.listChildEdges(order.nodeOf(id)));
+    }
+
+    /**
+     * Lays out the given child edges of the nodes of order
+     * @spec.requires order != null and childrenOf != null
+     *      childrenOf.apply(i) holds the distinct child edges of order.nodeOf(i), each between nodes of order
+     * @param order the ids of the nodes
+     * @param childrenOf the child edges of the node with each id
+     * @throws NoSuchElementException if an edge terminates at a node order does not index
+     */
+    CsrLayout(NodeIndex<N> order, IntFunction<? extends Collection<? extends Edge<N, ? extends L>>> childrenOf){
+        this.index = order;
+        int nodeCount = order.size();
+
+        //lay out child edges node by node
+        this.edges = new ArrayList<>();
+        this.childOffsets = new int[nodeCount + 1];
+        for(int i = 0; i < nodeCount; i++){
+            childOffsets[i] = edges.size();
+            edges.addAll(childrenOf.apply(i));
+        }
+        int edgeCount = edges.size();
+        childOffsets[nodeCount] = edgeCount;
+        this.edgeParents = new int[edgeCount];
+        this.edgeChildren = new int[edgeCount];
+        for(int i = 0; i < nodeCount; i++){
+            for(int e = childOffsets[i]; e < childOffsets[i + 1]; e++){
+                edgeParents[e] = i;
+                edgeChildren[e] = order.idOf(edges.get(e).getChildNode());
+            }
+        }
+
+        //counting sort of edge indices by child gives the reverse adjacency
+        this.parentOffsets = new int[nodeCount + 1];
+        this.parentEdges = new int[edgeCount];
+        for(int e = 0; e < edgeCount; e++){
+            parentOffsets[edgeChildren[e] + 1]++;
+        }
+        for(int i = 0; i < nodeCount; i++){
+            parentOffsets[i + 1] += parentOffsets[i];
+        }
+        int[] fill = Arrays.copyOf(parentOffsets, nodeCount);
+        for(int e = 0; e < edgeCount; e++){
+            parentEdges[fill[edgeChildren[e]]++] = e;
+        }
+        int max = 0;
+        for(int i = 0; i < nodeCount; i++){
+            max = Math.max(max, childOffsets[i + 1] - childOffsets[i] + parentOffsets[i + 1] - parentOffsets[i]);
+        }
+        this.maxDegree = max;
+    }
+
+    /**
+     * Checks that order can index the nodes of graph
+     * @param graph the graph to lay out
+     * @param order the ids to give the nodes of graph
+     * @return order
+     * @throws NullPointerException if graph == null or order == null
+     * @throws IllegalArgumentException if order does not index the same number of nodes as graph
+     */
+    private static <N> NodeIndex<N> checked(Multigraph<N, ?> graph, NodeIndex<N> order){
+        if(graph == null || order == null) throw new NullPointerException();
+        if(order.size() != graph.size()) throw new IllegalArgumentException();
+        return order;
+    }
+
+    //AF: node i of the layout is index.nodeOf(i), and edge e is edges.get(e), leaving node edgeParents[e] for
+    //      node edgeChildren[e].  The child edges of node i are childOffsets[i] <= e < childOffsets[i + 1], and
+    //      its parent edges are parentEdges[parentOffsets[i]..parentOffsets[i + 1]).  maxDegree is the largest
+    //      total degree of any node
+    final NodeIndex<N> index;
+    final List<Edge<N, ? extends L>> edges;
+    final int[] childOffsets;
+    final int[] edgeParents;
+    final int[] edgeChildren;
+    final int[] parentOffsets;
+    final int[] parentEdges;
+    final int maxDegree;
+}
@@ -0,0 +1,120 @@
+/*
+ * Author: Ryan Nelson
+ * Provided as is without any warranty
+ */
+
+package multigraph;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * This immutable class represents a multigraph stored in compressed sparse row form.  Nodes are assigned
+ * dense integer ids when the graph is built, and the edges of every node are packed next to each other in
+ * flat arrays, so walking the children of a node reads contiguous memory instead of chasing pointers through
+ * hash sets.  Intended for graphs that are built once and then only read, such as routing graphs.  Nothing
+ * changes after construction, so one instance may be read by any number of threads without synchronization.
+ * All mutating operations throw UnsupportedOperationException.
+ */
+public class CsrMultigraph<N, E> extends AbstractCsrMultigraph<N, E> {
+
+    /**
+     * Creates a new compressed multigraph that is a copy of graph
+     * @spec.requires graph != null
+     * @param graph the graph to copy
+     * @throws NullPointerException if graph == null
+     */
+    public CsrMultigraph(Multigraph<N, E> graph){
+        this(graph, graph.nodeIndex());
+    }
+
+    /**
+     * Creates a new compressed multigraph that is a copy of graph, with node ids assigned by order.  Nodes with
+     * nearby ids are stored next to each other, so an order that gives nearby nodes nearby ids, such as one from
+     * NodeOrdering, keeps searches in nearby memory.
+     * @spec.requires graph != null and order != null and order indexes exactly the nodes of graph
+     * @param graph the graph to copy
+     * @param order the ids to give the nodes of graph
+     * @throws NullPointerException if graph == null or order == null
+     * @throws IllegalArgumentException if order does not index the same number of nodes as graph
+     * @throws NoSuchElementException if order indexes a node that graph does not contain
+     */
+    public CsrMultigraph(Multigraph<N, E> graph, NodeIndex<N> order){
+        this(new CsrLayout<>(graph, order));
+    }
+
+    /**
+     * Creates a new compressed multigraph straight from the child edges of every node, with no graph to copy
+     * @spec.requires nodes != null and children != null and nodes has no duplicates or nulls
+     *      children.get(i) holds the distinct child edges of nodes.get(i), each ending at a node of nodes
+     * @param nodes the nodes of the graph, in id order
+     * @param children the child edges of each node, in the same order as nodes
+     * @throws NoSuchElementException if an edge terminates at a node not in nodes
+     */
+    static <N, E> CsrMultigraph<N, E> of(List<N> nodes, List<? extends Collection<Edge<N, E>>> children){
+        return new CsrMultigraph<>(new CsrLayout<>(new NodeIndex<>(nodes), children::get));
+    }
+
+    /**
+     * Creates a new compressed multigraph over layout, storing the labels of its edges
+     * @spec.requires layout != null
+     * @param layout the node index and edges of the graph
+     */
+    @SuppressWarnings("unchecked")
+    private CsrMultigraph(CsrLayout<N, E> layout){
+        super(layout);
+        this.edgeLabels = (E[]) new Object[layout.edges.size()];
+        for(int e = 0; e < edgeLabels.length; e++){
+            edgeLabels[e] = layout.edges.get(e).getLabel();
+        }
+        checkRep();
+    }
+
+    //AF: (this) is the graph described by AbstractCsrMultigraph, where edge e has label edgeLabels[e]
+    //RI: edgeLabels != null, edgeLabels.length == edgeCount(), edgeLabels contains no nulls
+    private final E[] edgeLabels;
+    private static final boolean debug = false;
+
+    /**
+     * Returns this graph, which is already immutable and compact
+     * @return this
+     */
+    @Override
+    public CsrMultigraph<N, E> freeze() {
+        return this;
+    }
+
+    /**
+     * Returns the label of the given edge
+     * @param edge the index of the edge
+     * @spec.requires 0 <= edge < this.edgeCount()
+     * @return the label of the edge
+     */
+    public E labelOf(int edge) {
+        return edgeLabels[edge];
+    }
+
+    /**
+     * Returns the label of the given edge
+     * @param edge the index of the edge
+     * @spec.requires 0 <= edge < this.edgeCount()
+     * @return the label of the edge
+     */
+    @Override
+    E labelAt(int edge) {
+        return edgeLabels[edge];
+    }
+
+    /**
+     * Checks if the representation invariant is currently met
+     */
+    private void checkRep(){
+        assert edgeLabels != null && edgeLabels.length == edgeCount();
+        if(debug){
+            for(E label : edgeLabels){
+                assert label != null;
+            }
+        }
+    }
+}
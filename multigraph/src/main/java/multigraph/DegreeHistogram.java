@@ -0,0 +1,79 @@
+/*
+ * Author: Ryan Nelson
+ * Provided as is without any warranty
+ */
+
+package multigraph;
+
+import java.util.Arrays;
+
+/**
+ * This class counts how many nodes of a graph have each total degree, so the maximum degree can be read in
+ * constant time and only has to step down past empty degrees when the busiest node loses edges.  It does not
+ * know which node has which degree: the owning graph reads the old and new degree of a node from its own
+ * adjacency and reports the change.
+ */
+final class DegreeHistogram {
+
+    /**
+     * Creates a new histogram of an empty graph
+     */
+    DegreeHistogram(){
+        counts = new int[8];
+    }
+
+    /**
+     * Creates a new histogram that is a copy of histogram
+     * @spec.requires histogram != null
+     * @param histogram the histogram to copy
+     */
+    DegreeHistogram(DegreeHistogram histogram){
+        counts = histogram.counts.clone();
+        maxDegree = histogram.maxDegree;
+    }
+
+    //AF: counts[d] nodes have total degree d
+    //RI: counts != null, no entry of counts is negative
+    //      maxDegree is the largest d with counts[d] > 0, or 0 if there is none
+    private int[] counts;
+    private int maxDegree;
+
+    /**
+     * Records a new node with no edges
+     */
+    void addNode(){
+        counts[0]++;
+    }
+
+    /**
+     * Forgets a node
+     * @param degree the total degree of the node deleted
+     * @spec.requires a node of that degree is recorded
+     */
+    void removeNode(int degree){
+        counts[degree]--;
+        while(maxDegree > 0 && counts[maxDegree] == 0) maxDegree--;
+    }
+
+    /**
+     * Moves a node from one total degree to another
+     * @param from the degree of the node before the change
+     * @param to the degree of the node after the change
+     * @spec.requires a node of degree from is recorded, to >= 0
+     */
+    void move(int from, int to){
+        counts[from]--;
+        if(to >= counts.length) counts = Arrays.copyOf(counts, Math.max(2 * counts.length, to + 1));
+        counts[to]++;
+        if(to > maxDegree) maxDegree = to;
+        while(maxDegree > 0 && counts[maxDegree] == 0) maxDegree--;
+    }
+
+    /**
+     * Returns the largest total degree of any node
+     * @return the maximum degree, or 0 if there are no nodes
+     */
+    int maxDegree(){
+        return maxDegree;
+    }
+}
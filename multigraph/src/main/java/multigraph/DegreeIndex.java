@@ -0,0 +1,160 @@
+/*
+ * Author: Ryan Nelson
+ * Provided as is without any warranty
+ */
+
+package multigraph;
+
+import java.util.*;
+
+/**
+ * This class keeps the edge count, the in and out degree of every node and the maximum degree of a graph up to
+ * date as edges and nodes come and go, so each can be read in constant time.  The maximum is tracked with a
+ * DegreeHistogram.  It is meant for graphs that keep no per node edge sets to read degrees from; graphs that do
+ * only need the histogram.  The owning graph is responsible for calling the update methods whenever it changes.
+ */
+final class DegreeIndex<N> {
+
+    /**
+     * Creates a new index of an empty graph
+     */
+    DegreeIndex(){
+        this(16);
+    }
+
+    /**
+     * Creates a new index of an empty graph, sized to hold expectedNodes nodes without resizing
+     * @spec.requires expectedNodes >= 0
+     * @param expectedNodes the number of nodes expected
+     */
+    DegreeIndex(int expectedNodes){
+        degrees = new HashMap<>(MultigraphBuilder.capacityFor(expectedNodes));
+        histogram = new DegreeHistogram();
+    }
+
+    /**
+     * Creates a new index that is a copy of index
+     * @spec.requires index != null
+     * @param index the index to copy
+     */
+    DegreeIndex(DegreeIndex<N> index){
+        degrees = new HashMap<>(MultigraphBuilder.capacityFor(index.degrees.size()));
+        for(Map.Entry<N, int[]> entry : index.degrees.entrySet()){
+            degrees.put(entry.getKey(), entry.getValue().clone());
+        }
+        histogram = new DegreeHistogram(index.histogram);
+        edgeCount = index.edgeCount;
+    }
+
+    //AF: node n has out degree degrees.get(n)[0] and in degree degrees.get(n)[1], the graph has edgeCount edges
+    //      and histogram counts the nodes of each total degree
+    //RI: degrees != null, histogram != null, every value in degrees has length 2 and no negative entries
+    //      histogram records degrees.get(n)[0] + degrees.get(n)[1] for every node n
+    //      edgeCount is the sum of the out degrees
+    private final HashMap<N, int[]> degrees;
+    private final DegreeHistogram histogram;
+    private int edgeCount;
+
+    /**
+     * Records a new node with no edges
+     * @param node the node added
+     * @spec.requires node is not already recorded
+     */
+    void addNode(N node){
+        degrees.put(node, new int[2]);
+        histogram.addNode();
+    }
+
+    /**
+     * Forgets a node.  Its edges must already have been removed with removeEdge.
+     * @param node the node deleted
+     * @spec.requires node is recorded and has no edges
+     */
+    void removeNode(N node){
+        int[] removed = degrees.remove(node);
+        histogram.removeNode(removed[0] + removed[1]);
+    }
+
+    /**
+     * Records a new edge
+     * @param edge the edge added
+     * @spec.requires both nodes of edge are recorded
+     */
+    void addEdge(Edge<N, ?> edge){
+        move(edge.getParentNode(), 0, 1);
+        move(edge.getChildNode(), 1, 1);
+        edgeCount++;
+    }
+
+    /**
+     * Forgets an edge
+     * @param edge the edge removed
+     * @spec.requires edge was recorded with addEdge and not yet removed
+     */
+    void removeEdge(Edge<N, ?> edge){
+        move(edge.getParentNode(), 0, -1);
+        move(edge.getChildNode(), 1, -1);
+        edgeCount--;
+    }
+
+    /**
+     * Returns the number of edges
+     * @return the number of edges
+     */
+    int edgeCount(){
+        return edgeCount;
+    }
+
+    /**
+     * Returns the number of edges that originate at node
+     * @param node the node to look up
+     * @return the out degree of node
+     * @throws NoSuchElementException if node is not recorded
+     */
+    int outDegree(N node){
+        return lookup(node)[0];
+    }
+
+    /**
+     * Returns the number of edges that terminate at node
+     * @param node the node to look up
+     * @return the in degree of node
+     * @throws NoSuchElementException if node is not recorded
+     */
+    int inDegree(N node){
+        return lookup(node)[1];
+    }
+
+    /**
+     * Returns the largest total degree of any node
+     * @return the maximum degree, or 0 if there are no nodes
+     */
+    int maxDegree(){
+        return histogram.maxDegree();
+    }
+
+    /**
+     * Returns the degrees of node
+     * @param node the node to look up
+     * @return the out and in degree of node
+     * @throws NoSuchElementException if node is not recorded
+     */
+    private int[] lookup(N node){
+        int[] ret = node == null ? null : degrees.get(node);
+        if(ret == null) throw new NoSuchElementException();
+        return ret;
+    }
+
+    /**
+     * Changes one degree of node by delta and moves node to its new place in the histogram
+     * @param node the node whose degree changes
+     * @param direction 0 for the out degree, 1 for the in degree
+     * @param delta the change in degree, 1 or -1
+     */
+    private void move(N node, int direction, int delta){
+        int[] degree = degrees.get(node);
+        int from = degree[0] + degree[1];
+        degree[direction] += delta;
+        histogram.move(from, from + delta);
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Author: Ryan Nelson
+ * Provided as is without any warranty
+ */
+
+package multigraph;
+
+import java.util.NoSuchElementException;
+
+/**
+ * This immutable class represents a multigraph with double edge weights, stored in compressed sparse row form
+ * like CsrMultigraph.  Weights are kept unboxed in a flat double array, so searches that go through the
+ * DoubleWeightedGraph methods read weights directly with no boxing and no Edge object per relaxation.  The
+ * Multigraph methods box the weights into Double labels as edges are read.
+ * All mutating operations throw UnsupportedOperationException.
+ */
+public class DoubleCsrMultigraph<N> extends AbstractCsrMultigraph<N, Double> implements DoubleWeightedGraph {
+
+    /**
+     * Creates a new compressed multigraph that is a copy of graph, with each label converted to its double value
+     * @spec.requires graph != null
+     * @param graph the graph to copy
+     * @throws NullPointerException if graph == null
+     */
+    public DoubleCsrMultigraph(Multigraph<N, ? extends Number> graph){
+        this(graph, graph.nodeIndex());
+    }
+
+    /**
+     * Creates a new compressed multigraph that is a copy of graph, with each label converted to its double value
+     * and node ids assigned by order.  Nodes with nearby ids are stored next to each other, so an order that gives
+     * nearby nodes nearby ids, such as one from NodeOrdering, keeps searches in nearby memory.
+     * @spec.requires graph != null and order != null and order indexes exactly the nodes of graph
+     * @param graph the graph to copy
+     * @param order the ids to give the nodes of graph
+     * @throws NullPointerException if graph == null or order == null
+     * @throws IllegalArgumentException if order does not index the same number of nodes as graph
+     * @throws NoSuchElementException if order indexes a node that graph does not contain
+     */
+    public DoubleCsrMultigraph(Multigraph<N, ? extends Number> graph, NodeIndex<N> order){
+        this(new CsrLayout<>(graph, order));
+    }
+
+    /**
+     * Creates a new compressed multigraph over layout, storing the weights of its edges
+     * @spec.requires layout != null, no edge of layout has a null label
+     * @param layout the node index and edges of the graph
+     */
+    private DoubleCsrMultigraph(CsrLayout<N, Number> layout){
+        super(layout);
+        this.edgeWeights = new double[layout.edges.size()];
+        for(int e = 0; e < edgeWeights.length; e++){
+            edgeWeights[e] = layout.edges.get(e).getLabel().doubleValue();
+        }
+        checkRep();
+    }
+
+    //AF: (this) is the graph described by AbstractCsrMultigraph, where edge e has label edgeWeights[e]
+    //RI: edgeWeights != null, edgeWeights.length == edgeCount()
+    private final double[] edgeWeights;
+
+    /**
+     * Returns this graph, which is already immutable and compact
+     * @return this
+     */
+    @Override
+    public DoubleCsrMultigraph<N> freeze() {
+        return this;
+    }
+
+    /**
+     * Returns the weight of the given edge
+     * @param edge the index of the edge
+     * @spec.requires 0 <= edge < this.edgeCount()
+     * @return the weight of the edge
+     */
+    @Override
+    public double weightOf(int edge) {
+        return edgeWeights[edge];
+    }
+
+    /**
+     * Returns the weight of the given edge, boxed
+     * @param edge the index of the edge
+     * @spec.requires 0 <= edge < this.edgeCount()
+     * @return the weight of the edge
+     */
+    @Override
+    Double labelAt(int edge) {
+        return edgeWeights[edge];
+    }
+
+    /**
+     * Checks if the representation invariant is currently met
+     */
+    private void checkRep(){
+        assert edgeWeights != null && edgeWeights.length == edgeCount();
+    }
+}
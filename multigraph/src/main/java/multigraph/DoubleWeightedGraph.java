@@ -0,0 +1,91 @@
+/*
+ * Author: Ryan Nelson
+ * Provided as is without any warranty
+ */
+
+package multigraph;
+
+/**
+ * A read-only directed graph whose nodes are the dense ids [0, size()) and whose edges are the dense ids
+ * [0, edgeCount()), each carrying a primitive double weight.  Meant for search algorithms that want to walk
+ * adjacency with plain int and double reads, with no boxing and no Edge object per relaxation.
+ */
+public interface DoubleWeightedGraph {
+    /**
+     * Returns the number of nodes in the graph
+     * @return the number of nodes in the graph
+     */
+    public int size();
+
+    /**
+     * Returns the number of edges in the graph
+     * @return the number of edges in the graph
+     */
+    public int edgeCount();
+
+    /**
+     * Returns the id of the first child edge of node.  The child edges of node are the edge ids in
+     * [childStart(node), childEnd(node))
+     * @param node the id of the parent node
+     * @spec.requires 0 <= node < this.size()
+     * @return the id of the first child edge of node
+     */
+    public int childStart(int node);
+
+    /**
+     * Returns one past the id of the last child edge of node
+     * @param node the id of the parent node
+     * @spec.requires 0 <= node < this.size()
+     * @return one past the id of the last child edge of node
+     */
+    public int childEnd(int node);
+
+    /**
+     * Returns the position of the first parent edge of node.  The parent edges of node are
+     * parentEdge(i) for i in [parentStart(node), parentEnd(node))
+     * @param node the id of the child node
+     * @spec.requires 0 <= node < this.size()
+     * @return the position of the first parent edge of node
+     */
+    public int parentStart(int node);
+
+    /**
+     * Returns one past the position of the last parent edge of node
+     * @param node the id of the child node
+     * @spec.requires 0 <= node < this.size()
+     * @return one past the position of the last parent edge of node
+     */
+    public int parentEnd(int node);
+
+    /**
+     * Returns the edge id stored at the given position of the parent edge table
+     * @param position the position in the parent edge table
+     * @spec.requires 0 <= position < this.edgeCount()
+     * @return the id of the edge at position
+     */
+    public int parentEdge(int position);
+
+    /**
+     * Returns the id of the node the given edge originates at
+     * @param edge the id of the edge
+     * @spec.requires 0 <= edge < this.edgeCount()
+     * @return the id of the parent node of edge
+     */
+    public int parentOf(int edge);
+
+    /**
+     * Returns the id of the node the given edge terminates at
+     * @param edge the id of the edge
+     * @spec.requires 0 <= edge < this.edgeCount()
+     * @return the id of the child node of edge
+     */
+    public int childOf(int edge);
+
+    /**
+     * Returns the weight of the given edge
+     * @param edge the id of the edge
+     * @spec.requires 0 <= edge < this.edgeCount()
+     * @return the weight of edge
+     */
+    public double weightOf(int edge);
+}
@@ -0,0 +1,78 @@
+/*
+ * Author: Ryan Nelson
+ * Provided as is without any warranty
+ */
+
+package multigraph;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * This class splits the elements of many collections, such as the per node edge sets of a graph, as one
+ * sequence without first copying them into a single list.  Splitting divides the sources between the halves,
+ * so a parallel stream gives each worker a share of the nodes and streams their edges in place.
+ */
+final class FlatSpliterator<S, T> implements Spliterator<T> {
+
+    /**
+     * Creates a spliterator over the elements of every collection expanded from sources
+     * @param sources the sources to flatten
+     * @param expand returns the collection of elements of a source
+     * @param perSource the average number of elements per source, used to estimate sizes
+     * @param characteristics the characteristics of the flattened elements, never SIZED
+     * @spec.requires no argument is null, perSource >= 0
+     */
+    FlatSpliterator(Spliterator<S> sources, Function<? super S, ? extends Collection<? extends T>> expand,
+                    double perSource, int characteristics){
+        this.sources = sources;
+        this.expand = expand;
+        this.perSource = perSource;
+        this.characteristics = characteristics & ~(SIZED | SUBSIZED);
+    }
+
+    //AF: the elements of current, then the elements of expand(s) for each s remaining in sources
+    //RI: sources != null, expand != null, perSource >= 0
+    private final Spliterator<S> sources;
+    private final Function<? super S, ? extends Collection<? extends T>> expand;
+    private final double perSource;
+    private final int characteristics;
+    private Iterator<? extends T> current;
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action){
+        while(current == null || !current.hasNext()){
+            current = null;
+            if(!sources.tryAdvance(source -> current = expand.apply(source).iterator())) return false;
+        }
+        action.accept(current.next());
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super T> action){
+        if(current != null){
+            current.forEachRemaining(action);
+            current = null;
+        }
+        sources.forEachRemaining(source -> expand.apply(source).forEach(action));
+    }
+
+    @Override
+    public Spliterator<T> trySplit(){
+        Spliterator<S> prefix = sources.trySplit();
+        return prefix == null ? null : new FlatSpliterator<>(prefix, expand, perSource, characteristics);
+    }
+
+    @Override
+    public long estimateSize(){
+        double estimate = sources.estimateSize() * perSource;
+        return estimate >= Long.MAX_VALUE ? Long.MAX_VALUE : (long) Math.ceil(estimate);
+    }
+
+    @Override
+    public int characteristics(){
+        return characteristics;
+    }
+}
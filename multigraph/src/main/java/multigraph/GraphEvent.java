@@ -0,0 +1,153 @@
+/*
+ * Author: Ryan Nelson
+ * Provided as is without any warranty
+ */
+
+package multigraph;
+
+import java.util.Objects;
+
+/**
+ * This immutable class represents one change to a multigraph: a node or an edge that was added or deleted.
+ * Events are delivered to GraphListeners by ObservableMultigraph.
+ */
+public final class GraphEvent<N, E> {
+
+    /**
+     * The kinds of change an event can describe
+     */
+    public enum Type {
+        NODE_ADDED, NODE_DELETED, EDGE_ADDED, EDGE_DELETED;
+
+        /**
+         * Returns whether events of this type describe an edge
+         * @return true if this is EDGE_ADDED or EDGE_DELETED
+         */
+        public boolean isEdgeType(){
+            return this == EDGE_ADDED || this == EDGE_DELETED;
+        }
+
+        /**
+         * Returns the type that undoes this one
+         * @return the added type for a deleted type and the deleted type for an added type
+         */
+        public Type inverse(){
+            switch(this){
+                case NODE_ADDED: return NODE_DELETED;
+                case NODE_DELETED: return NODE_ADDED;
+                case EDGE_ADDED: return EDGE_DELETED;
+                default: return EDGE_ADDED;
+            }
+        }
+    }
+
+    /**
+     * Creates a new event
+     * @param type the kind of change
+     * @param node the node changed, or null for an edge event
+     * @param edge the edge changed, or null for a node event
+     */
+    private GraphEvent(Type type, N node, Edge<N, E> edge){
+        this.type = type;
+        this.node = node;
+        this.edge = edge;
+    }
+
+    //AF: the change type applied to node, or to edge if type is an edge type
+    //RI: type != null, exactly one of node and edge is null, edge is null iff !type.isEdgeType()
+    private final Type type;
+    private final N node;
+    private final Edge<N, E> edge;
+
+    /**
+     * Returns an event for a node that was added
+     * @param node the node added
+     * @spec.requires node != null
+     * @return the event
+     */
+    public static <N, E> GraphEvent<N, E> nodeAdded(N node){
+        return new GraphEvent<>(Type.NODE_ADDED, node, null);
+    }
+
+    /**
+     * Returns an event for a node that was deleted
+     * @param node the node deleted
+     * @spec.requires node != null
+     * @return the event
+     */
+    public static <N, E> GraphEvent<N, E> nodeDeleted(N node){
+        return new GraphEvent<>(Type.NODE_DELETED, node, null);
+    }
+
+    /**
+     * Returns an event for an edge that was added
+     * @param edge the edge added
+     * @spec.requires edge != null
+     * @return the event
+     */
+    public static <N, E> GraphEvent<N, E> edgeAdded(Edge<N, E> edge){
+        return new GraphEvent<>(Type.EDGE_ADDED, null, edge);
+    }
+
+    /**
+     * Returns an event for an edge that was deleted
+     * @param edge the edge deleted
+     * @spec.requires edge != null
+     * @return the event
+     */
+    public static <N, E> GraphEvent<N, E> edgeDeleted(Edge<N, E> edge){
+        return new GraphEvent<>(Type.EDGE_DELETED, null, edge);
+    }
+
+    /**
+     * Returns the kind of change
+     * @return the type of this event
+     */
+    public Type getType(){
+        return type;
+    }
+
+    /**
+     * Returns the node that was added or deleted
+     * @return the node changed, or null if this is an edge event
+     */
+    public N getNode(){
+        return node;
+    }
+
+    /**
+     * Returns the edge that was added or deleted
+     * @return the edge changed, or null if this is a node event
+     */
+    public Edge<N, E> getEdge(){
+        return edge;
+    }
+
+    /**
+     * Returns the node or edge this event is about
+     * @return getEdge() for an edge event and getNode() for a node event
+     */
+    Object subject(){
+        return edge != null ? edge : node;
+    }
+
+    @Override
+    public boolean equals(Object o){
+        if(this == o) return true;
+        if(!(o instanceof GraphEvent)) return false;
+        GraphEvent<?, ?> other = (GraphEvent<?, ?>) o;
+        return type == other.type && Objects.equals(node, other.node) && Objects.equals(edge, other.edge);
+    }
+
+    @Override
+    public int hashCode(){
+        return 31 * type.hashCode() + subject().hashCode();
+    }
+
+    @Override
+    public String toString(){
+        return type + " " + (edge != null
+                ? edge.getParentNode() + " -[" + edge.getLabel() + "]-> " + edge.getChildNode()
+                : node);
+    }
+}
@@ -0,0 +1,24 @@
+/*
+ * Author: Ryan Nelson
+ * Provided as is without any warranty
+ */
+
+package multigraph;
+
+import java.util.List;
+
+/**
+ * A GraphListener is told about the changes made to an ObservableMultigraph, so it can keep caches or
+ * precomputed structures over the graph up to date by touching only what changed.
+ */
+@FunctionalInterface
+public interface GraphListener<N, E> {
+
+    /**
+     * Called after one or more changes have been made to the graph.  Changes made inside a batch are delivered
+     * together once the batch ends, otherwise each mutating call delivers its own events.  Deleting a node
+     * delivers the deletion of each of its edges before the deletion of the node.
+     * @param events the changes, in the order they were made, never empty and not modifiable
+     */
+    public void graphChanged(List<GraphEvent<N, E>> events);
+}
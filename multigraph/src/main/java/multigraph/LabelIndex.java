@@ -0,0 +1,89 @@
+/*
+ * Author: Ryan Nelson
+ * Provided as is without any warranty
+ */
+
+package multigraph;
+
+import java.util.*;
+
+/**
+ * This class indexes the edges of a graph by their label, so that operations that look up edges by label
+ * only touch the edges that have that label.  The owning graph is responsible for calling add and remove
+ * whenever it adds or removes an edge.
+ */
+final class LabelIndex<N, E> {
+
+    /**
+     * Creates a new, empty label index
+     */
+    LabelIndex(){
+        labelMap = new HashMap<>();
+    }
+
+    /**
+     * Creates a new, empty label index sized to hold expectedLabels labels without resizing
+     * @spec.requires expectedLabels >= 0
+     * @param expectedLabels the number of distinct labels expected
+     */
+    LabelIndex(int expectedLabels){
+        labelMap = new HashMap<>(MultigraphBuilder.capacityFor(expectedLabels));
+    }
+
+    /**
+     * Creates a new label index that is a copy of index
+     * @spec.requires index != null
+     * @param index the index to copy
+     */
+    LabelIndex(LabelIndex<N, E> index){
+        labelMap = new HashMap<>();
+        for(Map.Entry<E, Set<Edge<N, E>>> entry : index.labelMap.entrySet()){
+            labelMap.put(entry.getKey(), new HashSet<>(entry.getValue()));
+        }
+    }
+
+    //AF: the edges labelled l are labelMap.get(l), or none if l is not a key
+    //RI: labelMap != null, no value in labelMap is null or empty
+    //      every edge in labelMap.get(l) has label l
+    private final HashMap<E, Set<Edge<N, E>>> labelMap;
+
+    /**
+     * Adds edge to the index
+     * @param edge the edge to add
+     * @spec.requires edge != null and edge.label != null
+     */
+    void add(Edge<N, E> edge){
+        labelMap.computeIfAbsent(edge.getLabel(), l -> new HashSet<>()).add(edge);
+    }
+
+    /**
+     * Removes edge from the index, if present
+     * @param edge the edge to remove
+     * @spec.requires edge != null
+     */
+    void remove(Edge<N, E> edge){
+        Set<Edge<N, E>> edges = labelMap.get(edge.getLabel());
+        if(edges == null) return;
+        edges.remove(edge);
+        if(edges.isEmpty()) labelMap.remove(edge.getLabel());
+    }
+
+    /**
+     * Checks if any indexed edge has the given label
+     * @param label the label to look for
+     * @return true if at least one indexed edge is labelled label
+     */
+    boolean contains(E label){
+        return labelMap.containsKey(label);
+    }
+
+    /**
+     * Removes every edge with the given label from the index
+     * @param label the label to remove
+     * @return the edges that were removed, empty if there were none
+     */
+    Set<Edge<N, E>> removeAll(E label){
+        Set<Edge<N, E>> edges = labelMap.remove(label);
+        return edges == null ? Collections.emptySet() : edges;
+    }
+}
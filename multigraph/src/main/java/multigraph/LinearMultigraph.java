@@ -6,6 +6,8 @@
 package multigraph;
 
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * This class represents a multigraph.  Consider a collection of labeled nodes that are connected with
@@ -22,6 +24,8 @@ public class LinearMultigraph<N, E> implements Multigraph<N, E> {
     public LinearMultigraph(){
         nodes = new HashSet<>();
         edges = new HashSet<>();
+        labels = new LabelIndex<>();
+        degrees = new DegreeIndex<>();
         checkRep();
     }
 
@@ -35,6 +39,8 @@ public class LinearMultigraph<N, E> implements Multigraph<N, E> {
         if(graph == null) throw new NullPointerException();
         this.nodes = new HashSet<N>(graph.nodes);
         this.edges = new HashSet<Edge<N, E>>(graph.edges);
+        this.labels = new LabelIndex<>(graph.labels);
+        this.degrees = new DegreeIndex<>(graph.degrees);
         checkRep();
     }
 
@@ -59,11 +65,15 @@ public class LinearMultigraph<N, E> implements Multigraph<N, E> {
     //      this.nodes.contains(e.childNode)
     //      this.nodes.contains(e.parentNode)
     //      e.label != null
+    //  labels != null and indexes exactly the edges in this.edges
+    //  degrees != null and records exactly the nodes in this.nodes and the edges in this.edges
     //AF: A graph with nodes this.nodes.  Edge represents the connections between nodes.  Each edge
     //      connects from its parent node to its child node.
 
     Set<N> nodes;
     Set<Edge<N, E>> edges;
+    LabelIndex<N, E> labels;
+    DegreeIndex<N> degrees;
     boolean debug = false;
 
     /**
@@ -166,10 +176,7 @@ public class LinearMultigraph<N, E> implements Multigraph<N, E> {
      */
     public boolean containsEdge(E label){
         checkRep();
-        for(Edge<N, E> e : edges){
-            if(e.getLabel().equals(label)) return true;
-        }
-        return false;
+        return labels.contains(label);
     }
 
     /**
@@ -183,7 +190,7 @@ public class LinearMultigraph<N, E> implements Multigraph<N, E> {
     public void addNode(N label){
         checkRep();
         if(label == null) throw new IllegalArgumentException();
-        nodes.add(label);
+        if(nodes.add(label)) degrees.addNode(label);
         checkRep();
     }
 
@@ -201,7 +208,10 @@ public class LinearMultigraph<N, E> implements Multigraph<N, E> {
         if(edge.getLabel() == null) throw new IllegalArgumentException();
         if(!nodes.contains(edge.getChildNode()) || !nodes.contains(edge.getParentNode()))
             throw new NoSuchElementException();
-        edges.add(edge);
+        if(edges.add(edge)){
+            labels.add(edge);
+            degrees.addEdge(edge);
+        }
     }
 
     /**
@@ -222,8 +232,11 @@ public class LinearMultigraph<N, E> implements Multigraph<N, E> {
                 Edge<N, E> e = edgeIterator.next();
                 if(e.getParentNode().equals(label) || e.getChildNode().equals(label)){
                     edgeIterator.remove();
+                    labels.remove(e);
+                    degrees.removeEdge(e);
                 }
             }
+            degrees.removeNode(label);
         }
         checkRep();
     }
@@ -239,12 +252,9 @@ public class LinearMultigraph<N, E> implements Multigraph<N, E> {
     public void deleteEdge(E label){
         checkRep();
         if(label == null) throw new IllegalArgumentException();
-        Iterator<Edge<N, E>> edgeIterator = edges.iterator();
-        while(edgeIterator.hasNext()){
-            Edge<N, E> e = edgeIterator.next();
-            if(e.getLabel().equals(label)){
-                edgeIterator.remove();
-            }
+        for(Edge<N, E> e : labels.removeAll(label)){
+            edges.remove(e);
+            degrees.removeEdge(e);
         }
         checkRep();
     }
@@ -265,8 +275,135 @@ public class LinearMultigraph<N, E> implements Multigraph<N, E> {
         if(edge.getLabel() == null) throw new IllegalArgumentException();
         if(!nodes.contains(edge.getChildNode()) || !nodes.contains(edge.getParentNode()))
             throw new NoSuchElementException();
-        edges.remove(edge);
+        if(edges.remove(edge)){
+            labels.remove(edge);
+            degrees.removeEdge(edge);
+        }
+        checkRep();
+    }
+
+    /**
+     * Returns a read-only view of the nodes in the graph.  Unlike listNodes, no copy is made, so the view
+     * reflects later changes to the graph and must not be used while the graph is being modified.
+     * @return a read-only view of the nodes in the graph
+     */
+    @Override
+    public Set<N> nodes(){
+        checkRep();
+        return Collections.unmodifiableSet(nodes);
+    }
+
+    /**
+     * Performs action on every edge that originates at parentNode, without copying the edges into a list.
+     * action must not modify the graph.
+     * @param parentNode the node that all visited edges should originate at
+     * @param action the action to perform on each edge
+     * @spec.requires this.containsNode(parentNode) and action != null
+     * @throws NoSuchElementException if this does not contain parentNode
+     */
+    @Override
+    public void forEachChildEdge(N parentNode, Consumer<? super Edge<N, E>> action){
+        checkRep();
+        if(!nodes.contains(parentNode)) throw new NoSuchElementException();
+        for(Edge<N, E> e : edges){
+            if(e.getParentNode().equals(parentNode)) action.accept(e);
+        }
+    }
+
+    /**
+     * Performs action on every edge that terminates at childNode, without copying the edges into a list.
+     * action must not modify the graph.
+     * @param childNode the node that all visited edges should terminate at
+     * @param action the action to perform on each edge
+     * @spec.requires this.containsNode(childNode) and action != null
+     * @throws NoSuchElementException if this does not contain childNode
+     */
+    @Override
+    public void forEachParentEdge(N childNode, Consumer<? super Edge<N, E>> action){
+        checkRep();
+        if(!nodes.contains(childNode)) throw new NoSuchElementException();
+        for(Edge<N, E> e : edges){
+            if(e.getChildNode().equals(childNode)) action.accept(e);
+        }
+    }
+
+    /**
+     * Performs action on every edge in the graph, without copying the edges into a list.
+     * action must not modify the graph.
+     * @param action the action to perform on each edge
+     * @spec.requires action != null
+     */
+    @Override
+    public void forEachEdge(Consumer<? super Edge<N, E>> action){
+        checkRep();
+        edges.forEach(action);
+    }
+
+    /**
+     * Returns the number of edges in the graph, which is kept up to date as edges are added and deleted
+     * @return the number of edges in the graph
+     */
+    @Override
+    public int edgeCount(){
+        checkRep();
+        return degrees.edgeCount();
+    }
+
+    /**
+     * Returns the number of edges that originate at node without scanning the edge set
+     * @param node the node to count the child edges of
+     * @spec.requires this.containsNode(node)
+     * @return the number of edges that originate at node
+     * @throws NoSuchElementException if this does not contain node
+     */
+    @Override
+    public int outDegree(N node){
         checkRep();
+        return degrees.outDegree(node);
+    }
+
+    /**
+     * Returns the number of edges that terminate at node without scanning the edge set
+     * @param node the node to count the parent edges of
+     * @spec.requires this.containsNode(node)
+     * @return the number of edges that terminate at node
+     * @throws NoSuchElementException if this does not contain node
+     */
+    @Override
+    public int inDegree(N node){
+        checkRep();
+        return degrees.inDegree(node);
+    }
+
+    /**
+     * Returns the largest number of edges connected to any one node, which is kept up to date as the graph
+     * changes
+     * @return the largest outDegree(n) + inDegree(n) over all nodes n, or 0 if the graph has no nodes
+     */
+    @Override
+    public int maxDegree(){
+        checkRep();
+        return degrees.maxDegree();
+    }
+
+    /**
+     * Returns a stream of the edges in the graph, backed by the edge set.  The graph must not be modified
+     * while the stream is in use.
+     * @return a stream of the edges in the graph
+     */
+    @Override
+    public Stream<Edge<N, E>> edgeStream(){
+        checkRep();
+        return edges.stream();
+    }
+
+    /**
+     * Returns an immutable copy of this graph, laid out in compressed sparse row form
+     * @return an immutable copy of this graph
+     */
+    @Override
+    public CsrMultigraph<N, E> freeze(){
+        return new CsrMultigraph<>(this);
     }
 
     /**
@@ -275,6 +412,9 @@ public class LinearMultigraph<N, E> implements Multigraph<N, E> {
     private void checkRep(){
         assert edges != null;
         assert nodes != null;
+        assert labels != null;
+        assert degrees != null;
+        assert degrees.edgeCount() == edges.size();
         if(nodes.isEmpty()){
             assert edges.isEmpty();
         }
@@ -282,6 +422,7 @@ public class LinearMultigraph<N, E> implements Multigraph<N, E> {
             assert e.getLabel() != null;
             assert nodes.contains(e.getParentNode());
             assert nodes.contains(e.getChildNode());
+            assert labels.contains(e.getLabel());
         }
     }
 }
@@ -0,0 +1,694 @@
+/*
+ * Author: Ryan Nelson
+ * Provided as is without any warranty
+ */
+
+package multigraph;
+
+import java.io.IOException;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * This immutable class represents a multigraph stored off the heap in a memory-mapped file.  The file holds
+ * the same compressed sparse row arrays as DoubleCsrMultigraph, so opening a graph only maps the file and
+ * reads its header, and several JVMs that open the same file share its pages through the operating system's
+ * page cache.  Nodes are the ids [0, size()) and each edge is labelled with its double weight.  Callers that
+ * need richer node labels keep their own mapping from ids to labels, for example DoubleCsrMultigraph.nodeOf
+ * on the graph the file was written from.
+ * All mutating operations throw UnsupportedOperationException.
+ *
+ * <p>Each array is mapped as its own buffer, so no single array may exceed 2GB, which bounds the graph at
+ * roughly 268 million edges.  The file is little-endian:
+ * <pre>
+ *   int magic, int version, int nodeCount, int edgeCount
+ *   double edgeWeights[edgeCount]
+ *   int childOffsets[nodeCount + 1]
+ *   int edgeParents[edgeCount]
+ *   int edgeChildren[edgeCount]
+ *   int parentOffsets[nodeCount + 1]
+ *   int parentEdges[edgeCount]
+ * </pre>
+ */
+public class MappedMultigraph implements Multigraph<Integer, Double>, DoubleWeightedGraph {
+
+    private static final int MAGIC = 0x4D474346;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 4 * Integer.BYTES;
+    private static final int WRITE_BUFFER_BYTES = 1 << 16;
+
+    /**
+     * Creates a graph over the mapped sections of a file
+     * @param nodeCount the number of nodes
+     * @param edgeCount the number of edges
+     * @param sections the mapped sections, in file order
+     */
+    private MappedMultigraph(int nodeCount, int edgeCount, ByteBuffer[] sections){
+        this.nodeCount = nodeCount;
+        this.edgeCount = edgeCount;
+        this.edgeWeights = sections[0].asDoubleBuffer();
+        this.childOffsets = sections[1].asIntBuffer();
+        this.edgeParents = sections[2].asIntBuffer();
+        this.edgeChildren = sections[3].asIntBuffer();
+        this.parentOffsets = sections[4].asIntBuffer();
+        this.parentEdges = sections[5].asIntBuffer();
+        checkRep();
+    }
+
+    //AF: (this) is a graph made up of nodes 0..nodeCount-1.  The child edges of node i are the edges
+    //      childOffsets[i] <= e < childOffsets[i + 1], where edge e connects edgeParents[e] to
+    //      edgeChildren[e] with label edgeWeights[e].  The parent edges of node i are the edges
+    //      parentEdges[parentOffsets[i]..parentOffsets[i + 1])
+    //RI: all buffers != null
+    //      childOffsets and parentOffsets hold nodeCount + 1 entries, edgeParents, edgeChildren, edgeWeights
+    //      and parentEdges hold edgeCount entries
+    //      childOffsets and parentOffsets are non-decreasing, start at 0 and end at edgeCount
+    //      all ids in edgeParents and edgeChildren are in [0, nodeCount)
+    //      maxDegree is -1 until first asked for, then the largest total degree of any node
+    private final int nodeCount;
+    private final int edgeCount;
+    private final DoubleBuffer edgeWeights;
+    private final IntBuffer childOffsets;
+    private final IntBuffer edgeParents;
+    private final IntBuffer edgeChildren;
+    private final IntBuffer parentOffsets;
+    private final IntBuffer parentEdges;
+    private int maxDegree = -1;
+    private static final boolean debug = false;
+
+    /**
+     * Maps the graph stored in file into memory.  The file is read only as its pages are touched, so
+     * opening takes the same time for any size of graph.
+     * @spec.requires file != null
+     * @param file a file written by MappedMultigraph.write
+     * @return the graph stored in file
+     * @throws IOException if file cannot be read or is not a graph file of a supported version
+     */
+    public static MappedMultigraph open(Path file) throws IOException {
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)){
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            while(header.hasRemaining()){
+                if(channel.read(header, header.position()) < 0) throw new IOException("Truncated graph file " + file);
+            }
+            header.flip();
+            if(header.getInt() != MAGIC) throw new IOException("Not a graph file " + file);
+            int version = header.getInt();
+            if(version != VERSION) throw new IOException("Unsupported graph file version " + version);
+            int nodeCount = header.getInt(), edgeCount = header.getInt();
+            long[] lengths = sectionLengths(nodeCount, edgeCount);
+            long expected = HEADER_BYTES;
+            for(long length : lengths){
+                expected += length;
+            }
+            if(channel.size() != expected) throw new IOException("Truncated graph file " + file);
+
+            //the mappings stay valid after the channel is closed
+            ByteBuffer[] sections = new ByteBuffer[lengths.length];
+            long position = HEADER_BYTES;
+            for(int i = 0; i < lengths.length; i++){
+                sections[i] = channel.map(FileChannel.MapMode.READ_ONLY, position, lengths[i])
+                        .order(ByteOrder.LITTLE_ENDIAN);
+                position += lengths[i];
+            }
+            return new MappedMultigraph(nodeCount, edgeCount, sections);
+        }
+    }
+
+    /**
+     * Writes graph to file in the format read by open, replacing any existing file.  The arrays are
+     * streamed through a small buffer, so writing does not need a second copy of the graph in memory.
+     * @spec.requires graph != null and file != null
+     * @param graph the graph to write, its nodes and edges keep their ids
+     * @param file the file to write to
+     * @throws IOException if file cannot be written
+     * @throws IllegalArgumentException if graph has too many edges to map
+     */
+    public static void write(DoubleWeightedGraph graph, Path file) throws IOException {
+        int nodeCount = graph.size(), edgeCount = graph.edgeCount();
+        sectionLengths(nodeCount, edgeCount);
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING)){
+            ByteBuffer buffer = ByteBuffer.allocate(WRITE_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(nodeCount).putInt(edgeCount);
+            for(int e = 0; e < edgeCount; e++){
+                buffer = reserve(channel, buffer, Double.BYTES).putDouble(graph.weightOf(e));
+            }
+            for(int i = 0; i < nodeCount; i++){
+                buffer = reserve(channel, buffer, Integer.BYTES).putInt(graph.childStart(i));
+            }
+            buffer = reserve(channel, buffer, Integer.BYTES).putInt(edgeCount);
+            for(int e = 0; e < edgeCount; e++){
+                buffer = reserve(channel, buffer, Integer.BYTES).putInt(graph.parentOf(e));
+            }
+            for(int e = 0; e < edgeCount; e++){
+                buffer = reserve(channel, buffer, Integer.BYTES).putInt(graph.childOf(e));
+            }
+            for(int i = 0; i < nodeCount; i++){
+                buffer = reserve(channel, buffer, Integer.BYTES).putInt(graph.parentStart(i));
+            }
+            buffer = reserve(channel, buffer, Integer.BYTES).putInt(edgeCount);
+            for(int i = 0; i < edgeCount; i++){
+                buffer = reserve(channel, buffer, Integer.BYTES).putInt(graph.parentEdge(i));
+            }
+            flush(channel, buffer);
+        }
+    }
+
+    /**
+     * Returns the byte length of each section of a graph file
+     * @param nodeCount the number of nodes
+     * @param edgeCount the number of edges
+     * @return the section lengths, in file order
+     * @throws IllegalArgumentException if a count is negative or a section would not fit in one mapping
+     */
+    private static long[] sectionLengths(int nodeCount, int edgeCount){
+        if(nodeCount < 0 || edgeCount < 0) throw new IllegalArgumentException("Negative graph size");
+        long offsets = (nodeCount + 1L) * Integer.BYTES, ids = (long) edgeCount * Integer.BYTES,
+                weights = (long) edgeCount * Double.BYTES;
+        if(weights > Integer.MAX_VALUE || offsets > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Graph too large to map");
+        return new long[]{weights, offsets, ids, ids, offsets, ids};
+    }
+
+    /**
+     * Makes room for bytes more bytes in buffer, writing out its contents if it is full
+     * @param channel the channel to write to
+     * @param buffer the buffer being filled
+     * @param bytes the number of bytes about to be put
+     * @return buffer
+     * @throws IOException if the channel cannot be written
+     */
+    private static ByteBuffer reserve(FileChannel channel, ByteBuffer buffer, int bytes) throws IOException {
+        if(buffer.remaining() < bytes) flush(channel, buffer);
+        return buffer;
+    }
+
+    /**
+     * Writes out and empties buffer
+     * @param channel the channel to write to
+     * @param buffer the buffer to write out
+     * @throws IOException if the channel cannot be written
+     */
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while(buffer.hasRemaining()){
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Returns the number of nodes in the graph
+     * @return the number of nodes in the graph
+     */
+    @Override
+    public int size() {
+        return nodeCount;
+    }
+
+    /**
+     * Returns a list containing the id of every node in the graph, in order
+     * Note that the returned list will have at most one of each element (no duplicates)
+     * @return the list of nodes in the graph
+     */
+    @Override
+    public List<Integer> listNodes() {
+        List<Integer> ret = new ArrayList<>(nodeCount);
+        for(int i = 0; i < nodeCount; i++){
+            ret.add(i);
+        }
+        return ret;
+    }
+
+    /**
+     * Returns a list of edges that terminate at childNode
+     * @param childNode the node that all returned edges should terminate at
+     * @spec.requires this.containsNode(childNode)
+     * @return the list of edges that terminate at childNode
+     * @throws NoSuchElementException if this does not contain childNode
+     */
+    @Override
+    public List<Edge<Integer, Double>> listParentEdges(Integer childNode) {
+        return new ArrayList<>(parentEdges(childNode));
+    }
+
+    /**
+     * Returns the list of edges that originate at parentNode
+     * @param parentNode the node that all returned edges should originate at
+     * @spec.requires this.containsNode(parentNode)
+     * @return the list of edges that originate at parentNode
+     * @throws NoSuchElementException if this does not contain parentNode
+     */
+    @Override
+    public List<Edge<Integer, Double>> listChildEdges(Integer parentNode) {
+        return new ArrayList<>(childEdges(parentNode));
+    }
+
+    /**
+     * Returns a list of all the edges in the graph.  This creates an Edge on the heap for every edge, which
+     * may not fit for the large graphs this class is meant for; prefer forEachEdge or the id based methods.
+     * @return a list of all the edges in the graph
+     */
+    @Override
+    public List<Edge<Integer, Double>> listEdges() {
+        List<Edge<Integer, Double>> ret = new ArrayList<>(edgeCount);
+        forEachEdge(ret::add);
+        return ret;
+    }
+
+    /**
+     * Checks if the graph contains the node label
+     * @param label the label of the node to check for
+     * @spec.requires label != null
+     * @return true if the graph contains the node label
+     */
+    @Override
+    public boolean containsNode(Integer label) {
+        return label != null && label >= 0 && label < nodeCount;
+    }
+
+    /**
+     * Checks if the graph contains the given edge
+     * The graph contains edge if this.ListEdges().contains(edge)
+     * @param edge the edge to check for
+     * @spec.requires edge != null
+     * @return true if the graph contains edge
+     */
+    @Override
+    public boolean containsEdge(Edge<Integer, Double> edge) {
+        if(!containsNode(edge.getParentNode()) || !containsNode(edge.getChildNode()) || edge.getLabel() == null)
+            return false;
+        int parent = edge.getParentNode(), child = edge.getChildNode();
+        for(int e = childOffsets.get(parent); e < childOffsets.get(parent + 1); e++){
+            if(edgeChildren.get(e) == child && Double.compare(edgeWeights.get(e), edge.getLabel()) == 0) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Checks if the graph contains any edge with the given label.  The graph may contain any positive number
+     * of edges label.  Scans every weight in the graph.
+     * @param label the edge to check for
+     * @spec.requires label != null
+     * @return true if the graph contains at least one edge such that edge.label.equals(label)
+     */
+    @Override
+    public boolean containsEdge(Double label) {
+        if(label == null) return false;
+        for(int e = 0; e < edgeCount; e++){
+            if(Double.compare(edgeWeights.get(e), label) == 0) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Unsupported, this graph is immutable
+     * @param label ignored
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void addNode(Integer label) {
+        throw new UnsupportedOperationException("MappedMultigraph is immutable");
+    }
+
+    /**
+     * Unsupported, this graph is immutable
+     * @param edge ignored
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void addEdge(Edge<Integer, Double> edge) {
+        throw new UnsupportedOperationException("MappedMultigraph is immutable");
+    }
+
+    /**
+     * Unsupported, this graph is immutable
+     * @param label ignored
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void deleteNode(Integer label) {
+        throw new UnsupportedOperationException("MappedMultigraph is immutable");
+    }
+
+    /**
+     * Unsupported, this graph is immutable
+     * @param label ignored
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void deleteEdge(Double label) {
+        throw new UnsupportedOperationException("MappedMultigraph is immutable");
+    }
+
+    /**
+     * Unsupported, this graph is immutable
+     * @param edge ignored
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void deleteEdge(Edge<Integer, Double> edge) {
+        throw new UnsupportedOperationException("MappedMultigraph is immutable");
+    }
+
+    /**
+     * Returns a read-only view of the nodes in the graph
+     * @return a read-only view of the nodes in the graph
+     */
+    @Override
+    public Set<Integer> nodes() {
+        return new AbstractSet<>() {
+            @Override
+            public boolean contains(Object o) {
+                return o instanceof Integer && containsNode((Integer) o);
+            }
+
+            @Override
+            public Iterator<Integer> iterator() {
+                return new Iterator<>() {
+                    private int next = 0;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < nodeCount;
+                    }
+
+                    @Override
+                    public Integer next() {
+                        if(next >= nodeCount) throw new NoSuchElementException();
+                        return next++;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return nodeCount;
+            }
+        };
+    }
+
+    /**
+     * Returns a read-only view of the edges that originate at parentNode.  The edges are created as they are
+     * read, no list of the edges is built up front
+     * @param parentNode the node that all returned edges should originate at
+     * @spec.requires this.containsNode(parentNode)
+     * @return a read-only view of the edges that originate at parentNode
+     * @throws NoSuchElementException if this does not contain parentNode
+     */
+    @Override
+    public Collection<Edge<Integer, Double>> childEdges(Integer parentNode) {
+        int id = idOf(parentNode);
+        int start = childOffsets.get(id), end = childOffsets.get(id + 1);
+        return new AbstractList<>() {
+            @Override
+            public Edge<Integer, Double> get(int index) {
+                Objects.checkIndex(index, end - start);
+                return edgeAt(start + index);
+            }
+
+            @Override
+            public int size() {
+                return end - start;
+            }
+        };
+    }
+
+    /**
+     * Returns a read-only view of the edges that terminate at childNode.  The edges are created as they are
+     * read, no list of the edges is built up front
+     * @param childNode the node that all returned edges should terminate at
+     * @spec.requires this.containsNode(childNode)
+     * @return a read-only view of the edges that terminate at childNode
+     * @throws NoSuchElementException if this does not contain childNode
+     */
+    @Override
+    public Collection<Edge<Integer, Double>> parentEdges(Integer childNode) {
+        int id = idOf(childNode);
+        int start = parentOffsets.get(id), end = parentOffsets.get(id + 1);
+        return new AbstractList<>() {
+            @Override
+            public Edge<Integer, Double> get(int index) {
+                Objects.checkIndex(index, end - start);
+                return edgeAt(parentEdges.get(start + index));
+            }
+
+            @Override
+            public int size() {
+                return end - start;
+            }
+        };
+    }
+
+    /**
+     * Performs action on every edge that originates at parentNode, without copying the edges into a list.
+     * @param parentNode the node that all visited edges should originate at
+     * @param action the action to perform on each edge
+     * @spec.requires this.containsNode(parentNode) and action != null
+     * @throws NoSuchElementException if this does not contain parentNode
+     */
+    @Override
+    public void forEachChildEdge(Integer parentNode, Consumer<? super Edge<Integer, Double>> action) {
+        int id = idOf(parentNode);
+        for(int e = childOffsets.get(id); e < childOffsets.get(id + 1); e++){
+            action.accept(edgeAt(e));
+        }
+    }
+
+    /**
+     * Performs action on every edge that terminates at childNode, without copying the edges into a list.
+     * @param childNode the node that all visited edges should terminate at
+     * @param action the action to perform on each edge
+     * @spec.requires this.containsNode(childNode) and action != null
+     * @throws NoSuchElementException if this does not contain childNode
+     */
+    @Override
+    public void forEachParentEdge(Integer childNode, Consumer<? super Edge<Integer, Double>> action) {
+        int id = idOf(childNode);
+        for(int i = parentOffsets.get(id); i < parentOffsets.get(id + 1); i++){
+            action.accept(edgeAt(parentEdges.get(i)));
+        }
+    }
+
+    /**
+     * Performs action on every edge in the graph, without copying the edges into a list.
+     * @param action the action to perform on each edge
+     * @spec.requires action != null
+     */
+    @Override
+    public void forEachEdge(Consumer<? super Edge<Integer, Double>> action) {
+        for(int e = 0; e < edgeCount; e++){
+            action.accept(edgeAt(e));
+        }
+    }
+
+    /**
+     * Returns a stream of the edges in the graph, in edge id order.  The stream splits evenly by edge id and
+     * knows its exact size, so parallel pipelines divide the edges evenly between cores.
+     * @return a stream of the edges in the graph
+     */
+    @Override
+    public Stream<Edge<Integer, Double>> edgeStream() {
+        return IntStream.range(0, edgeCount).mapToObj(this::edgeAt);
+    }
+
+    /**
+     * Returns this graph, which is already immutable and compact
+     * @return this
+     */
+    @Override
+    public MappedMultigraph freeze() {
+        return this;
+    }
+
+    /**
+     * Returns the total number of edges in the graph
+     * @return the number of edges in the graph
+     */
+    @Override
+    public int edgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * Returns the number of edges that originate at node, read from the row offsets
+     * @param node the node to count the child edges of
+     * @spec.requires this.containsNode(node)
+     * @return the number of edges that originate at node
+     * @throws NoSuchElementException if this does not contain node
+     */
+    @Override
+    public int outDegree(Integer node) {
+        int id = idOf(node);
+        return childOffsets.get(id + 1) - childOffsets.get(id);
+    }
+
+    /**
+     * Returns the number of edges that terminate at node, read from the reverse row offsets
+     * @param node the node to count the parent edges of
+     * @spec.requires this.containsNode(node)
+     * @return the number of edges that terminate at node
+     * @throws NoSuchElementException if this does not contain node
+     */
+    @Override
+    public int inDegree(Integer node) {
+        int id = idOf(node);
+        return parentOffsets.get(id + 1) - parentOffsets.get(id);
+    }
+
+    /**
+     * Returns the largest number of edges connected to any one node.  Finding it reads both offset sections,
+     * so it is computed on first use rather than when the file is opened, then remembered.
+     * @return the largest outDegree(n) + inDegree(n) over all nodes n, or 0 if the graph has no nodes
+     */
+    @Override
+    public int maxDegree() {
+        if(maxDegree < 0){
+            int max = 0;
+            for(int i = 0; i < nodeCount; i++){
+                max = Math.max(max, childOffsets.get(i + 1) - childOffsets.get(i)
+                        + parentOffsets.get(i + 1) - parentOffsets.get(i));
+            }
+            maxDegree = max;
+        }
+        return maxDegree;
+    }
+
+    /**
+     * Returns the index of the first child edge of the node with the given id.  The child edges of the node
+     * are the edge indices in [childStart(id), childEnd(id))
+     * @param id the id of the parent node
+     * @spec.requires 0 <= id < this.size()
+     * @return the index of the first child edge of node id
+     */
+    @Override
+    public int childStart(int id) {
+        return childOffsets.get(id);
+    }
+
+    /**
+     * Returns one past the index of the last child edge of the node with the given id
+     * @param id the id of the parent node
+     * @spec.requires 0 <= id < this.size()
+     * @return one past the index of the last child edge of node id
+     */
+    @Override
+    public int childEnd(int id) {
+        return childOffsets.get(id + 1);
+    }
+
+    /**
+     * Returns the position of the first parent edge of the node with the given id
+     * @param id the id of the child node
+     * @spec.requires 0 <= id < this.size()
+     * @return the position of the first parent edge of node id
+     */
+    @Override
+    public int parentStart(int id) {
+        return parentOffsets.get(id);
+    }
+
+    /**
+     * Returns one past the position of the last parent edge of the node with the given id
+     * @param id the id of the child node
+     * @spec.requires 0 <= id < this.size()
+     * @return one past the position of the last parent edge of node id
+     */
+    @Override
+    public int parentEnd(int id) {
+        return parentOffsets.get(id + 1);
+    }
+
+    /**
+     * Returns the edge index stored at the given position of the parent edge table
+     * @param position the position in the parent edge table
+     * @spec.requires 0 <= position < this.edgeCount()
+     * @return the index of the edge at position
+     */
+    @Override
+    public int parentEdge(int position) {
+        return parentEdges.get(position);
+    }
+
+    /**
+     * Returns the id of the node the edge with the given index originates at
+     * @param edge the index of the edge
+     * @spec.requires 0 <= edge < this.edgeCount()
+     * @return the id of the parent node of edge
+     */
+    @Override
+    public int parentOf(int edge) {
+        return edgeParents.get(edge);
+    }
+
+    /**
+     * Returns the id of the node the edge with the given index terminates at
+     * @param edge the index of the edge
+     * @spec.requires 0 <= edge < this.edgeCount()
+     * @return the id of the child node of edge
+     */
+    @Override
+    public int childOf(int edge) {
+        return edgeChildren.get(edge);
+    }
+
+    /**
+     * Returns the weight of the edge with the given index
+     * @param edge the index of the edge
+     * @spec.requires 0 <= edge < this.edgeCount()
+     * @return the weight of edge
+     */
+    @Override
+    public double weightOf(int edge) {
+        return edgeWeights.get(edge);
+    }
+
+    /**
+     * Checks that node is a node of the graph
+     * @param node the node to check
+     * @return node as an int
+     * @throws NoSuchElementException if this does not contain node
+     */
+    private int idOf(Integer node){
+        if(!containsNode(node)) throw new NoSuchElementException();
+        return node;
+    }
+
+    /**
+     * Builds the Edge object for the edge with the given index
+     * @param e the index of the edge
+     * @return the edge
+     */
+    private Edge<Integer, Double> edgeAt(int e){
+        return new Edge<>(edgeParents.get(e), edgeChildren.get(e), edgeWeights.get(e));
+    }
+
+    /**
+     * Checks if the representation invariant is currently met
+     */
+    private void checkRep(){
+        assert childOffsets.limit() == nodeCount + 1 && parentOffsets.limit() == nodeCount + 1;
+        assert edgeWeights.limit() == edgeCount && edgeParents.limit() == edgeCount;
+        assert edgeChildren.limit() == edgeCount && parentEdges.limit() == edgeCount;
+        if(debug){
+            assert childOffsets.get(0) == 0 && childOffsets.get(nodeCount) == edgeCount;
+            assert parentOffsets.get(0) == 0 && parentOffsets.get(nodeCount) == edgeCount;
+            for(int i = 0; i < nodeCount; i++){
+                assert childOffsets.get(i) <= childOffsets.get(i + 1);
+                assert parentOffsets.get(i) <= parentOffsets.get(i + 1);
+                for(int e = childOffsets.get(i); e < childOffsets.get(i + 1); e++){
+                    assert edgeParents.get(e) == i;
+                }
+            }
+            for(int e = 0; e < edgeCount; e++){
+                assert 0 <= edgeChildren.get(e) && edgeChildren.get(e) < nodeCount;
+            }
+        }
+    }
+}
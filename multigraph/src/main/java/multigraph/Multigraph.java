@@ -5,8 +5,9 @@
 
 package multigraph;
 
-import java.util.List;
-import java.util.NoSuchElementException;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 public interface Multigraph<N, E> {
     /**
@@ -125,4 +126,176 @@ public interface Multigraph<N, E> {
      * @throws NoSuchElementException if this does not contain edge.parentNode or edge.childNode
      */
     public void deleteEdge(Edge<N, E> edge);
+
+    /**
+     * Returns a read-only set of the nodes in the graph.  The default copies the nodes into a new set, so the
+     * set does not reflect later changes to the graph.  Implementations may instead return a live view, which
+     * reflects later changes and must not be used while the graph is being modified.
+     * @return a read-only set of the nodes in the graph
+     */
+    public default Set<N> nodes(){
+        return Collections.unmodifiableSet(new HashSet<>(listNodes()));
+    }
+
+    /**
+     * Returns an index assigning every node in the graph a dense id in [0, size()).  The index is a snapshot:
+     * it does not reflect nodes added or deleted after it was returned, so algorithms should fetch it once per
+     * run, look each node's id up in it, and keep per node state in arrays indexed by id.
+     * @return an index of the nodes in the graph
+     */
+    public default NodeIndex<N> nodeIndex(){
+        return new NodeIndex<>(nodes());
+    }
+
+    /**
+     * Returns whether nodeIndex hands back an index the graph keeps until its nodes change, rather than
+     * building a new one from every node on each call.  Searches only pay for dense per node arrays when the
+     * index is kept; the default builds a new one, so it returns false.
+     * @return true if nodeIndex is cheap to call once per search
+     */
+    public default boolean hasStableNodeIndex(){
+        return false;
+    }
+
+    /**
+     * Returns a read-only view of the edges that originate at parentNode.  Unlike listChildEdges, no copy
+     * is made where the implementation allows it, so the view must not be used while the graph is being modified.
+     * @param parentNode the node that all returned edges should originate at
+     * @spec.requires this.containsNode(parentNode)
+     * @return a read-only view of the edges that originate at parentNode
+     * @throws NoSuchElementException if this does not contain parentNode
+     */
+    public default Collection<Edge<N, E>> childEdges(N parentNode){
+        return Collections.unmodifiableList(listChildEdges(parentNode));
+    }
+
+    /**
+     * Returns a read-only view of the edges that terminate at childNode.  Unlike listParentEdges, no copy
+     * is made where the implementation allows it, so the view must not be used while the graph is being modified.
+     * @param childNode the node that all returned edges should terminate at
+     * @spec.requires this.containsNode(childNode)
+     * @return a read-only view of the edges that terminate at childNode
+     * @throws NoSuchElementException if this does not contain childNode
+     */
+    public default Collection<Edge<N, E>> parentEdges(N childNode){
+        return Collections.unmodifiableList(listParentEdges(childNode));
+    }
+
+    /**
+     * Performs action on every edge that originates at parentNode, without copying the edges into a list.
+     * action must not modify the graph.
+     * @param parentNode the node that all visited edges should originate at
+     * @param action the action to perform on each edge
+     * @spec.requires this.containsNode(parentNode) and action != null
+     * @throws NoSuchElementException if this does not contain parentNode
+     */
+    public default void forEachChildEdge(N parentNode, Consumer<? super Edge<N, E>> action){
+        listChildEdges(parentNode).forEach(action);
+    }
+
+    /**
+     * Performs action on every edge that terminates at childNode, without copying the edges into a list.
+     * action must not modify the graph.
+     * @param childNode the node that all visited edges should terminate at
+     * @param action the action to perform on each edge
+     * @spec.requires this.containsNode(childNode) and action != null
+     * @throws NoSuchElementException if this does not contain childNode
+     */
+    public default void forEachParentEdge(N childNode, Consumer<? super Edge<N, E>> action){
+        listParentEdges(childNode).forEach(action);
+    }
+
+    /**
+     * Performs action on every edge in the graph, without copying the edges into a list.
+     * action must not modify the graph.
+     * @param action the action to perform on each edge
+     * @spec.requires action != null
+     */
+    public default void forEachEdge(Consumer<? super Edge<N, E>> action){
+        listEdges().forEach(action);
+    }
+
+    /**
+     * Returns the number of edges in the graph.  Implementations keep this count as the graph changes where
+     * they can, so it is cheaper than listEdges().size().
+     * @return the number of edges in the graph
+     */
+    public default int edgeCount(){
+        return listEdges().size();
+    }
+
+    /**
+     * Returns the number of edges that originate at node
+     * @param node the node to count the child edges of
+     * @spec.requires this.containsNode(node)
+     * @return the number of edges that originate at node
+     * @throws NoSuchElementException if this does not contain node
+     */
+    public default int outDegree(N node){
+        return childEdges(node).size();
+    }
+
+    /**
+     * Returns the number of edges that terminate at node
+     * @param node the node to count the parent edges of
+     * @spec.requires this.containsNode(node)
+     * @return the number of edges that terminate at node
+     * @throws NoSuchElementException if this does not contain node
+     */
+    public default int inDegree(N node){
+        return parentEdges(node).size();
+    }
+
+    /**
+     * Returns the largest number of edges connected to any one node.  A self loop counts twice, once as a
+     * child edge and once as a parent edge.
+     * @return the largest outDegree(n) + inDegree(n) over all nodes n, or 0 if the graph has no nodes
+     */
+    public default int maxDegree(){
+        int max = 0;
+        for(N node : nodes()){
+            max = Math.max(max, outDegree(node) + inDegree(node));
+        }
+        return max;
+    }
+
+    /**
+     * Returns a stream of the nodes in the graph.  The stream can be made parallel, and is backed by the
+     * graph where the implementation allows it, so the graph must not be modified while the stream is in use.
+     * @return a stream of the nodes in the graph
+     */
+    public default Stream<N> nodeStream(){
+        return nodes().stream();
+    }
+
+    /**
+     * Returns a stream of the edges in the graph.  Implementations stream the edges straight out of their
+     * internal structures where they can, with a spliterator that splits well for parallel pipelines, so the
+     * graph must not be modified while the stream is in use.
+     * @return a stream of the edges in the graph
+     */
+    public default Stream<Edge<N, E>> edgeStream(){
+        return listEdges().stream();
+    }
+
+    /**
+     * Returns an immutable graph with the same nodes and edges as this graph, laid out in compressed sparse
+     * row form for fast reads.  The returned graph is safe to share between threads with no synchronization,
+     * and its mutating operations throw UnsupportedOperationException.  Graphs that are already immutable and
+     * compact return themselves.
+     * @return an immutable copy of this graph
+     */
+    public Multigraph<N, E> freeze();
+
+    /**
+     * Returns an immutable, thread-safe copy of graph, as described by freeze
+     * @param graph the graph to copy
+     * @spec.requires graph != null
+     * @return an immutable copy of graph
+     * @throws NullPointerException if graph == null
+     */
+    public static <N, E> Multigraph<N, E> immutableCopyOf(Multigraph<N, E> graph){
+        if(graph == null) throw new NullPointerException();
+        return graph.freeze();
+    }
 }
@@ -0,0 +1,173 @@
+/*
+ * Author: Ryan Nelson
+ * Provided as is without any warranty
+ */
+
+package multigraph;
+
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * This class collects the nodes and edges of a graph and then builds the graph in a single pass.  Given the
+ * expected number of nodes and edges up front, the builder and the NodeMultigraph it produces are sized once
+ * instead of growing through repeated rehashing, and the edges are validated against the nodes in the same
+ * pass that inserts them rather than by a containsNode check on every addEdge call.
+ * A builder may be reused, each build produces an independent graph of everything added so far.
+ */
+public final class MultigraphBuilder<N, E> {
+
+    /**
+     * Creates a new, empty builder
+     */
+    public MultigraphBuilder(){
+        this(16, 16);
+    }
+
+    /**
+     * Creates a new, empty builder sized to hold the given number of nodes and edges without resizing
+     * @spec.requires expectedNodes >= 0 and expectedEdges >= 0
+     * @param expectedNodes the number of distinct nodes expected
+     * @param expectedEdges the number of edges expected
+     * @throws IllegalArgumentException if expectedNodes or expectedEdges is negative
+     */
+    public MultigraphBuilder(int expectedNodes, int expectedEdges){
+        if(expectedNodes < 0 || expectedEdges < 0) throw new IllegalArgumentException();
+        this.nodes = new LinkedHashSet<>(capacityFor(expectedNodes));
+        this.edges = new ArrayList<>(expectedEdges);
+        this.expectedNodes = expectedNodes;
+        this.expectedEdges = expectedEdges;
+        checkRep();
+    }
+
+    //AF: the graph this builds has nodes nodes and edges edges, where repeated edges count once
+    //RI: nodes != null, edges != null, neither contains null
+    //      every edge in edges has a non-null label
+    //      expectedNodes >= 0, expectedEdges >= 0
+    private final LinkedHashSet<N> nodes;
+    private final ArrayList<Edge<N, E>> edges;
+    private final int expectedNodes;
+    private final int expectedEdges;
+    private static final boolean debug = false;
+
+    /**
+     * Adds a node to the graph being built.  Adding a node more than once has no further effect.
+     * @param node the node to add
+     * @spec.requires node != null
+     * @spec.modifies this
+     * @return this builder
+     * @throws NullPointerException if node == null
+     */
+    public MultigraphBuilder<N, E> addNode(N node){
+        if(node == null) throw new NullPointerException();
+        nodes.add(node);
+        return this;
+    }
+
+    /**
+     * Adds a batch of nodes to the graph being built
+     * @param batch the nodes to add
+     * @spec.requires batch != null and batch does not contain null
+     * @spec.modifies this
+     * @return this builder
+     * @throws NullPointerException if batch == null or batch contains null
+     */
+    public MultigraphBuilder<N, E> addNodes(Collection<? extends N> batch){
+        for(N node : batch){
+            addNode(node);
+        }
+        return this;
+    }
+
+    /**
+     * Adds an edge to the graph being built.  The edge's nodes need not have been added yet, but must be
+     * added before build is called.
+     * @param edge the edge to add
+     * @spec.requires edge != null and edge.label != null
+     * @spec.modifies this
+     * @return this builder
+     * @throws NullPointerException if edge == null
+     * @throws IllegalArgumentException if edge.label == null
+     */
+    public MultigraphBuilder<N, E> addEdge(Edge<N, E> edge){
+        if(edge == null) throw new NullPointerException();
+        if(edge.getLabel() == null) throw new IllegalArgumentException();
+        edges.add(edge);
+        return this;
+    }
+
+    /**
+     * Adds a batch of edges to the graph being built
+     * @param batch the edges to add
+     * @spec.requires batch != null and every edge in batch is non-null with a non-null label
+     * @spec.modifies this
+     * @return this builder
+     * @throws NullPointerException if batch == null or batch contains null
+     * @throws IllegalArgumentException if an edge in batch has a null label
+     */
+    public MultigraphBuilder<N, E> addEdges(Collection<? extends Edge<N, E>> batch){
+        edges.ensureCapacity(edges.size() + batch.size());
+        for(Edge<N, E> edge : batch){
+            addEdge(edge);
+        }
+        return this;
+    }
+
+    /**
+     * Builds a NodeMultigraph containing every node and edge added so far
+     * @return the built graph
+     * @throws NoSuchElementException if an edge connects a node that was never added
+     */
+    public NodeMultigraph<N, E> build(){
+        NodeMultigraph<N, E> graph = new NodeMultigraph<>(Math.max(expectedNodes, nodes.size()),
+                Math.max(expectedEdges, edges.size()));
+        graph.addAll(nodes, edges);
+        return graph;
+    }
+
+    /**
+     * Builds a graph of any implementation containing every node and edge added so far.  Every edge is
+     * validated before the graph is created, so an invalid edge never leaves a partly built graph behind.
+     * @param factory creates the empty graph to fill
+     * @spec.requires factory != null and factory returns an empty, mutable graph
+     * @return the built graph
+     * @throws NoSuchElementException if an edge connects a node that was never added
+     */
+    public <G extends Multigraph<N, E>> G build(Supplier<G> factory){
+        for(Edge<N, E> edge : edges){
+            if(!nodes.contains(edge.getParentNode()) || !nodes.contains(edge.getChildNode()))
+                throw new NoSuchElementException();
+        }
+        G graph = factory.get();
+        for(N node : nodes){
+            graph.addNode(node);
+        }
+        for(Edge<N, E> edge : edges){
+            graph.addEdge(edge);
+        }
+        return graph;
+    }
+
+    /**
+     * Returns the HashMap capacity that holds the given number of entries without resizing
+     * @param expected the number of entries expected
+     * @return the initial capacity to use
+     */
+    static int capacityFor(int expected){
+        return (int) Math.min(1 << 30, (long) Math.ceil(expected / 0.75));
+    }
+
+    /**
+     * Checks if the representation invariant is currently met
+     */
+    private void checkRep(){
+        assert nodes != null && edges != null;
+        assert expectedNodes >= 0 && expectedEdges >= 0;
+        if(debug){
+            assert !nodes.contains(null);
+            for(Edge<N, E> edge : edges){
+                assert edge != null && edge.getLabel() != null;
+            }
+        }
+    }
+}
@@ -0,0 +1,305 @@
+/*
+ * Author: Ryan Nelson
+ * Provided as is without any warranty
+ */
+
+package multigraph;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Utility class that saves multigraphs in a compact, versioned binary format and loads them back, streaming
+ * through a small buffer over NIO channels.  Node and edge labels are converted to bytes by pluggable codecs.
+ * Loading a saved graph skips parsing and per edge validation, so it is much faster than rebuilding the graph
+ * from its source data.
+ *
+ * <p>The format is big-endian:
+ * <pre>
+ *   int magic, int version, int nodeCodecSize, int edgeCodecSize, int nodeCount, int edgeCount
+ *   node table: nodeCount node labels, a node's position in the table is its id
+ *   adjacency: for each node id in order, int childCount then childCount pairs of (int childId, edge label)
+ * </pre>
+ * A label whose codec has no fixed size is preceded by its length as an int.  The codec sizes are recorded so
+ * that reading with codecs of a different size fails instead of returning garbage.
+ */
+public final class MultigraphSerializer {
+
+    private static final int MAGIC = 0x4D475346;
+    private static final int VERSION = 1;
+    private static final int BUFFER_BYTES = 1 << 16;
+
+    /**
+     * Don't allow instantiation of this class
+     */
+    private MultigraphSerializer(){}
+
+    /**
+     * Writes graph to channel
+     * @param graph the graph to write
+     * @param channel the channel to write to, left open
+     * @param nodeCodec encodes the nodes of graph
+     * @param edgeCodec encodes the edge labels of graph
+     * @spec.requires no argument is null
+     * @throws IOException if channel cannot be written
+     */
+    public static <N, E> void write(Multigraph<N, E> graph, WritableByteChannel channel,
+                                    Codec<? super N> nodeCodec, Codec<? super E> edgeCodec) throws IOException {
+        NodeIndex<N> index = graph.nodeIndex();
+        int edgeCount = 0;
+        for(N node : index.asList()){
+            edgeCount += graph.childEdges(node).size();
+        }
+        Writer out = new Writer(channel);
+        out.reserve(6 * Integer.BYTES)
+                .putInt(MAGIC).putInt(VERSION)
+                .putInt(nodeCodec.fixedSize()).putInt(edgeCodec.fixedSize())
+                .putInt(index.size()).putInt(edgeCount);
+        for(N node : index.asList()){
+            out.value(node, nodeCodec);
+        }
+        for(N node : index.asList()){
+            Collection<Edge<N, E>> children = graph.childEdges(node);
+            out.reserve(Integer.BYTES).putInt(children.size());
+            for(Edge<N, E> edge : children){
+                out.reserve(Integer.BYTES).putInt(index.idOf(edge.getChildNode()));
+                out.value(edge.getLabel(), edgeCodec);
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * Writes graph to file, replacing any existing file
+     * @param graph the graph to write
+     * @param file the file to write to
+     * @param nodeCodec encodes the nodes of graph
+     * @param edgeCodec encodes the edge labels of graph
+     * @spec.requires no argument is null
+     * @throws IOException if file cannot be written
+     */
+    public static <N, E> void write(Multigraph<N, E> graph, Path file,
+                                    Codec<? super N> nodeCodec, Codec<? super E> edgeCodec) throws IOException {
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING)){
+            write(graph, channel, nodeCodec, edgeCodec);
+        }
+    }
+
+    /**
+     * Reads a graph written by write from channel.  Every count and length read is checked against the bytes
+     * left in the channel before anything is allocated for it, so a corrupt file is rejected instead of
+     * running out of memory.
+     * @param channel the channel to read from, left open
+     * @param nodeCodec decodes the nodes, must match the codec the graph was written with
+     * @param edgeCodec decodes the edge labels, must match the codec the graph was written with
+     * @spec.requires no argument is null
+     * @return the graph read
+     * @throws IOException if channel cannot be read, or does not hold a graph of a supported version
+     *                     written with codecs of the same sizes, or the graph it holds is corrupt
+     */
+    public static <N, E> NodeMultigraph<N, E> read(ReadableByteChannel channel, Codec<? extends N> nodeCodec,
+                                                   Codec<? extends E> edgeCodec) throws IOException {
+        Reader in = new Reader(channel);
+        ByteBuffer header = in.require(6 * Integer.BYTES);
+        if(header.getInt() != MAGIC) throw new IOException("Not a graph file");
+        int version = header.getInt();
+        if(version != VERSION) throw new IOException("Unsupported graph file version " + version);
+        if(header.getInt() != nodeCodec.fixedSize() || header.getInt() != edgeCodec.fixedSize())
+            throw new IOException("Graph file was written with different codecs");
+        int nodeCount = header.getInt(), edgeCount = header.getInt();
+        if(nodeCount < 0 || edgeCount < 0) throw new IOException("Corrupt graph file");
+        //every node takes at least its label and child count, every edge at least its child id and label
+        long least = nodeCount * (Integer.BYTES + leastSize(nodeCodec))
+                + edgeCount * (Integer.BYTES + leastSize(edgeCodec));
+        if(least > in.bound()) throw new IOException("Corrupt graph file");
+        //a channel of unknown size bounds nothing, so only room for what one buffer could hold is made up front
+        int expectedNodes = in.sized() ? nodeCount : Math.min(nodeCount, BUFFER_BYTES);
+        int expectedEdges = in.sized() ? edgeCount : Math.min(edgeCount, BUFFER_BYTES);
+
+        List<N> nodes = new ArrayList<>(expectedNodes);
+        for(int i = 0; i < nodeCount; i++){
+            nodes.add(in.value(nodeCodec));
+        }
+        MultigraphBuilder<N, E> builder = new MultigraphBuilder<>(expectedNodes, expectedEdges);
+        builder.addNodes(nodes);
+        int read = 0;
+        for(N parent : nodes){
+            int childCount = in.require(Integer.BYTES).getInt();
+            if(childCount < 0 || childCount > edgeCount - read) throw new IOException("Corrupt graph file");
+            for(int i = 0; i < childCount; i++){
+                int child = in.require(Integer.BYTES).getInt();
+                if(child < 0 || child >= nodeCount) throw new IOException("Corrupt graph file");
+                builder.addEdge(new Edge<>(parent, nodes.get(child), in.value(edgeCodec)));
+            }
+            read += childCount;
+        }
+        if(read != edgeCount) throw new IOException("Corrupt graph file");
+        return builder.build();
+    }
+
+    /**
+     * Reads a graph written by write from file
+     * @param file the file to read from
+     * @param nodeCodec decodes the nodes, must match the codec the graph was written with
+     * @param edgeCodec decodes the edge labels, must match the codec the graph was written with
+     * @spec.requires no argument is null
+     * @return the graph read
+     * @throws IOException if file cannot be read, or does not hold a graph of a supported version
+     *                     written with codecs of the same sizes
+     */
+    public static <N, E> NodeMultigraph<N, E> read(Path file, Codec<? extends N> nodeCodec,
+                                                   Codec<? extends E> edgeCodec) throws IOException {
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)){
+            return read(channel, nodeCodec, edgeCodec);
+        }
+    }
+
+    /**
+     * Returns the fewest bytes a value written with codec can take up
+     * @param codec the codec the value was written with
+     * @return the size of codec's values if fixed, else the size of the length before each value
+     */
+    private static long leastSize(Codec<?> codec){
+        return codec.fixedSize() >= 0 ? codec.fixedSize() : Integer.BYTES;
+    }
+
+    /**
+     * Buffers bytes on their way to a channel
+     */
+    private static final class Writer {
+        private final WritableByteChannel channel;
+        private ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES);
+
+        Writer(WritableByteChannel channel){
+            this.channel = channel;
+        }
+
+        /**
+         * Makes room for bytes more bytes in the buffer, writing out or growing the buffer as needed
+         * @param bytes the number of bytes about to be put
+         * @return the buffer to put them in
+         * @throws IOException if the channel cannot be written
+         */
+        ByteBuffer reserve(int bytes) throws IOException {
+            if(buffer.remaining() < bytes){
+                flush();
+                if(buffer.capacity() < bytes) buffer = ByteBuffer.allocate(bytes);
+            }
+            return buffer;
+        }
+
+        /**
+         * Puts value into the buffer, preceded by its length if codec has no fixed size
+         * @param value the value to put
+         * @param codec the codec to encode value with
+         * @throws IOException if the channel cannot be written
+         */
+        <T> void value(T value, Codec<? super T> codec) throws IOException {
+            int size = codec.fixedSize();
+            if(size >= 0){
+                reserve(size);
+            }else{
+                size = codec.sizeOf(value);
+                reserve(Integer.BYTES + size).putInt(size);
+            }
+            int start = buffer.position();
+            codec.encode(value, buffer);
+            if(buffer.position() - start != size) throw new IllegalStateException("Codec wrote the wrong size");
+        }
+
+        /**
+         * Writes out and empties the buffer
+         * @throws IOException if the channel cannot be written
+         */
+        void flush() throws IOException {
+            buffer.flip();
+            while(buffer.hasRemaining()){
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+
+    /**
+     * Buffers bytes read from a channel
+     */
+    private static final class Reader {
+        private final ReadableByteChannel channel;
+        private ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES).flip();
+
+        Reader(ReadableByteChannel channel){
+            this.channel = channel;
+        }
+
+        /**
+         * Makes sure the buffer holds at least bytes unread bytes, reading more from the channel as needed
+         * @param bytes the number of bytes about to be read
+         * @return the buffer to read them from
+         * @throws IOException if the channel cannot be read or ends first
+         */
+        ByteBuffer require(int bytes) throws IOException {
+            if(buffer.remaining() >= bytes) return buffer;
+            if(bytes > bound()) throw new EOFException("Truncated graph file");
+            buffer.compact();
+            while(buffer.position() < bytes){
+                //grow only as bytes arrive, so a corrupt length from a channel of unknown size cannot allocate
+                //much more than the channel actually holds
+                if(!buffer.hasRemaining()){
+                    buffer = ByteBuffer.allocate((int) Math.min(bytes, 2L * buffer.capacity())).put(buffer.flip());
+                }
+                if(channel.read(buffer) < 0) throw new EOFException("Truncated graph file");
+            }
+            return buffer.flip();
+        }
+
+        /**
+         * Returns whether the channel knows how many bytes are left in it
+         * @return true if bound() is exact
+         */
+        boolean sized(){
+            return channel instanceof SeekableByteChannel;
+        }
+
+        /**
+         * Returns the most bytes that are left to read, buffered or still in the channel
+         * @return the number of unread bytes, or Long.MAX_VALUE if the channel does not know its size
+         * @throws IOException if the size of the channel cannot be read
+         */
+        long bound() throws IOException {
+            if(!sized()) return Long.MAX_VALUE;
+            SeekableByteChannel seekable = (SeekableByteChannel) channel;
+            return buffer.remaining() + Math.max(0, seekable.size() - seekable.position());
+        }
+
+        /**
+         * Reads a value written by Writer.value
+         * @param codec the codec to decode the value with
+         * @return the value read
+         * @throws IOException if the channel cannot be read or ends first
+         * @throws IllegalStateException if codec does not read exactly the bytes of the value
+         */
+        <T> T value(Codec<T> codec) throws IOException {
+            int size = codec.fixedSize();
+            if(size < 0){
+                size = require(Integer.BYTES).getInt();
+                if(size < 0 || size > bound()) throw new IOException("Corrupt graph file");
+            }
+            //decode from a slice of just this value, so a codec that reads too little cannot shift later values
+            ByteBuffer value = require(size).slice();
+            value.limit(size);
+            buffer.position(buffer.position() + size);
+            T decoded = codec.decode(value);
+            if(value.hasRemaining()) throw new IllegalStateException("Codec read the wrong size");
+            return decoded;
+        }
+    }
+}
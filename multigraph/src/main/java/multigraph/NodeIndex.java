@@ -0,0 +1,123 @@
+/*
+ * Author: Ryan Nelson
+ * Provided as is without any warranty
+ */
+
+package multigraph;
+
+import java.util.*;
+
+/**
+ * This immutable class represents a two way dictionary between the nodes of a graph and the dense ids
+ * [0, size()).  Algorithms that look a node's id up once can then keep their per node state, such as
+ * distances or visited flags, in plain arrays indexed by id instead of hash maps and sets keyed by node.
+ */
+public final class NodeIndex<N> {
+
+    /**
+     * Creates an index that interns the given nodes, in iteration order.  Repeated nodes share the id of
+     * their first occurrence.
+     * @spec.requires nodes != null and nodes does not contain null
+     * @param nodes the nodes to index
+     * @throws NullPointerException if nodes == null or nodes contains null
+     */
+    @SuppressWarnings("unchecked")
+    public NodeIndex(Collection<? extends N> nodes){
+        this.ids = new HashMap<>(Math.max(16, (int) (nodes.size() / 0.75f) + 1));
+        Object[] interned = new Object[nodes.size()];
+        int size = 0;
+        for(N node : nodes){
+            if(node == null) throw new NullPointerException();
+            if(ids.putIfAbsent(node, size) == null) interned[size++] = node;
+        }
+        this.nodes = (N[]) Arrays.copyOf(interned, size);
+        checkRep();
+    }
+
+    //AF: (this) maps node nodes[i] to id i for all 0 <= i < nodes.length
+    //RI: nodes != null, ids != null, nodes does not contain null or duplicates
+    //      ids.get(nodes[i]) == i for all i, ids.size() == nodes.length
+    private final N[] nodes;
+    private final HashMap<N, Integer> ids;
+    private static final boolean debug = false;
+
+    /**
+     * Returns the number of indexed nodes
+     * @return the number of indexed nodes
+     */
+    public int size(){
+        return nodes.length;
+    }
+
+    /**
+     * Checks if node is indexed
+     * @param node the node to check for
+     * @return true if node has an id
+     */
+    public boolean contains(Object node){
+        return node != null && ids.containsKey(node);
+    }
+
+    /**
+     * Returns the id of the given node
+     * @param node the node to look up
+     * @spec.requires this.contains(node)
+     * @return the id of node, in the range [0, this.size())
+     * @throws NoSuchElementException if node is not indexed
+     */
+    public int idOf(Object node){
+        Integer id = node == null ? null : ids.get(node);
+        if(id == null) throw new NoSuchElementException();
+        return id;
+    }
+
+    /**
+     * Returns the id of the given node, or -1 if it is not indexed
+     * @param node the node to look up
+     * @return the id of node, or -1
+     */
+    public int indexOf(Object node){
+        Integer id = node == null ? null : ids.get(node);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Returns the node with the given id
+     * @param id the id of the node
+     * @spec.requires 0 <= id < this.size()
+     * @return the node with the given id
+     */
+    public N nodeOf(int id){
+        return nodes[id];
+    }
+
+    /**
+     * Returns a read-only view of the indexed nodes, ordered by id
+     * @return a read-only list where get(i) is the node with id i
+     */
+    public List<N> asList(){
+        return Collections.unmodifiableList(Arrays.asList(nodes));
+    }
+
+    /**
+     * Returns a read-only view of the indexed nodes
+     * @return a read-only set of the indexed nodes
+     */
+    public Set<N> asSet(){
+        return Collections.unmodifiableSet(ids.keySet());
+    }
+
+    /**
+     * Checks if the representation invariant is currently met
+     */
+    private void checkRep(){
+        assert nodes != null && ids != null;
+        assert ids.size() == nodes.length;
+        if(debug){
+            for(int i = 0; i < nodes.length; i++){
+                assert nodes[i] != null;
+                assert ids.get(nodes[i]) == i;
+            }
+        }
+    }
+}
@@ -6,6 +6,9 @@
 package multigraph;
 
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class NodeMultigraph<N, E> implements Multigraph<N, E> {
 
@@ -14,6 +17,23 @@ public class NodeMultigraph<N, E> implements Multigraph<N, E> {
      */
     public NodeMultigraph(){
         graphMap = new HashMap<>();
+        parentMap = new HashMap<>();
+        labels = new LabelIndex<>();
+        histogram = new DegreeHistogram();
+        checkRep();
+    }
+
+    /**
+     * Creates a new, empty multigraph sized to hold the given number of nodes and edges without resizing
+     * @spec.requires expectedNodes >= 0 and expectedEdges >= 0
+     * @param expectedNodes the number of nodes expected
+     * @param expectedEdges the number of edges expected, which bounds the number of distinct labels
+     */
+    NodeMultigraph(int expectedNodes, int expectedEdges){
+        graphMap = new HashMap<>(MultigraphBuilder.capacityFor(expectedNodes));
+        parentMap = new HashMap<>(MultigraphBuilder.capacityFor(expectedNodes));
+        labels = new LabelIndex<>(expectedEdges);
+        histogram = new DegreeHistogram();
         checkRep();
     }
 
@@ -28,7 +48,11 @@ public class NodeMultigraph<N, E> implements Multigraph<N, E> {
         if(graph == null) throw new NullPointerException();
         for(N node : graph.graphMap.keySet()){
             graphMap.put(node, new HashSet<>(graph.graphMap.get(node)));
+            parentMap.put(node, new HashSet<>(graph.parentMap.get(node)));
         }
+        labels = new LabelIndex<>(graph.labels);
+        histogram = new DegreeHistogram(graph.histogram);
+        edgeCount = graph.edgeCount;
         checkRep();
     }
 
@@ -49,8 +73,14 @@ public class NodeMultigraph<N, E> implements Multigraph<N, E> {
     }
 
     //AF: (this) is a graph made up of nodes graphMap.keySet() and each node has child edges
-    //      graphMap.get(Node)
-    //RI: graphMap != null
+    //      graphMap.get(Node) and parent edges parentMap.get(Node)
+    //RI: graphMap != null, parentMap != null
+    //      parentMap.keySet() equals graphMap.keySet()
+    //      parentMap.get(N) contains exactly the edges in graphMap whose childNode is N
+    //      labels != null and indexes exactly the edges in graphMap
+    //      nodeIndex is null or indexes exactly the nodes in graphMap.keySet()
+    //      edgeCount is the number of edges in graphMap
+    //      histogram != null and records graphMap.get(n).size() + parentMap.get(n).size() for every node n
     //      all nodes in graphMap.keySet() are not null
     //      all sets in graphMap.get(N) are not null
     //          all edges in these sets are not null
@@ -58,6 +88,11 @@ public class NodeMultigraph<N, E> implements Multigraph<N, E> {
     //              graphMap.containsKey(childNode) must be true
     //              the node that this is mapped from in graphMap must be parentNode
     HashMap<N, Set<Edge<N,E>>> graphMap;
+    HashMap<N, Set<Edge<N,E>>> parentMap;
+    LabelIndex<N, E> labels;
+    NodeIndex<N> nodeIndex;
+    DegreeHistogram histogram;
+    int edgeCount;
     boolean debug = false;
 
     /**
@@ -88,18 +123,8 @@ public class NodeMultigraph<N, E> implements Multigraph<N, E> {
      */
     @Override
     public List<Edge<N, E>> listParentEdges(N childNode) {
-        List<Edge<N, E>> edgesList = new ArrayList<>();
-        if(!graphMap.containsKey(childNode)) throw new NoSuchElementException();
-        //iterate nodes
-        for(N node : graphMap.keySet()){
-            //iterate edges
-            for(Edge<N, E> edge : graphMap.get(node)){
-                if(edge.getChildNode().equals(childNode)){
-                    edgesList.add(edge);
-                }
-            }
-        }
-        return edgesList;
+        if(!parentMap.containsKey(childNode)) throw new NoSuchElementException();
+        return new ArrayList<>(parentMap.get(childNode));
     }
 
     /**
@@ -152,14 +177,8 @@ public class NodeMultigraph<N, E> implements Multigraph<N, E> {
      */
     @Override
     public boolean containsEdge(Edge<N, E> edge) {
-        //iterate nodes
-        for(N node : graphMap.keySet()){
-            //iterate edges
-            for(Edge<N, E> e : graphMap.get(node)){
-                if(e.equals(edge)) return true;
-            }
-        }
-        return false;
+        Set<Edge<N, E>> children = graphMap.get(edge.getParentNode());
+        return children != null && children.contains(edge);
     }
 
     /**
@@ -171,14 +190,7 @@ public class NodeMultigraph<N, E> implements Multigraph<N, E> {
      */
     @Override
     public boolean containsEdge(E label) {
-        //iterate nodes
-        for(N node : graphMap.keySet()){
-            //iterate edges
-            for(Edge<N, E> edge : graphMap.get(node)){
-                if(edge.getLabel().equals(label)) return true;
-            }
-        }
-        return false;
+        return labels.contains(label);
     }
 
     /**
@@ -193,6 +205,9 @@ public class NodeMultigraph<N, E> implements Multigraph<N, E> {
     public void addNode(N label) {
         if(graphMap.containsKey(label)) return;
         graphMap.put(label, new HashSet<>());
+        parentMap.put(label, new HashSet<>());
+        histogram.addNode();
+        nodeIndex = null;
     }
 
     /**
@@ -208,7 +223,39 @@ public class NodeMultigraph<N, E> implements Multigraph<N, E> {
     public void addEdge(Edge<N, E> edge) {
         if(!graphMap.containsKey(edge.getChildNode()) || !graphMap.containsKey(edge.getParentNode()))
             throw new NoSuchElementException();
-        graphMap.get(edge.getParentNode()).add(edge);
+        if(graphMap.get(edge.getParentNode()).add(edge)){
+            parentMap.get(edge.getChildNode()).add(edge);
+            labels.add(edge);
+            counted(edge, 1);
+        }
+    }
+
+    /**
+     * Adds every node in nodes and then every edge in edges, as addNode and addEdge would one at a time
+     * @param nodes the nodes to add
+     * @param edges the edges to add, connecting nodes of this graph or of nodes
+     * @spec.requires nodes != null, edges != null, neither contains null, every edge has a non-null label
+     * @spec.modifies this
+     * @spec.effects adds nodes and edges to (this)
+     * @throws NoSuchElementException if an edge connects a node that is in neither this graph nor nodes, in
+     *                                which case the nodes and the edges before it have been added
+     */
+    void addAll(Collection<? extends N> nodes, Collection<? extends Edge<N, E>> edges){
+        for(N node : nodes){
+            addNode(node);
+        }
+        //the lookups that validate each edge also find the sets it is inserted into
+        for(Edge<N, E> edge : edges){
+            Set<Edge<N, E>> children = graphMap.get(edge.getParentNode());
+            Set<Edge<N, E>> parents = parentMap.get(edge.getChildNode());
+            if(children == null || parents == null) throw new NoSuchElementException();
+            if(children.add(edge)){
+                parents.add(edge);
+                labels.add(edge);
+                counted(edge, 1);
+            }
+        }
+        checkRep();
     }
 
     /**
@@ -222,16 +269,28 @@ public class NodeMultigraph<N, E> implements Multigraph<N, E> {
      */
     @Override
     public void deleteNode(N label) {
-        if(graphMap.remove(label) == null) return;
-        //iterate nodes
-        for(N node : graphMap.keySet()){
-            //iterate edges
-            Iterator<Edge<N, E>> iter = graphMap.get(node).iterator();
-            while(iter.hasNext()){
-                //remove edge if child is removed node
-                if(iter.next().getChildNode().equals(label)) iter.remove();
+        Set<Edge<N, E>> children = graphMap.remove(label);
+        if(children == null) return;
+        Set<Edge<N, E>> parents = parentMap.remove(label);
+        nodeIndex = null;
+        //unlink outgoing edges from the nodes they terminate at
+        for(Edge<N, E> edge : children){
+            if(!edge.getChildNode().equals(label)){
+                parentMap.get(edge.getChildNode()).remove(edge);
+                shift(edge.getChildNode(), -1);
             }
+            labels.remove(edge);
+            edgeCount--;
+        }
+        //unlink incoming edges from the nodes they originate at, self loops were already removed above
+        for(Edge<N, E> edge : parents){
+            if(edge.getParentNode().equals(label)) continue;
+            graphMap.get(edge.getParentNode()).remove(edge);
+            shift(edge.getParentNode(), -1);
+            labels.remove(edge);
+            edgeCount--;
         }
+        histogram.removeNode(children.size() + parents.size());
     }
 
     /**
@@ -244,14 +303,10 @@ public class NodeMultigraph<N, E> implements Multigraph<N, E> {
      */
     @Override
     public void deleteEdge(E label) {
-        //iterate nodes
-        for(N node : graphMap.keySet()){
-            //iterate edges
-            Iterator<Edge<N, E>> iter = graphMap.get(node).iterator();
-            while(iter.hasNext()){
-                //remove edge if child is removed node
-                if(iter.next().getLabel().equals(label)) iter.remove();
-            }
+        for(Edge<N, E> edge : labels.removeAll(label)){
+            graphMap.get(edge.getParentNode()).remove(edge);
+            parentMap.get(edge.getChildNode()).remove(edge);
+            counted(edge, -1);
         }
     }
 
@@ -269,23 +324,222 @@ public class NodeMultigraph<N, E> implements Multigraph<N, E> {
     public void deleteEdge(Edge<N, E> edge) {
         if(!graphMap.containsKey(edge.getChildNode()) || !graphMap.containsKey(edge.getParentNode()))
             throw new NoSuchElementException();
-        //iterate nodes
-        for(N node : graphMap.keySet()){
-            //iterate edges
-            Iterator<Edge<N, E>> iter = graphMap.get(node).iterator();
-            while(iter.hasNext()){
-                //remove edge if child is removed node
-                if(iter.next().equals(edge)) iter.remove();
-            }
+        if(graphMap.get(edge.getParentNode()).remove(edge)){
+            parentMap.get(edge.getChildNode()).remove(edge);
+            labels.remove(edge);
+            counted(edge, -1);
         }
     }
 
+    /**
+     * Returns a read-only view of the nodes in the graph.  Unlike listNodes, no copy is made, so the view
+     * reflects later changes to the graph and must not be used while the graph is being modified.
+     * @return a read-only view of the nodes in the graph
+     */
+    @Override
+    public Set<N> nodes() {
+        return Collections.unmodifiableSet(graphMap.keySet());
+    }
+
+    /**
+     * Returns an index assigning every node in the graph a dense id.  The index is built on first use and
+     * kept until a node is added or deleted, so repeated searches over an unchanged set of nodes share it.
+     * @return an index of the nodes in the graph
+     */
+    @Override
+    public NodeIndex<N> nodeIndex() {
+        if(nodeIndex == null) nodeIndex = new NodeIndex<>(graphMap.keySet());
+        return nodeIndex;
+    }
+
+    /**
+     * Returns true, nodeIndex is kept until a node is added or deleted
+     * @return true
+     */
+    @Override
+    public boolean hasStableNodeIndex() {
+        return true;
+    }
+
+    /**
+     * Returns a read-only view of the edges that originate at parentNode.  Unlike listChildEdges, no copy
+     * is made, so the view must not be used while the graph is being modified.
+     * @param parentNode the node that all returned edges should originate at
+     * @spec.requires this.containsNode(parentNode)
+     * @return a read-only view of the edges that originate at parentNode
+     * @throws NoSuchElementException if this does not contain parentNode
+     */
+    @Override
+    public Collection<Edge<N, E>> childEdges(N parentNode) {
+        Set<Edge<N, E>> children = graphMap.get(parentNode);
+        if(children == null) throw new NoSuchElementException();
+        return Collections.unmodifiableSet(children);
+    }
+
+    /**
+     * Returns a read-only view of the edges that terminate at childNode.  Unlike listParentEdges, no copy
+     * is made, so the view must not be used while the graph is being modified.
+     * @param childNode the node that all returned edges should terminate at
+     * @spec.requires this.containsNode(childNode)
+     * @return a read-only view of the edges that terminate at childNode
+     * @throws NoSuchElementException if this does not contain childNode
+     */
+    @Override
+    public Collection<Edge<N, E>> parentEdges(N childNode) {
+        Set<Edge<N, E>> parents = parentMap.get(childNode);
+        if(parents == null) throw new NoSuchElementException();
+        return Collections.unmodifiableSet(parents);
+    }
+
+    /**
+     * Performs action on every edge that originates at parentNode, without copying the edges into a list.
+     * action must not modify the graph.
+     * @param parentNode the node that all visited edges should originate at
+     * @param action the action to perform on each edge
+     * @spec.requires this.containsNode(parentNode) and action != null
+     * @throws NoSuchElementException if this does not contain parentNode
+     */
+    @Override
+    public void forEachChildEdge(N parentNode, Consumer<? super Edge<N, E>> action) {
+        Set<Edge<N, E>> children = graphMap.get(parentNode);
+        if(children == null) throw new NoSuchElementException();
+        children.forEach(action);
+    }
+
+    /**
+     * Performs action on every edge that terminates at childNode, without copying the edges into a list.
+     * action must not modify the graph.
+     * @param childNode the node that all visited edges should terminate at
+     * @param action the action to perform on each edge
+     * @spec.requires this.containsNode(childNode) and action != null
+     * @throws NoSuchElementException if this does not contain childNode
+     */
+    @Override
+    public void forEachParentEdge(N childNode, Consumer<? super Edge<N, E>> action) {
+        Set<Edge<N, E>> parents = parentMap.get(childNode);
+        if(parents == null) throw new NoSuchElementException();
+        parents.forEach(action);
+    }
+
+    /**
+     * Performs action on every edge in the graph, without copying the edges into a list.
+     * action must not modify the graph.
+     * @param action the action to perform on each edge
+     * @spec.requires action != null
+     */
+    @Override
+    public void forEachEdge(Consumer<? super Edge<N, E>> action) {
+        for(Set<Edge<N, E>> children : graphMap.values()){
+            children.forEach(action);
+        }
+    }
+
+    /**
+     * Returns the number of edges in the graph, which is kept up to date as edges are added and deleted
+     * @return the number of edges in the graph
+     */
+    @Override
+    public int edgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * Returns the number of edges that originate at node
+     * @param node the node to count the child edges of
+     * @spec.requires this.containsNode(node)
+     * @return the number of edges that originate at node
+     * @throws NoSuchElementException if this does not contain node
+     */
+    @Override
+    public int outDegree(N node) {
+        Set<Edge<N, E>> children = graphMap.get(node);
+        if(children == null) throw new NoSuchElementException();
+        return children.size();
+    }
+
+    /**
+     * Returns the number of edges that terminate at node
+     * @param node the node to count the parent edges of
+     * @spec.requires this.containsNode(node)
+     * @return the number of edges that terminate at node
+     * @throws NoSuchElementException if this does not contain node
+     */
+    @Override
+    public int inDegree(N node) {
+        Set<Edge<N, E>> parents = parentMap.get(node);
+        if(parents == null) throw new NoSuchElementException();
+        return parents.size();
+    }
+
+    /**
+     * Returns the largest number of edges connected to any one node, which is kept up to date as the graph
+     * changes
+     * @return the largest outDegree(n) + inDegree(n) over all nodes n, or 0 if the graph has no nodes
+     */
+    @Override
+    public int maxDegree() {
+        return histogram.maxDegree();
+    }
+
+    /**
+     * Returns a stream of the edges in the graph, read straight out of the per node edge sets.  Splitting the
+     * stream divides the nodes between the halves, so parallel pipelines spread across all cores without
+     * building a list of the edges.  The graph must not be modified while the stream is in use.
+     * @return a stream of the edges in the graph
+     */
+    @Override
+    public Stream<Edge<N, E>> edgeStream() {
+        double perNode = graphMap.isEmpty() ? 0 : (double) edgeCount / graphMap.size();
+        return StreamSupport.stream(new FlatSpliterator<Set<Edge<N, E>>, Edge<N, E>>(graphMap.values().spliterator(),
+                children -> children, perNode, Spliterator.NONNULL | Spliterator.DISTINCT), false);
+    }
+
+    /**
+     * Returns an immutable copy of this graph, laid out in compressed sparse row form
+     * @return an immutable copy of this graph
+     */
+    @Override
+    public CsrMultigraph<N, E> freeze() {
+        return new CsrMultigraph<>(this);
+    }
+
+    /**
+     * Updates the edge count and the degree histogram once edge has been added to or removed from the edge sets
+     * of its nodes
+     * @param edge the edge added or removed
+     * @param delta 1 if edge was added, -1 if it was removed
+     */
+    private void counted(Edge<N, E> edge, int delta){
+        edgeCount += delta;
+        if(edge.getParentNode().equals(edge.getChildNode())){
+            shift(edge.getParentNode(), 2 * delta);
+        }else{
+            shift(edge.getParentNode(), delta);
+            shift(edge.getChildNode(), delta);
+        }
+    }
+
+    /**
+     * Moves node in the degree histogram once its edge sets have changed
+     * @param node the node whose degree changed
+     * @param delta the change in the total degree of node
+     */
+    private void shift(N node, int delta){
+        int degree = graphMap.get(node).size() + parentMap.get(node).size();
+        histogram.move(degree - delta, degree);
+    }
+
     /**
      * Checks if the representation invariant is currently met
      */
     private void checkRep(){
         assert graphMap != null;
+        assert parentMap != null;
+        assert labels != null;
+        assert histogram != null;
+        assert graphMap.size() == parentMap.size();
         if(debug){
+            int edges = 0, maxDegree = 0;
             for(N node : graphMap.keySet()){
                 assert node != null;
                 Set<Edge<N, E>> edgeSet = graphMap.get(node);
@@ -296,8 +550,18 @@ public class NodeMultigraph<N, E> implements Multigraph<N, E> {
                     assert edge.getParentNode() == node;
                     assert edge.getChildNode() != null;
                     assert graphMap.containsKey(edge.getChildNode());
+                    assert parentMap.get(edge.getChildNode()).contains(edge);
+                    assert labels.contains(edge.getLabel());
+                }
+                for(Edge<N, E> edge : parentMap.get(node)){
+                    assert edge.getChildNode() == node;
+                    assert graphMap.get(edge.getParentNode()).contains(edge);
                 }
+                maxDegree = Math.max(maxDegree, edgeSet.size() + parentMap.get(node).size());
+                edges += edgeSet.size();
             }
+            assert edgeCount == edges;
+            assert histogram.maxDegree() == maxDegree;
         }
     }
 }
@@ -0,0 +1,187 @@
+/*
+ * Author: Ryan Nelson
+ * Provided as is without any warranty
+ */
+
+package multigraph;
+
+import java.util.*;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Utility class of node orderings that give nodes which are close together in a graph ids which are close
+ * together.  Passing one to the CsrMultigraph or DoubleCsrMultigraph constructors lays the graph out so that a
+ * search, whose frontier spreads through neighbouring nodes, reads neighbouring memory instead of jumping to
+ * wherever hash order happened to place each node.
+ */
+public final class NodeOrdering {
+
+    //the Hilbert curve is drawn on a grid of 2^HILBERT_BITS by 2^HILBERT_BITS cells
+    private static final int HILBERT_BITS = 16;
+
+    /**
+     * Don't allow instantiation of this class
+     */
+    private NodeOrdering(){}
+
+    /**
+     * Orders nodes along a Hilbert curve through the bounding box of their coordinates.  The curve visits every
+     * cell of a square grid, filling one quadrant before moving to the next, so points that are near each other
+     * in the plane are mostly near each other along the curve.  Meant for graphs whose nodes are places, such as
+     * the points of a map.  Nodes in the same grid cell keep their relative order in nodes.
+     * @param nodes the nodes to order
+     * @param x returns the x coordinate of a node
+     * @param y returns the y coordinate of a node
+     * @spec.requires no argument is null, nodes does not contain null, all coordinates are finite
+     * @return an index giving the nodes ids in Hilbert curve order
+     * @throws NullPointerException if any argument is null or nodes contains null
+     */
+    public static <N> NodeIndex<N> hilbert(Collection<? extends N> nodes, ToDoubleFunction<? super N> x,
+                                           ToDoubleFunction<? super N> y){
+        List<N> list = new ArrayList<>(nodes);
+        int n = list.size();
+        double[] xs = new double[n], ys = new double[n];
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+        for(int i = 0; i < n; i++){
+            xs[i] = x.applyAsDouble(list.get(i));
+            ys[i] = y.applyAsDouble(list.get(i));
+            minX = Math.min(minX, xs[i]);
+            maxX = Math.max(maxX, xs[i]);
+            minY = Math.min(minY, ys[i]);
+            maxY = Math.max(maxY, ys[i]);
+        }
+        //a square box keeps the curve from stretching along the longer side
+        double extent = Math.max(maxX - minX, maxY - minY);
+        double scale = extent > 0 ? ((1 << HILBERT_BITS) - 1) / extent : 0;
+
+        //pack each distance above the node's position, so sorting orders by distance and then position
+        long[] keys = new long[n];
+        for(int i = 0; i < n; i++){
+            long d = hilbertDistance((int) ((xs[i] - minX) * scale), (int) ((ys[i] - minY) * scale));
+            keys[i] = d << 31 | i;
+        }
+        Arrays.sort(keys);
+        List<N> ordered = new ArrayList<>(n);
+        for(long key : keys){
+            ordered.add(list.get((int) (key & Integer.MAX_VALUE)));
+        }
+        return new NodeIndex<>(ordered);
+    }
+
+    /**
+     * Orders the nodes of graph by reverse Cuthill-McKee, which needs no coordinates.  Edge direction is
+     * ignored.  Each connected piece of the graph is walked breadth first from a node of lowest degree, visiting
+     * the neighbours of each node in order of increasing degree, and the final order is reversed.  Nodes that
+     * are joined by an edge end up with ids that differ by little, which keeps the edges of a node and the
+     * nodes they lead to close together in memory.
+     * @param graph the graph whose nodes to order
+     * @spec.requires graph != null
+     * @return an index giving the nodes of graph ids in reverse Cuthill-McKee order
+     * @throws NullPointerException if graph == null
+     */
+    public static <N> NodeIndex<N> reverseCuthillMcKee(Multigraph<N, ?> graph){
+        NodeIndex<N> index = graph.nodeIndex();
+        int n = index.size();
+
+        //undirected adjacency without repeats, each list sorted by increasing degree
+        int[][] neighbours = new int[n][];
+        int[] seenBy = new int[n];
+        Arrays.fill(seenBy, -1);
+        int[] scratch = new int[16];
+        for(int i = 0; i < n; i++){
+            N node = index.nodeOf(i);
+            int count = 0;
+            seenBy[i] = i;
+            for(Edge<N, ?> edge : graph.childEdges(node)){
+                int other = index.idOf(edge.getChildNode());
+                if(seenBy[other] == i) continue;
+                seenBy[other] = i;
+                if(count == scratch.length) scratch = Arrays.copyOf(scratch, 2 * count);
+                scratch[count++] = other;
+            }
+            for(Edge<N, ?> edge : graph.parentEdges(node)){
+                int other = index.idOf(edge.getParentNode());
+                if(seenBy[other] == i) continue;
+                seenBy[other] = i;
+                if(count == scratch.length) scratch = Arrays.copyOf(scratch, 2 * count);
+                scratch[count++] = other;
+            }
+            neighbours[i] = Arrays.copyOf(scratch, count);
+        }
+        for(int[] list : neighbours){
+            sortByDegree(list, neighbours);
+        }
+        int[] starts = new int[n];
+        for(int i = 0; i < n; i++){
+            starts[i] = i;
+        }
+        sortByDegree(starts, neighbours);
+
+        //breadth first search, using the order itself as the queue
+        int[] order = new int[n];
+        boolean[] visited = new boolean[n];
+        int tail = 0;
+        for(int start : starts){
+            if(visited[start]) continue;
+            visited[start] = true;
+            order[tail++] = start;
+            for(int head = tail - 1; head < tail; head++){
+                for(int next : neighbours[order[head]]){
+                    if(!visited[next]){
+                        visited[next] = true;
+                        order[tail++] = next;
+                    }
+                }
+            }
+        }
+        List<N> reversed = new ArrayList<>(n);
+        for(int i = n - 1; i >= 0; i--){
+            reversed.add(index.nodeOf(order[i]));
+        }
+        return new NodeIndex<>(reversed);
+    }
+
+    /**
+     * Returns the distance along the Hilbert curve of the grid cell (x, y)
+     * @param x the column of the cell
+     * @param y the row of the cell
+     * @spec.requires 0 <= x, y < 2^HILBERT_BITS
+     * @return the number of cells the curve passes through before reaching (x, y)
+     */
+    private static long hilbertDistance(int x, int y){
+        int side = 1 << HILBERT_BITS;
+        long d = 0;
+        for(int s = side / 2; s > 0; s /= 2){
+            int rx = (x & s) != 0 ? 1 : 0, ry = (y & s) != 0 ? 1 : 0;
+            d += (long) s * s * ((3 * rx) ^ ry);
+            //turn the quadrant so the curve inside it starts where the previous quadrant's ended
+            if(ry == 0){
+                if(rx == 1){
+                    x = side - 1 - x;
+                    y = side - 1 - y;
+                }
+                int t = x;
+                x = y;
+                y = t;
+            }
+        }
+        return d;
+    }
+
+    /**
+     * Sorts ids by increasing degree, breaking ties by id
+     * @param ids the ids to sort, in place
+     * @param neighbours the neighbours of every node, whose lengths are the degrees
+     */
+    private static void sortByDegree(int[] ids, int[][] neighbours){
+        long[] keys = new long[ids.length];
+        for(int i = 0; i < ids.length; i++){
+            keys[i] = (long) neighbours[ids[i]].length << 32 | ids[i];
+        }
+        Arrays.sort(keys);
+        for(int i = 0; i < ids.length; i++){
+            ids[i] = (int) keys[i];
+        }
+    }
+}
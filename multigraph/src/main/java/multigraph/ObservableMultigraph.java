@@ -0,0 +1,492 @@
+/*
+ * Author: Ryan Nelson
+ * Provided as is without any warranty
+ */
+
+package multigraph;
+
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * This class wraps another multigraph and tells registered GraphListeners exactly which nodes and edges each
+ * change adds or deletes.  Changes made through the wrapper are forwarded to the wrapped graph, which must not
+ * be modified directly while the wrapper is in use.  Changes can be grouped with batch so listeners see them
+ * together, and a coalescing graph reduces each batch to its net effect, dropping changes that were undone
+ * within the batch.  Like the graphs it wraps, this class is not safe for concurrent modification.
+ */
+public class ObservableMultigraph<N, E> implements Multigraph<N, E> {
+
+    /**
+     * Creates a new observable view of graph that delivers every change
+     * @spec.requires graph != null
+     * @param graph the graph to wrap
+     * @throws NullPointerException if graph == null
+     */
+    public ObservableMultigraph(Multigraph<N, E> graph){
+        this(graph, false);
+    }
+
+    /**
+     * Creates a new observable view of graph
+     * @spec.requires graph != null
+     * @param graph the graph to wrap
+     * @param coalesce whether each batch is reduced to its net changes before it is delivered
+     * @throws NullPointerException if graph == null
+     */
+    public ObservableMultigraph(Multigraph<N, E> graph, boolean coalesce){
+        if(graph == null) throw new NullPointerException();
+        this.graph = graph;
+        this.coalesce = coalesce;
+        this.listeners = new CopyOnWriteArrayList<>();
+        this.pending = new ArrayList<>();
+        checkRep();
+    }
+
+    //AF: (this) is the graph graph.  pending holds the changes of the open batches, batchDepth of which are open
+    //RI: graph != null, listeners != null, pending != null, batchDepth >= 0
+    //      pending is empty if batchDepth == 0
+    private final Multigraph<N, E> graph;
+    private final boolean coalesce;
+    private final List<GraphListener<N, E>> listeners;
+    private List<GraphEvent<N, E>> pending;
+    private int batchDepth;
+
+    /**
+     * Registers listener to be told about later changes
+     * @param listener the listener to add
+     * @spec.requires listener != null
+     * @spec.modifies this
+     * @spec.effects listener receives the events of every later change
+     * @throws NullPointerException if listener == null
+     */
+    public void addListener(GraphListener<N, E> listener){
+        if(listener == null) throw new NullPointerException();
+        listeners.add(listener);
+    }
+
+    /**
+     * Stops telling listener about changes.  If listener was never added, no action is taken.
+     * @param listener the listener to remove
+     * @spec.modifies this
+     * @spec.effects listener receives no events from later changes
+     */
+    public void removeListener(GraphListener<N, E> listener){
+        listeners.remove(listener);
+    }
+
+    /**
+     * Runs changes as one batch.  Events for the changes are held back until changes returns and then
+     * delivered to each listener in a single call.  Batches may be nested, in which case the events are
+     * delivered when the outermost batch ends.  If changes throws, the events of the changes it made before
+     * throwing are still delivered.
+     * @param changes modifies this graph
+     * @spec.requires changes != null
+     * @spec.modifies this
+     * @spec.effects whatever changes does to this graph
+     */
+    public void batch(Runnable changes){
+        batchDepth++;
+        try{
+            changes.run();
+        }finally{
+            if(--batchDepth == 0) flush();
+        }
+        checkRep();
+    }
+
+    /**
+     * Returns the number of nodes in the graph
+     * @return the number of nodes in the graph
+     */
+    @Override
+    public int size() {
+        return graph.size();
+    }
+
+    /**
+     * Returns a list containing the unique label of all the nodes in the graph
+     * @return the list of nodes in the graph
+     */
+    @Override
+    public List<N> listNodes() {
+        return graph.listNodes();
+    }
+
+    /**
+     * Returns a list of edges that terminate at childNode
+     * @param childNode the node that all returned edges should terminate at
+     * @spec.requires this.containsNode(childNode)
+     * @return the list of edges that terminate at childNode
+     * @throws NoSuchElementException if this does not contain childNode
+     */
+    @Override
+    public List<Edge<N, E>> listParentEdges(N childNode) {
+        return graph.listParentEdges(childNode);
+    }
+
+    /**
+     * Returns the list of edges that originate at parentNode
+     * @param parentNode the node that all returned edges should originate at
+     * @spec.requires this.containsNode(parentNode)
+     * @return the list of edges that originate at parentNode
+     * @throws NoSuchElementException if this does not contain parentNode
+     */
+    @Override
+    public List<Edge<N, E>> listChildEdges(N parentNode) {
+        return graph.listChildEdges(parentNode);
+    }
+
+    /**
+     * Returns a list of all the edges in the graph
+     * @return a list of all the edges in the graph
+     */
+    @Override
+    public List<Edge<N, E>> listEdges() {
+        return graph.listEdges();
+    }
+
+    /**
+     * Checks if the graph contains the node label
+     * @param label the label of the node to check for
+     * @spec.requires label != null
+     * @return true if the graph contains the node label
+     */
+    @Override
+    public boolean containsNode(N label) {
+        return graph.containsNode(label);
+    }
+
+    /**
+     * Checks if the graph contains the given edge
+     * @param edge the edge to check for
+     * @spec.requires edge != null
+     * @return true if the graph contains edge
+     */
+    @Override
+    public boolean containsEdge(Edge<N, E> edge) {
+        return graph.containsEdge(edge);
+    }
+
+    /**
+     * Checks if the graph contains any edge with the given label
+     * @param label the edge to check for
+     * @spec.requires label != null
+     * @return true if the graph contains at least one edge such that edge.label.equals(label)
+     */
+    @Override
+    public boolean containsEdge(E label) {
+        return graph.containsEdge(label);
+    }
+
+    /**
+     * Adds the given node label to the set of nodes, telling listeners if it was not already there
+     * @param label the node to add to the set
+     * @spec.requires label != null
+     * @spec.modifies this
+     * @spec.effects adds 1 or 0 instances of the node label to (this)
+     */
+    @Override
+    public void addNode(N label) {
+        boolean added = !listeners.isEmpty() && !graph.containsNode(label);
+        graph.addNode(label);
+        if(added) publish(GraphEvent.nodeAdded(label));
+    }
+
+    /**
+     * Adds the given edge to the graph, telling listeners if it was not already there
+     * @param edge the edge to add to the graph
+     * @spec.requires edge != null and edge.label != null and
+     *                this.containsNode(edge.parentNode) and this.containsNode(edge.childNode)
+     * @spec.modifies this
+     * @spec.effects Connects edge.parentNode to edge.childNode with a new edge label
+     * @throws NoSuchElementException if this does not contain edge.parentNode or edge.childNode
+     */
+    @Override
+    public void addEdge(Edge<N, E> edge) {
+        boolean added = !listeners.isEmpty() && !graph.containsEdge(edge);
+        graph.addEdge(edge);
+        if(added) publish(GraphEvent.edgeAdded(edge));
+    }
+
+    /**
+     * Removes the given node label and all edges connected to it from the graph, telling listeners about
+     * each edge and then the node.  If the graph does not contain the node, no action is taken.
+     * @param label the node to remove from the graph
+     * @spec.requires label != null
+     * @spec.modifies this
+     * @spec.effects Removes 1 or 0 instances of the node label from (this).
+     *               Deletes any edges that are connected to the node label
+     */
+    @Override
+    public void deleteNode(N label) {
+        if(listeners.isEmpty() || !graph.containsNode(label)){
+            graph.deleteNode(label);
+            return;
+        }
+        List<GraphEvent<N, E>> events = new ArrayList<>();
+        for(Edge<N, E> edge : graph.childEdges(label)){
+            events.add(GraphEvent.edgeDeleted(edge));
+        }
+        for(Edge<N, E> edge : graph.parentEdges(label)){
+            //self edges were already counted as child edges
+            if(!edge.getParentNode().equals(label)) events.add(GraphEvent.edgeDeleted(edge));
+        }
+        events.add(GraphEvent.nodeDeleted(label));
+        graph.deleteNode(label);
+        publish(events);
+    }
+
+    /**
+     * Removes all edges that have the given label, telling listeners about each one.  Finding the edges
+     * scans the whole graph while any listener is registered.
+     * @param label the label to remove all edges that have edge.label.equals(label)
+     * @spec.requires label != null
+     * @spec.modifies this
+     * @spec.effects Removes all edges that are labelled with label from the graph
+     */
+    @Override
+    public void deleteEdge(E label) {
+        if(listeners.isEmpty() || !graph.containsEdge(label)){
+            graph.deleteEdge(label);
+            return;
+        }
+        List<GraphEvent<N, E>> events = new ArrayList<>();
+        graph.forEachEdge(edge -> {
+            if(edge.getLabel().equals(label)) events.add(GraphEvent.edgeDeleted(edge));
+        });
+        graph.deleteEdge(label);
+        publish(events);
+    }
+
+    /**
+     * Removes edge from the graph, telling listeners if it was there
+     * @param edge the edge to remove all instances of
+     * @spec.requires edge != null and this.containsNode(edge.parentNode) and this.containsNode(edge.childNode)
+     * @spec.modifies this
+     * @spec.effects Removes edge from the graph
+     * @throws NoSuchElementException if this does not contain edge.parentNode or edge.childNode
+     */
+    @Override
+    public void deleteEdge(Edge<N, E> edge) {
+        boolean deleted = !listeners.isEmpty() && graph.containsEdge(edge);
+        graph.deleteEdge(edge);
+        if(deleted) publish(GraphEvent.edgeDeleted(edge));
+    }
+
+    /**
+     * Returns a read-only view of the nodes of the wrapped graph
+     * @return a read-only view of the nodes in the graph
+     */
+    @Override
+    public Set<N> nodes() {
+        return graph.nodes();
+    }
+
+    /**
+     * Returns an index assigning every node in the graph a dense id
+     * @return an index of the nodes in the graph
+     */
+    @Override
+    public NodeIndex<N> nodeIndex() {
+        return graph.nodeIndex();
+    }
+
+    /**
+     * Returns whether the wrapped graph keeps its node index
+     * @return true if the wrapped graph keeps its node index until its nodes change
+     */
+    @Override
+    public boolean hasStableNodeIndex() {
+        return graph.hasStableNodeIndex();
+    }
+
+    /**
+     * Returns a read-only view of the edges that originate at parentNode
+     * @param parentNode the node that all returned edges should originate at
+     * @spec.requires this.containsNode(parentNode)
+     * @return a read-only view of the edges that originate at parentNode
+     * @throws NoSuchElementException if this does not contain parentNode
+     */
+    @Override
+    public Collection<Edge<N, E>> childEdges(N parentNode) {
+        return graph.childEdges(parentNode);
+    }
+
+    /**
+     * Returns a read-only view of the edges that terminate at childNode
+     * @param childNode the node that all returned edges should terminate at
+     * @spec.requires this.containsNode(childNode)
+     * @return a read-only view of the edges that terminate at childNode
+     * @throws NoSuchElementException if this does not contain childNode
+     */
+    @Override
+    public Collection<Edge<N, E>> parentEdges(N childNode) {
+        return graph.parentEdges(childNode);
+    }
+
+    /**
+     * Performs action on every edge that originates at parentNode.  action must not modify the graph.
+     * @param parentNode the node that all visited edges should originate at
+     * @param action the action to perform on each edge
+     * @spec.requires this.containsNode(parentNode) and action != null
+     * @throws NoSuchElementException if this does not contain parentNode
+     */
+    @Override
+    public void forEachChildEdge(N parentNode, Consumer<? super Edge<N, E>> action) {
+        graph.forEachChildEdge(parentNode, action);
+    }
+
+    /**
+     * Performs action on every edge that terminates at childNode.  action must not modify the graph.
+     * @param childNode the node that all visited edges should terminate at
+     * @param action the action to perform on each edge
+     * @spec.requires this.containsNode(childNode) and action != null
+     * @throws NoSuchElementException if this does not contain childNode
+     */
+    @Override
+    public void forEachParentEdge(N childNode, Consumer<? super Edge<N, E>> action) {
+        graph.forEachParentEdge(childNode, action);
+    }
+
+    /**
+     * Performs action on every edge in the graph.  action must not modify the graph.
+     * @param action the action to perform on each edge
+     * @spec.requires action != null
+     */
+    @Override
+    public void forEachEdge(Consumer<? super Edge<N, E>> action) {
+        graph.forEachEdge(action);
+    }
+
+    /**
+     * Returns the number of edges in the graph
+     * @return the number of edges in the graph
+     */
+    @Override
+    public int edgeCount() {
+        return graph.edgeCount();
+    }
+
+    /**
+     * Returns the number of edges that originate at node
+     * @param node the node to count the child edges of
+     * @spec.requires this.containsNode(node)
+     * @return the number of edges that originate at node
+     * @throws NoSuchElementException if this does not contain node
+     */
+    @Override
+    public int outDegree(N node) {
+        return graph.outDegree(node);
+    }
+
+    /**
+     * Returns the number of edges that terminate at node
+     * @param node the node to count the parent edges of
+     * @spec.requires this.containsNode(node)
+     * @return the number of edges that terminate at node
+     * @throws NoSuchElementException if this does not contain node
+     */
+    @Override
+    public int inDegree(N node) {
+        return graph.inDegree(node);
+    }
+
+    /**
+     * Returns the largest number of edges connected to any one node
+     * @return the largest outDegree(n) + inDegree(n) over all nodes n, or 0 if the graph has no nodes
+     */
+    @Override
+    public int maxDegree() {
+        return graph.maxDegree();
+    }
+
+    /**
+     * Returns a stream of the nodes in the graph
+     * @return a stream of the nodes in the graph
+     */
+    @Override
+    public Stream<N> nodeStream() {
+        return graph.nodeStream();
+    }
+
+    /**
+     * Returns a stream of the edges in the graph
+     * @return a stream of the edges in the graph
+     */
+    @Override
+    public Stream<Edge<N, E>> edgeStream() {
+        return graph.edgeStream();
+    }
+
+    /**
+     * Returns an immutable copy of the wrapped graph, which has no listeners
+     * @return an immutable copy of this graph
+     */
+    @Override
+    public Multigraph<N, E> freeze() {
+        return graph.freeze();
+    }
+
+    /**
+     * Delivers event now, or holds it until the open batch ends
+     * @param event the event of the change just made
+     */
+    private void publish(GraphEvent<N, E> event){
+        publish(Collections.singletonList(event));
+    }
+
+    /**
+     * Delivers events now, or holds them until the open batch ends
+     * @param events the events of the change just made
+     */
+    private void publish(List<GraphEvent<N, E>> events){
+        pending.addAll(events);
+        if(batchDepth == 0) flush();
+    }
+
+    /**
+     * Delivers the pending events to every listener, coalesced if this graph coalesces
+     */
+    private void flush(){
+        List<GraphEvent<N, E>> events = coalesce ? coalesce(pending) : pending;
+        pending = new ArrayList<>();
+        if(events.isEmpty()) return;
+        events = Collections.unmodifiableList(events);
+        for(GraphListener<N, E> listener : listeners){
+            listener.graphChanged(events);
+        }
+    }
+
+    /**
+     * Reduces events to their net effect.  An event followed later by its inverse on the same node or edge
+     * cancels out, so a node or edge that was added and deleted again leaves no events behind.  The events
+     * that remain keep their order.
+     * @param events the events to reduce
+     * @return the net events
+     */
+    private static <N, E> List<GraphEvent<N, E>> coalesce(List<GraphEvent<N, E>> events){
+        //nodes and edges are keyed separately, in case a node is equal to an edge
+        Map<Map.Entry<Boolean, Object>, GraphEvent<N, E>> net = new LinkedHashMap<>();
+        for(GraphEvent<N, E> event : events){
+            Map.Entry<Boolean, Object> key =
+                    new AbstractMap.SimpleImmutableEntry<>(event.getType().isEdgeType(), event.subject());
+            GraphEvent<N, E> previous = net.remove(key);
+            if(previous == null || previous.getType() != event.getType().inverse()) net.put(key, event);
+        }
+        return new ArrayList<>(net.values());
+    }
+
+    /**
+     * Checks if the representation invariant is currently met
+     */
+    private void checkRep(){
+        assert graph != null;
+        assert listeners != null;
+        assert pending != null;
+        assert batchDepth >= 0;
+        assert batchDepth > 0 || pending.isEmpty();
+    }
+}
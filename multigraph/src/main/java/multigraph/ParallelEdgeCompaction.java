@@ -0,0 +1,125 @@
+/*
+ * Author: Ryan Nelson
+ * Provided as is without any warranty
+ */
+
+package multigraph;
+
+import java.util.*;
+
+/**
+ * This immutable class reports on a pass that collapses parallel edges, edges that share both their parent
+ * and their child node, down to the one with the least label.  A shortest path search can only ever use the
+ * cheapest of a set of parallel edges, so the rest only cost it time.  Run the pass with collapse.
+ */
+public final class ParallelEdgeCompaction<N, E> {
+
+    /**
+     * Creates a new report
+     * @param removedCount the number of edges removed
+     * @param dropped the labels of the edges removed in favour of each kept edge, or null if they were not kept
+     */
+    private ParallelEdgeCompaction(int removedCount, Map<Edge<N, E>, List<E>> dropped){
+        this.removedCount = removedCount;
+        this.dropped = dropped == null ? Map.of() : Collections.unmodifiableMap(dropped);
+        checkRep();
+    }
+
+    //AF: a pass that removed removedCount edges, keeping each key of dropped in place of edges labelled with
+    //      its value
+    //RI: removedCount >= 0, dropped != null, every list in dropped is non-empty
+    //      the sizes of the lists in dropped sum to removedCount, or dropped is empty
+    private final int removedCount;
+    private final Map<Edge<N, E>, List<E>> dropped;
+
+    /**
+     * Collapses each set of parallel edges in graph to the edge whose label is least by order.  Of edges whose
+     * labels are equally least, the first found is kept.  For a graph such as UndirectedMultigraph that lists
+     * each edge from both of its ends, an edge and a reversed edge between the same two nodes are parallel.
+     * @param graph the graph to compact
+     * @param order orders the edge labels, for example by weight
+     * @param keepDropped whether to record the labels of the removed edges against the edge kept in their place
+     * @spec.requires no argument is null, graph is mutable
+     * @spec.modifies graph
+     * @spec.effects removes every edge of graph that has a parallel edge with a lesser label, or an equal label
+     *               found earlier
+     * @return a report of the edges removed
+     * @throws NullPointerException if graph or order is null
+     */
+    public static <N, E> ParallelEdgeCompaction<N, E> collapse(Multigraph<N, E> graph, Comparator<? super E> order,
+                                                            boolean keepDropped){
+        if(graph == null || order == null) throw new NullPointerException();
+        Map<Edge<N, E>, List<E>> dropped = keepDropped ? new HashMap<>() : null;
+        int removed = 0;
+        for(N node : graph.listNodes()){
+            if(graph.outDegree(node) < 2) continue;
+            //find the least edge to each child and every edge that loses to it
+            Map<N, Edge<N, E>> least = new HashMap<>();
+            List<Edge<N, E>> losers = new ArrayList<>();
+            for(Edge<N, E> edge : graph.listChildEdges(node)){
+                Edge<N, E> best = least.get(edge.getChildNode());
+                if(best == null){
+                    least.put(edge.getChildNode(), edge);
+                }else if(order.compare(edge.getLabel(), best.getLabel()) < 0){
+                    least.put(edge.getChildNode(), edge);
+                    losers.add(best);
+                }else{
+                    losers.add(edge);
+                }
+            }
+            for(Edge<N, E> loser : losers){
+                graph.deleteEdge(loser);
+                if(dropped != null)
+                    dropped.computeIfAbsent(least.get(loser.getChildNode()), k -> new ArrayList<>())
+                            .add(loser.getLabel());
+            }
+            removed += losers.size();
+        }
+        return new ParallelEdgeCompaction<>(removed, dropped);
+    }
+
+    /**
+     * Returns the number of edges the pass removed
+     * @return the number of edges removed
+     */
+    public int removedCount(){
+        return removedCount;
+    }
+
+    /**
+     * Returns the labels of the edges removed in favour of each kept edge.  Kept edges with no parallel edges
+     * are left out.
+     * @return a read-only map from each kept edge to the labels of the edges parallel to it that were removed,
+     *         empty if the pass was not asked to keep them
+     */
+    public Map<Edge<N, E>, List<E>> droppedLabels(){
+        return dropped;
+    }
+
+    /**
+     * Returns the labels of the edges removed in favour of kept
+     * @param kept an edge kept by the pass
+     * @return the labels of the edges parallel to kept that were removed, empty if there were none or the
+     *         pass was not asked to keep them
+     */
+    public List<E> droppedLabels(Edge<N, E> kept){
+        List<E> ret = dropped.get(kept);
+        return ret == null ? List.of() : Collections.unmodifiableList(ret);
+    }
+
+    /**
+     * Checks if the representation invariant is currently met
+     */
+    private void checkRep(){
+        assert removedCount >= 0;
+        assert dropped != null;
+        if(!dropped.isEmpty()){
+            int total = 0;
+            for(List<E> labels : dropped.values()){
+                assert !labels.isEmpty();
+                total += labels.size();
+            }
+            assert total == removedCount;
+        }
+    }
+}
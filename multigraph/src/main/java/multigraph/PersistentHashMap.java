@@ -0,0 +1,418 @@
+/*
+ * Author: Ryan Nelson
+ * Provided as is without any warranty
+ */
+
+package multigraph;
+
+import java.util.*;
+
+/**
+ * This immutable class represents a map stored as a hash array mapped trie.  put and remove return a new map
+ * and leave this one unchanged, copying only the path of trie nodes from the root to the changed entry, so
+ * the new map shares every other trie node with the old one.  Each version costs O(log32 n) extra memory.
+ * Keys may not be null.
+ */
+final class PersistentHashMap<K, V> implements Iterable<Map.Entry<K, V>> {
+
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+    //a path of bitmap nodes covers all 32 hash bits by this depth, so collision nodes sit at most one below
+    private static final int MAX_DEPTH = 8;
+
+    private static final PersistentHashMap<?, ?> EMPTY = new PersistentHashMap<>(null, 0);
+
+    //AF: the map containing the key/value pair of every Leaf reachable from root, empty if root == null
+    //RI: size is the number of leaves reachable from root, no two leaves have equal keys
+    //      every leaf is stored on the path selected by its hash, leaf.hash == spread(leaf.getKey().hashCode())
+    //      no BitmapNode is empty, no CollisionNode holds fewer than two leaves
+    private final Node root;
+    private final int size;
+
+    /**
+     * Creates a map with the given trie
+     * @param root the root of the trie, null for the empty map
+     * @param size the number of entries in the trie
+     */
+    private PersistentHashMap(Node root, int size){
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * Returns the empty map
+     * @return the empty map
+     */
+    @SuppressWarnings("unchecked")
+    static <K, V> PersistentHashMap<K, V> empty(){
+        return (PersistentHashMap<K, V>) EMPTY;
+    }
+
+    /**
+     * Returns the number of entries in the map
+     * @return the number of entries in the map
+     */
+    int size(){
+        return size;
+    }
+
+    /**
+     * Checks if the map has no entries
+     * @return true if the map is empty
+     */
+    boolean isEmpty(){
+        return size == 0;
+    }
+
+    /**
+     * Returns the value mapped to key
+     * @param key the key to look up
+     * @return the value mapped to key, or null if there is none
+     */
+    @SuppressWarnings("unchecked")
+    V get(Object key){
+        Leaf leaf = root == null ? null : root.find(spread(key.hashCode()), key, 0);
+        return leaf == null ? null : (V) leaf.getValue();
+    }
+
+    /**
+     * Checks if the map contains key
+     * @param key the key to look for
+     * @return true if key is mapped to a value
+     */
+    boolean containsKey(Object key){
+        return root != null && root.find(spread(key.hashCode()), key, 0) != null;
+    }
+
+    /**
+     * Returns a map with key mapped to value and every other entry of this map
+     * @param key the key to map, must not be null
+     * @param value the value to map key to
+     * @return the new map, or this map if key was already mapped to value
+     */
+    PersistentHashMap<K, V> put(K key, V value){
+        Leaf leaf = new Leaf(spread(key.hashCode()), key, value);
+        if(root == null) return new PersistentHashMap<>(new BitmapNode(0, new Object[0]).put(leaf, 0), 1);
+        boolean added = root.find(leaf.hash, key, 0) == null;
+        Node newRoot = root.put(leaf, 0);
+        if(newRoot == root) return this;
+        return new PersistentHashMap<>(newRoot, added ? size + 1 : size);
+    }
+
+    /**
+     * Returns a map with every entry of this map except the one for key
+     * @param key the key to remove
+     * @return the new map, or this map if key was not mapped
+     */
+    PersistentHashMap<K, V> remove(Object key){
+        if(root == null) return this;
+        Object newRoot = root.remove(spread(key.hashCode()), key, 0);
+        if(newRoot == root) return this;
+        if(newRoot == null) return empty();
+        if(newRoot instanceof Leaf) newRoot = new BitmapNode(0, new Object[0]).put((Leaf) newRoot, 0);
+        return new PersistentHashMap<>((Node) newRoot, size - 1);
+    }
+
+    /**
+     * Returns an iterator over the entries of the map.  The iterator does not support remove.
+     * @return an iterator over the entries of the map
+     */
+    @Override
+    public Iterator<Map.Entry<K, V>> iterator(){
+        return new EntryIterator<>(root);
+    }
+
+    /**
+     * Returns the keys of the map as a list
+     * @return a new list of the keys of the map
+     */
+    List<K> keys(){
+        List<K> ret = new ArrayList<>(size);
+        for(Map.Entry<K, V> entry : this){
+            ret.add(entry.getKey());
+        }
+        return ret;
+    }
+
+    /**
+     * Mixes the high bits of a hash code into the low bits, which select the first trie levels
+     * @param hash the hash code to mix
+     * @return the mixed hash
+     */
+    private static int spread(int hash){
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * A single key/value entry of the trie
+     */
+    private static final class Leaf extends AbstractMap.SimpleImmutableEntry<Object, Object> {
+        final int hash;
+
+        Leaf(int hash, Object key, Object value){
+            super(key, value);
+            this.hash = hash;
+        }
+    }
+
+    /**
+     * An interior node of the trie.  Nodes are never modified once built.
+     */
+    private abstract static class Node {
+        /**
+         * The slots of this node, each either a Leaf or a Node
+         */
+        final Object[] slots;
+
+        Node(Object[] slots){
+            this.slots = slots;
+        }
+
+        /**
+         * Finds the leaf for key
+         * @param hash the spread hash of key
+         * @param key the key to find
+         * @param shift the number of hash bits consumed by the levels above this node
+         * @return the leaf for key, or null
+         */
+        abstract Leaf find(int hash, Object key, int shift);
+
+        /**
+         * Returns a node with leaf stored in it
+         * @param leaf the leaf to store, replacing any leaf with an equal key
+         * @param shift the number of hash bits consumed by the levels above this node
+         * @return the new node, or this if nothing changed
+         */
+        abstract Node put(Leaf leaf, int shift);
+
+        /**
+         * Returns a node without the leaf for key
+         * @param hash the spread hash of key
+         * @param key the key to remove
+         * @param shift the number of hash bits consumed by the levels above this node
+         * @return this if key was not found, null if the node became empty, a Leaf if only that leaf
+         *         remains and it can be moved into the parent, otherwise the new node
+         */
+        abstract Object remove(int hash, Object key, int shift);
+    }
+
+    /**
+     * A trie node with up to 32 slots, one per value of the hash bits at its level.  bitmap marks which of
+     * the 32 possible slots are present, and slots holds only the present ones, in order.
+     */
+    private static final class BitmapNode extends Node {
+        final int bitmap;
+
+        BitmapNode(int bitmap, Object[] slots){
+            super(slots);
+            this.bitmap = bitmap;
+        }
+
+        @Override
+        Leaf find(int hash, Object key, int shift){
+            int bit = 1 << ((hash >>> shift) & MASK);
+            if((bitmap & bit) == 0) return null;
+            Object slot = slots[Integer.bitCount(bitmap & (bit - 1))];
+            if(slot instanceof Leaf){
+                Leaf leaf = (Leaf) slot;
+                return leaf.hash == hash && leaf.getKey().equals(key) ? leaf : null;
+            }
+            return ((Node) slot).find(hash, key, shift + BITS);
+        }
+
+        @Override
+        Node put(Leaf leaf, int shift){
+            int bit = 1 << ((leaf.hash >>> shift) & MASK);
+            int index = Integer.bitCount(bitmap & (bit - 1));
+            if((bitmap & bit) == 0){
+                Object[] newSlots = new Object[slots.length + 1];
+                System.arraycopy(slots, 0, newSlots, 0, index);
+                newSlots[index] = leaf;
+                System.arraycopy(slots, index, newSlots, index + 1, slots.length - index);
+                return new BitmapNode(bitmap | bit, newSlots);
+            }
+            Object slot = slots[index];
+            Object replacement;
+            if(slot instanceof Leaf){
+                Leaf existing = (Leaf) slot;
+                if(existing.hash == leaf.hash && existing.getKey().equals(leaf.getKey())){
+                    if(existing.getValue() == leaf.getValue()) return this;
+                    replacement = leaf;
+                }else{
+                    replacement = merge(existing, leaf, shift + BITS);
+                }
+            }else{
+                Node child = (Node) slot;
+                replacement = child.put(leaf, shift + BITS);
+                if(replacement == child) return this;
+            }
+            Object[] newSlots = slots.clone();
+            newSlots[index] = replacement;
+            return new BitmapNode(bitmap, newSlots);
+        }
+
+        @Override
+        Object remove(int hash, Object key, int shift){
+            int bit = 1 << ((hash >>> shift) & MASK);
+            if((bitmap & bit) == 0) return this;
+            int index = Integer.bitCount(bitmap & (bit - 1));
+            Object slot = slots[index];
+            Object replacement;
+            if(slot instanceof Leaf){
+                Leaf leaf = (Leaf) slot;
+                if(leaf.hash != hash || !leaf.getKey().equals(key)) return this;
+                replacement = null;
+            }else{
+                replacement = ((Node) slot).remove(hash, key, shift + BITS);
+                if(replacement == slot) return this;
+            }
+            if(replacement != null){
+                Object[] newSlots = slots.clone();
+                newSlots[index] = replacement;
+                return new BitmapNode(bitmap, newSlots);
+            }
+            if(slots.length == 1) return null;
+            if(slots.length == 2 && slots[1 - index] instanceof Leaf) return slots[1 - index];
+            Object[] newSlots = new Object[slots.length - 1];
+            System.arraycopy(slots, 0, newSlots, 0, index);
+            System.arraycopy(slots, index + 1, newSlots, index, slots.length - index - 1);
+            return new BitmapNode(bitmap & ~bit, newSlots);
+        }
+
+        /**
+         * Builds the smallest subtrie holding two leaves with different keys
+         * @param a the first leaf
+         * @param b the second leaf
+         * @param shift the number of hash bits consumed by the levels above the subtrie
+         * @return the subtrie
+         */
+        private static Node merge(Leaf a, Leaf b, int shift){
+            if(a.hash == b.hash) return new CollisionNode(a.hash, new Object[]{a, b});
+            int bitA = 1 << ((a.hash >>> shift) & MASK), bitB = 1 << ((b.hash >>> shift) & MASK);
+            if(bitA == bitB) return new BitmapNode(bitA, new Object[]{merge(a, b, shift + BITS)});
+            return new BitmapNode(bitA | bitB, Integer.compareUnsigned(bitA, bitB) < 0
+                    ? new Object[]{a, b} : new Object[]{b, a});
+        }
+    }
+
+    /**
+     * A trie node holding leaves whose keys have identical hashes
+     */
+    private static final class CollisionNode extends Node {
+        final int hash;
+
+        CollisionNode(int hash, Object[] leaves){
+            super(leaves);
+            this.hash = hash;
+        }
+
+        @Override
+        Leaf find(int hash, Object key, int shift){
+            if(hash != this.hash) return null;
+            for(Object slot : slots){
+                if(((Leaf) slot).getKey().equals(key)) return (Leaf) slot;
+            }
+            return null;
+        }
+
+        @Override
+        Node put(Leaf leaf, int shift){
+            if(leaf.hash != hash) return split(leaf, shift);
+            for(int i = 0; i < slots.length; i++){
+                Leaf existing = (Leaf) slots[i];
+                if(existing.getKey().equals(leaf.getKey())){
+                    if(existing.getValue() == leaf.getValue()) return this;
+                    Object[] newSlots = slots.clone();
+                    newSlots[i] = leaf;
+                    return new CollisionNode(hash, newSlots);
+                }
+            }
+            Object[] newSlots = Arrays.copyOf(slots, slots.length + 1);
+            newSlots[slots.length] = leaf;
+            return new CollisionNode(hash, newSlots);
+        }
+
+        @Override
+        Object remove(int hash, Object key, int shift){
+            for(int i = 0; i < slots.length; i++){
+                if(((Leaf) slots[i]).getKey().equals(key)){
+                    if(slots.length == 2) return slots[1 - i];
+                    Object[] newSlots = new Object[slots.length - 1];
+                    System.arraycopy(slots, 0, newSlots, 0, i);
+                    System.arraycopy(slots, i + 1, newSlots, i, slots.length - i - 1);
+                    return new CollisionNode(hash, newSlots);
+                }
+            }
+            return this;
+        }
+
+        /**
+         * Builds the smallest subtrie holding this node and a leaf whose hash differs from this node's but
+         * agrees with it on the bits consumed above, as BitmapNode.merge does for two leaves
+         * @param leaf the leaf to add
+         * @param shift the number of hash bits consumed by the levels above the subtrie
+         * @return the subtrie
+         */
+        private Node split(Leaf leaf, int shift){
+            int bitThis = 1 << ((hash >>> shift) & MASK), bitLeaf = 1 << ((leaf.hash >>> shift) & MASK);
+            if(bitThis == bitLeaf) return new BitmapNode(bitThis, new Object[]{split(leaf, shift + BITS)});
+            return new BitmapNode(bitThis | bitLeaf, Integer.compareUnsigned(bitThis, bitLeaf) < 0
+                    ? new Object[]{this, leaf} : new Object[]{leaf, this});
+        }
+    }
+
+    /**
+     * Depth first iterator over the leaves of a trie
+     */
+    private static final class EntryIterator<K, V> implements Iterator<Map.Entry<K, V>> {
+        private final Object[][] stack = new Object[MAX_DEPTH][];
+        private final int[] positions = new int[MAX_DEPTH];
+        private int depth;
+        private Leaf next;
+
+        EntryIterator(Node root){
+            if(root == null){
+                depth = -1;
+            }else{
+                stack[0] = root.slots;
+                depth = 0;
+            }
+            advance();
+        }
+
+        /**
+         * Moves next to the following leaf, or null when there are no more leaves
+         */
+        private void advance(){
+            next = null;
+            while(depth >= 0){
+                if(positions[depth] == stack[depth].length){
+                    depth--;
+                    continue;
+                }
+                Object slot = stack[depth][positions[depth]++];
+                if(slot instanceof Leaf){
+                    next = (Leaf) slot;
+                    return;
+                }
+                depth++;
+                stack[depth] = ((Node) slot).slots;
+                positions[depth] = 0;
+            }
+        }
+
+        @Override
+        public boolean hasNext(){
+            return next != null;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Map.Entry<K, V> next(){
+            if(next == null) throw new NoSuchElementException();
+            Leaf ret = next;
+            advance();
+            return (Map.Entry<K, V>) (Map.Entry<?, ?>) ret;
+        }
+    }
+}
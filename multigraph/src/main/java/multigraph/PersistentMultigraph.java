@@ -0,0 +1,458 @@
+/*
+ * Author: Ryan Nelson
+ * Provided as is without any warranty
+ */
+
+package multigraph;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * This immutable class represents a persistent multigraph.  withNode, withEdge, withoutNode and withoutEdge
+ * return a new version of the graph and leave this one unchanged.  The versions share structure through hash
+ * array mapped tries, so each new version costs O(log n) time and memory rather than a full copy.  This makes
+ * it cheap to keep many versions of a graph in memory at once, for example one per what-if scenario.
+ * The mutators inherited from Multigraph throw UnsupportedOperationException.
+ */
+public class PersistentMultigraph<N, E> implements Multigraph<N, E> {
+
+    /**
+     * Creates a new, empty multigraph.
+     */
+    public PersistentMultigraph(){
+        this(PersistentHashMap.empty(), PersistentHashMap.empty(), 0);
+    }
+
+    /**
+     * Creates a new multigraph with the same nodes and edges as graph
+     * @spec.requires graph != null
+     * @param graph the graph to copy
+     * @throws NullPointerException if graph == null
+     */
+    public PersistentMultigraph(Multigraph<N, E> graph){
+        if(graph == null) throw new NullPointerException();
+        PersistentMultigraph<N, E> built = new PersistentMultigraph<>();
+        for(N node : graph.listNodes())
+            built = built.withNode(node);
+        for(Edge<N, E> edge : graph.listEdges())
+            built = built.withEdge(edge);
+        this.nodeMap = built.nodeMap;
+        this.labelMap = built.labelMap;
+        this.edgeCount = built.edgeCount;
+        checkRep();
+    }
+
+    /**
+     * Creates a version of the graph from its tries
+     * @param nodeMap the incidence of every node
+     * @param labelMap the edges of every label
+     * @param edgeCount the number of edges
+     */
+    private PersistentMultigraph(PersistentHashMap<N, Incidence<N, E>> nodeMap,
+                                 PersistentHashMap<E, PersistentHashMap<Edge<N, E>, Boolean>> labelMap,
+                                 int edgeCount){
+        this.nodeMap = nodeMap;
+        this.labelMap = labelMap;
+        this.edgeCount = edgeCount;
+        checkRep();
+    }
+
+    //AF: (this) is a graph made up of the keys of nodeMap.  Node n has child edges nodeMap.get(n).children.keys()
+    //      and parent edges nodeMap.get(n).parents.keys()
+    //RI: nodeMap != null, labelMap != null, no key in either is null
+    //      every edge in nodeMap.get(n).children has parentNode n and is in the parents of its childNode
+    //      every edge in nodeMap.get(n).parents has childNode n and is in the children of its parentNode
+    //      labelMap.get(l) is non-empty and holds exactly the edges labelled l
+    //      edgeCount is the total number of child edges
+    private final PersistentHashMap<N, Incidence<N, E>> nodeMap;
+    private final PersistentHashMap<E, PersistentHashMap<Edge<N, E>, Boolean>> labelMap;
+    private final int edgeCount;
+    private static final boolean debug = false;
+
+    /**
+     * Immutable record of the edges of one node, shared between versions until either set changes.
+     */
+    private static final class Incidence<N, E> {
+        static final Incidence<?, ?> EMPTY = new Incidence<>(PersistentHashMap.empty(), PersistentHashMap.empty());
+
+        final PersistentHashMap<Edge<N, E>, Boolean> children;
+        final PersistentHashMap<Edge<N, E>, Boolean> parents;
+
+        Incidence(PersistentHashMap<Edge<N, E>, Boolean> children, PersistentHashMap<Edge<N, E>, Boolean> parents){
+            this.children = children;
+            this.parents = parents;
+        }
+
+        @SuppressWarnings("unchecked")
+        static <N, E> Incidence<N, E> empty(){
+            return (Incidence<N, E>) EMPTY;
+        }
+    }
+
+    /**
+     * Returns a version of the graph that also contains the node label
+     * @param label the node to add
+     * @spec.requires label != null
+     * @return the new version, or this if it already contains label
+     * @throws IllegalArgumentException if label == null
+     */
+    public PersistentMultigraph<N, E> withNode(N label){
+        if(label == null) throw new IllegalArgumentException();
+        if(nodeMap.containsKey(label)) return this;
+        return new PersistentMultigraph<>(nodeMap.put(label, Incidence.empty()), labelMap, edgeCount);
+    }
+
+    /**
+     * Returns a version of the graph that also contains edge
+     * @param edge the edge to add
+     * @spec.requires edge != null and edge.label != null and
+     *                this.containsNode(edge.parentNode) and this.containsNode(edge.childNode)
+     * @return the new version, or this if it already contains edge
+     * @throws NoSuchElementException if this does not contain edge.parentNode or edge.childNode
+     */
+    public PersistentMultigraph<N, E> withEdge(Edge<N, E> edge){
+        if(edge == null) throw new NullPointerException();
+        if(edge.getLabel() == null) throw new IllegalArgumentException();
+        Incidence<N, E> parent = incidence(edge.getParentNode());
+        incidence(edge.getChildNode());
+        if(parent.children.containsKey(edge)) return this;
+        PersistentHashMap<N, Incidence<N, E>> nodes = nodeMap.put(edge.getParentNode(),
+                new Incidence<>(parent.children.put(edge, Boolean.TRUE), parent.parents));
+        //re-read the child, it is the same node for self edges
+        Incidence<N, E> child = nodes.get(edge.getChildNode());
+        nodes = nodes.put(edge.getChildNode(), new Incidence<>(child.children, child.parents.put(edge, Boolean.TRUE)));
+        PersistentHashMap<Edge<N, E>, Boolean> labelled = labelMap.get(edge.getLabel());
+        if(labelled == null) labelled = PersistentHashMap.empty();
+        return new PersistentMultigraph<>(nodes, labelMap.put(edge.getLabel(), labelled.put(edge, Boolean.TRUE)),
+                edgeCount + 1);
+    }
+
+    /**
+     * Returns a version of the graph without the node label and without every edge connected to it
+     * @param label the node to remove
+     * @spec.requires label != null
+     * @return the new version, or this if it does not contain label
+     * @throws IllegalArgumentException if label == null
+     */
+    public PersistentMultigraph<N, E> withoutNode(N label){
+        if(label == null) throw new IllegalArgumentException();
+        Incidence<N, E> removed = nodeMap.get(label);
+        if(removed == null) return this;
+        PersistentMultigraph<N, E> ret = this;
+        for(Map.Entry<Edge<N, E>, Boolean> entry : removed.children)
+            ret = ret.unlink(entry.getKey());
+        for(Map.Entry<Edge<N, E>, Boolean> entry : removed.parents)
+            ret = ret.unlink(entry.getKey());
+        return new PersistentMultigraph<>(ret.nodeMap.remove(label), ret.labelMap, ret.edgeCount);
+    }
+
+    /**
+     * Returns a version of the graph without edge
+     * @param edge the edge to remove
+     * @spec.requires edge != null and this.containsNode(edge.parentNode) and this.containsNode(edge.childNode)
+     * @return the new version, or this if it does not contain edge
+     * @throws NoSuchElementException if this does not contain edge.parentNode or edge.childNode
+     */
+    public PersistentMultigraph<N, E> withoutEdge(Edge<N, E> edge){
+        if(edge == null) throw new NullPointerException();
+        if(edge.getLabel() == null) throw new IllegalArgumentException();
+        incidence(edge.getParentNode());
+        incidence(edge.getChildNode());
+        return unlink(edge);
+    }
+
+    /**
+     * Returns a version of the graph without any edge labelled label
+     * @param label the label of the edges to remove
+     * @spec.requires label != null
+     * @return the new version, or this if it has no edge labelled label
+     * @throws IllegalArgumentException if label == null
+     */
+    public PersistentMultigraph<N, E> withoutEdges(E label){
+        if(label == null) throw new IllegalArgumentException();
+        PersistentHashMap<Edge<N, E>, Boolean> labelled = labelMap.get(label);
+        if(labelled == null) return this;
+        PersistentMultigraph<N, E> ret = this;
+        for(Map.Entry<Edge<N, E>, Boolean> entry : labelled)
+            ret = ret.unlink(entry.getKey());
+        return ret;
+    }
+
+    /**
+     * Returns the number of edges in the graph
+     * @return the number of edges in the graph
+     */
+    @Override
+    public int edgeCount(){
+        return edgeCount;
+    }
+
+    /**
+     * Returns the number of edges that originate at node
+     * @param node the node to count the child edges of
+     * @spec.requires this.containsNode(node)
+     * @return the number of edges that originate at node
+     * @throws NoSuchElementException if this does not contain node
+     */
+    @Override
+    public int outDegree(N node){
+        return incidence(node).children.size();
+    }
+
+    /**
+     * Returns the number of edges that terminate at node
+     * @param node the node to count the parent edges of
+     * @spec.requires this.containsNode(node)
+     * @return the number of edges that terminate at node
+     * @throws NoSuchElementException if this does not contain node
+     */
+    @Override
+    public int inDegree(N node){
+        return incidence(node).parents.size();
+    }
+
+    /**
+     * Returns the number of nodes in the graph
+     * @return the number of nodes in the graph
+     */
+    @Override
+    public int size() {
+        return nodeMap.size();
+    }
+
+    /**
+     * Returns a list containing the unique label of all the nodes in the graph
+     * Note that the returned list will have at most one of each element (no duplicates)
+     * @return the list of nodes in the graph
+     */
+    @Override
+    public List<N> listNodes() {
+        return nodeMap.keys();
+    }
+
+    /**
+     * Returns a list of edges that terminate at childNode
+     * @param childNode the node that all returned edges should terminate at
+     * @spec.requires this.containsNode(childNode)
+     * @return the list of edges that terminate at childNode
+     * @throws NoSuchElementException if this does not contain childNode
+     */
+    @Override
+    public List<Edge<N, E>> listParentEdges(N childNode) {
+        return incidence(childNode).parents.keys();
+    }
+
+    /**
+     * Returns the list of edges that originate at parentNode
+     * @param parentNode the node that all returned edges should originate at
+     * @spec.requires this.containsNode(parentNode)
+     * @return the list of edges that originate at parentNode
+     * @throws NoSuchElementException if this does not contain parentNode
+     */
+    @Override
+    public List<Edge<N, E>> listChildEdges(N parentNode) {
+        return incidence(parentNode).children.keys();
+    }
+
+    /**
+     * Returns a list of all the edges in the graph
+     * @return a list of all the edges in the graph
+     */
+    @Override
+    public List<Edge<N, E>> listEdges() {
+        List<Edge<N, E>> ret = new ArrayList<>(edgeCount);
+        forEachEdge(ret::add);
+        return ret;
+    }
+
+    /**
+     * Checks if the graph contains the node label
+     * @param label the label of the node to check for
+     * @spec.requires label != null
+     * @return true if the graph contains the node label
+     */
+    @Override
+    public boolean containsNode(N label) {
+        return label != null && nodeMap.containsKey(label);
+    }
+
+    /**
+     * Checks if the graph contains the given edge
+     * The graph contains edge if this.ListEdges().contains(edge)
+     * @param edge the edge to check for
+     * @spec.requires edge != null
+     * @return true if the graph contains edge
+     */
+    @Override
+    public boolean containsEdge(Edge<N, E> edge) {
+        if(edge.getParentNode() == null) return false;
+        Incidence<N, E> parent = nodeMap.get(edge.getParentNode());
+        return parent != null && parent.children.containsKey(edge);
+    }
+
+    /**
+     * Checks if the graph contains any edge with the given label.  The graph may contain any positive number
+     * of edges label.
+     * @param label the edge to check for
+     * @spec.requires label != null
+     * @return true if the graph contains at least one edge such that edge.label.equals(label)
+     */
+    @Override
+    public boolean containsEdge(E label) {
+        return label != null && labelMap.containsKey(label);
+    }
+
+    /**
+     * Unsupported, the graph is immutable.  Use withNode instead.
+     * @param label ignored
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void addNode(N label) {
+        throw new UnsupportedOperationException("PersistentMultigraph is immutable, use withNode");
+    }
+
+    /**
+     * Unsupported, the graph is immutable.  Use withEdge instead.
+     * @param edge ignored
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void addEdge(Edge<N, E> edge) {
+        throw new UnsupportedOperationException("PersistentMultigraph is immutable, use withEdge");
+    }
+
+    /**
+     * Unsupported, the graph is immutable.  Use withoutNode instead.
+     * @param label ignored
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void deleteNode(N label) {
+        throw new UnsupportedOperationException("PersistentMultigraph is immutable, use withoutNode");
+    }
+
+    /**
+     * Unsupported, the graph is immutable.  Use withoutEdges instead.
+     * @param label ignored
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void deleteEdge(E label) {
+        throw new UnsupportedOperationException("PersistentMultigraph is immutable, use withoutEdges");
+    }
+
+    /**
+     * Unsupported, the graph is immutable.  Use withoutEdge instead.
+     * @param edge ignored
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void deleteEdge(Edge<N, E> edge) {
+        throw new UnsupportedOperationException("PersistentMultigraph is immutable, use withoutEdge");
+    }
+
+    /**
+     * Performs action on every edge that originates at parentNode, without copying the edges into a list.
+     * @param parentNode the node that all visited edges should originate at
+     * @param action the action to perform on each edge
+     * @spec.requires this.containsNode(parentNode) and action != null
+     * @throws NoSuchElementException if this does not contain parentNode
+     */
+    @Override
+    public void forEachChildEdge(N parentNode, Consumer<? super Edge<N, E>> action) {
+        for(Map.Entry<Edge<N, E>, Boolean> entry : incidence(parentNode).children)
+            action.accept(entry.getKey());
+    }
+
+    /**
+     * Performs action on every edge that terminates at childNode, without copying the edges into a list.
+     * @param childNode the node that all visited edges should terminate at
+     * @param action the action to perform on each edge
+     * @spec.requires this.containsNode(childNode) and action != null
+     * @throws NoSuchElementException if this does not contain childNode
+     */
+    @Override
+    public void forEachParentEdge(N childNode, Consumer<? super Edge<N, E>> action) {
+        for(Map.Entry<Edge<N, E>, Boolean> entry : incidence(childNode).parents)
+            action.accept(entry.getKey());
+    }
+
+    /**
+     * Performs action on every edge in the graph, without copying the edges into a list.
+     * @param action the action to perform on each edge
+     * @spec.requires action != null
+     */
+    @Override
+    public void forEachEdge(Consumer<? super Edge<N, E>> action) {
+        for(Map.Entry<N, Incidence<N, E>> node : nodeMap){
+            for(Map.Entry<Edge<N, E>, Boolean> entry : node.getValue().children)
+                action.accept(entry.getKey());
+        }
+    }
+
+    /**
+     * Returns an immutable copy of this graph, laid out in compressed sparse row form
+     * @return an immutable copy of this graph
+     */
+    @Override
+    public CsrMultigraph<N, E> freeze() {
+        return new CsrMultigraph<>(this);
+    }
+
+    /**
+     * Returns the incidence record of the given node
+     * @param node the node to look up
+     * @return the incidence record of node
+     * @throws NoSuchElementException if this does not contain node
+     */
+    private Incidence<N, E> incidence(N node){
+        Incidence<N, E> ret = node == null ? null : nodeMap.get(node);
+        if(ret == null) throw new NoSuchElementException();
+        return ret;
+    }
+
+    /**
+     * Returns a version of the graph with edge removed from whichever of its end nodes are in the graph and
+     * from the label index
+     * @param edge the edge to remove
+     * @return the new version, or this if it does not contain edge
+     */
+    private PersistentMultigraph<N, E> unlink(Edge<N, E> edge){
+        Incidence<N, E> parent = nodeMap.get(edge.getParentNode());
+        if(parent == null || !parent.children.containsKey(edge)) return this;
+        PersistentHashMap<N, Incidence<N, E>> nodes = nodeMap.put(edge.getParentNode(),
+                new Incidence<>(parent.children.remove(edge), parent.parents));
+        Incidence<N, E> child = nodes.get(edge.getChildNode());
+        nodes = nodes.put(edge.getChildNode(), new Incidence<>(child.children, child.parents.remove(edge)));
+        PersistentHashMap<Edge<N, E>, Boolean> labelled = labelMap.get(edge.getLabel()).remove(edge);
+        return new PersistentMultigraph<>(nodes, labelled.isEmpty() ? labelMap.remove(edge.getLabel())
+                : labelMap.put(edge.getLabel(), labelled), edgeCount - 1);
+    }
+
+    /**
+     * Checks if the representation invariant is currently met
+     */
+    private void checkRep(){
+        assert nodeMap != null;
+        assert labelMap != null;
+        if(debug){
+            int count = 0;
+            for(Map.Entry<N, Incidence<N, E>> node : nodeMap){
+                for(Map.Entry<Edge<N, E>, Boolean> entry : node.getValue().children){
+                    Edge<N, E> edge = entry.getKey();
+                    assert edge.getParentNode().equals(node.getKey());
+                    assert nodeMap.get(edge.getChildNode()).parents.containsKey(edge);
+                    assert labelMap.get(edge.getLabel()).containsKey(edge);
+                    count++;
+                }
+                for(Map.Entry<Edge<N, E>, Boolean> entry : node.getValue().parents){
+                    assert entry.getKey().getChildNode().equals(node.getKey());
+                    assert nodeMap.get(entry.getKey().getParentNode()).children.containsKey(entry.getKey());
+                }
+            }
+            assert count == edgeCount;
+        }
+    }
+}
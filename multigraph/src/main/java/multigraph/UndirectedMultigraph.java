@@ -0,0 +1,589 @@
+/*
+ * Author: Ryan Nelson
+ * Provided as is without any warranty
+ */
+
+package multigraph;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * This class represents a mutable multigraph whose edges have no direction, such as a network of footpaths
+ * that can be walked either way.  Each edge is stored once and shared by both of its end nodes, where a
+ * directed graph would need two edges, each kept in the child set of one end and the parent set of the other.
+ * Through the Multigraph methods the graph behaves exactly like the directed graph holding each edge in both
+ * directions: an edge between a and b is a child edge and a parent edge of both a and b, turned to start or
+ * end at the node asked about, and listEdges and edgeCount count it once each way.  An edge from a node to
+ * itself has only one direction, so it is counted once.  Adding or deleting an edge adds or deletes both of
+ * its directions.  The edges as stored, one per undirected edge, are available from listUndirectedEdges.
+ */
+public class UndirectedMultigraph<N, E> implements Multigraph<N, E> {
+
+    /**
+     * Creates a new, empty multigraph.
+     */
+    public UndirectedMultigraph(){
+        incident = new HashMap<>();
+        labels = new LabelIndex<>();
+        histogram = new DegreeHistogram();
+        checkRep();
+    }
+
+    /**
+     * Creates a new, empty multigraph sized to hold the given number of nodes and undirected edges without
+     * resizing
+     * @spec.requires expectedNodes >= 0 and expectedEdges >= 0
+     * @param expectedNodes the number of nodes expected
+     * @param expectedEdges the number of undirected edges expected, which bounds the number of distinct labels
+     */
+    public UndirectedMultigraph(int expectedNodes, int expectedEdges){
+        incident = new HashMap<>(MultigraphBuilder.capacityFor(expectedNodes));
+        labels = new LabelIndex<>(expectedEdges);
+        histogram = new DegreeHistogram();
+        checkRep();
+    }
+
+    /**
+     * Creates a new multigraph that is a copy of graph, with each directed edge of graph made undirected.  An
+     * edge and its reverse in graph become a single undirected edge.
+     * @spec.requires graph != null
+     * @param graph the graph to copy
+     * @throws NullPointerException if graph == null
+     */
+    public UndirectedMultigraph(Multigraph<N, E> graph){
+        this();
+        if(graph == null) throw new NullPointerException();
+        for(N node : graph.listNodes())
+            this.addNode(node);
+        for(Edge<N, E> edge : graph.listEdges())
+            this.addEdge(edge);
+        checkRep();
+    }
+
+    //AF: (this) is the directed graph made up of nodes incident.keySet() in which, for every edge e in
+    //      incident.get(n) for any n, both e and its reverse connect e.parentNode and e.childNode
+    //RI: incident != null, labels != null, histogram != null
+    //      all nodes in incident.keySet() are not null, all sets incident.get(n) are not null
+    //      every edge e in incident.get(n) has e.label != null, n is e.parentNode or e.childNode, and e is in
+    //          incident.get(e.parentNode) and incident.get(e.childNode)
+    //      no set in incident holds both an edge and its reverse
+    //      labels indexes exactly the edges in incident
+    //      histogram records 2 * incident.get(n).size() for every node n, as each undirected edge of n both
+    //          leaves and reaches n
+    //      edgeCount is the sum of incident.get(n).size() over every node n
+    //      undirectedEdgeCount is the number of distinct edges in incident
+    HashMap<N, Set<Edge<N, E>>> incident;
+    LabelIndex<N, E> labels;
+    DegreeHistogram histogram;
+    int edgeCount;
+    int undirectedEdgeCount;
+    boolean debug = false;
+
+    /**
+     * Returns the number of nodes in the graph
+     * @return the number of nodes in the graph
+     */
+    @Override
+    public int size() {
+        return incident.size();
+    }
+
+    /**
+     * Returns a list containing the unique label of all the nodes in the graph
+     * @return the list of nodes in the graph
+     */
+    @Override
+    public List<N> listNodes() {
+        return new ArrayList<>(incident.keySet());
+    }
+
+    /**
+     * Returns a list of the edges of childNode, each turned to terminate at childNode
+     * @param childNode the node that all returned edges should terminate at
+     * @spec.requires this.containsNode(childNode)
+     * @return the list of edges that terminate at childNode
+     * @throws NoSuchElementException if this does not contain childNode
+     */
+    @Override
+    public List<Edge<N, E>> listParentEdges(N childNode) {
+        return new ArrayList<>(parentEdges(childNode));
+    }
+
+    /**
+     * Returns a list of the edges of parentNode, each turned to originate at parentNode
+     * @param parentNode the node that all returned edges should originate at
+     * @spec.requires this.containsNode(parentNode)
+     * @return the list of edges that originate at parentNode
+     * @throws NoSuchElementException if this does not contain parentNode
+     */
+    @Override
+    public List<Edge<N, E>> listChildEdges(N parentNode) {
+        return new ArrayList<>(childEdges(parentNode));
+    }
+
+    /**
+     * Returns a list of all the edges in the graph in both directions, so each undirected edge other than a
+     * self edge appears twice
+     * @return a list of all the edges in the graph
+     */
+    @Override
+    public List<Edge<N, E>> listEdges() {
+        List<Edge<N, E>> ret = new ArrayList<>(edgeCount);
+        forEachEdge(ret::add);
+        return ret;
+    }
+
+    /**
+     * Returns a list of the undirected edges of the graph, each once, in the direction it was added
+     * @return a list of the undirected edges in the graph
+     */
+    public List<Edge<N, E>> listUndirectedEdges() {
+        List<Edge<N, E>> ret = new ArrayList<>();
+        for(Map.Entry<N, Set<Edge<N, E>>> entry : incident.entrySet()){
+            for(Edge<N, E> edge : entry.getValue()){
+                //each edge is listed from its parent, where it is sure to be found
+                if(edge.getParentNode().equals(entry.getKey())) ret.add(edge);
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * Returns the number of undirected edges in the graph
+     * @return the number of undirected edges in the graph
+     */
+    public int undirectedEdgeCount() {
+        return undirectedEdgeCount;
+    }
+
+    /**
+     * Checks if the graph contains the node label
+     * @param label the label of the node to check for
+     * @spec.requires label != null
+     * @return true if the graph contains the node label
+     */
+    @Override
+    public boolean containsNode(N label) {
+        return incident.containsKey(label);
+    }
+
+    /**
+     * Checks if the graph contains the given edge in either direction
+     * @param edge the edge to check for
+     * @spec.requires edge != null
+     * @return true if the graph contains edge or its reverse
+     */
+    @Override
+    public boolean containsEdge(Edge<N, E> edge) {
+        return stored(edge) != null;
+    }
+
+    /**
+     * Checks if the graph contains any edge with the given label
+     * @param label the edge to check for
+     * @spec.requires label != null
+     * @return true if the graph contains at least one edge such that edge.label.equals(label)
+     */
+    @Override
+    public boolean containsEdge(E label) {
+        return labels.contains(label);
+    }
+
+    /**
+     * Adds the given node label to the set of nodes
+     * If the node already exists in the set of nodes, no action will be taken
+     * @param label the node to add to the set
+     * @spec.requires label != null
+     * @spec.modifies this
+     * @spec.effects adds 1 or 0 instances of the node label to (this)
+     */
+    @Override
+    public void addNode(N label) {
+        if(incident.containsKey(label)) return;
+        incident.put(label, new HashSet<>());
+        histogram.addNode();
+    }
+
+    /**
+     * Adds an undirected edge between the ends of the given edge.  If the graph already contains edge or its
+     * reverse, no action is taken.
+     * @param edge the edge to add to the graph
+     * @spec.requires edge != null and edge.label != null and
+     *                this.containsNode(edge.parentNode) and this.containsNode(edge.childNode)
+     * @spec.modifies this
+     * @spec.effects Connects edge.parentNode and edge.childNode both ways with a new edge label
+     * @throws NoSuchElementException if this does not contain edge.parentNode or edge.childNode
+     */
+    @Override
+    public void addEdge(Edge<N, E> edge) {
+        Set<Edge<N, E>> parents = incident.get(edge.getParentNode());
+        Set<Edge<N, E>> children = incident.get(edge.getChildNode());
+        if(parents == null || children == null) throw new NoSuchElementException();
+        if(stored(edge) != null) return;
+        parents.add(edge);
+        children.add(edge);
+        labels.add(edge);
+        counted(edge, 1);
+    }
+
+    /**
+     * Removes the given node label from the graph. If the graph does not contain the node, no action is taken.
+     * Removes all edges that are connected to label
+     * @param label the node to remove from the graph
+     * @spec.requires label != null
+     * @spec.modifies this
+     * @spec.effects Removes 1 or 0 instances of the node label from (this).
+     *               Deletes any edges that are connected to the node label
+     */
+    @Override
+    public void deleteNode(N label) {
+        Set<Edge<N, E>> edges = incident.get(label);
+        if(edges == null) return;
+        for(Edge<N, E> edge : new ArrayList<>(edges)){
+            unlink(edge);
+        }
+        incident.remove(label);
+        histogram.removeNode(0);
+    }
+
+    /**
+     * Removes all edges that have the given label
+     * An adjacent call to containsEdge(label) is guaranteed to return false
+     * @param label the label to remove all edges that have edge.label.equals(label)
+     * @spec.requires label != null
+     * @spec.modifies this
+     * @spec.effects Removes all edges that are labelled with label from the graph
+     */
+    @Override
+    public void deleteEdge(E label) {
+        for(Edge<N, E> edge : labels.removeAll(label)){
+            incident.get(edge.getParentNode()).remove(edge);
+            incident.get(edge.getChildNode()).remove(edge);
+            counted(edge, -1);
+        }
+    }
+
+    /**
+     * Removes edge, in whichever direction it is stored.  If the edge is not in the graph, will do nothing,
+     * provided both edge.parentNode and edge.childNode are valid
+     * An adjacent call to containsEdge(edge) is guaranteed to return false
+     * @param edge the edge to remove
+     * @spec.requires edge != null and this.containsNode(edge.parentNode) and this.containsNode(edge.childNode)
+     * @spec.modifies this
+     * @spec.effects Removes edge and its reverse from the graph
+     * @throws NoSuchElementException if this does not contain edge.parentNode or edge.childNode
+     */
+    @Override
+    public void deleteEdge(Edge<N, E> edge) {
+        if(!incident.containsKey(edge.getParentNode()) || !incident.containsKey(edge.getChildNode()))
+            throw new NoSuchElementException();
+        Edge<N, E> stored = stored(edge);
+        if(stored != null) unlink(stored);
+    }
+
+    /**
+     * Returns a read-only view of the nodes in the graph.  Unlike listNodes, no copy is made, so the view
+     * reflects later changes to the graph and must not be used while the graph is being modified.
+     * @return a read-only view of the nodes in the graph
+     */
+    @Override
+    public Set<N> nodes() {
+        return Collections.unmodifiableSet(incident.keySet());
+    }
+
+    /**
+     * Returns a read-only view of the edges of parentNode, each turned to originate at parentNode.  No list is
+     * built, but edges stored the other way round are reversed into new Edge objects as they are read.  The
+     * view must not be used while the graph is being modified.
+     * @param parentNode the node that all returned edges should originate at
+     * @spec.requires this.containsNode(parentNode)
+     * @return a read-only view of the edges that originate at parentNode
+     * @throws NoSuchElementException if this does not contain parentNode
+     */
+    @Override
+    public Collection<Edge<N, E>> childEdges(N parentNode) {
+        return new Turned<>(edgesOf(parentNode), parentNode, true);
+    }
+
+    /**
+     * Returns a read-only view of the edges of childNode, each turned to terminate at childNode.  No list is
+     * built, but edges stored the other way round are reversed into new Edge objects as they are read.  The
+     * view must not be used while the graph is being modified.
+     * @param childNode the node that all returned edges should terminate at
+     * @spec.requires this.containsNode(childNode)
+     * @return a read-only view of the edges that terminate at childNode
+     * @throws NoSuchElementException if this does not contain childNode
+     */
+    @Override
+    public Collection<Edge<N, E>> parentEdges(N childNode) {
+        return new Turned<>(edgesOf(childNode), childNode, false);
+    }
+
+    /**
+     * Performs action on every edge of parentNode, turned to originate at parentNode.  action must not modify
+     * the graph.
+     * @param parentNode the node that all visited edges should originate at
+     * @param action the action to perform on each edge
+     * @spec.requires this.containsNode(parentNode) and action != null
+     * @throws NoSuchElementException if this does not contain parentNode
+     */
+    @Override
+    public void forEachChildEdge(N parentNode, Consumer<? super Edge<N, E>> action) {
+        for(Edge<N, E> edge : edgesOf(parentNode)){
+            action.accept(edge.getParentNode().equals(parentNode) ? edge : reverse(edge));
+        }
+    }
+
+    /**
+     * Performs action on every edge of childNode, turned to terminate at childNode.  action must not modify
+     * the graph.
+     * @param childNode the node that all visited edges should terminate at
+     * @param action the action to perform on each edge
+     * @spec.requires this.containsNode(childNode) and action != null
+     * @throws NoSuchElementException if this does not contain childNode
+     */
+    @Override
+    public void forEachParentEdge(N childNode, Consumer<? super Edge<N, E>> action) {
+        for(Edge<N, E> edge : edgesOf(childNode)){
+            action.accept(edge.getChildNode().equals(childNode) ? edge : reverse(edge));
+        }
+    }
+
+    /**
+     * Performs action on every edge in the graph, in both directions.  action must not modify the graph.
+     * @param action the action to perform on each edge
+     * @spec.requires action != null
+     */
+    @Override
+    public void forEachEdge(Consumer<? super Edge<N, E>> action) {
+        for(N node : incident.keySet()){
+            forEachChildEdge(node, action);
+        }
+    }
+
+    /**
+     * Returns the number of edges in the graph, counting each undirected edge other than a self edge twice
+     * @return the number of edges in the graph
+     */
+    @Override
+    public int edgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * Returns the number of edges that originate at node, which is the number of undirected edges of node
+     * @param node the node to count the child edges of
+     * @spec.requires this.containsNode(node)
+     * @return the number of edges that originate at node
+     * @throws NoSuchElementException if this does not contain node
+     */
+    @Override
+    public int outDegree(N node) {
+        return edgesOf(node).size();
+    }
+
+    /**
+     * Returns the number of edges that terminate at node, which is the number of undirected edges of node
+     * @param node the node to count the parent edges of
+     * @spec.requires this.containsNode(node)
+     * @return the number of edges that terminate at node
+     * @throws NoSuchElementException if this does not contain node
+     */
+    @Override
+    public int inDegree(N node) {
+        return edgesOf(node).size();
+    }
+
+    /**
+     * Returns the largest number of edges connected to any one node, which is kept up to date as the graph
+     * changes
+     * @return the largest outDegree(n) + inDegree(n) over all nodes n, or 0 if the graph has no nodes
+     */
+    @Override
+    public int maxDegree() {
+        return histogram.maxDegree();
+    }
+
+    /**
+     * Returns a stream of the edges in the graph in both directions, read straight out of the per node edge
+     * sets.  Splitting the stream divides the nodes between the halves.  The graph must not be modified while
+     * the stream is in use.
+     * @return a stream of the edges in the graph
+     */
+    @Override
+    public Stream<Edge<N, E>> edgeStream() {
+        double perNode = incident.isEmpty() ? 0 : (double) edgeCount / incident.size();
+        return StreamSupport.stream(new FlatSpliterator<N, Edge<N, E>>(incident.keySet().spliterator(),
+                this::childEdges, perNode, Spliterator.NONNULL | Spliterator.DISTINCT), false);
+    }
+
+    /**
+     * Returns an immutable copy of this graph, laid out in compressed sparse row form
+     * @return an immutable copy of this graph
+     */
+    @Override
+    public CsrMultigraph<N, E> freeze() {
+        return new CsrMultigraph<>(this);
+    }
+
+    /**
+     * Returns the edges of node as stored
+     * @param node the node to look up
+     * @return the set of edges of node
+     * @throws NoSuchElementException if this does not contain node
+     */
+    private Set<Edge<N, E>> edgesOf(N node){
+        Set<Edge<N, E>> ret = incident.get(node);
+        if(ret == null) throw new NoSuchElementException();
+        return ret;
+    }
+
+    /**
+     * Returns the stored edge that matches edge in either direction
+     * @param edge the edge to look for
+     * @return edge or its reverse as stored, or null if the graph contains neither
+     */
+    private Edge<N, E> stored(Edge<N, E> edge){
+        Set<Edge<N, E>> edges = incident.get(edge.getParentNode());
+        if(edges == null) return null;
+        if(edges.contains(edge)) return edge;
+        Edge<N, E> reversed = reverse(edge);
+        return edges.contains(reversed) ? reversed : null;
+    }
+
+    /**
+     * Removes a stored edge from both its ends and from the indexes
+     * @param edge the edge to remove, as stored
+     */
+    private void unlink(Edge<N, E> edge){
+        incident.get(edge.getParentNode()).remove(edge);
+        incident.get(edge.getChildNode()).remove(edge);
+        labels.remove(edge);
+        counted(edge, -1);
+    }
+
+    /**
+     * Updates the edge counts and the degree histogram once a stored edge has been added to or removed from the
+     * edge sets of its ends
+     * @param edge the edge added or removed, as stored
+     * @param delta 1 if edge was added, -1 if it was removed
+     */
+    private void counted(Edge<N, E> edge, int delta){
+        undirectedEdgeCount += delta;
+        if(isSelfEdge(edge)){
+            edgeCount += delta;
+            shift(edge.getParentNode(), 2 * delta);
+        }else{
+            edgeCount += 2 * delta;
+            shift(edge.getParentNode(), 2 * delta);
+            shift(edge.getChildNode(), 2 * delta);
+        }
+    }
+
+    /**
+     * Moves node in the degree histogram once its edge set has changed
+     * @param node the node whose degree changed
+     * @param delta the change in the total degree of node
+     */
+    private void shift(N node, int delta){
+        int degree = 2 * incident.get(node).size();
+        histogram.move(degree - delta, degree);
+    }
+
+    /**
+     * Returns whether edge starts and ends at the same node
+     * @param edge the edge to check
+     * @return true if edge is a self edge
+     */
+    private static boolean isSelfEdge(Edge<?, ?> edge){
+        return edge.getParentNode().equals(edge.getChildNode());
+    }
+
+    /**
+     * Returns edge pointing the other way
+     * @param edge the edge to reverse
+     * @return a new edge from edge.childNode to edge.parentNode with the same label
+     */
+    private static <N, E> Edge<N, E> reverse(Edge<N, E> edge){
+        return new Edge<>(edge.getChildNode(), edge.getParentNode(), edge.getLabel());
+    }
+
+    /**
+     * Read-only view of the edges of one node, each turned to start or end at that node
+     */
+    private static final class Turned<N, E> extends AbstractCollection<Edge<N, E>> {
+        private final Set<Edge<N, E>> edges;
+        private final N node;
+        private final boolean outgoing;
+
+        Turned(Set<Edge<N, E>> edges, N node, boolean outgoing){
+            this.edges = edges;
+            this.node = node;
+            this.outgoing = outgoing;
+        }
+
+        @Override
+        public Iterator<Edge<N, E>> iterator(){
+            Iterator<Edge<N, E>> stored = edges.iterator();
+            return new Iterator<Edge<N, E>>() {
+                @Override
+                public boolean hasNext(){
+                    return stored.hasNext();
+                }
+
+                @Override
+                public Edge<N, E> next(){
+                    Edge<N, E> edge = stored.next();
+                    N end = outgoing ? edge.getParentNode() : edge.getChildNode();
+                    return end.equals(node) ? edge : reverse(edge);
+                }
+            };
+        }
+
+        @Override
+        public int size(){
+            return edges.size();
+        }
+
+        @Override
+        public boolean contains(Object o){
+            if(!(o instanceof Edge)) return false;
+            Edge<?, ?> edge = (Edge<?, ?>) o;
+            if(!(outgoing ? edge.getParentNode() : edge.getChildNode()).equals(node)) return false;
+            return edges.contains(edge) || edges.contains(new Edge<>(edge.getChildNode(), edge.getParentNode(),
+                    edge.getLabel()));
+        }
+    }
+
+    /**
+     * Checks if the representation invariant is currently met
+     */
+    private void checkRep(){
+        assert incident != null;
+        assert labels != null;
+        assert histogram != null;
+        if(debug){
+            int edges = 0, selfEdges = 0, maxDegree = 0;
+            for(Map.Entry<N, Set<Edge<N, E>>> entry : incident.entrySet()){
+                assert entry.getKey() != null;
+                for(Edge<N, E> edge : entry.getValue()){
+                    assert edge.getLabel() != null;
+                    assert edge.getParentNode().equals(entry.getKey()) || edge.getChildNode().equals(entry.getKey());
+                    assert incident.get(edge.getParentNode()).contains(edge);
+                    assert incident.get(edge.getChildNode()).contains(edge);
+                    assert isSelfEdge(edge) || !entry.getValue().contains(reverse(edge));
+                    assert labels.contains(edge.getLabel());
+                    if(isSelfEdge(edge)) selfEdges++;
+                }
+                maxDegree = Math.max(maxDegree, 2 * entry.getValue().size());
+                edges += entry.getValue().size();
+            }
+            assert edgeCount == edges;
+            assert histogram.maxDegree() == maxDegree;
+            assert 2 * undirectedEdgeCount == edgeCount + selfEdges;
+        }
+    }
+}
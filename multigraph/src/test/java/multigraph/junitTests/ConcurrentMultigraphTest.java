@@ -0,0 +1,165 @@
+/*
+ * Author: Ryan Nelson
+ * Provided as is without any warranty
+ */
+
+package multigraph.junitTests;
+
+import multigraph.ConcurrentMultigraph;
+import multigraph.Edge;
+import multigraph.Multigraph;
+import multigraph.NodeMultigraph;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test suite for the thread-safe multigraph, checked against NodeMultigraph
+ */
+public class ConcurrentMultigraphTest {
+    private static final int NUM_NODES = 30;
+    private static final int NUM_ACTIONS = 20000;
+    private static final int NUM_READERS = 4;
+
+    /**
+     * helper method for testing if two multigraphs are equal
+     * @param m1 first multigraph, must not be null
+     * @param m2 second multigraph, must not be null
+     * @return true if the two multigraphs are equal, else false
+     */
+    private static <N, E> boolean mgEquals(Multigraph<N, E> m1, Multigraph<N, E> m2){
+        Set<N> m1Nodes = new HashSet<>(m1.listNodes()),
+                m2Nodes = new HashSet<>(m2.listNodes());
+        if(!m1Nodes.equals(m2Nodes)) return false;
+
+        Set<Edge<N, E>> m1edges = new HashSet<>(m1.listEdges()),
+                m2edges = new HashSet<>(m2.listEdges());
+        return m1edges.equals(m2edges);
+    }
+
+    /**
+     * applies one random mutation to both graphs
+     * @param r the source of randomness
+     * @param cm the concurrent graph
+     * @param nm the reference graph
+     */
+    private static void randomAction(Random r, Multigraph<String, String> cm, Multigraph<String, String> nm){
+        String node1 = "n" + r.nextInt(NUM_NODES), node2 = "n" + r.nextInt(NUM_NODES);
+        String label = "e" + r.nextInt(NUM_NODES);
+        switch(r.nextInt(5)){
+            case 0:
+                cm.addNode(node1);
+                nm.addNode(node1);
+                break;
+            case 1:
+            case 2:
+                if(!nm.containsNode(node1) || !nm.containsNode(node2)) return;
+                cm.addEdge(new Edge<>(node1, node2, label));
+                nm.addEdge(new Edge<>(node1, node2, label));
+                break;
+            case 3:
+                if(r.nextInt(4) == 0){
+                    cm.deleteNode(node1);
+                    nm.deleteNode(node1);
+                }else{
+                    cm.deleteEdge(label);
+                    nm.deleteEdge(label);
+                }
+                break;
+            case 4:
+                if(!nm.containsNode(node1) || !nm.containsNode(node2)) return;
+                cm.deleteEdge(new Edge<>(node1, node2, label));
+                nm.deleteEdge(new Edge<>(node1, node2, label));
+                break;
+        }
+    }
+
+    /**
+     * test single threaded behavior matches NodeMultigraph
+     */
+    @Test
+    public void matchesNodeMultigraphTest(){
+        Random r = new Random(11);
+        Multigraph<String, String> cm = new ConcurrentMultigraph<>(), nm = new NodeMultigraph<>();
+        for(int i = 0; i < 2000; i++){
+            randomAction(r, cm, nm);
+            assertTrue(mgEquals(cm, nm));
+        }
+        for(String node : nm.listNodes()){
+            assertEquals(new HashSet<>(nm.listChildEdges(node)), new HashSet<>(cm.listChildEdges(node)));
+            assertEquals(new HashSet<>(nm.listParentEdges(node)), new HashSet<>(cm.listParentEdges(node)));
+        }
+        for(int i = 0; i < NUM_NODES; i++){
+            assertEquals(nm.containsEdge("e" + i), cm.containsEdge("e" + i));
+        }
+        assertTrue(mgEquals(nm, new ConcurrentMultigraph<>(nm)));
+        assertThrows(NullPointerException.class, ()->new ConcurrentMultigraph<String, String>(null));
+        assertThrows(NoSuchElementException.class, ()->cm.listChildEdges("notanode"));
+        assertThrows(NoSuchElementException.class, ()->cm.addEdge(new Edge<>("notanode", "n1", "e")));
+    }
+
+    /**
+     * test that readers running alongside a writer never fail or see a torn node, and that the final graph
+     * matches NodeMultigraph given the same writes
+     */
+    @Test
+    public void concurrentStressTest() throws InterruptedException {
+        Multigraph<String, String> cm = new ConcurrentMultigraph<>(), nm = new NodeMultigraph<>();
+        for(int i = 0; i < NUM_NODES; i++){
+            cm.addNode("n" + i);
+            nm.addNode("n" + i);
+        }
+        AtomicBoolean done = new AtomicBoolean(false);
+        AtomicLong reads = new AtomicLong();
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+
+        List<Thread> readers = new ArrayList<>();
+        for(int t = 0; t < NUM_READERS; t++){
+            final long seed = t;
+            Thread reader = new Thread(()->{
+                Random r = new Random(seed);
+                while(!done.get()){
+                    String node = "n" + r.nextInt(NUM_NODES);
+                    try{
+                        for(Edge<String, String> edge : cm.childEdges(node)){
+                            if(!edge.getParentNode().equals(node)) failures.add(new AssertionError(edge));
+                        }
+                        cm.forEachParentEdge(node, edge -> {
+                            if(!edge.getChildNode().equals(node)) failures.add(new AssertionError(edge));
+                        });
+                        cm.containsEdge("e" + r.nextInt(NUM_NODES));
+                        cm.listEdges();
+                    }catch(NoSuchElementException nsee){
+                        //node deleted by the writer, expected
+                    }catch(Throwable th){
+                        failures.add(th);
+                    }
+                    reads.incrementAndGet();
+                }
+            });
+            readers.add(reader);
+            reader.start();
+        }
+
+        Random r = new Random(3);
+        for(int i = 0; i < NUM_ACTIONS; i++){
+            randomAction(r, cm, nm);
+        }
+        done.set(true);
+        for(Thread reader : readers){
+            reader.join();
+        }
+
+        assertTrue(failures.toString(), failures.isEmpty());
+        assertTrue(reads.get() > 0);
+        assertTrue(mgEquals(cm, nm));
+        for(String node : nm.listNodes()){
+            assertEquals(new HashSet<>(nm.listParentEdges(node)), new HashSet<>(cm.listParentEdges(node)));
+        }
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Author: Ryan Nelson
+ * Provided as is without any warranty
+ */
+
+package multigraph.junitTests;
+
+import multigraph.CsrMultigraph;
+import multigraph.Edge;
+import multigraph.Multigraph;
+import multigraph.NodeMultigraph;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Black box test suite for the compressed multigraph
+ */
+public class CsrMultigraphTest {
+
+    /**
+     * helper method for testing if two multigraphs are equal
+     * @param m1 first multigraph, must not be null
+     * @param m2 second multigraph, must not be null
+     * @return true if the two multigraphs are equal, else false
+     */
+    private static <N, E> boolean mgEquals(Multigraph<N, E> m1, Multigraph<N, E> m2){
+        Set<N> m1Nodes = new HashSet<>(m1.listNodes()),
+                m2Nodes = new HashSet<>(m2.listNodes());
+        if(!m1Nodes.equals(m2Nodes)) return false;
+
+        Set<Edge<N, E>> m1edges = new HashSet<>(m1.listEdges()),
+                m2edges = new HashSet<>(m2.listEdges());
+        return m1edges.equals(m2edges);
+    }
+
+    /**
+     * builds a small graph with self edges, parallel edges and an island
+     * @return the built graph
+     */
+    private static NodeMultigraph<String, String> sampleGraph(){
+        NodeMultigraph<String, String> mg = new NodeMultigraph<>();
+        mg.addNode("node1");
+        mg.addNode("node2");
+        mg.addNode("node3");
+        mg.addNode("island");
+        mg.addEdge(new Edge<>("node1", "node1", "self"));
+        mg.addEdge(new Edge<>("node1", "node2", "a"));
+        mg.addEdge(new Edge<>("node1", "node2", "b"));
+        mg.addEdge(new Edge<>("node2", "node1", "a"));
+        mg.addEdge(new Edge<>("node3", "node2", "c"));
+        return mg;
+    }
+
+    /**
+     * test copying from other implementations
+     */
+    @Test
+    public void copyTest(){
+        assertThrows(NullPointerException.class, ()->new CsrMultigraph<String, String>(null));
+        NodeMultigraph<String, String> empty = new NodeMultigraph<>();
+        assertTrue(mgEquals(empty, new CsrMultigraph<>(empty)));
+        NodeMultigraph<String, String> mg = sampleGraph();
+        CsrMultigraph<String, String> csr = new CsrMultigraph<>(mg);
+        assertTrue(mgEquals(mg, csr));
+        assertEquals(mg.size(), csr.size());
+        assertEquals(5, csr.edgeCount());
+
+        //later changes to the source do not show through
+        mg.addEdge(new Edge<>("node3", "node3", "new"));
+        assertFalse(mgEquals(mg, csr));
+    }
+
+    /**
+     * test child and parent listings match the source graph
+     */
+    @Test
+    public void listEdgesTest(){
+        NodeMultigraph<String, String> mg = sampleGraph();
+        CsrMultigraph<String, String> csr = new CsrMultigraph<>(mg);
+        for(String node : mg.listNodes()){
+            assertEquals(new HashSet<>(mg.listChildEdges(node)), new HashSet<>(csr.listChildEdges(node)));
+            assertEquals(new HashSet<>(mg.listParentEdges(node)), new HashSet<>(csr.listParentEdges(node)));
+        }
+        assertThrows(NoSuchElementException.class, ()->csr.listChildEdges("notanode"));
+        assertThrows(NoSuchElementException.class, ()->csr.listParentEdges("notanode"));
+    }
+
+    /**
+     * test contains methods
+     */
+    @Test
+    public void containsTest(){
+        CsrMultigraph<String, String> csr = new CsrMultigraph<>(sampleGraph());
+        assertTrue(csr.containsNode("island"));
+        assertFalse(csr.containsNode("notanode"));
+        assertTrue(csr.containsEdge(new Edge<>("node1", "node2", "b")));
+        assertFalse(csr.containsEdge(new Edge<>("node2", "node1", "b")));
+        assertFalse(csr.containsEdge(new Edge<>("notanode", "node1", "b")));
+        assertTrue(csr.containsEdge("c"));
+        assertFalse(csr.containsEdge("d"));
+    }
+
+    /**
+     * test the id based accessors
+     */
+    @Test
+    public void idAccessTest(){
+        CsrMultigraph<String, String> csr = new CsrMultigraph<>(sampleGraph());
+        assertThrows(NoSuchElementException.class, ()->csr.idOf("notanode"));
+        int node1 = csr.idOf("node1");
+        assertEquals("node1", csr.nodeOf(node1));
+        Set<String> labels = new HashSet<>();
+        for(int e = csr.childStart(node1); e < csr.childEnd(node1); e++){
+            labels.add(csr.labelOf(e) + "->" + csr.nodeOf(csr.childOf(e)));
+        }
+        assertEquals(Set.of("self->node1", "a->node2", "b->node2"), labels);
+        int island = csr.idOf("island");
+        assertEquals(csr.childStart(island), csr.childEnd(island));
+    }
+
+    /**
+     * test that mutators are rejected
+     */
+    @Test
+    public void immutableTest(){
+        CsrMultigraph<String, String> csr = new CsrMultigraph<>(sampleGraph());
+        assertThrows(UnsupportedOperationException.class, ()->csr.addNode("foo"));
+        assertThrows(UnsupportedOperationException.class, ()->csr.addEdge(new Edge<>("node1", "node3", "x")));
+        assertThrows(UnsupportedOperationException.class, ()->csr.deleteNode("node1"));
+        assertThrows(UnsupportedOperationException.class, ()->csr.deleteEdge("a"));
+        assertThrows(UnsupportedOperationException.class, ()->csr.deleteEdge(new Edge<>("node1", "node2", "a")));
+    }
+
+    /**
+     * test the traversal methods and read-only views against the list methods
+     */
+    @Test
+    public void traversalTest(){
+        NodeMultigraph<String, String> mg = sampleGraph();
+        CsrMultigraph<String, String> csr = new CsrMultigraph<>(mg);
+        for(String node : mg.listNodes()){
+            Set<Edge<String, String>> visited = new HashSet<>();
+            csr.forEachChildEdge(node, visited::add);
+            assertEquals(new HashSet<>(mg.listChildEdges(node)), visited);
+            assertEquals(visited, new HashSet<>(csr.childEdges(node)));
+            visited.clear();
+            csr.forEachParentEdge(node, visited::add);
+            assertEquals(new HashSet<>(mg.listParentEdges(node)), visited);
+            assertEquals(visited, new HashSet<>(csr.parentEdges(node)));
+        }
+        Set<Edge<String, String>> all = new HashSet<>();
+        csr.forEachEdge(all::add);
+        assertEquals(new HashSet<>(mg.listEdges()), all);
+        assertEquals(new HashSet<>(mg.listNodes()), csr.nodes());
+        assertThrows(UnsupportedOperationException.class, ()->csr.childEdges("node1").clear());
+        assertThrows(IndexOutOfBoundsException.class, ()->((List<?>)csr.childEdges("island")).get(0));
+    }
+}
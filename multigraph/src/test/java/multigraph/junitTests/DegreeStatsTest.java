@@ -0,0 +1,143 @@
+/*
+ * Author: Ryan Nelson
+ * Provided as is without any warranty
+ */
+
+package multigraph.junitTests;
+
+import multigraph.*;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test suite for the edge count and degree statistics of every multigraph implementation
+ */
+public class DegreeStatsTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * checks edgeCount, outDegree, inDegree and maxDegree of graph against counts taken from its edge lists
+     * @param graph the graph to check
+     */
+    private static <N, E> void assertStats(Multigraph<N, E> graph){
+        assertEquals(graph.listEdges().size(), graph.edgeCount());
+        int max = 0;
+        for(N node : graph.listNodes()){
+            int out = graph.listChildEdges(node).size(), in = graph.listParentEdges(node).size();
+            assertEquals(out, graph.outDegree(node));
+            assertEquals(in, graph.inDegree(node));
+            max = Math.max(max, out + in);
+        }
+        assertEquals(max, graph.maxDegree());
+    }
+
+    /**
+     * applies a random mix of additions and deletions to graph, checking its statistics along the way
+     * @param graph the graph to modify, must be empty
+     * @param seed the seed of the random operations
+     */
+    private static void randomOperations(Multigraph<Integer, Integer> graph, long seed){
+        Random r = new Random(seed);
+        for(int i = 0; i < 2000; i++){
+            int op = r.nextInt(10);
+            int a = r.nextInt(40), b = r.nextInt(40);
+            if(op < 2){
+                graph.addNode(a);
+            }else if(op < 6){
+                if(graph.containsNode(a) && graph.containsNode(b))
+                    graph.addEdge(new Edge<>(a, b, r.nextInt(20)));
+            }else if(op < 7){
+                graph.deleteNode(a);
+            }else if(op < 8){
+                graph.deleteEdge(r.nextInt(20));
+            }else{
+                if(graph.containsNode(a) && graph.containsNode(b))
+                    graph.deleteEdge(new Edge<>(a, b, r.nextInt(20)));
+            }
+            if(i % 50 == 0) assertStats(graph);
+        }
+        assertStats(graph);
+    }
+
+    /**
+     * test the statistics of the mutable implementations through random changes
+     */
+    @Test
+    public void randomOperationsTest(){
+        for(long seed = 0; seed < 5; seed++){
+            randomOperations(new NodeMultigraph<>(), seed);
+            randomOperations(new LinearMultigraph<>(), seed);
+            randomOperations(new ConcurrentMultigraph<>(), seed);
+        }
+    }
+
+    /**
+     * test that the maximum degree drops when the busiest node loses its edges, and that self edges count twice
+     */
+    @Test
+    public void maxDegreeDropsTest(){
+        NodeMultigraph<String, String> graph = new NodeMultigraph<>();
+        assertEquals(0, graph.maxDegree());
+        graph.addNode("a");
+        graph.addNode("b");
+        assertEquals(0, graph.maxDegree());
+        graph.addEdge(new Edge<>("a", "a", "loop"));
+        assertEquals(2, graph.maxDegree());
+        graph.addEdge(new Edge<>("a", "b", "1"));
+        graph.addEdge(new Edge<>("a", "b", "2"));
+        assertEquals(4, graph.maxDegree());
+        assertEquals(3, graph.outDegree("a"));
+        assertEquals(1, graph.inDegree("a"));
+        graph.deleteEdge(new Edge<>("a", "a", "loop"));
+        assertEquals(2, graph.maxDegree());
+        graph.deleteNode("a");
+        assertEquals(0, graph.maxDegree());
+        assertEquals(0, graph.edgeCount());
+        assertEquals(0, graph.inDegree("b"));
+    }
+
+    /**
+     * test the statistics of copies, built graphs and the immutable implementations
+     * @throws IOException if the mapped graph cannot be written
+     */
+    @Test
+    public void copiesAndImmutablesTest() throws IOException {
+        NodeMultigraph<Integer, Integer> graph = new NodeMultigraph<>();
+        randomOperations(graph, 42);
+        assertStats(new NodeMultigraph<>(graph));
+        assertStats(new LinearMultigraph<>(new LinearMultigraph<>(graph)));
+        assertStats(new MultigraphBuilder<Integer, Integer>().addNodes(graph.listNodes())
+                .addEdges(graph.listEdges()).build());
+        assertStats(new PersistentMultigraph<>(graph));
+        assertStats(new CsrMultigraph<>(graph));
+
+        NodeMultigraph<Integer, Double> weighted = new NodeMultigraph<>();
+        for(Integer node : graph.listNodes()){
+            weighted.addNode(node);
+        }
+        for(Edge<Integer, Integer> edge : graph.listEdges()){
+            weighted.addEdge(new Edge<>(edge.getParentNode(), edge.getChildNode(), (double) edge.getLabel()));
+        }
+        assertStats(new DoubleCsrMultigraph<>(weighted));
+        Path file = folder.newFile("stats.graph").toPath();
+        MappedMultigraph.write(new DoubleCsrMultigraph<>(weighted), file);
+        assertStats(MappedMultigraph.open(file));
+    }
+
+    /**
+     * test that the degree of a missing node is an error
+     */
+    @Test(expected = NoSuchElementException.class)
+    public void missingNodeTest(){
+        new LinearMultigraph<String, String>().outDegree("missing");
+    }
+}
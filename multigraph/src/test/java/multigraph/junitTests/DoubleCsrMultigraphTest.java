@@ -0,0 +1,88 @@
+/*
+ * Author: Ryan Nelson
+ * Provided as is without any warranty
+ */
+
+package multigraph.junitTests;
+
+import multigraph.DoubleCsrMultigraph;
+import multigraph.Edge;
+import multigraph.NodeMultigraph;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.Assert.*;
+
+/**
+ * Black box test suite for the compressed double weighted multigraph
+ */
+public class DoubleCsrMultigraphTest {
+
+    private static final double EPSILON = Math.pow(10.0D, -9.0D);
+
+    /**
+     * builds a small graph with self edges, parallel edges and an island
+     * @return the built graph
+     */
+    private static NodeMultigraph<String, Integer> sampleGraph(){
+        NodeMultigraph<String, Integer> mg = new NodeMultigraph<>();
+        mg.addNode("node1");
+        mg.addNode("node2");
+        mg.addNode("node3");
+        mg.addNode("island");
+        mg.addEdge(new Edge<>("node1", "node1", 1));
+        mg.addEdge(new Edge<>("node1", "node2", 2));
+        mg.addEdge(new Edge<>("node1", "node2", 3));
+        mg.addEdge(new Edge<>("node2", "node1", 2));
+        mg.addEdge(new Edge<>("node3", "node2", 4));
+        return mg;
+    }
+
+    /**
+     * test that the edges match the source graph with labels converted to doubles
+     */
+    @Test
+    public void copyTest(){
+        assertThrows(NullPointerException.class, ()->new DoubleCsrMultigraph<String>(null));
+        NodeMultigraph<String, Integer> mg = sampleGraph();
+        DoubleCsrMultigraph<String> compact = new DoubleCsrMultigraph<>(mg);
+        assertEquals(new HashSet<>(mg.listNodes()), new HashSet<>(compact.listNodes()));
+        HashSet<Edge<String, Double>> expected = new HashSet<>();
+        for(Edge<String, Integer> e : mg.listEdges()){
+            expected.add(new Edge<>(e.getParentNode(), e.getChildNode(), e.getLabel().doubleValue()));
+        }
+        assertEquals(expected, new HashSet<>(compact.listEdges()));
+        assertEquals(5, compact.edgeCount());
+        assertTrue(compact.containsEdge(new Edge<>("node3", "node2", 4.0)));
+        assertFalse(compact.containsEdge(new Edge<>("node3", "node2", 5.0)));
+        assertTrue(compact.containsEdge(3.0));
+        assertFalse(compact.containsEdge(7.0));
+        assertThrows(UnsupportedOperationException.class, ()->compact.deleteEdge(3.0));
+    }
+
+    /**
+     * test the primitive adjacency accessors
+     */
+    @Test
+    public void weightedGraphTest(){
+        DoubleCsrMultigraph<String> compact = new DoubleCsrMultigraph<>(sampleGraph());
+        assertThrows(NoSuchElementException.class, ()->compact.idOf("notanode"));
+        int node1 = compact.idOf("node1"), node2 = compact.idOf("node2");
+        double total = 0;
+        for(int e = compact.childStart(node1); e < compact.childEnd(node1); e++){
+            assertEquals(node1, compact.parentOf(e));
+            total += compact.weightOf(e);
+        }
+        assertEquals(6.0, total, EPSILON);
+        HashSet<String> parents = new HashSet<>();
+        for(int i = compact.parentStart(node2); i < compact.parentEnd(node2); i++){
+            int e = compact.parentEdge(i);
+            assertEquals(node2, compact.childOf(e));
+            parents.add(compact.nodeOf(compact.parentOf(e)) + compact.weightOf(e));
+        }
+        assertEquals(new HashSet<>(List.of("node12.0", "node13.0", "node34.0")), parents);
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Author: Ryan Nelson
+ * Provided as is without any warranty
+ */
+
+package multigraph.junitTests;
+
+import multigraph.*;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test suite for the node and edge streams of every multigraph implementation
+ */
+public class EdgeStreamTest {
+
+    /**
+     * builds a random graph with self edges and parallel edges
+     * @return the built graph
+     */
+    private static NodeMultigraph<Integer, Double> randomGraph(){
+        Random r = new Random(12);
+        NodeMultigraph<Integer, Double> graph = new NodeMultigraph<>();
+        for(int i = 0; i < 500; i++){
+            graph.addNode(i);
+        }
+        for(int i = 0; i < 5000; i++){
+            graph.addEdge(new Edge<>(r.nextInt(500), r.nextInt(500), (double) r.nextInt(50)));
+        }
+        return graph;
+    }
+
+    /**
+     * checks that the sequential and parallel streams of graph hold exactly its nodes and edges
+     * @param graph the graph to check
+     */
+    private static <N, E> void assertStreams(Multigraph<N, E> graph){
+        List<Edge<N, E>> edges = graph.listEdges();
+        assertEquals(edges.size(), graph.edgeStream().count());
+        assertEquals(edges.size(), graph.edgeStream().parallel().count());
+        List<Edge<N, E>> streamed = graph.edgeStream().parallel().collect(Collectors.toList());
+        assertEquals(edges.size(), streamed.size());
+        assertEquals(new HashSet<>(edges), new HashSet<>(streamed));
+        assertEquals(new HashSet<>(graph.listNodes()), graph.nodeStream().parallel().collect(Collectors.toSet()));
+    }
+
+    /**
+     * test the streams of every implementation against listEdges and listNodes
+     */
+    @Test
+    public void allImplementationsTest(){
+        NodeMultigraph<Integer, Double> graph = randomGraph();
+        assertStreams(graph);
+        assertStreams(new LinearMultigraph<>(graph));
+        assertStreams(new ConcurrentMultigraph<>(graph));
+        assertStreams(new PersistentMultigraph<>(graph));
+        assertStreams(new CsrMultigraph<>(graph));
+        assertStreams(new DoubleCsrMultigraph<>(graph));
+        assertStreams(new NodeMultigraph<>());
+        assertStreams(new CsrMultigraph<>(new NodeMultigraph<String, String>()));
+    }
+
+    /**
+     * test that the edge stream of NodeMultigraph splits into parts that cover every edge exactly once
+     */
+    @Test
+    public void splitTest(){
+        NodeMultigraph<Integer, Double> graph = randomGraph();
+        Deque<Spliterator<Edge<Integer, Double>>> parts = new ArrayDeque<>();
+        parts.add(graph.edgeStream().spliterator());
+        List<Spliterator<Edge<Integer, Double>>> leaves = new ArrayList<>();
+        while(!parts.isEmpty()){
+            Spliterator<Edge<Integer, Double>> part = parts.pop();
+            Spliterator<Edge<Integer, Double>> prefix = part.estimateSize() > 100 ? part.trySplit() : null;
+            if(prefix == null){
+                leaves.add(part);
+            }else{
+                parts.push(prefix);
+                parts.push(part);
+            }
+        }
+        assertTrue(leaves.size() > 4);
+        List<Edge<Integer, Double>> covered = new ArrayList<>();
+        for(Spliterator<Edge<Integer, Double>> leaf : leaves){
+            //mix tryAdvance and forEachRemaining
+            leaf.tryAdvance(covered::add);
+            leaf.forEachRemaining(covered::add);
+        }
+        assertEquals(graph.listEdges().size(), covered.size());
+        assertEquals(new HashSet<>(graph.listEdges()), new HashSet<>(covered));
+        assertTrue(graph.edgeStream().spliterator().hasCharacteristics(Spliterator.DISTINCT));
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Author: Ryan Nelson
+ * Provided as is without any warranty
+ */
+
+package multigraph.junitTests;
+
+import multigraph.*;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test suite for freezing graphs into immutable copies
+ */
+public class FreezeTest {
+
+    /**
+     * builds a random graph with self edges and parallel edges
+     * @return the built graph
+     */
+    private static NodeMultigraph<Integer, String> randomGraph(){
+        Random r = new Random(3);
+        NodeMultigraph<Integer, String> graph = new NodeMultigraph<>();
+        for(int i = 0; i < 200; i++){
+            graph.addNode(i);
+        }
+        for(int i = 0; i < 1000; i++){
+            graph.addEdge(new Edge<>(r.nextInt(200), r.nextInt(200), "e" + r.nextInt(100)));
+        }
+        return graph;
+    }
+
+    /**
+     * test that a frozen graph holds the same nodes and edges as the original and ignores later changes to it
+     */
+    @Test
+    public void sameContentsTest(){
+        NodeMultigraph<Integer, String> graph = randomGraph();
+        Multigraph<Integer, String> frozen = graph.freeze();
+        assertEquals(new HashSet<>(graph.listNodes()), new HashSet<>(frozen.listNodes()));
+        assertEquals(new HashSet<>(graph.listEdges()), new HashSet<>(frozen.listEdges()));
+        for(Integer node : graph.listNodes()){
+            assertEquals(new HashSet<>(graph.listChildEdges(node)), new HashSet<>(frozen.listChildEdges(node)));
+            assertEquals(new HashSet<>(graph.listParentEdges(node)), new HashSet<>(frozen.listParentEdges(node)));
+        }
+        graph.deleteNode(0);
+        graph.addNode(-1);
+        assertTrue(frozen.containsNode(0));
+        assertFalse(frozen.containsNode(-1));
+
+        Multigraph<Integer, String> copied = Multigraph.immutableCopyOf(new LinearMultigraph<>(graph));
+        assertEquals(new HashSet<>(graph.listEdges()), new HashSet<>(copied.listEdges()));
+    }
+
+    /**
+     * test that freezing an immutable compact graph returns it unchanged
+     */
+    @Test
+    public void alreadyFrozenTest(){
+        Multigraph<Integer, String> frozen = randomGraph().freeze();
+        assertSame(frozen, frozen.freeze());
+        assertSame(frozen, Multigraph.immutableCopyOf(frozen));
+        NodeMultigraph<String, Double> weighted = new NodeMultigraph<>();
+        weighted.addNode("a");
+        DoubleCsrMultigraph<String> csr = new DoubleCsrMultigraph<>(weighted);
+        assertSame(csr, csr.freeze());
+    }
+
+    /**
+     * test that every mutator of a frozen graph throws
+     */
+    @Test
+    public void mutatorsThrowTest(){
+        Multigraph<Integer, String> frozen = randomGraph().freeze();
+        List<Runnable> mutators = List.of(
+                () -> frozen.addNode(500),
+                () -> frozen.addEdge(new Edge<>(0, 1, "new")),
+                () -> frozen.deleteNode(0),
+                () -> frozen.deleteEdge("e1"),
+                () -> frozen.deleteEdge(frozen.listEdges().get(0)));
+        for(Runnable mutator : mutators){
+            try{
+                mutator.run();
+                fail();
+            }catch(UnsupportedOperationException e){
+                //expected
+            }
+        }
+    }
+
+    /**
+     * test that a concurrent graph can be frozen while another thread adds and deletes nodes, and that each
+     * copy is consistent
+     * @throws InterruptedException if interrupted while waiting for the writer
+     */
+    @Test
+    public void freezeWhileWritingTest() throws InterruptedException {
+        ConcurrentMultigraph<Integer, String> graph = new ConcurrentMultigraph<>();
+        graph.addNode(0);
+        Thread writer = new Thread(() -> {
+            for(int node = 1; node < 20000; node++){
+                graph.addNode(node);
+                graph.addEdge(new Edge<>(node - 1, node, "e" + node));
+                if(node > 20) graph.deleteNode(node - 20);
+            }
+        });
+        writer.start();
+        int copies = 0;
+        while(writer.isAlive() || copies == 0){
+            Multigraph<Integer, String> frozen = graph.freeze();
+            Set<Integer> nodes = new HashSet<>(frozen.listNodes());
+            for(Edge<Integer, String> edge : frozen.listEdges()){
+                assertTrue(nodes.contains(edge.getParentNode()) && nodes.contains(edge.getChildNode()));
+            }
+            assertEquals(frozen.listEdges().size(), frozen.edgeCount());
+            copies++;
+        }
+        writer.join();
+    }
+
+    /**
+     * test that many threads can read one frozen graph at once and all see the same edges
+     * @throws Exception if a reader fails
+     */
+    @Test
+    public void sharedReadersTest() throws Exception {
+        NodeMultigraph<Integer, String> graph = randomGraph();
+        Multigraph<Integer, String> frozen = graph.freeze();
+        Set<Edge<Integer, String>> expected = new HashSet<>(graph.listEdges());
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try{
+            List<Future<Set<Edge<Integer, String>>>> reads = new ArrayList<>();
+            for(int i = 0; i < 8; i++){
+                reads.add(pool.submit(() -> {
+                    Set<Edge<Integer, String>> seen = new HashSet<>();
+                    for(Integer node : frozen.nodes()){
+                        frozen.forEachChildEdge(node, seen::add);
+                    }
+                    return seen;
+                }));
+            }
+            for(Future<Set<Edge<Integer, String>>> read : reads){
+                assertEquals(expected, read.get());
+            }
+        }finally{
+            pool.shutdown();
+        }
+    }
+}
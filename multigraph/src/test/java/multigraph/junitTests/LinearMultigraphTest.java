@@ -440,4 +440,48 @@ public class LinearMultigraphTest {
         mg.deleteEdge("comEdge");
         assertEquals(expected.listEdges(), mg.listEdges());
     }
+
+    /**
+     * test that label lookups stay consistent with the edges through every mutator
+     */
+    @Test
+    public void labelIndexTest(){
+        LinearMultigraph<String, String> mg = new LinearMultigraph<>();
+        mg.addNode("n1");
+        mg.addNode("n2");
+        mg.addNode("n3");
+        Edge<String, String> shared1 = new Edge<>("n1", "n2", "shared");
+        Edge<String, String> shared2 = new Edge<>("n2", "n3", "shared");
+        Edge<String, String> self = new Edge<>("n3", "n3", "self");
+        mg.addEdge(shared1);
+        mg.addEdge(shared2);
+        mg.addEdge(self);
+
+        //removing one of two edges keeps the label
+        LinearMultigraph<String, String> copy = new LinearMultigraph<>(mg);
+        copy.deleteEdge(shared1);
+        assertTrue(copy.containsEdge("shared"));
+        copy.deleteEdge(shared2);
+        assertFalse(copy.containsEdge("shared"));
+        assertTrue(mg.containsEdge("shared"));
+
+        //deleting a node drops the labels of its edges, in either direction
+        copy = new LinearMultigraph<>(mg);
+        copy.deleteNode("n3");
+        assertTrue(copy.containsEdge("shared"));
+        assertFalse(copy.containsEdge("self"));
+        copy.deleteNode("n1");
+        assertFalse(copy.containsEdge("shared"));
+
+        //re-adding an edge after deleting its label
+        copy = new LinearMultigraph<>(mg);
+        copy.deleteEdge("shared");
+        assertFalse(copy.containsEdge(shared1));
+        assertFalse(copy.containsEdge(shared2));
+        copy.addEdge(shared2);
+        assertTrue(copy.containsEdge("shared"));
+        copy.deleteEdge("shared");
+        assertEquals(1, copy.listEdges().size());
+        assertTrue(copy.containsEdge(self));
+    }
 }
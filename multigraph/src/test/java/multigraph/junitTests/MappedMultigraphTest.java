@@ -0,0 +1,147 @@
+/*
+ * Author: Ryan Nelson
+ * Provided as is without any warranty
+ */
+
+package multigraph.junitTests;
+
+import multigraph.DoubleCsrMultigraph;
+import multigraph.Edge;
+import multigraph.MappedMultigraph;
+import multigraph.NodeMultigraph;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Black box test suite for the memory-mapped multigraph
+ */
+public class MappedMultigraphTest {
+
+    private static final double EPSILON = Math.pow(10.0D, -9.0D);
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * builds a small graph with self edges, parallel edges and an island
+     * @return the built graph
+     */
+    private static NodeMultigraph<String, Double> sampleGraph(){
+        NodeMultigraph<String, Double> mg = new NodeMultigraph<>();
+        mg.addNode("node1");
+        mg.addNode("node2");
+        mg.addNode("node3");
+        mg.addNode("island");
+        mg.addEdge(new Edge<>("node1", "node1", 1.0));
+        mg.addEdge(new Edge<>("node1", "node2", 2.0));
+        mg.addEdge(new Edge<>("node1", "node2", 3.5));
+        mg.addEdge(new Edge<>("node2", "node1", 2.0));
+        mg.addEdge(new Edge<>("node3", "node2", 4.0));
+        return mg;
+    }
+
+    /**
+     * Writes graph to a new file and maps it back in
+     * @param graph the graph to write
+     * @return the mapped graph
+     * @throws IOException if the file cannot be written or read
+     */
+    private MappedMultigraph roundTrip(DoubleCsrMultigraph<?> graph) throws IOException {
+        Path file = folder.newFile().toPath();
+        MappedMultigraph.write(graph, file);
+        return MappedMultigraph.open(file);
+    }
+
+    /**
+     * test that the mapped graph has the same ids, edges and weights as the graph it was written from
+     */
+    @Test
+    public void roundTripTest() throws IOException {
+        DoubleCsrMultigraph<String> compact = new DoubleCsrMultigraph<>(sampleGraph());
+        MappedMultigraph mapped = roundTrip(compact);
+
+        assertEquals(compact.size(), mapped.size());
+        assertEquals(compact.edgeCount(), mapped.edgeCount());
+        for(int id = 0; id < compact.size(); id++){
+            assertEquals(compact.childStart(id), mapped.childStart(id));
+            assertEquals(compact.childEnd(id), mapped.childEnd(id));
+            assertEquals(compact.parentStart(id), mapped.parentStart(id));
+            assertEquals(compact.parentEnd(id), mapped.parentEnd(id));
+        }
+        for(int e = 0; e < compact.edgeCount(); e++){
+            assertEquals(compact.parentOf(e), mapped.parentOf(e));
+            assertEquals(compact.childOf(e), mapped.childOf(e));
+            assertEquals(compact.weightOf(e), mapped.weightOf(e), EPSILON);
+            assertEquals(compact.parentEdge(e), mapped.parentEdge(e));
+        }
+
+        Set<Edge<Integer, Double>> expected = new HashSet<>();
+        for(Edge<String, Double> edge : compact.listEdges()){
+            expected.add(new Edge<>(compact.idOf(edge.getParentNode()), compact.idOf(edge.getChildNode()),
+                    edge.getLabel()));
+        }
+        assertEquals(expected, new HashSet<>(mapped.listEdges()));
+        int node1 = compact.idOf("node1"), node2 = compact.idOf("node2");
+        assertEquals(3, mapped.listChildEdges(node1).size());
+        assertEquals(3, mapped.parentEdges(node2).size());
+        assertTrue(mapped.containsEdge(new Edge<>(node1, node2, 3.5)));
+        assertFalse(mapped.containsEdge(new Edge<>(node2, node1, 3.5)));
+        assertTrue(mapped.containsEdge(4.0));
+        assertFalse(mapped.containsEdge(5.0));
+        assertEquals(new HashSet<>(mapped.listNodes()), mapped.nodes());
+    }
+
+    /**
+     * test the checked failures of the mapped graph
+     */
+    @Test
+    public void errorTest() throws IOException {
+        MappedMultigraph mapped = roundTrip(new DoubleCsrMultigraph<>(sampleGraph()));
+        assertFalse(mapped.containsNode(-1));
+        assertFalse(mapped.containsNode(4));
+        assertThrows(NoSuchElementException.class, ()->mapped.listChildEdges(4));
+        assertThrows(UnsupportedOperationException.class, ()->mapped.addNode(5));
+        assertThrows(UnsupportedOperationException.class, ()->mapped.deleteEdge(1.0));
+
+        Path bad = folder.newFile().toPath();
+        Files.write(bad, new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16});
+        assertThrows(IOException.class, ()->MappedMultigraph.open(bad));
+
+        Path truncated = folder.newFile().toPath();
+        MappedMultigraph.write(new DoubleCsrMultigraph<>(sampleGraph()), truncated);
+        byte[] bytes = Files.readAllBytes(truncated);
+        Files.write(truncated, Arrays.copyOf(bytes, bytes.length - 4));
+        assertThrows(IOException.class, ()->MappedMultigraph.open(truncated));
+    }
+
+    /**
+     * test a graph larger than the write buffer
+     */
+    @Test
+    public void largeGraphTest() throws IOException {
+        Random r = new Random(2);
+        NodeMultigraph<Integer, Double> mg = new NodeMultigraph<>();
+        for(int i = 0; i < 2000; i++){
+            mg.addNode(i);
+        }
+        for(int i = 0; i < 10000; i++){
+            mg.addEdge(new Edge<>(r.nextInt(2000), r.nextInt(2000), r.nextDouble()));
+        }
+        DoubleCsrMultigraph<Integer> compact = new DoubleCsrMultigraph<>(mg);
+        MappedMultigraph mapped = roundTrip(compact);
+        assertEquals(compact.edgeCount(), mapped.edgeCount());
+        for(int e = 0; e < compact.edgeCount(); e++){
+            assertEquals(compact.weightOf(e), mapped.weightOf(e), 0);
+            assertEquals(compact.childOf(e), mapped.childOf(e));
+            assertEquals(compact.parentEdge(e), mapped.parentEdge(e));
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Author: Ryan Nelson
+ * Provided as is without any warranty
+ */
+
+package multigraph.junitTests;
+
+import multigraph.*;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Black box test suite for the bulk graph builder, checked against graphs built one call at a time
+ */
+public class MultigraphBuilderTest {
+
+    /**
+     * helper method for testing if two multigraphs are equal
+     * @param m1 first multigraph, must not be null
+     * @param m2 second multigraph, must not be null
+     * @return true if the two multigraphs are equal, else false
+     */
+    private static <N, E> boolean mgEquals(Multigraph<N, E> m1, Multigraph<N, E> m2){
+        Set<N> m1Nodes = new HashSet<>(m1.listNodes()),
+                m2Nodes = new HashSet<>(m2.listNodes());
+        if(!m1Nodes.equals(m2Nodes)) return false;
+
+        List<Edge<N, E>> m1List = m1.listEdges(), m2List = m2.listEdges();
+        return new HashSet<>(m1List).equals(new HashSet<>(m2List)) && m1List.size() == m2List.size();
+    }
+
+    /**
+     * test that a built graph matches the same nodes and edges added one at a time, for any implementation
+     */
+    @Test
+    public void matchesIncrementalTest(){
+        Random r = new Random(4);
+        MultigraphBuilder<Integer, String> builder = new MultigraphBuilder<>(50, 300);
+        NodeMultigraph<Integer, String> expected = new NodeMultigraph<>();
+        List<Integer> nodes = new ArrayList<>();
+        for(int i = 0; i < 50; i++){
+            nodes.add(i);
+            expected.addNode(i);
+        }
+        builder.addNodes(nodes).addNodes(nodes);
+        List<Edge<Integer, String>> edges = new ArrayList<>();
+        for(int i = 0; i < 300; i++){
+            Edge<Integer, String> edge = new Edge<>(r.nextInt(50), r.nextInt(50), "e" + r.nextInt(20));
+            edges.add(edge);
+            expected.addEdge(edge);
+        }
+        builder.addEdges(edges).addEdge(edges.get(0));
+
+        NodeMultigraph<Integer, String> built = builder.build();
+        assertTrue(mgEquals(expected, built));
+        for(int i = 0; i < 20; i++){
+            assertEquals(expected.containsEdge("e" + i), built.containsEdge("e" + i));
+        }
+        for(Integer node : nodes){
+            assertEquals(new HashSet<>(expected.listParentEdges(node)), new HashSet<>(built.listParentEdges(node)));
+        }
+        assertTrue(mgEquals(expected, builder.build(LinearMultigraph::new)));
+        assertTrue(mgEquals(expected, builder.build(ConcurrentMultigraph::new)));
+
+        built.deleteEdge("e3");
+        expected.deleteEdge("e3");
+        assertTrue(mgEquals(expected, built));
+        //each build is independent of the graphs built before it
+        assertEquals(new HashSet<>(edges), new HashSet<>(builder.build().listEdges()));
+    }
+
+    /**
+     * test that edges are validated against the nodes when the graph is built
+     */
+    @Test
+    public void validationTest(){
+        MultigraphBuilder<String, String> builder = new MultigraphBuilder<>();
+        builder.addNode("a").addEdge(new Edge<>("a", "b", "ab"));
+        assertThrows(NoSuchElementException.class, builder::build);
+        assertThrows(NoSuchElementException.class, ()->builder.build(NodeMultigraph::new));
+        builder.addNode("b");
+        assertEquals(1, builder.build().listEdges().size());
+
+        assertThrows(NullPointerException.class, ()->builder.addNode(null));
+        assertThrows(NullPointerException.class, ()->builder.addEdge(null));
+        assertThrows(IllegalArgumentException.class, ()->builder.addEdge(new Edge<>("a", "b", null)));
+        assertThrows(IllegalArgumentException.class, ()->new MultigraphBuilder<String, String>(-1, 0));
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Author: Ryan Nelson
+ * Provided as is without any warranty
+ */
+
+package multigraph.junitTests;
+
+import multigraph.*;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Black box test suite for saving and loading multigraphs
+ */
+public class MultigraphSerializerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * helper method for testing if two multigraphs are equal
+     * @param m1 first multigraph, must not be null
+     * @param m2 second multigraph, must not be null
+     * @return true if the two multigraphs are equal, else false
+     */
+    private static <N, E> boolean mgEquals(Multigraph<N, E> m1, Multigraph<N, E> m2){
+        Set<N> m1Nodes = new HashSet<>(m1.listNodes()),
+                m2Nodes = new HashSet<>(m2.listNodes());
+        if(!m1Nodes.equals(m2Nodes)) return false;
+
+        List<Edge<N, E>> m1List = m1.listEdges(), m2List = m2.listEdges();
+        return new HashSet<>(m1List).equals(new HashSet<>(m2List)) && m1List.size() == m2List.size();
+    }
+
+    /**
+     * writes graph to a byte array
+     * @param graph the graph to write
+     * @return the written bytes
+     */
+    private static <N, E> byte[] toBytes(Multigraph<N, E> graph, Codec<N> nodeCodec, Codec<E> edgeCodec)
+            throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        MultigraphSerializer.write(graph, Channels.newChannel(out), nodeCodec, edgeCodec);
+        return out.toByteArray();
+    }
+
+    /**
+     * reads a graph from a byte array
+     * @param bytes the bytes to read
+     * @return the graph read
+     */
+    private static <N, E> NodeMultigraph<N, E> fromBytes(byte[] bytes, Codec<N> nodeCodec, Codec<E> edgeCodec)
+            throws IOException {
+        return MultigraphSerializer.read(Channels.newChannel(new ByteArrayInputStream(bytes)), nodeCodec, edgeCodec);
+    }
+
+    /**
+     * test that random graphs with fixed and variable size labels survive a round trip
+     */
+    @Test
+    public void roundTripTest() throws IOException {
+        Random r = new Random(6);
+        NodeMultigraph<String, Integer> graph = new NodeMultigraph<>();
+        for(int i = 0; i < 3000; i++){
+            graph.addNode("node é" + i);
+        }
+        for(int i = 0; i < 20000; i++){
+            graph.addEdge(new Edge<>("node é" + r.nextInt(3000), "node é" + r.nextInt(3000), r.nextInt()));
+        }
+        NodeMultigraph<String, Integer> read = fromBytes(toBytes(graph, Codec.STRING, Codec.INTEGER),
+                Codec.STRING, Codec.INTEGER);
+        assertTrue(mgEquals(graph, read));
+
+        Path file = folder.newFile().toPath();
+        CsrMultigraph<String, Integer> compact = new CsrMultigraph<>(graph);
+        MultigraphSerializer.write(compact, file, Codec.STRING, Codec.INTEGER);
+        assertTrue(mgEquals(graph, MultigraphSerializer.read(file, Codec.STRING, Codec.INTEGER)));
+    }
+
+    /**
+     * test labels larger than the stream buffer, self edges, parallel edges and islands
+     */
+    @Test
+    public void largeLabelTest() throws IOException {
+        char[] chars = new char[200000];
+        Arrays.fill(chars, 'x');
+        String big = new String(chars);
+        NodeMultigraph<String, String> graph = new NodeMultigraph<>();
+        graph.addNode(big);
+        graph.addNode("small");
+        graph.addNode("island");
+        graph.addEdge(new Edge<>(big, big, "self"));
+        graph.addEdge(new Edge<>(big, "small", big));
+        graph.addEdge(new Edge<>(big, "small", ""));
+        assertTrue(mgEquals(graph, fromBytes(toBytes(graph, Codec.STRING, Codec.STRING), Codec.STRING, Codec.STRING)));
+        assertTrue(mgEquals(new NodeMultigraph<>(), fromBytes(toBytes(new NodeMultigraph<>(), Codec.STRING,
+                Codec.STRING), Codec.STRING, Codec.STRING)));
+    }
+
+    /**
+     * test that bad input is rejected with an IOException
+     */
+    @Test
+    public void errorTest() throws IOException {
+        NodeMultigraph<Integer, Double> graph = new NodeMultigraph<>();
+        graph.addNode(1);
+        graph.addNode(2);
+        graph.addEdge(new Edge<>(1, 2, 0.5));
+        byte[] bytes = toBytes(graph, Codec.INTEGER, Codec.DOUBLE);
+        assertTrue(mgEquals(graph, fromBytes(bytes, Codec.INTEGER, Codec.DOUBLE)));
+
+        assertThrows(IOException.class, ()->fromBytes(bytes, Codec.INTEGER, Codec.INTEGER));
+        assertThrows(IOException.class, ()->fromBytes(Arrays.copyOf(bytes, bytes.length - 1),
+                Codec.INTEGER, Codec.DOUBLE));
+        byte[] badMagic = bytes.clone();
+        badMagic[0]++;
+        assertThrows(IOException.class, ()->fromBytes(badMagic, Codec.INTEGER, Codec.DOUBLE));
+        byte[] badVersion = bytes.clone();
+        badVersion[7]++;
+        assertThrows(IOException.class, ()->fromBytes(badVersion, Codec.INTEGER, Codec.DOUBLE));
+    }
+
+    /**
+     * test that counts and lengths too large for the rest of the file are rejected with an IOException before
+     * anything is allocated for them
+     */
+    @Test
+    public void boundsTest() throws IOException {
+        NodeMultigraph<String, String> graph = new NodeMultigraph<>();
+        graph.addNode("a");
+        graph.addNode("b");
+        graph.addEdge(new Edge<>("a", "b", "ab"));
+        byte[] bytes = toBytes(graph, Codec.STRING, Codec.STRING);
+        //the node count, the edge count, the length of the first node label and the child count of the first node
+        for(int offset : new int[]{16, 20, 24, 34}){
+            byte[] corrupt = bytes.clone();
+            ByteBuffer.wrap(corrupt).putInt(offset, Integer.MAX_VALUE);
+            assertThrows(IOException.class, ()->fromBytes(corrupt, Codec.STRING, Codec.STRING));
+            Path file = folder.newFile().toPath();
+            Files.write(file, corrupt);
+            assertThrows(IOException.class, ()->MultigraphSerializer.read(file, Codec.STRING, Codec.STRING));
+        }
+        Path file = folder.newFile().toPath();
+        Files.write(file, bytes);
+        assertTrue(mgEquals(graph, MultigraphSerializer.read(file, Codec.STRING, Codec.STRING)));
+    }
+
+    /**
+     * test that a fixed size codec that reads fewer bytes than it wrote is caught instead of shifting every
+     * later value
+     */
+    @Test
+    public void shortCodecTest() throws IOException {
+        Codec<Integer> wide = new Codec<>() {
+            @Override
+            public int fixedSize() {
+                return Long.BYTES;
+            }
+
+            @Override
+            public void encode(Integer value, ByteBuffer buffer) {
+                buffer.putLong(value);
+            }
+
+            @Override
+            public Integer decode(ByteBuffer buffer) {
+                return buffer.getInt();
+            }
+        };
+        NodeMultigraph<Integer, Double> graph = new NodeMultigraph<>();
+        graph.addNode(1);
+        graph.addNode(2);
+        graph.addEdge(new Edge<>(1, 2, 0.5));
+        byte[] bytes = toBytes(graph, wide, Codec.DOUBLE);
+        assertThrows(IllegalStateException.class, ()->fromBytes(bytes, wide, Codec.DOUBLE));
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Author: Ryan Nelson
+ * Provided as is without any warranty
+ */
+
+package multigraph.junitTests;
+
+import multigraph.*;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Black box test suite for the node index and the indexes graphs hand out
+ */
+public class NodeIndexTest {
+
+    /**
+     * checks that index assigns every node of graph a distinct id in [0, graph.size())
+     * @param graph the indexed graph
+     * @param index the index to check
+     */
+    private static <N> void assertIndexes(Multigraph<N, ?> graph, NodeIndex<N> index){
+        assertEquals(graph.size(), index.size());
+        for(N node : graph.listNodes()){
+            int id = index.idOf(node);
+            assertTrue(0 <= id && id < index.size());
+            assertEquals(node, index.nodeOf(id));
+        }
+    }
+
+    /**
+     * test the mapping between nodes and ids
+     */
+    @Test
+    public void mappingTest(){
+        NodeIndex<String> index = new NodeIndex<>(List.of("a", "b", "a", "c"));
+        assertEquals(3, index.size());
+        assertEquals(0, index.idOf("a"));
+        assertEquals(1, index.idOf("b"));
+        assertEquals(2, index.idOf("c"));
+        assertEquals("c", index.nodeOf(2));
+        assertEquals(List.of("a", "b", "c"), index.asList());
+        assertEquals(Set.of("a", "b", "c"), index.asSet());
+        assertTrue(index.contains("b"));
+        assertFalse(index.contains("d"));
+        assertFalse(index.contains(null));
+        assertEquals(-1, index.indexOf("d"));
+        assertThrows(NoSuchElementException.class, ()->index.idOf("d"));
+        assertThrows(UnsupportedOperationException.class, ()->index.asList().set(0, "d"));
+        assertThrows(NullPointerException.class, ()->new NodeIndex<>(Arrays.asList("a", null)));
+    }
+
+    /**
+     * test the indexes handed out by each graph implementation
+     */
+    @Test
+    public void graphIndexTest(){
+        NodeMultigraph<String, String> nm = new NodeMultigraph<>();
+        for(int i = 0; i < 20; i++){
+            nm.addNode("n" + i);
+        }
+        nm.addEdge(new Edge<>("n1", "n2", "e"));
+        assertIndexes(nm, nm.nodeIndex());
+        assertIndexes(new LinearMultigraph<>(nm), new LinearMultigraph<>(nm).nodeIndex());
+        CsrMultigraph<String, String> csr = new CsrMultigraph<>(nm);
+        assertIndexes(csr, csr.nodeIndex());
+        for(int i = 0; i < csr.size(); i++){
+            assertEquals(csr.nodeOf(i), csr.nodeIndex().nodeOf(i));
+        }
+    }
+
+    /**
+     * test that NodeMultigraph reuses its index until the set of nodes changes
+     */
+    @Test
+    public void cachedIndexTest(){
+        NodeMultigraph<String, String> nm = new NodeMultigraph<>();
+        nm.addNode("a");
+        nm.addNode("b");
+        NodeIndex<String> first = nm.nodeIndex();
+        assertSame(first, nm.nodeIndex());
+        nm.addEdge(new Edge<>("a", "b", "ab"));
+        nm.addNode("a");
+        assertSame(first, nm.nodeIndex());
+
+        nm.addNode("c");
+        NodeIndex<String> second = nm.nodeIndex();
+        assertNotSame(first, second);
+        assertIndexes(nm, second);
+        assertEquals(2, first.size());
+
+        nm.deleteNode("a");
+        assertIndexes(nm, nm.nodeIndex());
+        assertFalse(nm.nodeIndex().contains("a"));
+    }
+
+    /**
+     * test that exactly the graphs that keep their index report it
+     */
+    @Test
+    public void stableIndexTest(){
+        NodeMultigraph<String, String> nm = new NodeMultigraph<>();
+        nm.addNode("a");
+        assertTrue(nm.hasStableNodeIndex());
+        assertTrue(new CsrMultigraph<>(nm).hasStableNodeIndex());
+        assertTrue(new ObservableMultigraph<>(nm).hasStableNodeIndex());
+        assertFalse(new LinearMultigraph<>(nm).hasStableNodeIndex());
+        assertFalse(new ObservableMultigraph<>(new LinearMultigraph<>(nm)).hasStableNodeIndex());
+        NodeMultigraph<String, Double> weighted = new NodeMultigraph<>();
+        weighted.addNode("a");
+        assertTrue(new DoubleCsrMultigraph<>(weighted).hasStableNodeIndex());
+    }
+}
@@ -446,4 +446,172 @@ public class NodeMultigraphTest {
         mg.deleteEdge("comEdge");
         assertEquals(expected.listEdges(), mg.listEdges());
     }
+
+    /**
+     * helper method that finds the parent edges of a node by scanning every edge in the graph,
+     * the way listParentEdges worked before the graph kept a reverse index
+     * @param mg the graph to scan, must not be null
+     * @param node the node to find parent edges of
+     * @return the set of edges in mg that terminate at node
+     */
+    private static <N, E> Set<Edge<N, E>> scanParentEdges(NodeMultigraph<N, E> mg, N node){
+        Set<Edge<N, E>> ret = new HashSet<>();
+        for(Edge<N, E> edge : mg.listEdges()){
+            if(edge.getChildNode().equals(node)) ret.add(edge);
+        }
+        return ret;
+    }
+
+    /**
+     * helper method that checks the parent edges of every node match a full scan of the graph
+     * @param mg the graph to check, must not be null
+     */
+    private static <N, E> void assertParentsMatchScan(NodeMultigraph<N, E> mg){
+        for(N node : mg.listNodes()){
+            assertEquals(scanParentEdges(mg, node), new HashSet<>(mg.listParentEdges(node)));
+        }
+    }
+
+    /**
+     * test that the reverse index stays consistent with the child edges through every mutator
+     */
+    @Test
+    public void parentIndexTest(){
+        NodeMultigraph<String, String> mg = new NodeMultigraph<>();
+        for(int i = 0; i < 6; i++){
+            mg.addNode("n" + i);
+        }
+        for(int i = 0; i < 6; i++){
+            for(int j = 0; j < 6; j++){
+                if((i + j) % 3 == 0) mg.addEdge(new Edge<>("n" + i, "n" + j, "e" + (i * j % 4)));
+            }
+        }
+        assertParentsMatchScan(mg);
+
+        //copies keep their own index
+        NodeMultigraph<String, String> copy = new NodeMultigraph<>(mg);
+        copy.deleteNode("n0");
+        assertParentsMatchScan(mg);
+        assertParentsMatchScan(copy);
+        assertEquals(scanParentEdges(mg, "n3"), new HashSet<>(mg.listParentEdges("n3")));
+
+        //self edges on deleted nodes
+        mg.addEdge(new Edge<>("n1", "n1", "self"));
+        mg.deleteNode("n1");
+        assertParentsMatchScan(mg);
+        assertFalse(mg.containsEdge("self"));
+
+        mg.deleteEdge(new Edge<>("n3", "n3", "e1"));
+        assertParentsMatchScan(mg);
+        mg.deleteEdge("e0");
+        assertParentsMatchScan(mg);
+        assertFalse(mg.containsEdge("e0"));
+
+        //re-adding a deleted node starts with no parents
+        mg.addNode("n1");
+        assertEquals(0, mg.listParentEdges("n1").size());
+        assertParentsMatchScan(mg);
+    }
+
+    /**
+     * test that deleting a node removes exactly the edges touching it, matching a full scan
+     */
+    @Test
+    public void deleteNodeMatchesScanTest(){
+        NodeMultigraph<String, String> mg = new NodeMultigraph<>();
+        mg.addNode("hub");
+        for(int i = 0; i < 10; i++){
+            mg.addNode("spoke" + i);
+            mg.addEdge(new Edge<>("hub", "spoke" + i, "out" + i));
+            mg.addEdge(new Edge<>("spoke" + i, "hub", "in" + i));
+            if(i > 0) mg.addEdge(new Edge<>("spoke" + (i - 1), "spoke" + i, "ring" + i));
+        }
+        Set<Edge<String, String>> expected = new HashSet<>();
+        for(Edge<String, String> edge : mg.listEdges()){
+            if(!edge.getParentNode().equals("hub") && !edge.getChildNode().equals("hub")) expected.add(edge);
+        }
+        mg.deleteNode("hub");
+        assertEquals(expected, new HashSet<>(mg.listEdges()));
+        assertParentsMatchScan(mg);
+    }
+
+    /**
+     * test that label lookups stay consistent with the edges through every mutator
+     */
+    @Test
+    public void labelIndexTest(){
+        NodeMultigraph<String, String> mg = new NodeMultigraph<>();
+        mg.addNode("n1");
+        mg.addNode("n2");
+        mg.addNode("n3");
+        Edge<String, String> shared1 = new Edge<>("n1", "n2", "shared");
+        Edge<String, String> shared2 = new Edge<>("n2", "n3", "shared");
+        Edge<String, String> self = new Edge<>("n3", "n3", "self");
+        mg.addEdge(shared1);
+        mg.addEdge(shared2);
+        mg.addEdge(self);
+
+        //removing one of two edges keeps the label
+        NodeMultigraph<String, String> copy = new NodeMultigraph<>(mg);
+        copy.deleteEdge(shared1);
+        assertTrue(copy.containsEdge("shared"));
+        copy.deleteEdge(shared2);
+        assertFalse(copy.containsEdge("shared"));
+        assertTrue(mg.containsEdge("shared"));
+
+        //deleting a node drops the labels of its edges, in either direction
+        copy = new NodeMultigraph<>(mg);
+        copy.deleteNode("n3");
+        assertTrue(copy.containsEdge("shared"));
+        assertFalse(copy.containsEdge("self"));
+        copy.deleteNode("n1");
+        assertFalse(copy.containsEdge("shared"));
+
+        //re-adding an edge after deleting its label
+        copy = new NodeMultigraph<>(mg);
+        copy.deleteEdge("shared");
+        assertFalse(copy.containsEdge(shared1));
+        assertFalse(copy.containsEdge(shared2));
+        copy.addEdge(shared2);
+        assertTrue(copy.containsEdge("shared"));
+        copy.deleteEdge("shared");
+        assertEquals(1, copy.listEdges().size());
+        assertTrue(copy.containsEdge(self));
+    }
+
+    /**
+     * test the traversal methods and read-only views against the list methods
+     */
+    @Test
+    public void traversalTest(){
+        NodeMultigraph<String, String> mg = new NodeMultigraph<>();
+        mg.addNode("n1");
+        mg.addNode("n2");
+        mg.addEdge(new Edge<>("n1", "n2", "a"));
+        mg.addEdge(new Edge<>("n1", "n2", "b"));
+        mg.addEdge(new Edge<>("n2", "n2", "self"));
+
+        Set<Edge<String, String>> visited = new HashSet<>();
+        mg.forEachChildEdge("n1", visited::add);
+        assertEquals(new HashSet<>(mg.listChildEdges("n1")), visited);
+        visited.clear();
+        mg.forEachParentEdge("n2", visited::add);
+        assertEquals(new HashSet<>(mg.listParentEdges("n2")), visited);
+        visited.clear();
+        mg.forEachEdge(visited::add);
+        assertEquals(new HashSet<>(mg.listEdges()), visited);
+        assertThrows(NoSuchElementException.class, ()->mg.forEachChildEdge("notanode", e -> {}));
+        assertThrows(NoSuchElementException.class, ()->mg.forEachParentEdge("notanode", e -> {}));
+
+        //views are read-only and follow the graph
+        Set<String> nodes = mg.nodes();
+        assertEquals(new HashSet<>(mg.listNodes()), nodes);
+        assertThrows(UnsupportedOperationException.class, ()->nodes.add("foo"));
+        assertThrows(UnsupportedOperationException.class, ()->mg.childEdges("n1").clear());
+        assertEquals(2, mg.childEdges("n1").size());
+        assertEquals(3, mg.parentEdges("n2").size());
+        mg.addNode("n3");
+        assertTrue(nodes.contains("n3"));
+        assertThrows(NoSuchElementException.class, ()->mg.childEdges("notanode"));
+    }
 }
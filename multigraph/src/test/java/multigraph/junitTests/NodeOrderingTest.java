@@ -0,0 +1,172 @@
+/*
+ * Author: Ryan Nelson
+ * Provided as is without any warranty
+ */
+
+package multigraph.junitTests;
+
+import multigraph.*;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test suite for NodeOrdering and compressed graphs laid out in a given order
+ */
+public class NodeOrderingTest {
+
+    private static final int SIDE = 40;
+
+    /**
+     * builds a SIDE by SIDE grid with edges both ways between neighbouring cells, with the nodes added in a
+     * random order.  Node r * SIDE + c is the cell in row r and column c.
+     * @return the built graph
+     */
+    private static NodeMultigraph<Integer, Double> shuffledGrid(){
+        List<Integer> cells = new ArrayList<>();
+        for(int i = 0; i < SIDE * SIDE; i++){
+            cells.add(i);
+        }
+        Collections.shuffle(cells, new Random(7));
+        NodeMultigraph<Integer, Double> graph = new NodeMultigraph<>();
+        for(Integer cell : cells){
+            graph.addNode(cell);
+        }
+        for(Integer cell : cells){
+            if(cell % SIDE + 1 < SIDE){
+                graph.addEdge(new Edge<>(cell, cell + 1, 1.0));
+                graph.addEdge(new Edge<>(cell + 1, cell, 1.0));
+            }
+            if(cell + SIDE < SIDE * SIDE){
+                graph.addEdge(new Edge<>(cell, cell + SIDE, 1.0));
+                graph.addEdge(new Edge<>(cell + SIDE, cell, 1.0));
+            }
+        }
+        return graph;
+    }
+
+    /**
+     * returns the average difference between the ids of the two ends of each edge
+     * @param graph the graph whose edges to measure
+     * @param index the ids of the nodes
+     * @return the average id distance of an edge
+     */
+    private static double averageSpan(Multigraph<Integer, Double> graph, NodeIndex<Integer> index){
+        long total = 0;
+        for(Edge<Integer, Double> edge : graph.listEdges()){
+            total += Math.abs(index.idOf(edge.getParentNode()) - index.idOf(edge.getChildNode()));
+        }
+        return (double) total / graph.edgeCount();
+    }
+
+    /**
+     * test that both orderings are permutations of the nodes
+     */
+    @Test
+    public void permutationTest(){
+        NodeMultigraph<Integer, Double> graph = shuffledGrid();
+        NodeIndex<Integer> rcm = NodeOrdering.reverseCuthillMcKee(graph);
+        NodeIndex<Integer> hilbert = NodeOrdering.hilbert(graph.nodes(), cell -> cell % SIDE, cell -> cell / SIDE);
+        assertEquals(graph.nodes(), rcm.asSet());
+        assertEquals(graph.nodes(), hilbert.asSet());
+        assertEquals(graph.size(), rcm.size());
+        assertEquals(graph.size(), hilbert.size());
+    }
+
+    /**
+     * test that both orderings bring the ends of edges much closer together than a random order
+     */
+    @Test
+    public void localityTest(){
+        NodeMultigraph<Integer, Double> graph = shuffledGrid();
+        List<Integer> shuffled = graph.listNodes();
+        Collections.shuffle(shuffled, new Random(8));
+        double random = averageSpan(graph, new NodeIndex<>(shuffled));
+        double rcm = averageSpan(graph, NodeOrdering.reverseCuthillMcKee(graph));
+        double hilbert = averageSpan(graph,
+                NodeOrdering.hilbert(graph.nodes(), cell -> cell % SIDE, cell -> cell / SIDE));
+        assertTrue(rcm < SIDE);
+        assertTrue(hilbert < SIDE);
+        assertTrue(rcm * 5 < random);
+        assertTrue(hilbert * 5 < random);
+    }
+
+    /**
+     * test that consecutive cells along the Hilbert curve of a power of two grid are always neighbours
+     */
+    @Test
+    public void hilbertCurveTest(){
+        List<int[]> cells = new ArrayList<>();
+        for(int x = 0; x < 16; x++){
+            for(int y = 0; y < 16; y++){
+                cells.add(new int[]{x, y});
+            }
+        }
+        List<int[]> ordered = NodeOrdering.hilbert(cells, cell -> cell[0], cell -> cell[1]).asList();
+        assertArrayEquals(new int[]{0, 0}, ordered.get(0));
+        for(int i = 1; i < ordered.size(); i++){
+            int[] a = ordered.get(i - 1), b = ordered.get(i);
+            assertEquals(1, Math.abs(a[0] - b[0]) + Math.abs(a[1] - b[1]));
+        }
+    }
+
+    /**
+     * test the orderings of graphs with no edges, several pieces, and no nodes
+     */
+    @Test
+    public void edgeCasesTest(){
+        NodeMultigraph<String, String> graph = new NodeMultigraph<>();
+        assertEquals(0, NodeOrdering.reverseCuthillMcKee(graph).size());
+        assertEquals(0, NodeOrdering.hilbert(graph.nodes(), s -> 0, s -> 0).size());
+        graph.addNode("a");
+        graph.addNode("b");
+        graph.addNode("c");
+        graph.addEdge(new Edge<>("a", "b", "1"));
+        graph.addEdge(new Edge<>("a", "b", "2"));
+        graph.addEdge(new Edge<>("a", "a", "3"));
+        assertEquals(graph.nodes(), NodeOrdering.reverseCuthillMcKee(graph).asSet());
+        //all at one point, so the input order is kept
+        assertEquals(List.of("a", "b", "c"), NodeOrdering.hilbert(List.of("a", "b", "c"), s -> 1, s -> 1).asList());
+    }
+
+    /**
+     * test that compressed graphs built in a given order use its ids and keep every edge
+     */
+    @Test
+    public void orderedCsrTest(){
+        NodeMultigraph<Integer, Double> graph = shuffledGrid();
+        NodeIndex<Integer> order = NodeOrdering.reverseCuthillMcKee(graph);
+        CsrMultigraph<Integer, Double> csr = new CsrMultigraph<>(graph, order);
+        DoubleCsrMultigraph<Integer> weighted = new DoubleCsrMultigraph<>(graph, order);
+        for(int id = 0; id < order.size(); id++){
+            assertEquals(order.nodeOf(id), csr.nodeOf(id));
+            assertEquals(order.nodeOf(id), weighted.nodeOf(id));
+        }
+        assertEquals(new HashSet<>(graph.listEdges()), new HashSet<>(csr.listEdges()));
+        assertEquals(new HashSet<>(graph.listEdges()), new HashSet<>(weighted.listEdges()));
+    }
+
+    /**
+     * test that an order for a different set of nodes is rejected
+     */
+    @Test
+    public void wrongOrderTest(){
+        NodeMultigraph<Integer, Double> graph = shuffledGrid();
+        try{
+            new CsrMultigraph<>(graph, new NodeIndex<>(List.of(0, 1, 2)));
+            fail();
+        }catch(IllegalArgumentException e){
+            //expected
+        }
+        List<Integer> shifted = new ArrayList<>(graph.nodes());
+        shifted.set(0, -1);
+        try{
+            new DoubleCsrMultigraph<>(graph, new NodeIndex<>(shifted));
+            fail();
+        }catch(NoSuchElementException e){
+            //expected
+        }
+    }
+}
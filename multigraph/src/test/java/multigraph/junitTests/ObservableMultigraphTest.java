@@ -0,0 +1,166 @@
+/*
+ * Author: Ryan Nelson
+ * Provided as is without any warranty
+ */
+
+package multigraph.junitTests;
+
+import multigraph.*;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test suite for ObservableMultigraph and the events it delivers
+ */
+public class ObservableMultigraphTest {
+
+    private NodeMultigraph<String, String> backing;
+    private ObservableMultigraph<String, String> graph;
+    private List<List<GraphEvent<String, String>>> delivered;
+
+    @Before
+    public void setUp(){
+        backing = new NodeMultigraph<>();
+        graph = new ObservableMultigraph<>(backing);
+        delivered = new ArrayList<>();
+        graph.addListener(delivered::add);
+    }
+
+    /**
+     * test that each change delivers its own event, and changes that do nothing deliver none
+     */
+    @Test
+    public void singleChangesTest(){
+        Edge<String, String> ab = new Edge<>("a", "b", "1");
+        graph.addNode("a");
+        graph.addNode("a");
+        graph.addNode("b");
+        graph.addEdge(ab);
+        graph.addEdge(ab);
+        graph.deleteEdge(ab);
+        graph.deleteEdge(ab);
+        assertEquals(List.of(
+                List.of(GraphEvent.nodeAdded("a")),
+                List.of(GraphEvent.nodeAdded("b")),
+                List.of(GraphEvent.edgeAdded(ab)),
+                List.of(GraphEvent.edgeDeleted(ab))), delivered);
+        assertTrue(backing.containsNode("a"));
+        assertFalse(backing.containsEdge(ab));
+    }
+
+    /**
+     * test that deleting a node delivers the deletion of every connected edge, self edges once, then the node
+     */
+    @Test
+    public void deleteNodeTest(){
+        Edge<String, String> aa = new Edge<>("a", "a", "loop"), ab = new Edge<>("a", "b", "1"),
+                ba = new Edge<>("b", "a", "2");
+        graph.batch(() -> {
+            graph.addNode("a");
+            graph.addNode("b");
+            graph.addEdge(aa);
+            graph.addEdge(ab);
+            graph.addEdge(ba);
+        });
+        assertEquals(1, delivered.size());
+        assertEquals(5, delivered.get(0).size());
+        delivered.clear();
+
+        graph.deleteNode("a");
+        assertEquals(1, delivered.size());
+        List<GraphEvent<String, String>> events = delivered.get(0);
+        assertEquals(4, events.size());
+        assertEquals(Set.of(GraphEvent.edgeDeleted(aa), GraphEvent.edgeDeleted(ab), GraphEvent.edgeDeleted(ba)),
+                new HashSet<>(events.subList(0, 3)));
+        assertEquals(GraphEvent.nodeDeleted("a"), events.get(3));
+        assertEquals(0, backing.edgeCount());
+    }
+
+    /**
+     * test that deleting by label delivers every edge with that label
+     */
+    @Test
+    public void deleteLabelTest(){
+        graph.addNode("a");
+        graph.addNode("b");
+        graph.addEdge(new Edge<>("a", "b", "x"));
+        graph.addEdge(new Edge<>("b", "a", "x"));
+        graph.addEdge(new Edge<>("b", "b", "y"));
+        delivered.clear();
+        graph.deleteEdge("x");
+        assertEquals(1, delivered.size());
+        assertEquals(Set.of(GraphEvent.edgeDeleted(new Edge<>("a", "b", "x")),
+                GraphEvent.edgeDeleted(new Edge<>("b", "a", "x"))), new HashSet<>(delivered.get(0)));
+        graph.deleteEdge("x");
+        assertEquals(1, delivered.size());
+    }
+
+    /**
+     * test that nested batches deliver once, when the outermost batch ends, even if it throws
+     */
+    @Test
+    public void nestedBatchTest(){
+        try{
+            graph.batch(() -> {
+                graph.addNode("a");
+                graph.batch(() -> graph.addNode("b"));
+                assertTrue(delivered.isEmpty());
+                graph.addEdge(new Edge<>("a", "missing", "1"));
+            });
+            fail();
+        }catch(NoSuchElementException e){
+            //expected
+        }
+        assertEquals(List.of(List.of(GraphEvent.nodeAdded("a"), GraphEvent.nodeAdded("b"))), delivered);
+    }
+
+    /**
+     * test that a coalescing graph drops changes undone within a batch
+     */
+    @Test
+    public void coalesceTest(){
+        ObservableMultigraph<String, String> coalescing = new ObservableMultigraph<>(backing, true);
+        coalescing.addListener(delivered::add);
+        backing.addNode("kept");
+        Edge<String, String> temp = new Edge<>("a", "kept", "t");
+        coalescing.batch(() -> {
+            coalescing.addNode("a");
+            coalescing.addEdge(temp);
+            coalescing.deleteNode("a");
+            coalescing.addNode("b");
+            coalescing.deleteNode("kept");
+            coalescing.addNode("kept");
+        });
+        assertEquals(List.of(List.of(GraphEvent.nodeAdded("b"))), delivered);
+
+        //a batch that changes nothing on net delivers nothing
+        coalescing.batch(() -> {
+            coalescing.addNode("c");
+            coalescing.deleteNode("c");
+        });
+        assertEquals(1, delivered.size());
+    }
+
+    /**
+     * test that removed listeners hear nothing and reads go to the wrapped graph
+     */
+    @Test
+    public void removeListenerTest(){
+        GraphListener<String, String> listener = delivered::add;
+        ObservableMultigraph<String, String> other = new ObservableMultigraph<>(backing);
+        other.addListener(listener);
+        other.removeListener(listener);
+        other.addNode("a");
+        other.addNode("b");
+        other.addEdge(new Edge<>("a", "b", "1"));
+        assertTrue(delivered.isEmpty());
+        assertEquals(2, other.size());
+        assertEquals(1, other.edgeCount());
+        assertEquals(1, other.outDegree("a"));
+        assertEquals(backing.listEdges(), other.listEdges());
+    }
+}
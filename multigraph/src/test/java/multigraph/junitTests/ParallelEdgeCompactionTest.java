@@ -0,0 +1,101 @@
+/*
+ * Author: Ryan Nelson
+ * Provided as is without any warranty
+ */
+
+package multigraph.junitTests;
+
+import multigraph.*;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test suite for ParallelEdgeCompaction
+ */
+public class ParallelEdgeCompactionTest {
+
+    /**
+     * test that parallel edges collapse to the least, with the rest recorded against it
+     */
+    @Test
+    public void directedTest(){
+        NodeMultigraph<String, Double> graph = new NodeMultigraph<>();
+        graph.addNode("a");
+        graph.addNode("b");
+        graph.addEdge(new Edge<>("a", "b", 3.0));
+        graph.addEdge(new Edge<>("a", "b", 1.0));
+        graph.addEdge(new Edge<>("a", "b", 2.0));
+        graph.addEdge(new Edge<>("b", "a", 5.0));
+        graph.addEdge(new Edge<>("a", "a", 4.0));
+        graph.addEdge(new Edge<>("a", "a", 6.0));
+
+        ParallelEdgeCompaction<String, Double> report =
+                ParallelEdgeCompaction.collapse(graph, Comparator.naturalOrder(), true);
+        assertEquals(3, report.removedCount());
+        assertEquals(3, graph.edgeCount());
+        assertEquals(Set.of(new Edge<>("a", "b", 1.0), new Edge<>("b", "a", 5.0), new Edge<>("a", "a", 4.0)),
+                new HashSet<>(graph.listEdges()));
+        assertEquals(Set.of(3.0, 2.0), new HashSet<>(report.droppedLabels(new Edge<>("a", "b", 1.0))));
+        assertEquals(List.of(6.0), report.droppedLabels(new Edge<>("a", "a", 4.0)));
+        assertEquals(List.of(), report.droppedLabels(new Edge<>("b", "a", 5.0)));
+        assertEquals(2, report.droppedLabels().size());
+
+        //a second pass finds nothing
+        assertEquals(0, ParallelEdgeCompaction.collapse(graph, Comparator.<Double>naturalOrder(), true)
+                .removedCount());
+    }
+
+    /**
+     * test that edges added either way round between the same ends of an undirected graph are parallel
+     */
+    @Test
+    public void undirectedTest(){
+        UndirectedMultigraph<String, Double> graph = new UndirectedMultigraph<>();
+        graph.addNode("a");
+        graph.addNode("b");
+        graph.addNode("c");
+        graph.addEdge(new Edge<>("a", "b", 2.0));
+        graph.addEdge(new Edge<>("b", "a", 1.0));
+        graph.addEdge(new Edge<>("b", "c", 1.0));
+        ParallelEdgeCompaction<String, Double> report =
+                ParallelEdgeCompaction.collapse(graph, Comparator.naturalOrder(), false);
+        assertEquals(1, report.removedCount());
+        assertTrue(report.droppedLabels().isEmpty());
+        assertEquals(2, graph.undirectedEdgeCount());
+        assertTrue(graph.containsEdge(new Edge<>("a", "b", 1.0)));
+        assertFalse(graph.containsEdge(new Edge<>("a", "b", 2.0)));
+    }
+
+    /**
+     * test that collapsing keeps every shortest path length in a random graph
+     */
+    @Test
+    public void keepsShortestEdgesTest(){
+        Random r = new Random(6);
+        NodeMultigraph<Integer, Integer> graph = new NodeMultigraph<>();
+        for(int i = 0; i < 20; i++){
+            graph.addNode(i);
+        }
+        for(int i = 0; i < 400; i++){
+            graph.addEdge(new Edge<>(r.nextInt(20), r.nextInt(20), r.nextInt(1000)));
+        }
+        Map<List<Integer>, Integer> least = new HashMap<>();
+        for(Edge<Integer, Integer> edge : graph.listEdges()){
+            least.merge(List.of(edge.getParentNode(), edge.getChildNode()), edge.getLabel(), Math::min);
+        }
+        int before = graph.edgeCount();
+        ParallelEdgeCompaction<Integer, Integer> report =
+                ParallelEdgeCompaction.collapse(graph, Comparator.naturalOrder(), true);
+        assertEquals(least.size(), graph.edgeCount());
+        assertEquals(before - least.size(), report.removedCount());
+        for(Edge<Integer, Integer> edge : graph.listEdges()){
+            assertEquals(least.get(List.of(edge.getParentNode(), edge.getChildNode())), edge.getLabel());
+            for(Integer label : report.droppedLabels(edge)){
+                assertTrue(label >= edge.getLabel());
+            }
+        }
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Author: Ryan Nelson
+ * Provided as is without any warranty
+ */
+
+package multigraph.junitTests;
+
+import multigraph.Edge;
+import multigraph.Multigraph;
+import multigraph.NodeMultigraph;
+import multigraph.PersistentMultigraph;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test suite for the persistent multigraph, checked against NodeMultigraph
+ */
+public class PersistentMultigraphTest {
+    private static final int NUM_NODES = 40;
+    private static final int NUM_ACTIONS = 3000;
+    //these strings all have the same hashCode, so they exercise the trie's collision handling
+    private static final String[] COLLIDING = {"AaAa", "AaBB", "BBAa", "BBBB"};
+
+    /**
+     * helper method for testing if two multigraphs are equal
+     * @param m1 first multigraph, must not be null
+     * @param m2 second multigraph, must not be null
+     * @return true if the two multigraphs are equal, else false
+     */
+    private static <N, E> boolean mgEquals(Multigraph<N, E> m1, Multigraph<N, E> m2){
+        Set<N> m1Nodes = new HashSet<>(m1.listNodes()),
+                m2Nodes = new HashSet<>(m2.listNodes());
+        if(!m1Nodes.equals(m2Nodes) || m1.size() != m2.size()) return false;
+
+        List<Edge<N, E>> m1List = m1.listEdges(), m2List = m2.listEdges();
+        Set<Edge<N, E>> m1edges = new HashSet<>(m1List),
+                m2edges = new HashSet<>(m2List);
+        return m1edges.equals(m2edges) && m1List.size() == m2List.size();
+    }
+
+    /**
+     * Picks a random node name, sometimes one of the colliding names
+     * @param r the source of randomness
+     * @return the node name
+     */
+    private static String randomNode(Random r){
+        if(r.nextInt(4) == 0) return COLLIDING[r.nextInt(COLLIDING.length)];
+        return "n" + r.nextInt(NUM_NODES);
+    }
+
+    /**
+     * test that every version matches NodeMultigraph given the same changes, and that older versions are
+     * unchanged by later ones
+     */
+    @Test
+    public void versionsTest(){
+        Random r = new Random(5);
+        PersistentMultigraph<String, String> pm = new PersistentMultigraph<>();
+        NodeMultigraph<String, String> nm = new NodeMultigraph<>();
+        List<PersistentMultigraph<String, String>> versions = new ArrayList<>();
+        List<NodeMultigraph<String, String>> expected = new ArrayList<>();
+
+        for(int i = 0; i < NUM_ACTIONS; i++){
+            String node1 = randomNode(r), node2 = randomNode(r);
+            String label = "e" + r.nextInt(NUM_NODES);
+            switch(r.nextInt(5)){
+                case 0:
+                    pm = pm.withNode(node1);
+                    nm.addNode(node1);
+                    break;
+                case 1:
+                case 2:
+                    if(!nm.containsNode(node1) || !nm.containsNode(node2)) continue;
+                    pm = pm.withEdge(new Edge<>(node1, node2, label));
+                    nm.addEdge(new Edge<>(node1, node2, label));
+                    break;
+                case 3:
+                    if(r.nextInt(4) == 0){
+                        pm = pm.withoutNode(node1);
+                        nm.deleteNode(node1);
+                    }else{
+                        pm = pm.withoutEdges(label);
+                        nm.deleteEdge(label);
+                    }
+                    break;
+                case 4:
+                    if(!nm.containsNode(node1) || !nm.containsNode(node2)) continue;
+                    pm = pm.withoutEdge(new Edge<>(node1, node2, label));
+                    nm.deleteEdge(new Edge<>(node1, node2, label));
+                    break;
+            }
+            assertTrue(mgEquals(pm, nm));
+            assertEquals(nm.listEdges().size(), pm.edgeCount());
+            if(i % 100 == 0){
+                versions.add(pm);
+                expected.add(new NodeMultigraph<>(nm));
+            }
+        }
+
+        for(int i = 0; i < versions.size(); i++){
+            PersistentMultigraph<String, String> version = versions.get(i);
+            NodeMultigraph<String, String> reference = expected.get(i);
+            assertTrue(mgEquals(version, reference));
+            for(String node : reference.listNodes()){
+                assertEquals(new HashSet<>(reference.listChildEdges(node)),
+                        new HashSet<>(version.listChildEdges(node)));
+                assertEquals(new HashSet<>(reference.listParentEdges(node)),
+                        new HashSet<>(version.listParentEdges(node)));
+            }
+            for(int j = 0; j < NUM_NODES; j++){
+                assertEquals(reference.containsEdge("e" + j), version.containsEdge("e" + j));
+            }
+        }
+    }
+
+    /**
+     * test keys whose hashes differ from a collision node's but select the same trie slot
+     */
+    @Test
+    public void collisionSlotTest(){
+        //"Aa" and "BB" share a hashCode, and many of the other keys agree with it on the bits of some trie level
+        PersistentMultigraph<String, String> pm = new PersistentMultigraph<String, String>().withNode("Aa")
+                .withNode("BB");
+        NodeMultigraph<String, String> nm = new NodeMultigraph<>();
+        nm.addNode("Aa");
+        nm.addNode("BB");
+        for(int i = 0; i < 2000; i++){
+            String node = "k" + i;
+            pm = pm.withNode(node);
+            nm.addNode(node);
+            assertTrue(pm.containsNode(node));
+            assertSame(pm, pm.withNode(node));
+        }
+        assertTrue(mgEquals(pm, nm));
+        pm = pm.withEdge(new Edge<>("Aa", "k309", "e"));
+        nm.addEdge(new Edge<>("Aa", "k309", "e"));
+        assertTrue(pm.containsEdge(new Edge<>("Aa", "k309", "e")));
+
+        for(int i = 0; i < 2000; i += 2){
+            pm = pm.withoutNode("k" + i);
+            nm.deleteNode("k" + i);
+        }
+        assertTrue(mgEquals(pm, nm));
+        assertTrue(pm.containsNode("Aa") && pm.containsNode("BB") && pm.containsNode("k309"));
+    }
+
+    /**
+     * test that unchanged versions are returned as is and that the Multigraph mutators are rejected
+     */
+    @Test
+    public void immutableTest(){
+        PersistentMultigraph<String, String> empty = new PersistentMultigraph<>();
+        PersistentMultigraph<String, String> one = empty.withNode("a");
+        PersistentMultigraph<String, String> two = one.withNode("b").withEdge(new Edge<>("a", "b", "ab"));
+
+        assertEquals(0, empty.size());
+        assertEquals(1, one.size());
+        assertEquals(0, one.edgeCount());
+        assertEquals(1, two.edgeCount());
+        assertSame(one, one.withNode("a"));
+        assertSame(two, two.withEdge(new Edge<>("a", "b", "ab")));
+        assertSame(two, two.withoutEdge(new Edge<>("b", "a", "ab")));
+        assertSame(two, two.withoutEdges("none"));
+        assertSame(two, two.withoutNode("none"));
+        assertTrue(mgEquals(two, new PersistentMultigraph<>(two)));
+        assertTrue(mgEquals(one, two.withoutNode("b")));
+
+        assertThrows(UnsupportedOperationException.class, ()->two.addNode("c"));
+        assertThrows(UnsupportedOperationException.class, ()->two.addEdge(new Edge<>("a", "a", "aa")));
+        assertThrows(UnsupportedOperationException.class, ()->two.deleteNode("a"));
+        assertThrows(UnsupportedOperationException.class, ()->two.deleteEdge("ab"));
+        assertThrows(UnsupportedOperationException.class, ()->two.deleteEdge(new Edge<>("a", "b", "ab")));
+        assertThrows(NoSuchElementException.class, ()->two.withEdge(new Edge<>("a", "c", "ac")));
+        assertThrows(NoSuchElementException.class, ()->two.listChildEdges("c"));
+        assertThrows(NullPointerException.class, ()->new PersistentMultigraph<String, String>(null));
+    }
+}
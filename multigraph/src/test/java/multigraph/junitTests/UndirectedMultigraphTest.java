@@ -0,0 +1,132 @@
+/*
+ * Author: Ryan Nelson
+ * Provided as is without any warranty
+ */
+
+package multigraph.junitTests;
+
+import multigraph.*;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test suite for UndirectedMultigraph
+ */
+public class UndirectedMultigraphTest {
+
+    /**
+     * test that one added edge is a child and parent edge of both its ends
+     */
+    @Test
+    public void bothDirectionsTest(){
+        UndirectedMultigraph<String, String> graph = new UndirectedMultigraph<>();
+        graph.addNode("a");
+        graph.addNode("b");
+        graph.addEdge(new Edge<>("a", "b", "1"));
+        assertEquals(List.of(new Edge<>("a", "b", "1")), graph.listChildEdges("a"));
+        assertEquals(List.of(new Edge<>("b", "a", "1")), graph.listChildEdges("b"));
+        assertEquals(List.of(new Edge<>("b", "a", "1")), graph.listParentEdges("a"));
+        assertEquals(List.of(new Edge<>("a", "b", "1")), graph.listParentEdges("b"));
+        assertTrue(graph.containsEdge(new Edge<>("b", "a", "1")));
+        assertTrue(graph.childEdges("b").contains(new Edge<>("b", "a", "1")));
+        assertFalse(graph.childEdges("b").contains(new Edge<>("a", "b", "1")));
+        assertEquals(2, graph.edgeCount());
+        assertEquals(1, graph.undirectedEdgeCount());
+        assertEquals(List.of(new Edge<>("a", "b", "1")), graph.listUndirectedEdges());
+
+        //the reverse is the same edge
+        graph.addEdge(new Edge<>("b", "a", "1"));
+        assertEquals(1, graph.undirectedEdgeCount());
+        graph.deleteEdge(new Edge<>("b", "a", "1"));
+        assertFalse(graph.containsEdge(new Edge<>("a", "b", "1")));
+        assertEquals(0, graph.edgeCount());
+        assertEquals(0, graph.outDegree("a"));
+    }
+
+    /**
+     * test that a self edge has only one direction
+     */
+    @Test
+    public void selfEdgeTest(){
+        UndirectedMultigraph<String, String> graph = new UndirectedMultigraph<>();
+        graph.addNode("a");
+        graph.addEdge(new Edge<>("a", "a", "loop"));
+        assertEquals(1, graph.edgeCount());
+        assertEquals(1, graph.undirectedEdgeCount());
+        assertEquals(1, graph.outDegree("a"));
+        assertEquals(1, graph.inDegree("a"));
+        assertEquals(2, graph.maxDegree());
+        graph.deleteNode("a");
+        assertEquals(0, graph.edgeCount());
+        assertEquals(0, graph.undirectedEdgeCount());
+        assertEquals(0, graph.maxDegree());
+    }
+
+    /**
+     * test that under random changes the graph matches a directed graph holding every edge both ways
+     */
+    @Test
+    public void matchesSymmetricGraphTest(){
+        Random r = new Random(4);
+        UndirectedMultigraph<Integer, Integer> graph = new UndirectedMultigraph<>();
+        NodeMultigraph<Integer, Integer> expected = new NodeMultigraph<>();
+        for(int i = 0; i < 3000; i++){
+            int op = r.nextInt(10), a = r.nextInt(30), b = r.nextInt(30), label = r.nextInt(15);
+            if(op < 2){
+                graph.addNode(a);
+                expected.addNode(a);
+            }else if(op < 6){
+                if(!graph.containsNode(a) || !graph.containsNode(b)) continue;
+                graph.addEdge(new Edge<>(a, b, label));
+                expected.addEdge(new Edge<>(a, b, label));
+                expected.addEdge(new Edge<>(b, a, label));
+            }else if(op < 7){
+                graph.deleteNode(a);
+                expected.deleteNode(a);
+            }else if(op < 8){
+                graph.deleteEdge(label);
+                expected.deleteEdge(label);
+            }else{
+                if(!graph.containsNode(a) || !graph.containsNode(b)) continue;
+                graph.deleteEdge(new Edge<>(a, b, label));
+                expected.deleteEdge(new Edge<>(a, b, label));
+                expected.deleteEdge(new Edge<>(b, a, label));
+            }
+        }
+        assertEquals(new HashSet<>(expected.listNodes()), new HashSet<>(graph.listNodes()));
+        assertEquals(new HashSet<>(expected.listEdges()), new HashSet<>(graph.listEdges()));
+        assertEquals(expected.edgeCount(), graph.edgeCount());
+        assertEquals(expected.edgeCount(), graph.listEdges().size());
+        assertEquals(expected.edgeCount(), graph.edgeStream().parallel().count());
+        assertEquals(expected.maxDegree(), graph.maxDegree());
+        for(Integer node : expected.listNodes()){
+            assertEquals(new HashSet<>(expected.listChildEdges(node)), new HashSet<>(graph.listChildEdges(node)));
+            assertEquals(new HashSet<>(expected.listParentEdges(node)), new HashSet<>(graph.listParentEdges(node)));
+            assertEquals(expected.outDegree(node), graph.outDegree(node));
+            assertEquals(expected.inDegree(node), graph.inDegree(node));
+        }
+        for(Edge<Integer, Integer> edge : graph.listEdges()){
+            assertTrue(graph.containsEdge(edge));
+            assertTrue(graph.containsEdge(edge.getLabel()));
+        }
+
+        //copying a symmetric directed graph merges each pair of edges
+        UndirectedMultigraph<Integer, Integer> copy = new UndirectedMultigraph<>(expected);
+        assertEquals(graph.undirectedEdgeCount(), copy.undirectedEdgeCount());
+        assertEquals(new HashSet<>(graph.listEdges()), new HashSet<>(copy.listEdges()));
+        assertEquals(new HashSet<>(graph.listEdges()), new HashSet<>(new CsrMultigraph<>(graph).listEdges()));
+    }
+
+    /**
+     * test that edges to a missing node are rejected
+     */
+    @Test(expected = NoSuchElementException.class)
+    public void missingNodeTest(){
+        UndirectedMultigraph<String, String> graph = new UndirectedMultigraph<>();
+        graph.addNode("a");
+        graph.addEdge(new Edge<>("a", "b", "1"));
+    }
+}
@@ -5,19 +5,23 @@
 
 package pathfinder;
 
-import multigraph.NodeMultigraph;
+import multigraph.DoubleCsrMultigraph;
 import multigraph.Edge;
-import multigraph.Multigraph;
+import multigraph.NodeOrdering;
+import multigraph.ParallelEdgeCompaction;
+import multigraph.UndirectedMultigraph;
 import pathfinder.datastructures.Path;
 import pathfinder.datastructures.Point;
 import pathfinder.parser.CampusBuilding;
 import pathfinder.parser.CampusPath;
 import pathfinder.parser.CampusPathsParser;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.NoSuchElementException;
+import java.util.function.BiFunction;
 
 /**
  * Represents a map of the campus with capabilities for pathfinding as well as working with shortened building
@@ -26,34 +30,81 @@ import java.util.NoSuchElementException;
 public class CampusMap implements ModelAPI {
 
     /**
-     * Constructs a new campus map with standard building and path sets
+     * Constructs a new campus map with standard building and path sets, routing with A* search
      */
     public CampusMap() {
-        this.pathGraph = new NodeMultigraph<>();
+        this(RoutingEngine.A_STAR);
+    }
+
+    /**
+     * Constructs a new campus map with standard building and path sets, with routes from as many buildings as
+     * fit in RouteTable.DEFAULT_MAX_BYTES looked up rather than searched for
+     * @param engine the search to route with
+     * @throws NullPointerException if engine is null
+     */
+    public CampusMap(RoutingEngine engine) {
+        this(engine, RouteTable.DEFAULT_MAX_BYTES);
+    }
+
+    /**
+     * Constructs a new campus map with standard building and path sets.  The shortest paths out of each building
+     * are found up front, for as many buildings as fit in routeTableBytes, and routes from the rest are searched
+     * for with engine.
+     * @param engine the search to route with
+     * @param routeTableBytes the most memory the precomputed routes may take up, 0 to search for every route
+     * @throws NullPointerException if engine is null
+     * @throws IllegalArgumentException if routeTableBytes is negative
+     */
+    public CampusMap(RoutingEngine engine, long routeTableBytes) {
+        if(engine == null) throw new NullPointerException();
         this.buildings = new HashMap<>();
 
         List<CampusBuilding> buildingsList = CampusPathsParser.parseCampusBuildings("campus_buildings.csv");
         List<CampusPath> paths = CampusPathsParser.parseCampusPaths("campus_paths.csv");
+        //every path end may be a new point, and each path can be walked both ways, so it is stored once as an
+        //undirected edge
+        UndirectedMultigraph<Point, Double> graph =
+                new UndirectedMultigraph<>(buildingsList.size() + 2 * paths.size(), paths.size());
+        List<Point> entrances = new ArrayList<>(buildingsList.size());
 
         for(CampusBuilding building : buildingsList){
-            pathGraph.addNode(new Point(building.getX(), building.getY()));
+            Point entrance = new Point(building.getX(), building.getY());
+            graph.addNode(entrance);
+            entrances.add(entrance);
             buildings.put(building.getShortName().toUpperCase(), building);
         }
         for(CampusPath path : paths){
-            try{
-                Point start = new Point(path.getX1(), path.getY1()), end = new Point(path.getX2(), path.getY2());
-                pathGraph.addNode(start);
-                pathGraph.addNode(end);
-                pathGraph.addEdge(new Edge<>(start, end, path.getDistance()));
-                pathGraph.addEdge(new Edge<>(end, start, path.getDistance()));
-            }catch(NoSuchElementException nsee){
-                //node point does not exist
-            }
+            Point start = new Point(path.getX1(), path.getY1()), end = new Point(path.getX2(), path.getY2());
+            graph.addNode(start);
+            graph.addNode(end);
+            graph.addEdge(new Edge<>(start, end, path.getDistance()));
         }
+        //a search only ever takes the shortest of several paths between the same two points
+        ParallelEdgeCompaction.collapse(graph, Comparator.<Double>naturalOrder(), false);
+        //most points only lie along a curving walkway, so searches run over just the junctions and entrances,
+        //with each walkway between them as one shortcut edge
+        this.contraction = new ChainContraction<>(graph, entrances);
+        UndirectedMultigraph<Point, Double> contracted = contraction.graph();
+        ParallelEdgeCompaction.collapse(contracted, Comparator.<Double>naturalOrder(), false);
+        //the graph is only read from here on, so pack it into a compact layout, with points that are near each
+        //other on the map stored near each other in memory
+        this.pathGraph = new DoubleCsrMultigraph<>(contracted,
+                NodeOrdering.hilbert(contracted.nodes(), Point::getX, Point::getY));
+        this.routes = new RouteTable<>(pathGraph, entrances, routeTableBytes);
+        //every route starts at an entrance, so the engine is only prepared if some entrance is left to search from
+        this.router = entrances.stream().allMatch(routes::covers) ? null
+                : engine.prepare(pathGraph, GraphUtils.straightLine(pathGraph));
     }
 
-    //graph with nodes of points and edges as cost to travel between them
-    private Multigraph<Point, Double> pathGraph;
+    //graph with nodes of points and edges as cost to travel between them, with walkways contracted
+    private final DoubleCsrMultigraph<Point> pathGraph;
+    //unpacks walkways searched in pathGraph back into the points along them
+    private final ChainContraction<Point> contraction;
+    //finds the shortest path between two points of pathGraph with the chosen engine, null if routes covers every
+    //building entrance
+    private final BiFunction<Point, Point, GraphUtils.Path<Point>> router;
+    //shortest paths out of the building entrances that fit in memory, found once up front
+    private final RouteTable<Point> routes;
     //maps building short name to building
     private Map<String, CampusBuilding> buildings;
 
@@ -87,8 +138,9 @@ public class CampusMap implements ModelAPI {
         CampusBuilding startBuilding = buildings.get(startShortName), endBuilding = buildings.get(endShortName);
         Point startPoint = new Point(startBuilding.getX(), startBuilding.getY()),
                 endPoint = new Point(endBuilding.getX(), endBuilding.getY());
-        GraphUtils.Path<Point> gPath = GraphUtils.shortestPath(pathGraph, startPoint, endPoint);
-        return convertGenericPath(gPath);
+        GraphUtils.Path<Point> gPath = routes.covers(startPoint) ? routes.shortestPath(startPoint, endPoint)
+                : router.apply(startPoint, endPoint);
+        return convertGenericPath(contraction.unpack(gPath));
     }
 
     /**
@@ -97,10 +149,12 @@ public class CampusMap implements ModelAPI {
      * @return non-generic copy of the given path
      */
     public static Path convertGenericPath(GraphUtils.Path<Point> gPath){
-        Path path = new Path(gPath.getStart());
+        List<Point> ends = new ArrayList<>();
+        List<Double> costs = new ArrayList<>();
         for(GraphUtils.Path.Segment<Point> gSeg : gPath){
-            path = path.extend(gSeg.getEnd(), gSeg.getCost());
+            ends.add(gSeg.getEnd());
+            costs.add(gSeg.getCost());
         }
-        return path;
+        return new Path(gPath.getStart(), ends, costs);
     }
 }
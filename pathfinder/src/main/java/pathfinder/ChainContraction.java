@@ -0,0 +1,208 @@
+/*
+ * Author: Ryan Nelson
+ * Provided as is without any warranty
+ */
+
+package pathfinder;
+
+import multigraph.Edge;
+import multigraph.UndirectedMultigraph;
+
+import java.util.*;
+
+/**
+ * This immutable class represents a footpath network with its chains of pass-through nodes contracted away.
+ * A pass-through node is one with exactly two edges, to two different neighbours, such as the intermediate
+ * points along a curved walkway.  Every chain of them between two other nodes is replaced by a single shortcut
+ * edge as long as the whole chain, so a search only visits the junctions, dead ends and nodes the caller asks
+ * to keep.  The edges of each chain are remembered, and unpack turns a path through the contracted graph back
+ * into the full segment by segment path through the original one.
+ */
+public final class ChainContraction<N> {
+
+    /**
+     * Contracts the chains of pass-through nodes in graph.  graph itself is not modified.
+     * @param graph the network to contract
+     * @param keep nodes that must stay in the contracted graph even if they only pass through, such as the
+     *             nodes that searches start and end at
+     * @spec.requires graph != null and keep != null, every edge label of graph is finite and not negative
+     * @throws NullPointerException if graph or keep is null
+     */
+    public ChainContraction(UndirectedMultigraph<N, Double> graph, Collection<? extends N> keep){
+        if(graph == null || keep == null) throw new NullPointerException();
+        Set<N> kept = new HashSet<>(), required = new HashSet<>(keep);
+        for(N node : graph.nodes()){
+            if(required.contains(node) || !passesThrough(graph, node)) kept.add(node);
+        }
+        //the shortest connection found so far between each pair of kept nodes, keyed by its ends
+        Map<Map.Entry<N, N>, Edge<N, Double>> connections = new HashMap<>();
+        this.chains = new HashMap<>();
+
+        Set<N> walked = new HashSet<>();
+        for(N start : kept){
+            for(Edge<N, Double> first : graph.childEdges(start)){
+                N current = first.getChildNode();
+                if(kept.contains(current)){
+                    connect(connections, first, null);
+                    continue;
+                }
+                //each chain is walked once, from whichever end reaches it first
+                if(!walked.add(current)) continue;
+                List<Edge<N, Double>> chain = new ArrayList<>();
+                chain.add(first);
+                double length = first.getLabel();
+                N previous = start;
+                while(!kept.contains(current)){
+                    Edge<N, Double> next = null;
+                    for(Edge<N, Double> edge : graph.childEdges(current)){
+                        if(!edge.getChildNode().equals(previous)) next = edge;
+                    }
+                    chain.add(next);
+                    length += next.getLabel();
+                    previous = current;
+                    current = next.getChildNode();
+                    walked.add(current);
+                }
+                //a chain that comes back to where it started is never part of a shortest path
+                if(current.equals(start)) continue;
+                connect(connections, new Edge<>(start, current, length), chain);
+            }
+        }
+
+        this.contracted = new UndirectedMultigraph<>(kept.size(), connections.size());
+        for(N node : kept){
+            contracted.addNode(node);
+        }
+        for(Edge<N, Double> edge : connections.values()){
+            contracted.addEdge(edge);
+        }
+        this.removedCount = graph.size() - kept.size();
+        checkRep();
+    }
+
+    //AF: the network contracted, in which the edge between the ends (a, b) of each key of chains stands for the
+    //      edges chains.get((a, b)), walked from a to b, and the edge from b to a for the same edges reversed and
+    //      walked backwards
+    //RI: contracted != null, chains != null, removedCount >= 0
+    //      contracted has at most one edge between any two nodes
+    //      for every key (a, b) of chains, (b, a) is not a key and contracted has an edge between a and b whose
+    //      label is the sum of the labels of the chain
+    //      every chain has at least two edges, leading from a to b
+    private final UndirectedMultigraph<N, Double> contracted;
+    private final Map<Map.Entry<N, N>, List<Edge<N, Double>>> chains;
+    private final int removedCount;
+    private static final boolean debug = false;
+
+    /**
+     * Returns the contracted graph.  It is the caller's copy to pack or search, but any edge it gains or loses
+     * will not be unpacked.
+     * @return the contracted graph
+     */
+    public UndirectedMultigraph<N, Double> graph(){
+        return contracted;
+    }
+
+    /**
+     * Returns the number of pass-through nodes that were contracted away
+     * @return the number of nodes in the original graph that are not in the contracted graph
+     */
+    public int removedCount(){
+        return removedCount;
+    }
+
+    /**
+     * Expands every shortcut in path into the chain of edges it stands for
+     * @param path a path through the contracted graph
+     * @spec.requires path != null
+     * @return the same path through the original graph, with one segment per original edge
+     */
+    public GraphUtils.Path<N> unpack(GraphUtils.Path<N> path){
+        List<GraphUtils.Path.Segment<N>> segments = new ArrayList<>();
+        for(GraphUtils.Path.Segment<N> segment : path){
+            N from = segment.getStart(), to = segment.getEnd();
+            List<Edge<N, Double>> chain = chains.get(Map.entry(from, to));
+            if(chain != null){
+                for(Edge<N, Double> edge : chain){
+                    segments.add(new GraphUtils.Path.Segment<>(edge.getParentNode(), edge.getChildNode(),
+                            edge.getLabel()));
+                }
+                continue;
+            }
+            chain = chains.get(Map.entry(to, from));
+            if(chain != null){
+                for(int i = chain.size() - 1; i >= 0; i--){
+                    Edge<N, Double> edge = chain.get(i);
+                    segments.add(new GraphUtils.Path.Segment<>(edge.getChildNode(), edge.getParentNode(),
+                            edge.getLabel()));
+                }
+                continue;
+            }
+            segments.add(segment);
+        }
+        return new GraphUtils.Path<>(path.getStart(), segments);
+    }
+
+    /**
+     * Records edge as the connection between its ends, unless there is already one at least as short.  Only the
+     * shortest connection between two nodes can lie on a shortest path, and keeping one per pair of ends lets
+     * unpack find the chain behind an edge by its ends alone.
+     * @param connections the shortest connection so far between each pair of nodes
+     * @param edge a direct edge or shortcut between two kept nodes
+     * @param chain the edges edge stands for, from its parent to its child node, or null if it is a direct edge
+     * @spec.modifies connections, this.chains
+     * @spec.effects connections and this.chains hold edge and chain in place of a longer connection between the
+     *      same nodes, in either direction
+     */
+    private void connect(Map<Map.Entry<N, N>, Edge<N, Double>> connections, Edge<N, Double> edge,
+                         List<Edge<N, Double>> chain){
+        Map.Entry<N, N> key = Map.entry(edge.getParentNode(), edge.getChildNode());
+        Map.Entry<N, N> reverse = Map.entry(edge.getChildNode(), edge.getParentNode());
+        Edge<N, Double> existing = connections.containsKey(key) ? connections.get(key) : connections.get(reverse);
+        if(existing != null && existing.getLabel() <= edge.getLabel()) return;
+        connections.remove(reverse);
+        chains.remove(reverse);
+        connections.put(key, edge);
+        if(chain == null){
+            chains.remove(key);
+        }else{
+            chains.put(key, chain);
+        }
+    }
+
+    /**
+     * Checks whether node is a pass-through node of graph
+     * @param graph the graph containing node
+     * @param node the node to check
+     * @return true if node has exactly two edges, leading to two other, different nodes
+     */
+    private static <N> boolean passesThrough(UndirectedMultigraph<N, Double> graph, N node){
+        if(graph.outDegree(node) != 2) return false;
+        Iterator<Edge<N, Double>> edges = graph.childEdges(node).iterator();
+        N first = edges.next().getChildNode(), second = edges.next().getChildNode();
+        return !first.equals(second) && !first.equals(node) && !second.equals(node);
+    }
+
+    /**
+     * Checks if the representation invariant is currently met
+     */
+    private void checkRep(){
+        assert contracted != null;
+        assert chains != null;
+        assert removedCount >= 0;
+        if(debug){
+            for(Map.Entry<Map.Entry<N, N>, List<Edge<N, Double>>> entry : chains.entrySet()){
+                N from = entry.getKey().getKey(), to = entry.getKey().getValue();
+                List<Edge<N, Double>> chain = entry.getValue();
+                assert !chains.containsKey(Map.entry(to, from));
+                assert chain.size() >= 2;
+                assert chain.get(0).getParentNode().equals(from);
+                assert chain.get(chain.size() - 1).getChildNode().equals(to);
+                double length = 0;
+                for(Edge<N, Double> edge : chain){
+                    length += edge.getLabel();
+                }
+                assert contracted.containsEdge(new Edge<>(from, to, length));
+            }
+        }
+    }
+}
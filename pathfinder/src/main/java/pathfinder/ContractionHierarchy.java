@@ -0,0 +1,580 @@
+/*
+ * Author: Ryan Nelson
+ * Provided as is without any warranty
+ */
+
+package pathfinder;
+
+import multigraph.Edge;
+import multigraph.Multigraph;
+import multigraph.NodeIndex;
+import pathfinder.datastructures.IndexedMinHeap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This immutable class answers shortest path queries on a graph after preprocessing it into a contraction
+ * hierarchy.  Preprocessing ranks the nodes from least to most important, then removes them in that order,
+ * adding a shortcut edge wherever removing a node would lengthen the shortest path between two of its
+ * neighbours.  Every shortest path in the original graph then has a counterpart that only climbs in rank and
+ * then only falls, so a query searches upwards from both ends and settles a few dozen nodes rather than a disk
+ * of the map.  Shortcuts remember the two edges they replace, and found paths are unpacked into the original
+ * edges.
+ * Queries may run on several threads at once; each thread keeps its own search arrays.
+ */
+public final class ContractionHierarchy<N> {
+
+    //how many nodes a witness search settles before giving up and adding the shortcut it was looking to avoid
+    private static final int WITNESS_SETTLE_LIMIT = 64;
+
+    /**
+     * Preprocesses graph into a contraction hierarchy.  graph itself is not modified, and later changes to it
+     * are not seen by the hierarchy.
+     * @param graph the graph to preprocess
+     * @spec.requires graph != null, every edge label of graph is finite and not negative
+     * @throws NullPointerException if graph is null
+     */
+    public ContractionHierarchy(Multigraph<N, ? extends Number> graph){
+        if(graph == null) throw new NullPointerException();
+        this.index = graph.nodeIndex();
+        Contractor contractor = new Contractor(index.size(), graph.edgeCount());
+        for(N node : graph.nodes()){
+            int parent = index.idOf(node);
+            for(Edge<N, ? extends Number> edge : graph.childEdges(node)){
+                int child = index.idOf(edge.getChildNode());
+                if(child != parent) contractor.addEdge(parent, child, edge.getLabel().doubleValue(), -1, -1);
+            }
+        }
+        this.originalCount = contractor.edgeCount;
+        contractor.contractAll();
+
+        int edges = contractor.edgeCount;
+        this.ranks = contractor.ranks;
+        this.from = Arrays.copyOf(contractor.from, edges);
+        this.to = Arrays.copyOf(contractor.to, edges);
+        this.weights = Arrays.copyOf(contractor.weights, edges);
+        this.firstHalf = Arrays.copyOf(contractor.firstHalf, edges);
+        this.secondHalf = Arrays.copyOf(contractor.secondHalf, edges);
+
+        //split the edges into those climbing from their parent and those climbing backwards from their child
+        int size = index.size();
+        this.upStart = new int[size + 1];
+        this.downStart = new int[size + 1];
+        for(int e = 0; e < edges; e++){
+            if(ranks[to[e]] > ranks[from[e]]) upStart[from[e] + 1]++;
+            else downStart[to[e] + 1]++;
+        }
+        for(int node = 0; node < size; node++){
+            upStart[node + 1] += upStart[node];
+            downStart[node + 1] += downStart[node];
+        }
+        this.upEdges = new int[upStart[size]];
+        this.downEdges = new int[downStart[size]];
+        int[] upFill = Arrays.copyOf(upStart, size), downFill = Arrays.copyOf(downStart, size);
+        for(int e = 0; e < edges; e++){
+            if(ranks[to[e]] > ranks[from[e]]) upEdges[upFill[from[e]]++] = e;
+            else downEdges[downFill[to[e]]++] = e;
+        }
+        this.searches = ThreadLocal.withInitial(() -> new SearchSpace(size));
+        checkRep();
+    }
+
+    //AF: the hierarchy over the nodes of index, where node index.nodeOf(i) is the ranks[i]th least important
+    //      each e in [0, from.length) is an edge from from[e] to to[e] of weight weights[e], an edge of the
+    //      original graph if firstHalf[e] == -1, or else a shortcut for edge firstHalf[e] followed by
+    //      edge secondHalf[e]
+    //      upEdges[upStart[i]..upStart[i + 1]) are the edges leaving node i for a higher ranked node, and
+    //      downEdges[downStart[i]..downStart[i + 1]) those reaching node i from a higher ranked node
+    //RI: index != null, ranks is a permutation of [0, index.size())
+    //      from, to, weights, firstHalf, secondHalf have the same length, edges [0, originalCount) are original
+    //      and the rest are shortcuts, each made of two lower numbered edges meeting at a lower ranked node
+    //      the weight of each shortcut is the sum of the weights of its halves
+    //      every edge is in exactly one of upEdges and downEdges, searches != null
+    private final NodeIndex<N> index;
+    private final int[] ranks;
+    private final int[] from, to, firstHalf, secondHalf;
+    private final double[] weights;
+    private final int originalCount;
+    private final int[] upStart, upEdges, downStart, downEdges;
+    private final ThreadLocal<SearchSpace> searches;
+    private static final boolean debug = false;
+
+    /**
+     * Finds the shortest path from startNode to endNode
+     * @spec.requires startNode != null, endNode != null
+     * @param startNode the node to start at
+     * @param endNode the destination node
+     * @return Path representing the shortest path from start to end, along edges of the original graph
+     * @throws IllegalArgumentException if there is no path between the start and the end
+     * @throws java.util.NoSuchElementException if the graph did not contain startNode or endNode
+     */
+    public GraphUtils.Path<N> shortestPath(N startNode, N endNode){
+        int start = index.idOf(startNode), end = index.idOf(endNode);
+        if(start == end) return new GraphUtils.Path<>(startNode);
+        List<GraphUtils.Path.Segment<N>> segments = new ArrayList<>();
+        for(int e : pathEdges(start, end)){
+            unpack(e, segments);
+        }
+        return new GraphUtils.Path<>(startNode, segments);
+    }
+
+    /**
+     * Returns the rank the hierarchy gave node
+     * @param node the node to look up
+     * @spec.requires node != null
+     * @return the number of nodes that were contracted before node
+     * @throws java.util.NoSuchElementException if the graph did not contain node
+     */
+    public int rankOf(N node){
+        return ranks[index.idOf(node)];
+    }
+
+    /**
+     * Returns the number of shortcut edges preprocessing added
+     * @return the number of shortcuts
+     */
+    public int shortcutCount(){
+        return from.length - originalCount;
+    }
+
+    /**
+     * Searches upwards from start over the upward edges and from end over the downward edges, keeping on while
+     * either frontier is nearer than the best route through a node both have reached
+     * @param start the id of the node to start at
+     * @param end the id of the destination node, not start
+     * @return the ids of the edges along the shortest path, some of them shortcuts, in order from start to end
+     * @throws IllegalArgumentException if there is no path between the start and the end
+     */
+    private int[] pathEdges(int start, int end){
+        SearchSpace space = searches.get();
+        try{
+            double[] forward = space.forward, backward = space.backward;
+            int[] forwardVia = space.forwardVia, backwardVia = space.backwardVia;
+            IndexedMinHeap forwardFrontier = space.forwardFrontier, backwardFrontier = space.backwardFrontier;
+            space.touch(start);
+            forward[start] = 0;
+            forwardVia[start] = -1;
+            forwardFrontier.offer(start, 0);
+            space.touch(end);
+            backward[end] = 0;
+            backwardVia[end] = -1;
+            backwardFrontier.offer(end, 0);
+            double best = Double.POSITIVE_INFINITY;
+            int meeting = -1;
+
+            while(true){
+                boolean forwardOpen = !forwardFrontier.isEmpty() && forwardFrontier.peekKey() < best;
+                boolean backwardOpen = !backwardFrontier.isEmpty() && backwardFrontier.peekKey() < best;
+                if(!forwardOpen && !backwardOpen) break;
+                if(forwardOpen && (!backwardOpen || forwardFrontier.peekKey() <= backwardFrontier.peekKey())){
+                    int minNode = forwardFrontier.poll();
+                    for(int i = upStart[minNode]; i < upStart[minNode + 1]; i++){
+                        int e = upEdges[i], child = to[e];
+                        double distance = forward[minNode] + weights[e];
+                        if(distance < forward[child]){
+                            space.touch(child);
+                            forward[child] = distance;
+                            forwardVia[child] = e;
+                            forwardFrontier.offer(child, distance);
+                            if(distance + backward[child] < best){
+                                best = distance + backward[child];
+                                meeting = child;
+                            }
+                        }
+                    }
+                }else{
+                    int minNode = backwardFrontier.poll();
+                    for(int i = downStart[minNode]; i < downStart[minNode + 1]; i++){
+                        int e = downEdges[i], parent = from[e];
+                        double distance = backward[minNode] + weights[e];
+                        if(distance < backward[parent]){
+                            space.touch(parent);
+                            backward[parent] = distance;
+                            backwardVia[parent] = e;
+                            backwardFrontier.offer(parent, distance);
+                            if(distance + forward[parent] < best){
+                                best = distance + forward[parent];
+                                meeting = parent;
+                            }
+                        }
+                    }
+                }
+            }
+
+            //assert no path to dest exists
+            if(meeting < 0) throw new IllegalArgumentException("No path from startNode to endNode exists");
+            int count = 0;
+            for(int node = meeting; forwardVia[node] >= 0; node = from[forwardVia[node]]){
+                count++;
+            }
+            int head = count;
+            for(int node = meeting; backwardVia[node] >= 0; node = to[backwardVia[node]]){
+                count++;
+            }
+            int[] edges = new int[count];
+            for(int node = meeting, i = head; forwardVia[node] >= 0; node = from[forwardVia[node]]){
+                edges[--i] = forwardVia[node];
+            }
+            for(int node = meeting, i = head; backwardVia[node] >= 0; node = to[backwardVia[node]]){
+                edges[i++] = backwardVia[node];
+            }
+            return edges;
+        }finally{
+            space.reset();
+        }
+    }
+
+    /**
+     * Appends the original edges edge stands for to segments
+     * @param edge the id of an edge, original or shortcut
+     * @param segments the list to append to
+     */
+    private void unpack(int edge, List<GraphUtils.Path.Segment<N>> segments){
+        //the halves still to unpack, the next one on top
+        int[] stack = new int[8];
+        int top = 0;
+        stack[top++] = edge;
+        while(top > 0){
+            int e = stack[--top];
+            if(firstHalf[e] < 0){
+                segments.add(new GraphUtils.Path.Segment<>(index.nodeOf(from[e]), index.nodeOf(to[e]), weights[e]));
+                continue;
+            }
+            if(top + 2 > stack.length) stack = Arrays.copyOf(stack, 2 * stack.length);
+            stack[top++] = secondHalf[e];
+            stack[top++] = firstHalf[e];
+        }
+    }
+
+    /**
+     * Checks if the representation invariant is currently met
+     */
+    private void checkRep(){
+        assert index != null;
+        assert ranks.length == index.size();
+        assert from.length == to.length && to.length == weights.length;
+        assert weights.length == firstHalf.length && firstHalf.length == secondHalf.length;
+        assert upEdges.length + downEdges.length == from.length;
+        assert searches != null;
+        if(debug){
+            boolean[] seen = new boolean[ranks.length];
+            for(int rank : ranks){
+                assert !seen[rank];
+                seen[rank] = true;
+            }
+            for(int e = 0; e < from.length; e++){
+                assert (e < originalCount) == (firstHalf[e] < 0);
+                if(firstHalf[e] < 0) continue;
+                int first = firstHalf[e], second = secondHalf[e];
+                assert first < e && second < e;
+                assert from[first] == from[e] && to[first] == from[second] && to[second] == to[e];
+                assert ranks[to[first]] < ranks[from[e]] && ranks[to[first]] < ranks[to[e]];
+                assert weights[e] == weights[first] + weights[second];
+            }
+        }
+    }
+
+    /**
+     * The arrays one thread's queries search with.  Each query resets the entries it touched when it is done,
+     * so the next query starts from a clean slate without refilling arrays the size of the whole graph.
+     */
+    private static final class SearchSpace {
+
+        private final double[] forward, backward;
+        private final int[] forwardVia, backwardVia;
+        private final IndexedMinHeap forwardFrontier, backwardFrontier;
+        //nodes given a distance by the current query
+        private final int[] touched;
+        private int touchedCount;
+
+        /**
+         * Creates clean search arrays for a graph with size nodes
+         * @param size the number of nodes in the graph
+         */
+        private SearchSpace(int size){
+            this.forward = new double[size];
+            this.backward = new double[size];
+            Arrays.fill(forward, Double.POSITIVE_INFINITY);
+            Arrays.fill(backward, Double.POSITIVE_INFINITY);
+            this.forwardVia = new int[size];
+            this.backwardVia = new int[size];
+            this.forwardFrontier = new IndexedMinHeap(size);
+            this.backwardFrontier = new IndexedMinHeap(size);
+            this.touched = new int[size];
+        }
+
+        /**
+         * Records that node is about to be given a distance, if it has none yet
+         * @param node the node to record
+         */
+        private void touch(int node){
+            if(forward[node] == Double.POSITIVE_INFINITY && backward[node] == Double.POSITIVE_INFINITY)
+                touched[touchedCount++] = node;
+        }
+
+        /**
+         * Clears every distance and frontier entry the current query made
+         */
+        private void reset(){
+            for(int i = 0; i < touchedCount; i++){
+                forward[touched[i]] = Double.POSITIVE_INFINITY;
+                backward[touched[i]] = Double.POSITIVE_INFINITY;
+            }
+            touchedCount = 0;
+            forwardFrontier.clear();
+            backwardFrontier.clear();
+        }
+    }
+
+    /**
+     * The working state of preprocessing: a growing list of edges with the edges in and out of each node, and
+     * the scratch arrays of the witness searches
+     */
+    private static final class Contractor {
+
+        private final int size;
+        private int edgeCount;
+        private int[] from, to, firstHalf, secondHalf;
+        private double[] weights;
+        private final int[][] out, in;
+        private final int[] outCount, inCount;
+        private final boolean[] contracted;
+        private final int[] ranks, deletedNeighbours;
+        //the cheapest live edge from each in-neighbour and to each out-neighbour of the node being contracted
+        private final int[] bestIn, bestOut, ins, outs;
+        private int insCount, outsCount;
+        private final double[] distances;
+        private final int[] touched;
+        private int touchedCount;
+        private final IndexedMinHeap witnesses;
+
+        /**
+         * Creates an empty contractor
+         * @param size the number of nodes
+         * @param expectedEdges the number of edges expected, not counting shortcuts
+         */
+        private Contractor(int size, int expectedEdges){
+            this.size = size;
+            int capacity = Math.max(16, 2 * expectedEdges);
+            this.from = new int[capacity];
+            this.to = new int[capacity];
+            this.firstHalf = new int[capacity];
+            this.secondHalf = new int[capacity];
+            this.weights = new double[capacity];
+            this.out = new int[size][];
+            this.in = new int[size][];
+            this.outCount = new int[size];
+            this.inCount = new int[size];
+            this.contracted = new boolean[size];
+            this.ranks = new int[size];
+            this.deletedNeighbours = new int[size];
+            this.bestIn = new int[size];
+            this.bestOut = new int[size];
+            Arrays.fill(bestIn, -1);
+            Arrays.fill(bestOut, -1);
+            this.ins = new int[size];
+            this.outs = new int[size];
+            this.distances = new double[size];
+            Arrays.fill(distances, Double.POSITIVE_INFINITY);
+            this.touched = new int[size];
+            this.witnesses = new IndexedMinHeap(size);
+        }
+
+        /**
+         * Adds an edge, unless there is already one as short between the same two nodes.  A longer one is
+         * taken out of the adjacency lists in favour of the new edge, but kept in case a shortcut stands for it.
+         * @param parent the node the edge leaves
+         * @param child the node the edge reaches
+         * @param weight the weight of the edge
+         * @param first the first edge a shortcut stands for, or -1 for an original edge
+         * @param second the second edge a shortcut stands for, or -1 for an original edge
+         */
+        private void addEdge(int parent, int child, double weight, int first, int second){
+            for(int i = 0; i < outCount[parent]; i++){
+                int e = out[parent][i];
+                if(to[e] != child) continue;
+                if(weights[e] <= weight) return;
+                remove(out, outCount, parent, e);
+                remove(in, inCount, child, e);
+                break;
+            }
+            if(edgeCount == from.length){
+                int capacity = 2 * from.length;
+                from = Arrays.copyOf(from, capacity);
+                to = Arrays.copyOf(to, capacity);
+                firstHalf = Arrays.copyOf(firstHalf, capacity);
+                secondHalf = Arrays.copyOf(secondHalf, capacity);
+                weights = Arrays.copyOf(weights, capacity);
+            }
+            int e = edgeCount++;
+            from[e] = parent;
+            to[e] = child;
+            weights[e] = weight;
+            firstHalf[e] = first;
+            secondHalf[e] = second;
+            append(out, outCount, parent, e);
+            append(in, inCount, child, e);
+        }
+
+        /**
+         * Removes edge from the list of node in lists, if it is there
+         * @param lists the edge list of each node
+         * @param counts the length of each list
+         * @param node the node whose list to remove from
+         * @param edge the edge to remove
+         */
+        private static void remove(int[][] lists, int[] counts, int node, int edge){
+            for(int i = 0; i < counts[node]; i++){
+                if(lists[node][i] == edge){
+                    lists[node][i] = lists[node][--counts[node]];
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Appends edge to the list of node in lists
+         * @param lists the edge list of each node
+         * @param counts the length of each list
+         * @param node the node whose list to append to
+         * @param edge the edge to append
+         */
+        private static void append(int[][] lists, int[] counts, int node, int edge){
+            if(lists[node] == null) lists[node] = new int[4];
+            else if(counts[node] == lists[node].length) lists[node] = Arrays.copyOf(lists[node], 2 * counts[node]);
+            lists[node][counts[node]++] = edge;
+        }
+
+        /**
+         * Contracts every node, least important first, reassessing each node's importance when it comes up as
+         * the neighbours contracted before it change how many shortcuts it needs
+         */
+        private void contractAll(){
+            IndexedMinHeap order = new IndexedMinHeap(size);
+            for(int node = 0; node < size; node++){
+                order.offer(node, priority(node));
+            }
+            int rank = 0;
+            while(!order.isEmpty()){
+                int node = order.poll();
+                double priority = priority(node);
+                if(!order.isEmpty() && priority > order.peekKey()){
+                    order.offer(node, priority);
+                    continue;
+                }
+                contract(node, true);
+                for(int i = 0; i < insCount; i++){
+                    deletedNeighbours[ins[i]]++;
+                }
+                for(int i = 0; i < outsCount; i++){
+                    deletedNeighbours[outs[i]]++;
+                }
+                //detach node, so later witness searches only walk edges between uncontracted nodes
+                for(int i = 0; i < inCount[node]; i++){
+                    int e = in[node][i];
+                    remove(out, outCount, from[e], e);
+                }
+                for(int i = 0; i < outCount[node]; i++){
+                    int e = out[node][i];
+                    remove(in, inCount, to[e], e);
+                }
+                contracted[node] = true;
+                ranks[node] = rank++;
+            }
+        }
+
+        /**
+         * Returns how important node is, twice the shortcuts contracting it would add less the edges it would
+         * remove, plus the neighbours already contracted so that contraction spreads evenly over the graph
+         * @param node the node to assess
+         * @return the priority of node, lower is contracted sooner
+         */
+        private double priority(int node){
+            int shortcuts = contract(node, false);
+            return 2 * (shortcuts - (insCount + outsCount)) + deletedNeighbours[node];
+        }
+
+        /**
+         * Finds the shortcuts contracting node needs, one for each pair of neighbours with no path between them
+         * as short as the one through node, leaving its live neighbours in ins and outs
+         * @param node the node to contract
+         * @param apply whether to add the shortcuts, or only count them
+         * @return the number of shortcuts needed
+         */
+        private int contract(int node, boolean apply){
+            insCount = 0;
+            outsCount = 0;
+            for(int i = 0; i < inCount[node]; i++){
+                int e = in[node][i], parent = from[e];
+                if(contracted[parent]) continue;
+                if(bestIn[parent] < 0) ins[insCount++] = parent;
+                if(bestIn[parent] < 0 || weights[e] < weights[bestIn[parent]]) bestIn[parent] = e;
+            }
+            double farthest = 0;
+            for(int i = 0; i < outCount[node]; i++){
+                int e = out[node][i], child = to[e];
+                if(contracted[child]) continue;
+                if(bestOut[child] < 0) outs[outsCount++] = child;
+                if(bestOut[child] < 0 || weights[e] < weights[bestOut[child]]) bestOut[child] = e;
+            }
+            for(int i = 0; i < outsCount; i++){
+                farthest = Math.max(farthest, weights[bestOut[outs[i]]]);
+            }
+
+            int shortcuts = 0;
+            for(int i = 0; i < insCount; i++){
+                int parent = ins[i], first = bestIn[parent];
+                witnessSearch(parent, node, weights[first] + farthest);
+                for(int j = 0; j < outsCount; j++){
+                    int child = outs[j], second = bestOut[child];
+                    if(child == parent) continue;
+                    double through = weights[first] + weights[second];
+                    if(distances[child] <= through) continue;
+                    shortcuts++;
+                    if(apply) addEdge(parent, child, through, first, second);
+                }
+                for(int k = 0; k < touchedCount; k++){
+                    distances[touched[k]] = Double.POSITIVE_INFINITY;
+                }
+                touchedCount = 0;
+            }
+            for(int i = 0; i < insCount; i++){
+                bestIn[ins[i]] = -1;
+            }
+            for(int i = 0; i < outsCount; i++){
+                bestOut[outs[i]] = -1;
+            }
+            return shortcuts;
+        }
+
+        /**
+         * Runs a short dijkstra search from source among the uncontracted nodes other than skip, leaving the
+         * distance to each node it reached in distances and the nodes themselves in touched
+         * @param source the node to search from
+         * @param skip the node being contracted, which witnesses must go around
+         * @param limit the distance past which no witness is needed
+         */
+        private void witnessSearch(int source, int skip, double limit){
+            distances[source] = 0;
+            touched[touchedCount++] = source;
+            witnesses.offer(source, 0);
+            int settled = 0;
+            while(!witnesses.isEmpty() && witnesses.peekKey() <= limit && settled++ < WITNESS_SETTLE_LIMIT){
+                int node = witnesses.poll();
+                for(int i = 0; i < outCount[node]; i++){
+                    int e = out[node][i], child = to[e];
+                    if(child == skip || contracted[child]) continue;
+                    double distance = distances[node] + weights[e];
+                    if(distance < distances[child]){
+                        if(distances[child] == Double.POSITIVE_INFINITY) touched[touchedCount++] = child;
+                        distances[child] = distance;
+                        witnesses.offer(child, distance);
+                    }
+                }
+            }
+            witnesses.clear();
+        }
+    }
+}
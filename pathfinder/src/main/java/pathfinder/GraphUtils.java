@@ -5,13 +5,24 @@
 
 package pathfinder;
 
+import multigraph.DoubleCsrMultigraph;
+import multigraph.DoubleWeightedGraph;
 import multigraph.Edge;
+import multigraph.MappedMultigraph;
 import multigraph.Multigraph;
+import multigraph.NodeIndex;
+import pathfinder.datastructures.IndexedMinHeap;
+import pathfinder.datastructures.Point;
 
 import java.util.*;
+import java.util.function.IntFunction;
+import java.util.function.IntToDoubleFunction;
+import java.util.function.ToDoubleBiFunction;
 
 /**
- * Utility class that offers pathfinding capabilities for the LinearMultigraph class
+ * Utility class that offers pathfinding over multigraphs.  Any Multigraph can be searched with dijkstra's
+ * algorithm; compact DoubleWeightedGraphs such as DoubleCsrMultigraph and MappedMultigraph are searched over
+ * primitive ids with dijkstra's algorithm, A* steered by a heuristic or by landmarks, or bidirectional dijkstra.
  */
 public final class GraphUtils {
 
@@ -32,63 +43,520 @@ public final class GraphUtils {
      * @param <N> the type of node
      */
     public static <N> Path<N> shortestPath(Multigraph<N, ? extends Number> graph, N startNode, N endNode){
-        PriorityQueue<Path<N>> activePaths = new PriorityQueue<>(new PathComparator());
-        activePaths.add(new Path<>(startNode));
-        HashSet<N> finished = new HashSet<>();
-
-        while(!activePaths.isEmpty()){
-            //check current node
-            Path<N> minPath = activePaths.remove();
-            N minDest = minPath.getEnd();
-            if(minDest.equals(endNode)) return minPath;
-            if(finished.contains(minDest)) continue;
-
-            //add children paths to queue
-            for(Edge<N, ? extends Number> e : graph.listChildEdges(minDest)){
-                Path<N> newPath = minPath.extend(e.getChildNode(), e.getLabel().doubleValue());
-                activePaths.add(newPath);
+        //graphs without a kept index build a new one from every node on each call, which costs more than a short
+        //search and goes stale if another thread adds a node mid-search
+        if(graph.hasStableNodeIndex()){
+            return indexedShortestPath(graph, graph.nodeIndex(), startNode, endNode);
+        }
+        Map<N, Double> distances = new HashMap<>();
+        //segment each node was reached through
+        Map<N, Path.Segment<N>> via = new HashMap<>();
+        Set<N> finished = new HashSet<>();
+        PriorityQueue<Reached<N>> frontier = new PriorityQueue<>();
+        distances.put(startNode, 0.0);
+        frontier.add(new Reached<>(startNode, 0));
+
+        while(!frontier.isEmpty()){
+            N minNode = frontier.poll().node;
+            //a node is queued again each time a shorter path to it is found, so skip the stale entries
+            if(!finished.add(minNode)) continue;
+            if(minNode.equals(endNode)) return collectPath(via, startNode, endNode);
+            double minDistance = distances.get(minNode);
+
+            //relax child edges
+            graph.forEachChildEdge(minNode, e -> {
+                N child = e.getChildNode();
+                if(finished.contains(child)) return;
+                double weight = e.getLabel().doubleValue(), distance = minDistance + weight;
+                Double known = distances.get(child);
+                if(known == null || distance < known){
+                    distances.put(child, distance);
+                    via.put(child, new Path.Segment<>(minNode, child, weight));
+                    frontier.add(new Reached<>(child, distance));
+                }
+            });
+        }
+
+        //assert no path to dest exists
+        throw new IllegalArgumentException("No path from startNode to endNode exists");
+    }
+
+    /**
+     * Finds the shortest path from startNode to endNode using dijkstra's algorithm, keeping per node state in
+     * arrays indexed by the ids of index
+     * @param graph the graph containing the nodes
+     * @param index an index of the nodes of graph that stays valid for the whole search
+     * @param startNode the node to start at
+     * @param endNode the destination node
+     * @return Path representing the shortest path from start to end
+     * @throws IllegalArgumentException if there is no path between the start and the end
+     * @param <N> the type of node
+     */
+    private static <N> Path<N> indexedShortestPath(Multigraph<N, ? extends Number> graph, NodeIndex<N> index,
+                                                   N startNode, N endNode){
+        int size = index.size(), start = index.idOf(startNode), end = index.indexOf(endNode);
+        double[] distances = new double[size];
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        //node each node was reached from, and the weight of the edge it was reached through
+        int[] parents = new int[size];
+        double[] weights = new double[size];
+        boolean[] finished = new boolean[size];
+        IndexedMinHeap frontier = new IndexedMinHeap(size);
+        distances[start] = 0;
+        parents[start] = -1;
+        frontier.offer(start, 0);
+
+        while(!frontier.isEmpty()){
+            int minId = frontier.poll();
+            if(minId == end) return collectPath(index, parents, weights, end);
+            finished[minId] = true;
+
+            //relax child edges
+            graph.forEachChildEdge(index.nodeOf(minId), e -> {
+                int child = index.idOf(e.getChildNode());
+                if(finished[child]) return;
+                double weight = e.getLabel().doubleValue(), distance = distances[minId] + weight;
+                if(distance < distances[child]){
+                    distances[child] = distance;
+                    parents[child] = minId;
+                    weights[child] = weight;
+                    frontier.offer(child, distance);
+                }
+            });
+        }
+
+        //assert no path to dest exists
+        throw new IllegalArgumentException("No path from startNode to endNode exists");
+    }
+
+    /**
+     * Finds the shortest path from startNode to endNode using dijkstra's algorithm, reading edge weights
+     * straight out of the compact graph's weight array
+     * @spec.requires graph != null, startNode != null, endNode != null
+     *      graph.contains(startNode), graph.contains(endNode)
+     * @param graph the graph containing the nodes
+     * @param startNode the node to start at
+     * @param endNode the destination node
+     * @return Path representing the shortest path from start to end
+     * @throws IllegalArgumentException if there is no path between the start and the end
+     * @throws java.util.NoSuchElementException if graph does not contain startNode or endNode
+     * @param <N> the type of node
+     */
+    public static <N> Path<N> shortestPath(DoubleCsrMultigraph<N> graph, N startNode, N endNode){
+        int[] edges = shortestPathEdges(graph, graph.idOf(startNode), graph.idOf(endNode));
+        return pathOf(graph, graph::nodeOf, startNode, edges);
+    }
+
+    /**
+     * Finds the shortest path from startNode to endNode using A* search, reading edge weights straight out of
+     * the compact graph's weight array.  heuristic steers the search towards endNode, so it settles fewer nodes
+     * than dijkstra's algorithm the better the estimate is.
+     * @spec.requires graph != null, startNode != null, endNode != null, heuristic != null
+     *      graph.contains(startNode), graph.contains(endNode)
+     *      heuristic.applyAsDouble(n, endNode) is finite and never more than the length of the shortest path from
+     *      n to endNode, nor more than the weight of any edge from n to some m plus
+     *      heuristic.applyAsDouble(m, endNode)
+     * @param graph the graph containing the nodes
+     * @param startNode the node to start at
+     * @param endNode the destination node
+     * @param heuristic estimates the length of the shortest path from its first argument to its second
+     * @return Path representing the shortest path from start to end
+     * @throws IllegalArgumentException if there is no path between the start and the end
+     * @throws java.util.NoSuchElementException if graph does not contain startNode or endNode
+     * @param <N> the type of node
+     */
+    public static <N> Path<N> shortestPath(DoubleCsrMultigraph<N> graph, N startNode, N endNode,
+                                           ToDoubleBiFunction<? super N, ? super N> heuristic){
+        int[] edges = shortestPathEdges(graph, graph.idOf(startNode), graph.idOf(endNode),
+                id -> heuristic.applyAsDouble(graph.nodeOf(id), endNode));
+        return pathOf(graph, graph::nodeOf, startNode, edges);
+    }
+
+    /**
+     * Finds the shortest path from startNode to endNode using bidirectional dijkstra's algorithm, reading edge
+     * weights straight out of the compact graph's weight array.  Searching from both ends at once explores two
+     * small disks around them rather than one disk as wide as the whole route.
+     * @spec.requires graph != null, startNode != null, endNode != null
+     *      graph.contains(startNode), graph.contains(endNode)
+     * @param graph the graph containing the nodes
+     * @param startNode the node to start at
+     * @param endNode the destination node
+     * @return Path representing the shortest path from start to end
+     * @throws IllegalArgumentException if there is no path between the start and the end
+     * @throws java.util.NoSuchElementException if graph does not contain startNode or endNode
+     * @param <N> the type of node
+     */
+    public static <N> Path<N> bidirectionalShortestPath(DoubleCsrMultigraph<N> graph, N startNode, N endNode){
+        int[] edges = bidirectionalPathEdges(graph, graph.idOf(startNode), graph.idOf(endNode));
+        return pathOf(graph, graph::nodeOf, startNode, edges);
+    }
+
+    /**
+     * Finds the shortest path from startNode to endNode using A* search steered by the lower bounds of
+     * landmarks, reading edge weights straight out of the compact graph's weight array.  Unlike the straight
+     * line, these bounds follow the graph itself, so they stay tight around rivers and walls that routes must
+     * go around.
+     * @spec.requires graph != null, landmarks != null, startNode != null, endNode != null
+     *      graph.contains(startNode), graph.contains(endNode), landmarks were picked in graph
+     * @param graph the graph containing the nodes
+     * @param landmarks the landmarks to bound the distance left to endNode with
+     * @param startNode the node to start at
+     * @param endNode the destination node
+     * @return Path representing the shortest path from start to end
+     * @throws IllegalArgumentException if there is no path between the start and the end
+     * @throws java.util.NoSuchElementException if graph does not contain startNode or endNode
+     * @param <N> the type of node
+     */
+    public static <N> Path<N> landmarkShortestPath(DoubleCsrMultigraph<N> graph, Landmarks landmarks,
+                                                   N startNode, N endNode){
+        int end = graph.idOf(endNode);
+        int[] edges = shortestPathEdges(graph, graph.idOf(startNode), end, id -> landmarks.lowerBound(id, end));
+        return pathOf(graph, graph::nodeOf, startNode, edges);
+    }
+
+    /**
+     * Returns the straight line distance between two points, scaled down so that it is never more than the
+     * weight of any edge of graph.  Edge weights need not be in the same units as the points, as long as each
+     * edge is roughly as long as the straight line between its ends, so the result can be given to the A*
+     * variant of shortestPath as its heuristic.
+     * @spec.requires graph != null, every edge weight of graph is finite and not negative
+     * @param graph the graph the heuristic will be used on
+     * @return a function from two points to the scaled straight line distance between them
+     */
+    public static ToDoubleBiFunction<Point, Point> straightLine(Multigraph<Point, ? extends Number> graph){
+        double scale = Double.POSITIVE_INFINITY;
+        for(Point node : graph.nodes()){
+            for(Edge<Point, ? extends Number> edge : graph.childEdges(node)){
+                Point child = edge.getChildNode();
+                double line = Math.hypot(child.getX() - node.getX(), child.getY() - node.getY());
+                if(line > 0) scale = Math.min(scale, edge.getLabel().doubleValue() / line);
+            }
+        }
+        //with no edges to measure there is nothing to steer towards
+        double factor = Double.isInfinite(scale) ? 0 : scale;
+        //Math.hypot guards against overflow that map coordinates never reach, and is far slower than sqrt
+        return (a, b) -> {
+            double dx = b.getX() - a.getX(), dy = b.getY() - a.getY();
+            return factor * Math.sqrt(dx * dx + dy * dy);
+        };
+    }
+
+    /**
+     * Finds the shortest path from startNode to endNode using dijkstra's algorithm, reading the adjacency and
+     * edge weights straight out of the memory-mapped graph
+     * @spec.requires graph != null, startNode != null, endNode != null
+     *      graph.contains(startNode), graph.contains(endNode)
+     * @param graph the graph containing the nodes
+     * @param startNode the id of the node to start at
+     * @param endNode the id of the destination node
+     * @return Path representing the shortest path from start to end
+     * @throws IllegalArgumentException if there is no path between the start and the end
+     * @throws java.util.NoSuchElementException if graph does not contain startNode or endNode
+     */
+    public static Path<Integer> shortestPath(MappedMultigraph graph, Integer startNode, Integer endNode){
+        if(!graph.containsNode(startNode) || !graph.containsNode(endNode)) throw new NoSuchElementException();
+        int[] edges = shortestPathEdges(graph, startNode, endNode);
+        return pathOf(graph, Integer::valueOf, startNode, edges);
+    }
+
+    /**
+     * Finds the shortest path from node start to node end using dijkstra's algorithm over primitive
+     * node and edge ids
+     * @spec.requires graph != null, 0 <= start < graph.size(), 0 <= end < graph.size()
+     * @param graph the graph containing the nodes
+     * @param start the id of the node to start at
+     * @param end the id of the destination node
+     * @return the ids of the edges along the shortest path, in order from start to end
+     * @throws IllegalArgumentException if there is no path between the start and the end
+     */
+    public static int[] shortestPathEdges(DoubleWeightedGraph graph, int start, int end){
+        int[] via = shortestPathTree(graph, start, end, false, null);
+        if(end != start && via[end] < 0){
+            throw new IllegalArgumentException("No path from startNode to endNode exists");
+        }
+        return collectEdges(graph, via, end);
+    }
+
+    /**
+     * Grows the shortest path tree out of source with dijkstra's algorithm over primitive node and edge ids.
+     * Every search that needs the tree itself rather than one path shares this one, so that ties between equally
+     * short paths are broken the same way everywhere.
+     * @spec.requires graph != null, 0 <= source < graph.size(), -1 <= stop < graph.size()
+     *      distances == null or distances.length == graph.size()
+     * @param graph the graph to search
+     * @param source the id of the node to search from
+     * @param stop the id of the only node whose path is needed, so the search ends once it is settled, or -1 to
+     *             search the whole graph
+     * @param backward whether to search over parent edges, for the paths into source rather than out of it
+     * @param distances if not null, filled with the distance from source to each node, or from each node to
+     *                  source if backward, infinite where there is no path
+     * @spec.modifies distances
+     * @return the id of the edge each node is reached through, -1 for source and for nodes with no path.  Only
+     *         the entry for stop is final if the search stopped early.
+     */
+    static int[] shortestPathTree(DoubleWeightedGraph graph, int source, int stop, boolean backward,
+                                  double[] distances){
+        int size = graph.size();
+        if(distances == null) distances = new double[size];
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        //edge each node was reached through
+        int[] via = new int[size];
+        Arrays.fill(via, -1);
+        boolean[] finished = new boolean[size];
+        IndexedMinHeap frontier = new IndexedMinHeap(size);
+        distances[source] = 0;
+        frontier.offer(source, 0);
+
+        while(!frontier.isEmpty()){
+            int minNode = frontier.poll();
+            if(minNode == stop) break;
+            finished[minNode] = true;
+
+            //relax child edges, or parent edges searching backward
+            int first = backward ? graph.parentStart(minNode) : graph.childStart(minNode);
+            int last = backward ? graph.parentEnd(minNode) : graph.childEnd(minNode);
+            for(int i = first; i < last; i++){
+                int e = backward ? graph.parentEdge(i) : i;
+                int other = backward ? graph.parentOf(e) : graph.childOf(e);
+                if(finished[other]) continue;
+                double distance = distances[minNode] + graph.weightOf(e);
+                if(distance < distances[other]){
+                    distances[other] = distance;
+                    via[other] = e;
+                    frontier.offer(other, distance);
+                }
+            }
+        }
+        return via;
+    }
+
+    /**
+     * Finds the shortest path from node start to node end using A* search over primitive node and edge ids
+     * @spec.requires graph != null, heuristic != null, 0 <= start < graph.size(), 0 <= end < graph.size()
+     *      heuristic.applyAsDouble(n) is finite and never more than the length of the shortest path from n to
+     *      end, nor more than the weight of any edge from n to some m plus heuristic.applyAsDouble(m)
+     * @param graph the graph containing the nodes
+     * @param start the id of the node to start at
+     * @param end the id of the destination node
+     * @param heuristic estimates the length of the shortest path from the node with the given id to end
+     * @return the ids of the edges along the shortest path, in order from start to end
+     * @throws IllegalArgumentException if there is no path between the start and the end
+     */
+    public static int[] shortestPathEdges(DoubleWeightedGraph graph, int start, int end,
+                                          IntToDoubleFunction heuristic){
+        int size = graph.size();
+        double[] distances = new double[size];
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        //heuristic of each node, NaN until the node is first reached
+        double[] estimates = new double[size];
+        Arrays.fill(estimates, Double.NaN);
+        //edge each node was reached through
+        int[] via = new int[size];
+        boolean[] finished = new boolean[size];
+        IndexedMinHeap frontier = new IndexedMinHeap(size);
+        distances[start] = 0;
+        via[start] = -1;
+        frontier.offer(start, 0);
+
+        while(!frontier.isEmpty()){
+            int minNode = frontier.poll();
+            if(minNode == end) return collectEdges(graph, via, end);
+            finished[minNode] = true;
+
+            //relax child edges, ordering the frontier by distance so far plus estimated distance to go
+            for(int e = graph.childStart(minNode); e < graph.childEnd(minNode); e++){
+                int child = graph.childOf(e);
+                if(finished[child]) continue;
+                double distance = distances[minNode] + graph.weightOf(e);
+                if(distance < distances[child]){
+                    if(Double.isNaN(estimates[child])) estimates[child] = heuristic.applyAsDouble(child);
+                    distances[child] = distance;
+                    via[child] = e;
+                    frontier.offer(child, distance + estimates[child]);
+                }
             }
-            finished.add(minDest);
         }
 
         //assert no path to dest exists
         throw new IllegalArgumentException("No path from startNode to endNode exists");
     }
 
-    private static class PathComparator implements Comparator<Path<?>>{
+    /**
+     * Finds the shortest path from node start to node end using bidirectional dijkstra's algorithm over
+     * primitive node and edge ids.  One search runs forwards from start over child edges and the other
+     * backwards from end over parent edges, each step advancing whichever frontier is nearer its own end.
+     * Every edge relaxed into a node the other search has reached offers a route through that node, and the
+     * searches stop once the two frontiers together are at least as long as the best route offered, as no
+     * route through an unsettled node can then be shorter.
+     * @spec.requires graph != null, 0 <= start < graph.size(), 0 <= end < graph.size()
+     * @param graph the graph containing the nodes
+     * @param start the id of the node to start at
+     * @param end the id of the destination node
+     * @return the ids of the edges along the shortest path, in order from start to end
+     * @throws IllegalArgumentException if there is no path between the start and the end
+     */
+    public static int[] bidirectionalPathEdges(DoubleWeightedGraph graph, int start, int end){
+        if(start == end) return new int[0];
+        int size = graph.size();
+        double[] forward = new double[size], backward = new double[size];
+        Arrays.fill(forward, Double.POSITIVE_INFINITY);
+        Arrays.fill(backward, Double.POSITIVE_INFINITY);
+        //edge each node was reached through, from start going forwards and from end going backwards
+        int[] forwardVia = new int[size], backwardVia = new int[size];
+        boolean[] forwardFinished = new boolean[size], backwardFinished = new boolean[size];
+        IndexedMinHeap forwardFrontier = new IndexedMinHeap(size), backwardFrontier = new IndexedMinHeap(size);
+        forward[start] = 0;
+        backward[end] = 0;
+        forwardVia[start] = -1;
+        backwardVia[end] = -1;
+        forwardFrontier.offer(start, 0);
+        backwardFrontier.offer(end, 0);
+        //length of the shortest route found so far, and the node it passes through
+        double best = Double.POSITIVE_INFINITY;
+        int meeting = -1;
+
+        while(!forwardFrontier.isEmpty() && !backwardFrontier.isEmpty()
+                && forwardFrontier.peekKey() + backwardFrontier.peekKey() < best){
+            if(forwardFrontier.peekKey() <= backwardFrontier.peekKey()){
+                int minNode = forwardFrontier.poll();
+                forwardFinished[minNode] = true;
+                for(int e = graph.childStart(minNode); e < graph.childEnd(minNode); e++){
+                    int child = graph.childOf(e);
+                    if(forwardFinished[child]) continue;
+                    double distance = forward[minNode] + graph.weightOf(e);
+                    if(distance < forward[child]){
+                        forward[child] = distance;
+                        forwardVia[child] = e;
+                        forwardFrontier.offer(child, distance);
+                        if(distance + backward[child] < best){
+                            best = distance + backward[child];
+                            meeting = child;
+                        }
+                    }
+                }
+            }else{
+                int minNode = backwardFrontier.poll();
+                backwardFinished[minNode] = true;
+                for(int p = graph.parentStart(minNode); p < graph.parentEnd(minNode); p++){
+                    int e = graph.parentEdge(p), parent = graph.parentOf(e);
+                    if(backwardFinished[parent]) continue;
+                    double distance = backward[minNode] + graph.weightOf(e);
+                    if(distance < backward[parent]){
+                        backward[parent] = distance;
+                        backwardVia[parent] = e;
+                        backwardFrontier.offer(parent, distance);
+                        if(distance + forward[parent] < best){
+                            best = distance + forward[parent];
+                            meeting = parent;
+                        }
+                    }
+                }
+            }
+        }
+
+        //assert no path to dest exists
+        if(meeting < 0) throw new IllegalArgumentException("No path from startNode to endNode exists");
+        int[] head = collectEdges(graph, forwardVia, meeting);
+        int count = 0;
+        for(int node = meeting; backwardVia[node] >= 0; node = graph.childOf(backwardVia[node])){
+            count++;
+        }
+        int[] edges = Arrays.copyOf(head, head.length + count);
+        count = head.length;
+        for(int node = meeting; backwardVia[node] >= 0; node = graph.childOf(backwardVia[node])){
+            edges[count++] = backwardVia[node];
+        }
+        return edges;
+    }
+
+    /**
+     * Walks the edges a search reached end through back to the start of the search
+     * @param graph the searched graph
+     * @param via the edge each reached node was reached through, -1 for the start node
+     * @param end the node to walk back from
+     * @return the edges from the start of the search to end, in order
+     */
+    static int[] collectEdges(DoubleWeightedGraph graph, int[] via, int end){
+        int count = 0;
+        for(int node = end; via[node] >= 0; node = graph.parentOf(via[node])){
+            count++;
+        }
+        int[] edges = new int[count];
+        for(int node = end; via[node] >= 0; node = graph.parentOf(via[node])){
+            edges[--count] = via[node];
+        }
+        return edges;
+    }
+
+    /**
+     * Builds the path along the given edges of graph
+     * @param graph the searched graph
+     * @param nodeOf the node with each id of graph
+     * @param start the node the path starts at
+     * @param edges the edges of the path, in order
+     * @return the path from start along edges
+     */
+    static <N> Path<N> pathOf(DoubleWeightedGraph graph, IntFunction<? extends N> nodeOf, N start, int[] edges){
+        List<Path.Segment<N>> segments = new ArrayList<>(edges.length);
+        for(int e : edges){
+            segments.add(new Path.Segment<>(nodeOf.apply(graph.parentOf(e)), nodeOf.apply(graph.childOf(e)),
+                    graph.weightOf(e)));
+        }
+        return new Path<>(start, segments);
+    }
+
+    /**
+     * Walks the nodes a search reached end through back to the start of the search
+     * @param index the ids of the searched graph's nodes
+     * @param parents the node each reached node was reached from, -1 for the start node
+     * @param weights the weight of the edge each reached node was reached through
+     * @param end the node to walk back from
+     * @return the path from the start of the search to end
+     */
+    private static <N> Path<N> collectPath(NodeIndex<N> index, int[] parents, double[] weights, int end){
+        List<Path.Segment<N>> segments = new ArrayList<>();
+        int node = end;
+        for(; parents[node] >= 0; node = parents[node]){
+            segments.add(new Path.Segment<>(index.nodeOf(parents[node]), index.nodeOf(node), weights[node]));
+        }
+        Collections.reverse(segments);
+        return new Path<>(index.nodeOf(node), segments);
+    }
+
+    /**
+     * Walks the segments a search reached each node through back from end to start
+     * @param via the segment each reached node other than start was reached through
+     * @param start the node the search started at
+     * @param end the node to walk back from
+     * @return the path from start to end
+     */
+    private static <N> Path<N> collectPath(Map<N, Path.Segment<N>> via, N start, N end){
+        List<Path.Segment<N>> segments = new ArrayList<>();
+        N node = end;
+        while(!node.equals(start)){
+            Path.Segment<N> segment = via.get(node);
+            segments.add(segment);
+            node = segment.getStart();
+        }
+        Collections.reverse(segments);
+        return new Path<>(start, segments);
+    }
+
+    /**
+     * A node queued for the hash keyed search, with the length of the path it was queued for
+     */
+    private static final class Reached<N> implements Comparable<Reached<N>> {
+        private final N node;
+        private final double distance;
+
+        private Reached(N node, double distance){
+            this.node = node;
+            this.distance = distance;
+        }
 
-        /**
-         * Compares its two arguments for order.  Returns a negative integer,
-         * zero, or a positive integer as the first argument is less than, equal
-         * to, or greater than the second.<p>
-         * <p>
-         * The implementor must ensure that {@link Integer#signum
-         * signum}{@code (compare(x, y)) == -signum(compare(y, x))} for
-         * all {@code x} and {@code y}.  (This implies that {@code
-         * compare(x, y)} must throw an exception if and only if {@code
-         * compare(y, x)} throws an exception.)<p>
-         * <p>
-         * The implementor must also ensure that the relation is transitive:
-         * {@code ((compare(x, y)>0) && (compare(y, z)>0))} implies
-         * {@code compare(x, z)>0}.<p>
-         * <p>
-         * Finally, the implementor must ensure that {@code compare(x,
-         * y)==0} implies that {@code signum(compare(x,
-         * z))==signum(compare(y, z))} for all {@code z}.
-         *
-         * @param p1 the first object to be compared.
-         * @param p2 the second object to be compared.
-         * @return a negative integer, zero, or a positive integer as the
-         * first argument is less than, equal to, or greater than the
-         * second.
-         * @throws NullPointerException if an argument is null and this
-         *                              comparator does not permit null arguments
-         * @throws ClassCastException   if the arguments' types prevent them from
-         *                              being compared by this comparator.
-         */
         @Override
-        public int compare(Path<?> p1, Path<?> p2) {
-            return Double.compare((Double)p1.getCost(), (Double)p2.getCost());
+        public int compareTo(Reached<N> other){
+            return Double.compare(distance, other.distance);
         }
     }
 
@@ -143,6 +611,22 @@ public final class GraphUtils {
             checkRep();
         }
 
+        /**
+         * Creates a path along the given segments, copying them once rather than once per segment as a
+         * chain of extend calls would.
+         * @spec.requires start != null, segments != null, segments is a chain of segments leading from start
+         * @param start The starting point of the path.
+         * @param segments The segments of the path, in order.
+         */
+        Path(N start, List<Segment<N>> segments) {
+            this.start = start;
+            this.path = new ArrayList<>(segments);
+            for(Segment<N> segment : segments) {
+                this.cost += segment.getCost();
+            }
+            checkRep();
+        }
+
         /**
          * Appends a new single segment to the end of this path, originating at the current last point
          * in this path and terminating at {@code newEnd}. The cost of adding this additional segment
@@ -289,8 +773,8 @@ public final class GraphUtils {
 
         /**
          * Segment represents a single segment as part of a longer, more complex path between points.
-         * Segments are immutable parts of a larger path that cannot be instantiated directly, and
-         * are created as part of larger paths by calling Path#extend(Point, double).
+         * Segments are immutable parts of a larger path that cannot be instantiated directly outside this
+         * package, and are created as part of larger paths by calling Path#extend(Point, double).
          */
         public static class Segment<T> {
 
@@ -326,7 +810,7 @@ public final class GraphUtils {
              * @throws NullPointerException     if either point is null.
              * @throws IllegalArgumentException if cost is infinite or NaN
              */
-            private Segment(T start, T end, double cost) {
+            Segment(T start, T end, double cost) {
                 if(start == null || end == null) {
                     throw new NullPointerException("Segments cannot have null points.");
                 }
@@ -0,0 +1,156 @@
+/*
+ * Author: Ryan Nelson
+ * Provided as is without any warranty
+ */
+
+package pathfinder;
+
+import multigraph.DoubleWeightedGraph;
+
+import java.util.Arrays;
+
+/**
+ * This immutable class holds the shortest distances from and to a few landmark nodes of a graph, and turns
+ * them into lower bounds on the distance between any two nodes for A* search.  By the triangle inequality the
+ * distance from v to t is at least the distance from v to a landmark less the distance from t to it, and at
+ * least the distance from the landmark to t less the distance from it to v.  Landmarks far out at the edges of
+ * the graph give the tightest bounds, so they are picked one at a time as the node farthest from those already
+ * picked.
+ */
+public final class Landmarks {
+
+    /**
+     * The number of landmarks routing engines pick, enough to surround a campus sized map
+     */
+    public static final int DEFAULT_COUNT = 8;
+
+    /**
+     * Picks landmarks in graph and finds the distances from and to each of them
+     * @param graph the graph to pick landmarks in
+     * @param count the number of landmarks to pick, fewer are picked if graph has fewer nodes
+     * @spec.requires graph != null, every edge weight of graph is finite and not negative
+     * @throws IllegalArgumentException if count is negative
+     */
+    public Landmarks(DoubleWeightedGraph graph, int count){
+        if(count < 0) throw new IllegalArgumentException("count must not be negative");
+        int size = graph.size();
+        count = Math.min(count, size);
+        this.landmarks = new int[count];
+        this.from = new double[count][];
+        this.to = new double[count][];
+        if(count == 0){
+            checkRep();
+            return;
+        }
+
+        //the first landmark is the node farthest from an arbitrary one, the rest the farthest from those before
+        double[] nearest = new double[size];
+        Arrays.fill(nearest, Double.POSITIVE_INFINITY);
+        boolean[] taken = new boolean[size];
+        int next = farthest(distances(graph, 0, false), taken);
+        for(int i = 0; i < count; i++){
+            landmarks[i] = next;
+            taken[next] = true;
+            from[i] = distances(graph, next, false);
+            to[i] = distances(graph, next, true);
+            for(int node = 0; node < size; node++){
+                nearest[node] = Math.min(nearest[node], from[i][node] + to[i][node]);
+            }
+            next = farthest(nearest, taken);
+        }
+        checkRep();
+    }
+
+    //AF: the landmarks with ids landmarks, where from[i][v] is the distance from landmarks[i] to node v and
+    //      to[i][v] the distance from v to landmarks[i], infinite where there is no path
+    //RI: landmarks, from and to have the same length, and hold no duplicates or nulls
+    //      from[i][landmarks[i]] == 0 and to[i][landmarks[i]] == 0
+    private final int[] landmarks;
+    private final double[][] from, to;
+    private static final boolean debug = false;
+
+    /**
+     * Returns the number of landmarks
+     * @return the number of landmarks
+     */
+    public int count(){
+        return landmarks.length;
+    }
+
+    /**
+     * Returns the id of the given landmark
+     * @param i the index of the landmark
+     * @spec.requires 0 <= i < count()
+     * @return the id of the ith landmark picked
+     */
+    public int landmark(int i){
+        return landmarks[i];
+    }
+
+    /**
+     * Returns a lower bound on the length of the shortest path from node v to node t
+     * @param v the id of the node the path leaves
+     * @param t the id of the node the path reaches
+     * @spec.requires both ids are ids of the graph the landmarks were picked in
+     * @return a finite, non-negative value no more than the distance from v to t
+     */
+    public double lowerBound(int v, int t){
+        double bound = 0;
+        for(int i = 0; i < landmarks.length; i++){
+            double[] toLandmark = to[i], fromLandmark = from[i];
+            //landmarks that v or t cannot reach or be reached from say nothing through that side
+            double ahead = toLandmark[v] - toLandmark[t], behind = fromLandmark[t] - fromLandmark[v];
+            if(ahead > bound && ahead != Double.POSITIVE_INFINITY) bound = ahead;
+            if(behind > bound && behind != Double.POSITIVE_INFINITY) bound = behind;
+        }
+        return bound;
+    }
+
+    /**
+     * Finds the distance between source and every node of graph with dijkstra's algorithm
+     * @param graph the graph to search
+     * @param source the node to search from
+     * @param backward whether to search over parent edges, for the distances to source rather than from it
+     * @return the distance from source to each node, or from each node to source if backward, infinite where
+     *         there is no path
+     */
+    private static double[] distances(DoubleWeightedGraph graph, int source, boolean backward){
+        double[] distances = new double[graph.size()];
+        GraphUtils.shortestPathTree(graph, source, -1, backward, distances);
+        return distances;
+    }
+
+    /**
+     * Finds the node with the greatest distance, counting nodes with no path at all as the farthest of all so
+     * that every part of a disconnected graph gets a landmark before any part gets a second
+     * @param distances the distance to each node
+     * @param taken whether each node is already a landmark, and so may not be picked
+     * @return the id of the farthest node that is not taken, or -1 if every node is taken
+     */
+    private static int farthest(double[] distances, boolean[] taken){
+        int best = -1;
+        for(int node = 0; node < distances.length; node++){
+            if(taken[node]) continue;
+            if(best < 0 || distances[node] > distances[best]) best = node;
+        }
+        return best;
+    }
+
+    /**
+     * Checks if the representation invariant is currently met
+     */
+    private void checkRep(){
+        assert landmarks.length == from.length && from.length == to.length;
+        for(int i = 0; i < landmarks.length; i++){
+            assert from[i] != null && to[i] != null;
+            assert from[i][landmarks[i]] == 0 && to[i][landmarks[i]] == 0;
+        }
+        if(debug){
+            for(int i = 0; i < landmarks.length; i++){
+                for(int j = 0; j < i; j++){
+                    assert landmarks[i] != landmarks[j];
+                }
+            }
+        }
+    }
+}
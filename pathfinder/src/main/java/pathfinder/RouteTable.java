@@ -0,0 +1,122 @@
+/*
+ * Author: Ryan Nelson
+ * Provided as is without any warranty
+ */
+
+package pathfinder;
+
+import multigraph.DoubleCsrMultigraph;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.stream.IntStream;
+
+/**
+ * This immutable class holds the shortest path tree out of each of a few source nodes of a graph, so that the
+ * shortest path from a source to any node is read out of its tree rather than searched for.  Each tree stores
+ * just the edge every node is reached through, one int per node of the graph, and the trees are grown in
+ * parallel on the common fork-join pool, one search per source.  As large graphs with many sources could need
+ * more memory than is worth spending, only as many sources as fit in a given number of bytes get a tree.
+ */
+public final class RouteTable<N> {
+
+    /**
+     * The number of bytes CampusMap lets its table of building routes take up
+     */
+    public static final long DEFAULT_MAX_BYTES = 1L << 24;
+
+    /**
+     * Grows the shortest path tree out of each source in graph, in order, until the trees would take up more
+     * than maxBytes
+     * @param graph the graph to route on
+     * @param sources the nodes to route from, duplicates are only counted once
+     * @param maxBytes the most memory the trees may take up
+     * @spec.requires graph != null, sources != null, every source is a node of graph
+     *      every edge weight of graph is finite and not negative, graph is not modified while this is in use
+     * @throws IllegalArgumentException if maxBytes is negative
+     * @throws NoSuchElementException if graph does not contain a source
+     */
+    public RouteTable(DoubleCsrMultigraph<N> graph, Collection<? extends N> sources, long maxBytes){
+        if(maxBytes < 0) throw new IllegalArgumentException("maxBytes must not be negative");
+        this.graph = graph;
+        this.rows = new HashMap<>();
+        long rowBytes = 4L * Math.max(graph.size(), 1);
+        List<Integer> ids = new ArrayList<>();
+        for(N source : sources){
+            if(rows.containsKey(source)) continue;
+            if((ids.size() + 1) * rowBytes > maxBytes) break;
+            rows.put(source, ids.size());
+            ids.add(graph.idOf(source));
+        }
+        this.via = new int[ids.size()][];
+        //every search writes only its own row, and the stream does not return until all of them are done
+        IntStream.range(0, via.length).parallel()
+                .forEach(row -> via[row] = GraphUtils.shortestPathTree(graph, ids.get(row), -1, false, null));
+        checkRep();
+    }
+
+    //AF: for each source s in rows, via[rows.get(s)][v] is the id of the last edge on the shortest path in graph
+    //      from s to the node with id v, or -1 if v is s or there is no such path
+    //RI: graph != null, rows != null, rows values are 0 through via.length - 1, via[i].length == graph.size()
+    //      via[rows.get(s)][graph.idOf(s)] == -1
+    private final DoubleCsrMultigraph<N> graph;
+    private final Map<N, Integer> rows;
+    private final int[][] via;
+    private static final boolean debug = false;
+
+    /**
+     * Returns whether the shortest paths from source are in this table
+     * @param source the node to check
+     * @return true if source has a shortest path tree in this table
+     */
+    public boolean covers(N source){
+        return rows.containsKey(source);
+    }
+
+    /**
+     * Returns the number of sources with a shortest path tree in this table
+     * @return the number of sources covered
+     */
+    public int size(){
+        return via.length;
+    }
+
+    /**
+     * Reads the shortest path from startNode to endNode out of startNode's shortest path tree
+     * @spec.requires startNode != null, endNode != null
+     * @param startNode the node to start at
+     * @param endNode the destination node
+     * @return Path representing the shortest path from start to end
+     * @throws IllegalArgumentException if there is no path between the start and the end
+     * @throws NoSuchElementException if this table does not cover startNode or graph does not contain endNode
+     */
+    public GraphUtils.Path<N> shortestPath(N startNode, N endNode){
+        Integer row = rows.get(startNode);
+        if(row == null) throw new NoSuchElementException("start node is not covered");
+        int[] tree = via[row];
+        int start = graph.idOf(startNode), end = graph.idOf(endNode);
+        if(end != start && tree[end] < 0){
+            throw new IllegalArgumentException("No path from startNode to endNode exists");
+        }
+        return GraphUtils.pathOf(graph, graph::nodeOf, startNode, GraphUtils.collectEdges(graph, tree, end));
+    }
+
+    /**
+     * Checks if the representation invariant is currently met
+     */
+    private void checkRep(){
+        assert graph != null && rows != null;
+        assert rows.size() == via.length;
+        if(debug){
+            for(Map.Entry<N, Integer> entry : rows.entrySet()){
+                int[] tree = via[entry.getValue()];
+                assert tree.length == graph.size();
+                assert tree[graph.idOf(entry.getKey())] == -1;
+            }
+        }
+    }
+}
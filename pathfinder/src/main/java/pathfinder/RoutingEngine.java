@@ -0,0 +1,116 @@
+/*
+ * Author: Ryan Nelson
+ * Provided as is without any warranty
+ */
+
+package pathfinder;
+
+import multigraph.DoubleCsrMultigraph;
+
+import java.util.function.BiFunction;
+import java.util.function.ToDoubleBiFunction;
+
+/**
+ * The shortest path searches a CampusMap can route with.  Every engine finds a path of the same, least cost;
+ * they differ only in how much of the graph they explore on the way, and in how much work they do up front
+ * in prepare.
+ */
+public enum RoutingEngine {
+
+    /**
+     * Dijkstra's algorithm from the start, ignoring the heuristic
+     */
+    DIJKSTRA {
+        @Override
+        <N> GraphUtils.Path<N> shortestPath(DoubleCsrMultigraph<N> graph, N startNode, N endNode,
+                                            ToDoubleBiFunction<? super N, ? super N> heuristic){
+            return GraphUtils.shortestPath(graph, startNode, endNode);
+        }
+    },
+
+    /**
+     * A* search from the start, steered by the heuristic
+     */
+    A_STAR {
+        @Override
+        <N> GraphUtils.Path<N> shortestPath(DoubleCsrMultigraph<N> graph, N startNode, N endNode,
+                                            ToDoubleBiFunction<? super N, ? super N> heuristic){
+            return GraphUtils.shortestPath(graph, startNode, endNode, heuristic);
+        }
+    },
+
+    /**
+     * Dijkstra's algorithm from both ends at once, ignoring the heuristic
+     */
+    BIDIRECTIONAL {
+        @Override
+        <N> GraphUtils.Path<N> shortestPath(DoubleCsrMultigraph<N> graph, N startNode, N endNode,
+                                            ToDoubleBiFunction<? super N, ? super N> heuristic){
+            return GraphUtils.bidirectionalShortestPath(graph, startNode, endNode);
+        }
+    },
+
+    /**
+     * A* search from the start, steered by lower bounds from Landmarks.DEFAULT_COUNT landmarks rather than the
+     * heuristic.  The landmarks are picked once by prepare.
+     */
+    LANDMARKS {
+        @Override
+        public <N> BiFunction<N, N, GraphUtils.Path<N>> prepare(DoubleCsrMultigraph<N> graph,
+                                                                ToDoubleBiFunction<? super N, ? super N> heuristic){
+            Landmarks landmarks = new Landmarks(graph, Landmarks.DEFAULT_COUNT);
+            return (startNode, endNode) -> GraphUtils.landmarkShortestPath(graph, landmarks, startNode, endNode);
+        }
+    },
+
+    /**
+     * Bidirectional upward search over a contraction hierarchy, ignoring the heuristic.  The hierarchy is built
+     * once by prepare.
+     */
+    CONTRACTION_HIERARCHY {
+        @Override
+        public <N> BiFunction<N, N, GraphUtils.Path<N>> prepare(DoubleCsrMultigraph<N> graph,
+                                                                ToDoubleBiFunction<? super N, ? super N> heuristic){
+            return new ContractionHierarchy<>(graph)::shortestPath;
+        }
+    };
+
+    /**
+     * Finds the shortest path from startNode to endNode with this engine, for the engines that need no
+     * preprocessing.  The others override prepare instead, so that their preprocessing cannot run once per query.
+     * @spec.requires graph != null, startNode != null, endNode != null, heuristic != null
+     *      graph.contains(startNode), graph.contains(endNode)
+     *      heuristic meets the requirements of GraphUtils.shortestPath's A* variant
+     * @param graph the graph containing the nodes
+     * @param startNode the node to start at
+     * @param endNode the destination node
+     * @param heuristic estimates the length of the shortest path from its first argument to its second, for the
+     *                  engines that use one
+     * @return Path representing the shortest path from start to end
+     * @throws IllegalArgumentException if there is no path between the start and the end
+     * @throws java.util.NoSuchElementException if graph does not contain startNode or endNode
+     * @throws UnsupportedOperationException if this engine only answers queries through prepare
+     * @param <N> the type of node
+     */
+    <N> GraphUtils.Path<N> shortestPath(DoubleCsrMultigraph<N> graph, N startNode, N endNode,
+                                        ToDoubleBiFunction<? super N, ? super N> heuristic){
+        throw new UnsupportedOperationException(name() + " only answers queries through prepare");
+    }
+
+    /**
+     * Readies this engine to answer many queries on graph, doing any preprocessing it needs once
+     * @spec.requires graph != null, heuristic != null, graph is not modified while the result is in use
+     *      heuristic meets the requirements of GraphUtils.shortestPath's A* variant
+     * @param graph the graph to route on
+     * @param heuristic estimates the length of the shortest path from its first argument to its second, for the
+     *                  engines that use one
+     * @return a function from a start and an end node to the shortest path between them, which throws
+     *         IllegalArgumentException if there is no path between them and NoSuchElementException if graph
+     *         does not contain one of them
+     * @param <N> the type of node
+     */
+    public <N> BiFunction<N, N, GraphUtils.Path<N>> prepare(DoubleCsrMultigraph<N> graph,
+                                                            ToDoubleBiFunction<? super N, ? super N> heuristic){
+        return (startNode, endNode) -> shortestPath(graph, startNode, endNode, heuristic);
+    }
+}
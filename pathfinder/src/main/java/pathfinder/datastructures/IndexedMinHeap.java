@@ -0,0 +1,216 @@
+/*
+ * Author: Ryan Nelson
+ * Provided as is without any warranty
+ */
+
+package pathfinder.datastructures;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A binary min heap of int ids in the range [0, capacity), each keyed by a primitive double.  Every id is in
+ * the heap at most once, and its key can be lowered in place, which is what Dijkstra style searches need for
+ * their frontier without boxing or allocating an entry per relaxation.
+ */
+public class IndexedMinHeap {
+
+    // AF(this) = the set of ids heap[0..size), where id heap[i] has priority keys[i]
+    //      the id with the least key is heap[0]
+
+    // Rep Invariant:
+    //      0 <= size <= heap.length == keys.length == positions.length
+    //      positions[heap[i]] == i for all 0 <= i < size
+    //      positions[id] == -1 for every id not in heap[0..size)
+    //      keys[(i - 1) / 2] <= keys[i] for all 0 < i < size
+
+    /**
+     * The ids in the heap, in heap order.
+     */
+    private final int[] heap;
+
+    /**
+     * The key of the id at the same position of heap.
+     */
+    private final double[] keys;
+
+    /**
+     * The position of each id in heap, or -1 if the id is not in the heap.
+     */
+    private final int[] positions;
+
+    /**
+     * The number of ids in the heap.
+     */
+    private int size;
+
+    /**
+     * Creates a new, empty heap that can hold the ids [0, capacity)
+     * @spec.requires capacity >= 0
+     * @param capacity one more than the largest id the heap can hold
+     */
+    public IndexedMinHeap(int capacity) {
+        this.heap = new int[capacity];
+        this.keys = new double[capacity];
+        this.positions = new int[capacity];
+        Arrays.fill(positions, -1);
+        this.size = 0;
+        checkRep();
+    }
+
+    /**
+     * @return the number of ids in the heap
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return {@literal true} iff the heap contains no ids
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @param id the id to look for
+     * @spec.requires 0 <= id < capacity
+     * @return {@literal true} iff id is currently in the heap
+     */
+    public boolean contains(int id) {
+        return positions[id] >= 0;
+    }
+
+    /**
+     * Inserts id with the given key, or lowers the key of id if it is already in the heap with a larger key.
+     * Does nothing if id is already in the heap with a key no larger than key.
+     * @param id the id to insert
+     * @param key the priority of id, lower keys are removed first
+     * @spec.requires 0 <= id < capacity
+     * @spec.modifies this
+     * @return {@literal true} iff the heap was changed
+     */
+    public boolean offer(int id, double key) {
+        int position = positions[id];
+        if(position < 0) {
+            position = size++;
+        } else if(keys[position] <= key) {
+            return false;
+        }
+        siftUp(position, id, key);
+        return true;
+    }
+
+    /**
+     * @return the id with the least key
+     * @throws NoSuchElementException if the heap is empty
+     */
+    public int peek() {
+        if(size == 0) {
+            throw new NoSuchElementException();
+        }
+        return heap[0];
+    }
+
+    /**
+     * @return the least key in the heap
+     * @throws NoSuchElementException if the heap is empty
+     */
+    public double peekKey() {
+        if(size == 0) {
+            throw new NoSuchElementException();
+        }
+        return keys[0];
+    }
+
+    /**
+     * Removes the id with the least key from the heap
+     * @spec.modifies this
+     * @return the removed id
+     * @throws NoSuchElementException if the heap is empty
+     */
+    public int poll() {
+        if(size == 0) {
+            throw new NoSuchElementException();
+        }
+        int min = heap[0];
+        positions[min] = -1;
+        size--;
+        if(size > 0) {
+            siftDown(0, heap[size], keys[size]);
+        }
+        return min;
+    }
+
+    /**
+     * Removes every id from the heap
+     * @spec.modifies this
+     */
+    public void clear() {
+        for(int i = 0; i < size; i++) {
+            positions[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    /**
+     * Moves the hole at position towards the root until id with key can be stored there
+     * @param position the position to start at
+     * @param id the id to store
+     * @param key the key of id
+     */
+    private void siftUp(int position, int id, double key) {
+        while(position > 0) {
+            int parent = (position - 1) >>> 1;
+            if(keys[parent] <= key) {
+                break;
+            }
+            place(position, heap[parent], keys[parent]);
+            position = parent;
+        }
+        place(position, id, key);
+    }
+
+    /**
+     * Moves the hole at position towards the leaves until id with key can be stored there
+     * @param position the position to start at
+     * @param id the id to store
+     * @param key the key of id
+     */
+    private void siftDown(int position, int id, double key) {
+        int half = size >>> 1;
+        while(position < half) {
+            int child = 2 * position + 1;
+            if(child + 1 < size && keys[child + 1] < keys[child]) {
+                child++;
+            }
+            if(key <= keys[child]) {
+                break;
+            }
+            place(position, heap[child], keys[child]);
+            position = child;
+        }
+        place(position, id, key);
+    }
+
+    /**
+     * Stores id with key at the given position of the heap
+     * @param position the position to store at
+     * @param id the id to store
+     * @param key the key of id
+     */
+    private void place(int position, int id, double key) {
+        heap[position] = id;
+        keys[position] = key;
+        positions[id] = position;
+    }
+
+    /**
+     * Ensures that the representation invariant has not been violated. Returns normally if
+     * there is no violation.
+     */
+    private void checkRep() {
+        assert heap.length == keys.length && keys.length == positions.length;
+        assert 0 <= size && size <= heap.length;
+    }
+}
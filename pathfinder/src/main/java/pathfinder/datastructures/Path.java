@@ -58,6 +58,33 @@ public class Path implements Iterable<Path.Segment> {
         checkRep();
     }
 
+    /**
+     * Creates a new path from the start point through each of {@code ends} in turn, where the
+     * segment ending at {@code ends.get(i)} costs {@code costs.get(i)}. This is the same path as
+     * extending {@code new Path(start)} by every end and cost in order, built without copying
+     * the segments once per step.
+     *
+     * @param start The starting point of the path.
+     * @param ends  The point at the end of each segment of the path, in order.
+     * @param costs The cost of each segment of the path, in order.
+     * @throws IllegalArgumentException if ends and costs are not the same size
+     */
+    public Path(Point start, List<Point> ends, List<Double> costs) {
+        if(ends.size() != costs.size()) {
+            throw new IllegalArgumentException("Every segment needs both an end and a cost.");
+        }
+        this.start = start;
+        this.cost = 0;
+        this.path = new ArrayList<>(ends.size());
+        Point previous = start;
+        for(int i = 0; i < ends.size(); i++) {
+            path.add(new Segment(previous, ends.get(i), costs.get(i)));
+            cost = cost + costs.get(i);
+            previous = ends.get(i);
+        }
+        checkRep();
+    }
+
     /**
      * Appends a new single segment to the end of this path, originating at the current last point
      * in this path and terminating at {@code newEnd}. The cost of adding this additional segment
@@ -0,0 +1,61 @@
+/*
+ * Author: Ryan Nelson
+ * Provided as is without any warranty
+ */
+
+package pathfinder.datastructures;
+
+import multigraph.Codec;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Codec that stores a Point as its two coordinates, 16 bytes in all, so graphs of points can be saved with
+ * multigraph.MultigraphSerializer.
+ */
+public final class PointCodec implements Codec<Point> {
+
+    /**
+     * The shared instance, the codec has no state
+     */
+    public static final PointCodec INSTANCE = new PointCodec();
+
+    /**
+     * Use INSTANCE instead
+     */
+    private PointCodec() {}
+
+    /**
+     * @return the number of bytes every point is encoded in
+     */
+    @Override
+    public int fixedSize() {
+        return 2 * Double.BYTES;
+    }
+
+    /**
+     * Writes the coordinates of point at the position of buffer
+     * @param point the point to write
+     * @param buffer the buffer to write to
+     * @spec.requires point != null and buffer.remaining() >= fixedSize()
+     * @spec.modifies buffer
+     */
+    @Override
+    public void encode(Point point, ByteBuffer buffer) {
+        buffer.putDouble(point.getX()).putDouble(point.getY());
+    }
+
+    /**
+     * Reads a point from the position of buffer
+     * @param buffer the buffer to read from
+     * @spec.requires buffer.remaining() >= fixedSize()
+     * @spec.modifies buffer
+     * @return the point read
+     * @throws IllegalArgumentException if either coordinate read is NaN or infinite
+     */
+    @Override
+    public Point decode(ByteBuffer buffer) {
+        double x = buffer.getDouble();
+        return new Point(x, buffer.getDouble());
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Author: Ryan Nelson
+ * Provided as is without any warranty
+ */
+
+package pathfinder.benchmarks;
+
+import multigraph.Edge;
+import multigraph.MultigraphBuilder;
+import multigraph.NodeMultigraph;
+import pathfinder.datastructures.Point;
+import pathfinder.parser.CampusBuilding;
+import pathfinder.parser.CampusPath;
+import pathfinder.parser.CampusPathsParser;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Graph loading and timing output shared by the benchmarks
+ */
+final class Benchmarks {
+
+    /**
+     * Don't allow instantiation of this class
+     */
+    private Benchmarks(){}
+
+    /**
+     * Loads the campus path graph, without the building entrances that no path reaches
+     * @return the campus graph
+     */
+    static NodeMultigraph<Point, Double> campusGraph(){
+        return campusGraph(List.of(), CampusPathsParser.parseCampusPaths("campus_paths.csv"));
+    }
+
+    /**
+     * Builds the campus graph through MultigraphBuilder, joining the ends of each path both ways
+     * @param buildings the buildings whose entrances are nodes of the graph
+     * @param paths the paths between points of the campus
+     * @return the campus graph
+     */
+    static NodeMultigraph<Point, Double> campusGraph(List<CampusBuilding> buildings, List<CampusPath> paths){
+        MultigraphBuilder<Point, Double> builder =
+                new MultigraphBuilder<>(buildings.size() + 2 * paths.size(), 2 * paths.size());
+        for(CampusBuilding building : buildings){
+            builder.addNode(new Point(building.getX(), building.getY()));
+        }
+        for(CampusPath path : paths){
+            Point start = new Point(path.getX1(), path.getY1()), end = new Point(path.getX2(), path.getY2());
+            builder.addNode(start)
+                    .addNode(end)
+                    .addEdge(new Edge<>(start, end, path.getDistance()))
+                    .addEdge(new Edge<>(end, start, path.getDistance()));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Prints the median and best of a set of timings
+     * @param name the name of the timed code
+     * @param times the timings in nanoseconds
+     */
+    static void report(String name, long[] times){
+        report(name, times, 1, "");
+    }
+
+    /**
+     * Prints the median and best of a set of timings, each divided between a number of operations, followed by
+     * whatever else the benchmark measured
+     * @param name the name of the timed code
+     * @param times the timings in nanoseconds
+     * @param operations the number of operations each timing covers
+     * @param extra printed after the timings
+     */
+    static void report(String name, long[] times, int operations, String extra){
+        long[] sorted = times.clone();
+        Arrays.sort(sorted);
+        System.out.printf("  %-22s median %9.4f ms   best %9.4f ms%s%n", name,
+                sorted[sorted.length / 2] / 1e6 / operations, sorted[0] / 1e6 / operations, extra);
+    }
+}
@@ -0,0 +1,231 @@
+/*
+ * Author: Ryan Nelson
+ * Provided as is without any warranty
+ */
+
+package pathfinder.benchmarks;
+
+import multigraph.DoubleCsrMultigraph;
+import multigraph.DoubleWeightedGraph;
+import multigraph.Edge;
+import multigraph.NodeOrdering;
+import multigraph.UndirectedMultigraph;
+import pathfinder.ChainContraction;
+import pathfinder.GraphUtils;
+import pathfinder.Landmarks;
+import pathfinder.datastructures.Point;
+import pathfinder.parser.CampusBuilding;
+import pathfinder.parser.CampusPath;
+import pathfinder.parser.CampusPathsParser;
+
+import java.util.*;
+import java.util.function.IntToDoubleFunction;
+import java.util.function.ToDoubleBiFunction;
+
+/**
+ * Compares dijkstra's algorithm with A* search steered by the scaled straight line distance, with A* search
+ * steered by landmarks and with bidirectional dijkstra, over the campus graph as CampusMap builds it, between
+ * every pair of buildings.  Besides the time, it counts the nodes each search settles, by wrapping the graph so
+ * every settled node's child or parent edges are counted as they are read.  Picking the landmarks is timed once,
+ * apart from the queries.
+ * Run with ./gradlew :pathfinder:runBenchmark -Pbenchmark=pathfinder.benchmarks.HeuristicBenchmark
+ */
+public final class HeuristicBenchmark {
+
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int TIMED_ROUNDS = 15;
+
+    /**
+     * Don't allow instantiation of this class
+     */
+    private HeuristicBenchmark(){}
+
+    /**
+     * Runs the benchmark and prints the median and best time, and the nodes settled, of each search
+     * @param args ignored
+     */
+    public static void main(String[] args){
+        List<CampusBuilding> buildings = CampusPathsParser.parseCampusBuildings("campus_buildings.csv");
+        List<Point> entrances = new ArrayList<>();
+        for(CampusBuilding building : buildings){
+            entrances.add(new Point(building.getX(), building.getY()));
+        }
+        DoubleCsrMultigraph<Point> graph = campusGraph(entrances);
+        ToDoubleBiFunction<Point, Point> straightLine = GraphUtils.straightLine(graph);
+        long picking = System.nanoTime();
+        Landmarks landmarks = new Landmarks(graph, Landmarks.DEFAULT_COUNT);
+        System.out.printf("  picked %d landmarks in %.3f ms%n", landmarks.count(), (System.nanoTime() - picking) / 1e6);
+        List<int[]> queries = new ArrayList<>();
+        for(Point start : entrances){
+            for(Point end : entrances){
+                queries.add(new int[]{graph.idOf(start), graph.idOf(end)});
+            }
+        }
+
+        long[] dijkstra = new long[TIMED_ROUNDS], aStar = new long[TIMED_ROUNDS];
+        long[] landmarked = new long[TIMED_ROUNDS], bidirectional = new long[TIMED_ROUNDS];
+        int sink = 0;
+        for(int round = -WARMUP_ROUNDS; round < TIMED_ROUNDS; round++){
+            long start = System.nanoTime();
+            for(int[] query : queries){
+                sink += GraphUtils.shortestPathEdges(graph, query[0], query[1]).length;
+            }
+            long middle = System.nanoTime();
+            for(int[] query : queries){
+                Point end = graph.nodeOf(query[1]);
+                sink += GraphUtils.shortestPathEdges(graph, query[0], query[1],
+                        id -> straightLine.applyAsDouble(graph.nodeOf(id), end)).length;
+            }
+            long steered = System.nanoTime();
+            for(int[] query : queries){
+                int end = query[1];
+                sink += GraphUtils.shortestPathEdges(graph, query[0], end, id -> landmarks.lowerBound(id, end)).length;
+            }
+            long bounded = System.nanoTime();
+            for(int[] query : queries){
+                sink += GraphUtils.bidirectionalPathEdges(graph, query[0], query[1]).length;
+            }
+            long finish = System.nanoTime();
+            if(round >= 0){
+                dijkstra[round] = middle - start;
+                aStar[round] = steered - middle;
+                landmarked[round] = bounded - steered;
+                bidirectional[round] = finish - bounded;
+            }
+        }
+
+        //count settled nodes in a separate untimed pass, so the wrapper does not slow the timed searches
+        SettleCounter counter = new SettleCounter(graph);
+        for(int[] query : queries){
+            GraphUtils.shortestPathEdges(counter, query[0], query[1]);
+        }
+        long dijkstraSettled = counter.settled;
+        counter.settled = 0;
+        for(int[] query : queries){
+            Point end = graph.nodeOf(query[1]);
+            IntToDoubleFunction heuristic = id -> straightLine.applyAsDouble(graph.nodeOf(id), end);
+            GraphUtils.shortestPathEdges(counter, query[0], query[1], heuristic);
+        }
+        long aStarSettled = counter.settled;
+        counter.settled = 0;
+        for(int[] query : queries){
+            int end = query[1];
+            GraphUtils.shortestPathEdges(counter, query[0], end, id -> landmarks.lowerBound(id, end));
+        }
+        long landmarkSettled = counter.settled;
+        counter.settled = 0;
+        for(int[] query : queries){
+            GraphUtils.bidirectionalPathEdges(counter, query[0], query[1]);
+        }
+        long bidirectionalSettled = counter.settled;
+
+        Benchmarks.report("dijkstra", dijkstra, 1, settled(dijkstraSettled, queries.size()));
+        Benchmarks.report("A* straight line", aStar, 1, settled(aStarSettled, queries.size()));
+        Benchmarks.report("A* landmarks", landmarked, 1, settled(landmarkSettled, queries.size()));
+        Benchmarks.report("bidirectional", bidirectional, 1, settled(bidirectionalSettled, queries.size()));
+        System.out.println("(" + queries.size() + " queries, " + graph.size() + " nodes, " + graph.edgeCount()
+                + " edges, checksum " + sink + ")");
+    }
+
+    /**
+     * Loads the campus path graph, contracted and laid out the way CampusMap does
+     * @param entrances the building entrances, kept through contraction
+     * @return the compact campus graph
+     */
+    private static DoubleCsrMultigraph<Point> campusGraph(List<Point> entrances){
+        List<CampusPath> paths = CampusPathsParser.parseCampusPaths("campus_paths.csv");
+        UndirectedMultigraph<Point, Double> graph = new UndirectedMultigraph<>();
+        for(Point entrance : entrances){
+            graph.addNode(entrance);
+        }
+        for(CampusPath path : paths){
+            Point start = new Point(path.getX1(), path.getY1()), end = new Point(path.getX2(), path.getY2());
+            graph.addNode(start);
+            graph.addNode(end);
+            graph.addEdge(new Edge<>(start, end, path.getDistance()));
+        }
+        UndirectedMultigraph<Point, Double> contracted = new ChainContraction<>(graph, entrances).graph();
+        return new DoubleCsrMultigraph<>(contracted,
+                NodeOrdering.hilbert(contracted.nodes(), Point::getX, Point::getY));
+    }
+
+    /**
+     * Describes the average number of nodes settled per query, for Benchmarks.report
+     * @param settled the nodes settled over all queries
+     * @param queries the number of queries
+     * @return the average number of nodes settled per query
+     */
+    private static String settled(long settled, int queries){
+        return String.format("   %7.1f nodes settled per query", (double)settled / queries);
+    }
+
+    /**
+     * A view of a graph that counts the nodes whose child or parent edges are read, which the searches in
+     * GraphUtils do once for each node they settle
+     */
+    private static final class SettleCounter implements DoubleWeightedGraph {
+
+        private final DoubleWeightedGraph graph;
+        private long settled;
+
+        /**
+         * Creates a counting view of graph
+         * @param graph the graph to count reads of
+         */
+        private SettleCounter(DoubleWeightedGraph graph){
+            this.graph = graph;
+        }
+
+        @Override
+        public int size(){
+            return graph.size();
+        }
+
+        @Override
+        public int edgeCount(){
+            return graph.edgeCount();
+        }
+
+        @Override
+        public int childStart(int node){
+            settled++;
+            return graph.childStart(node);
+        }
+
+        @Override
+        public int childEnd(int node){
+            return graph.childEnd(node);
+        }
+
+        @Override
+        public int parentStart(int node){
+            settled++;
+            return graph.parentStart(node);
+        }
+
+        @Override
+        public int parentEnd(int node){
+            return graph.parentEnd(node);
+        }
+
+        @Override
+        public int parentEdge(int position){
+            return graph.parentEdge(position);
+        }
+
+        @Override
+        public int parentOf(int edge){
+            return graph.parentOf(edge);
+        }
+
+        @Override
+        public int childOf(int edge){
+            return graph.childOf(edge);
+        }
+
+        @Override
+        public double weightOf(int edge){
+            return graph.weightOf(edge);
+        }
+    }
+}
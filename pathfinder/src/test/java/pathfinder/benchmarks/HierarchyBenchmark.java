@@ -0,0 +1,139 @@
+/*
+ * Author: Ryan Nelson
+ * Provided as is without any warranty
+ */
+
+package pathfinder.benchmarks;
+
+import multigraph.DoubleCsrMultigraph;
+import multigraph.Edge;
+import multigraph.MultigraphBuilder;
+import multigraph.NodeMultigraph;
+import multigraph.NodeOrdering;
+import pathfinder.ContractionHierarchy;
+import pathfinder.GraphUtils;
+import pathfinder.datastructures.Point;
+
+import java.util.*;
+import java.util.function.ToDoubleBiFunction;
+
+/**
+ * Compares point to point queries over a contraction hierarchy with dijkstra's algorithm and A* search, on the
+ * campus graph and on a jittered grid of points standing in for a town sized map.  Preprocessing is timed once;
+ * the queries, between random pairs of points, are timed over several rounds.
+ * Run with ./gradlew :pathfinder:runBenchmark -Pbenchmark=pathfinder.benchmarks.HierarchyBenchmark
+ */
+public final class HierarchyBenchmark {
+
+    private static final int GRID_SIDE = 100;
+    private static final int QUERIES = 200;
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int TIMED_ROUNDS = 7;
+
+    /**
+     * Don't allow instantiation of this class
+     */
+    private HierarchyBenchmark(){}
+
+    /**
+     * Runs the benchmark and prints the preprocessing time and the median and best query times of each search
+     * @param args ignored
+     */
+    public static void main(String[] args){
+        System.out.println("campus paths");
+        compare(Benchmarks.campusGraph());
+        System.out.println(GRID_SIDE + " x " + GRID_SIDE + " grid");
+        compare(gridGraph());
+    }
+
+    /**
+     * Preprocesses graph and times the queries with every search
+     * @param graph the graph to route on
+     */
+    private static void compare(NodeMultigraph<Point, Double> graph){
+        DoubleCsrMultigraph<Point> compact = new DoubleCsrMultigraph<>(graph,
+                NodeOrdering.hilbert(graph.nodes(), Point::getX, Point::getY));
+        long start = System.nanoTime();
+        ContractionHierarchy<Point> hierarchy = new ContractionHierarchy<>(compact);
+        long built = System.nanoTime();
+        System.out.printf("  preprocessing %9.3f ms, %d shortcuts%n", (built - start) / 1e6,
+                hierarchy.shortcutCount());
+
+        Random r = new Random(5);
+        List<Point> points = graph.listNodes();
+        List<Point[]> queries = new ArrayList<>();
+        while(queries.size() < QUERIES){
+            Point from = points.get(r.nextInt(points.size())), to = points.get(r.nextInt(points.size()));
+            try{
+                GraphUtils.shortestPathEdges(compact, compact.idOf(from), compact.idOf(to));
+                queries.add(new Point[]{from, to});
+            }catch(IllegalArgumentException e){
+                //unreachable, pick again
+            }
+        }
+
+        Map<String, long[]> times = new LinkedHashMap<>();
+        times.put("dijkstra", new long[TIMED_ROUNDS]);
+        times.put("A* straight line", new long[TIMED_ROUNDS]);
+        times.put("hierarchy", new long[TIMED_ROUNDS]);
+        ToDoubleBiFunction<Point, Point> straightLine = GraphUtils.straightLine(compact);
+        double sink = 0;
+        for(int round = -WARMUP_ROUNDS; round < TIMED_ROUNDS; round++){
+            long begin = System.nanoTime();
+            for(Point[] query : queries){
+                sink += GraphUtils.shortestPath(compact, query[0], query[1]).getCost();
+            }
+            long dijkstra = System.nanoTime();
+            for(Point[] query : queries){
+                sink += GraphUtils.shortestPath(compact, query[0], query[1], straightLine).getCost();
+            }
+            long aStar = System.nanoTime();
+            for(Point[] query : queries){
+                sink += hierarchy.shortestPath(query[0], query[1]).getCost();
+            }
+            long end = System.nanoTime();
+            if(round >= 0){
+                times.get("dijkstra")[round] = dijkstra - begin;
+                times.get("A* straight line")[round] = aStar - dijkstra;
+                times.get("hierarchy")[round] = end - aStar;
+            }
+        }
+        for(Map.Entry<String, long[]> entry : times.entrySet()){
+            Benchmarks.report(entry.getKey(), entry.getValue(), QUERIES, " per query");
+        }
+        System.out.println("  (" + graph.size() + " nodes, " + graph.edgeCount() + " edges, checksum " + sink + ")");
+    }
+
+    /**
+     * Builds a square grid of slightly jittered points, joined both ways to their neighbours by their distance
+     * stretched by up to half again, as streets rarely run straight
+     * @return the grid graph
+     */
+    private static NodeMultigraph<Point, Double> gridGraph(){
+        Random r = new Random(9);
+        Point[][] grid = new Point[GRID_SIDE][GRID_SIDE];
+        int edges = 4 * GRID_SIDE * (GRID_SIDE - 1);
+        MultigraphBuilder<Point, Double> builder = new MultigraphBuilder<>(GRID_SIDE * GRID_SIDE, edges);
+        for(int row = 0; row < GRID_SIDE; row++){
+            for(int col = 0; col < GRID_SIDE; col++){
+                grid[row][col] = new Point(col * 10 + r.nextDouble(), row * 10 + r.nextDouble());
+                builder.addNode(grid[row][col]);
+                if(col > 0) link(builder, grid[row][col - 1], grid[row][col], r);
+                if(row > 0) link(builder, grid[row - 1][col], grid[row][col], r);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Joins a and b both ways by the distance between them, stretched by a random amount
+     * @param builder the builder to add the edges to
+     * @param a one end
+     * @param b the other end
+     * @param r the source of the stretch
+     */
+    private static void link(MultigraphBuilder<Point, Double> builder, Point a, Point b, Random r){
+        double distance = Math.hypot(a.getX() - b.getX(), a.getY() - b.getY()) * (1 + r.nextDouble() / 2);
+        builder.addEdge(new Edge<>(a, b, distance)).addEdge(new Edge<>(b, a, distance));
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Author: Ryan Nelson
+ * Provided as is without any warranty
+ */
+
+package pathfinder.benchmarks;
+
+import multigraph.DoubleCsrMultigraph;
+import multigraph.Edge;
+import multigraph.MultigraphBuilder;
+import multigraph.NodeMultigraph;
+import multigraph.NodeOrdering;
+import pathfinder.GraphUtils;
+import pathfinder.datastructures.Point;
+
+import java.util.*;
+
+/**
+ * Compares the time Dijkstra's algorithm takes on the same graph laid out in hash order, in reverse
+ * Cuthill-McKee order and along a Hilbert curve.  The campus graph is small enough to sit in cache whatever its
+ * layout, so a large jittered grid of points stands in for a city sized map as well.  Every layout answers the
+ * same queries between the same pairs of points.
+ * Run with ./gradlew :pathfinder:runBenchmark -Pbenchmark=pathfinder.benchmarks.LayoutBenchmark
+ */
+public final class LayoutBenchmark {
+
+    private static final int GRID_SIDE = 600;
+    private static final int QUERIES = 40;
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int TIMED_ROUNDS = 7;
+
+    /**
+     * Don't allow instantiation of this class
+     */
+    private LayoutBenchmark(){}
+
+    /**
+     * Runs the benchmark and prints the median and best time of each layout on each graph
+     * @param args ignored
+     */
+    public static void main(String[] args){
+        System.out.println("campus paths");
+        compare(Benchmarks.campusGraph());
+        System.out.println(GRID_SIDE + " x " + GRID_SIDE + " grid");
+        compare(gridGraph());
+    }
+
+    /**
+     * Times the queries on every layout of graph
+     * @param graph the graph to lay out
+     */
+    private static void compare(NodeMultigraph<Point, Double> graph){
+        Map<String, DoubleCsrMultigraph<Point>> layouts = new LinkedHashMap<>();
+        layouts.put("hash order", new DoubleCsrMultigraph<>(graph));
+        layouts.put("reverse Cuthill-McKee",
+                new DoubleCsrMultigraph<>(graph, NodeOrdering.reverseCuthillMcKee(graph)));
+        layouts.put("Hilbert curve", new DoubleCsrMultigraph<>(graph,
+                NodeOrdering.hilbert(graph.nodes(), Point::getX, Point::getY)));
+
+        //random pairs are mostly far apart, so each search covers much of the graph
+        Random r = new Random(5);
+        List<Point> points = graph.listNodes();
+        DoubleCsrMultigraph<Point> check = layouts.get("hash order");
+        Point[][] queries = new Point[QUERIES][];
+        for(int i = 0; i < QUERIES; i++){
+            Point start = points.get(r.nextInt(points.size())), end = points.get(r.nextInt(points.size()));
+            try{
+                GraphUtils.shortestPathEdges(check, check.idOf(start), check.idOf(end));
+                queries[i] = new Point[]{start, end};
+            }catch(IllegalArgumentException e){
+                //unreachable, pick again
+                i--;
+            }
+        }
+
+        Map<String, long[]> times = new LinkedHashMap<>();
+        for(String name : layouts.keySet()){
+            times.put(name, new long[TIMED_ROUNDS]);
+        }
+        int sink = 0;
+        for(int round = -WARMUP_ROUNDS; round < TIMED_ROUNDS; round++){
+            for(Map.Entry<String, DoubleCsrMultigraph<Point>> layout : layouts.entrySet()){
+                DoubleCsrMultigraph<Point> csr = layout.getValue();
+                long start = System.nanoTime();
+                for(Point[] query : queries){
+                    sink += GraphUtils.shortestPathEdges(csr, csr.idOf(query[0]), csr.idOf(query[1])).length;
+                }
+                long end = System.nanoTime();
+                if(round >= 0) times.get(layout.getKey())[round] = end - start;
+            }
+        }
+        for(Map.Entry<String, long[]> entry : times.entrySet()){
+            Benchmarks.report(entry.getKey(), entry.getValue());
+        }
+        System.out.println("(" + graph.size() + " nodes, " + graph.edgeCount() + " edges, checksum " + sink + ")");
+    }
+
+    /**
+     * Builds a square grid of slightly jittered points, joined both ways to their neighbours by their distance
+     * @return the grid graph
+     */
+    private static NodeMultigraph<Point, Double> gridGraph(){
+        Random r = new Random(9);
+        Point[][] grid = new Point[GRID_SIDE][GRID_SIDE];
+        int edges = 4 * GRID_SIDE * (GRID_SIDE - 1);
+        MultigraphBuilder<Point, Double> builder = new MultigraphBuilder<>(GRID_SIDE * GRID_SIDE, edges);
+        for(int row = 0; row < GRID_SIDE; row++){
+            for(int col = 0; col < GRID_SIDE; col++){
+                grid[row][col] = new Point(col * 10 + r.nextDouble(), row * 10 + r.nextDouble());
+                builder.addNode(grid[row][col]);
+                if(col > 0) link(builder, grid[row][col - 1], grid[row][col]);
+                if(row > 0) link(builder, grid[row - 1][col], grid[row][col]);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Joins a and b both ways by the distance between them
+     * @param builder the builder to add the edges to
+     * @param a one end
+     * @param b the other end
+     */
+    private static void link(MultigraphBuilder<Point, Double> builder, Point a, Point b){
+        double distance = Math.hypot(a.getX() - b.getX(), a.getY() - b.getY());
+        builder.addEdge(new Edge<>(a, b, distance)).addEdge(new Edge<>(b, a, distance));
+    }
+}
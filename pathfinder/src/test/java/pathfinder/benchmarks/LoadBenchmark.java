@@ -0,0 +1,100 @@
+/*
+ * Author: Ryan Nelson
+ * Provided as is without any warranty
+ */
+
+package pathfinder.benchmarks;
+
+import multigraph.Codec;
+import multigraph.Edge;
+import multigraph.Multigraph;
+import multigraph.MultigraphSerializer;
+import multigraph.NodeMultigraph;
+import pathfinder.datastructures.Point;
+import pathfinder.datastructures.PointCodec;
+import pathfinder.parser.CampusBuilding;
+import pathfinder.parser.CampusPath;
+import pathfinder.parser.CampusPathsParser;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.util.List;
+
+/**
+ * Compares the time to load the full campus path graph one addNode/addEdge call at a time, through
+ * MultigraphBuilder, and from a graph saved with MultigraphSerializer.  The csv files are parsed once up front,
+ * so the first two time only graph construction, while reading the saved graph replaces parsing as well.
+ * Run with ./gradlew :pathfinder:runBenchmark -Pbenchmark=pathfinder.benchmarks.LoadBenchmark
+ */
+public final class LoadBenchmark {
+
+    private static final int WARMUP_RUNS = 50;
+    private static final int TIMED_RUNS = 200;
+
+    /**
+     * Don't allow instantiation of this class
+     */
+    private LoadBenchmark(){}
+
+    /**
+     * Runs the benchmark and prints the median and best load time of each approach
+     * @param args ignored
+     * @throws IOException never, the saved graph is kept in memory
+     */
+    public static void main(String[] args) throws IOException {
+        List<CampusBuilding> buildings = CampusPathsParser.parseCampusBuildings("campus_buildings.csv");
+        List<CampusPath> paths = CampusPathsParser.parseCampusPaths("campus_paths.csv");
+
+        ByteArrayOutputStream saved = new ByteArrayOutputStream();
+        MultigraphSerializer.write(Benchmarks.campusGraph(buildings, paths), Channels.newChannel(saved),
+                PointCodec.INSTANCE, Codec.DOUBLE);
+        byte[] bytes = saved.toByteArray();
+
+        long[] incremental = new long[TIMED_RUNS], builder = new long[TIMED_RUNS], serialized = new long[TIMED_RUNS];
+        int sink = 0;
+        for(int run = -WARMUP_RUNS; run < TIMED_RUNS; run++){
+            long start = System.nanoTime();
+            sink += loadIncrementally(buildings, paths).size();
+            long middle = System.nanoTime();
+            sink += Benchmarks.campusGraph(buildings, paths).size();
+            long built = System.nanoTime();
+            sink += MultigraphSerializer.read(Channels.newChannel(new ByteArrayInputStream(bytes)),
+                    PointCodec.INSTANCE, Codec.DOUBLE).size();
+            long end = System.nanoTime();
+            if(run >= 0){
+                incremental[run] = middle - start;
+                builder[run] = built - middle;
+                serialized[run] = end - built;
+            }
+        }
+        Benchmarks.report("addNode/addEdge", incremental);
+        Benchmarks.report("MultigraphBuilder", builder);
+        Benchmarks.report("MultigraphSerializer", serialized);
+        System.out.println("(saved graph is " + bytes.length + " bytes)");
+        System.out.println("(checksum " + sink + ")");
+    }
+
+    /**
+     * Loads the campus graph the way CampusMap did before MultigraphBuilder
+     * @param buildings the parsed buildings
+     * @param paths the parsed paths
+     * @return the loaded graph
+     */
+    private static Multigraph<Point, Double> loadIncrementally(List<CampusBuilding> buildings,
+                                                               List<CampusPath> paths){
+        Multigraph<Point, Double> graph = new NodeMultigraph<>();
+        for(CampusBuilding building : buildings){
+            graph.addNode(new Point(building.getX(), building.getY()));
+        }
+        for(CampusPath path : paths){
+            Point start = new Point(path.getX1(), path.getY1()), end = new Point(path.getX2(), path.getY2());
+            graph.addNode(start);
+            graph.addNode(end);
+            graph.addEdge(new Edge<>(start, end, path.getDistance()));
+            graph.addEdge(new Edge<>(end, start, path.getDistance()));
+        }
+        return graph;
+    }
+}
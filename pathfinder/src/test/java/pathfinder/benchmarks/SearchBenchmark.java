@@ -0,0 +1,153 @@
+/*
+ * Author: Ryan Nelson
+ * Provided as is without any warranty
+ */
+
+package pathfinder.benchmarks;
+
+import multigraph.Multigraph;
+import multigraph.NodeIndex;
+import multigraph.NodeMultigraph;
+import pathfinder.GraphUtils;
+import pathfinder.datastructures.Point;
+import pathfinder.parser.CampusBuilding;
+import pathfinder.parser.CampusPathsParser;
+
+import java.lang.management.ManagementFactory;
+import java.util.*;
+
+/**
+ * Compares the generic Dijkstra search in GraphUtils, which keeps a distance and a parent per node and builds
+ * its Path once at the end, with the search it replaced, which queued a freshly copied Path for every edge it
+ * relaxed.  Both run over the full campus graph between the pairs of buildings with the longest routes, where
+ * copying whole paths cost the most.  Allocation is read from the JVM's per-thread allocation counter.
+ * Run with ./gradlew :pathfinder:runBenchmark -Pbenchmark=pathfinder.benchmarks.SearchBenchmark
+ */
+public final class SearchBenchmark {
+
+    private static final int QUERIES = 40;
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int TIMED_ROUNDS = 50;
+
+    /**
+     * Don't allow instantiation of this class
+     */
+    private SearchBenchmark(){}
+
+    /**
+     * Runs the benchmark and prints the median and best time, and the allocation, of each search
+     * @param args ignored
+     */
+    public static void main(String[] args){
+        NodeMultigraph<Point, Double> graph = Benchmarks.campusGraph(
+                CampusPathsParser.parseCampusBuildings("campus_buildings.csv"),
+                CampusPathsParser.parseCampusPaths("campus_paths.csv"));
+        List<Point[]> queries = longestRoutes(graph);
+
+        long[] copying = new long[TIMED_ROUNDS], parents = new long[TIMED_ROUNDS];
+        long copyingBytes = 0, parentsBytes = 0;
+        double sink = 0;
+        for(int round = -WARMUP_ROUNDS; round < TIMED_ROUNDS; round++){
+            long startBytes = allocatedBytes(), start = System.nanoTime();
+            for(Point[] query : queries){
+                sink += copyingShortestPath(graph, query[0], query[1]).getCost();
+            }
+            long middleBytes = allocatedBytes(), middle = System.nanoTime();
+            for(Point[] query : queries){
+                sink += GraphUtils.shortestPath(graph, query[0], query[1]).getCost();
+            }
+            long endBytes = allocatedBytes(), end = System.nanoTime();
+            if(round >= 0){
+                copying[round] = middle - start;
+                parents[round] = end - middle;
+                copyingBytes += middleBytes - startBytes;
+                parentsBytes += endBytes - middleBytes;
+            }
+        }
+        Benchmarks.report("copied paths", copying, 1, allocated(copyingBytes, copying.length));
+        Benchmarks.report("parent pointers", parents, 1, allocated(parentsBytes, parents.length));
+        System.out.println("(" + queries.size() + " queries, " + graph.size() + " nodes, " + graph.edgeCount()
+                + " edges, checksum " + sink + ")");
+    }
+
+    /**
+     * Finds the pairs of buildings whose shortest routes have the most segments
+     * @param graph the campus graph
+     * @return up to QUERIES pairs of entrances, longest route first
+     */
+    private static List<Point[]> longestRoutes(NodeMultigraph<Point, Double> graph){
+        List<Point> entrances = new ArrayList<>();
+        for(CampusBuilding building : CampusPathsParser.parseCampusBuildings("campus_buildings.csv")){
+            entrances.add(new Point(building.getX(), building.getY()));
+        }
+        Map<Point[], Integer> lengths = new HashMap<>();
+        for(Point start : entrances){
+            for(Point end : entrances){
+                try{
+                    int segments = 0;
+                    for(GraphUtils.Path.Segment<Point> ignored : GraphUtils.shortestPath(graph, start, end)){
+                        segments++;
+                    }
+                    lengths.put(new Point[]{start, end}, segments);
+                }catch(IllegalArgumentException e){
+                    //unreachable, skip
+                }
+            }
+        }
+        List<Point[]> ret = new ArrayList<>(lengths.keySet());
+        ret.sort(Comparator.comparing(lengths::get, Comparator.reverseOrder()));
+        return ret.subList(0, Math.min(QUERIES, ret.size()));
+    }
+
+    /**
+     * The search GraphUtils.shortestPath used to run, which queues a copy of the path so far for every edge
+     * it relaxes
+     * @param graph the graph containing the nodes
+     * @param startNode the node to start at
+     * @param endNode the destination node
+     * @return the shortest path from start to end
+     * @throws IllegalArgumentException if there is no path between the start and the end
+     */
+    private static <N> GraphUtils.Path<N> copyingShortestPath(Multigraph<N, ? extends Number> graph,
+                                                              N startNode, N endNode){
+        NodeIndex<N> index = graph.nodeIndex();
+        boolean[] finished = new boolean[index.size()];
+        PriorityQueue<GraphUtils.Path<N>> activePaths =
+                new PriorityQueue<>(Comparator.comparingDouble(GraphUtils.Path::getCost));
+        activePaths.add(new GraphUtils.Path<>(startNode));
+        while(!activePaths.isEmpty()){
+            GraphUtils.Path<N> minPath = activePaths.remove();
+            N minDest = minPath.getEnd();
+            if(minDest.equals(endNode)) return minPath;
+            int minId = index.idOf(minDest);
+            if(finished[minId]) continue;
+            graph.forEachChildEdge(minDest, e ->
+                    activePaths.add(minPath.extend(e.getChildNode(), e.getLabel().doubleValue())));
+            finished[minId] = true;
+        }
+        throw new IllegalArgumentException("No path from startNode to endNode exists");
+    }
+
+    /**
+     * Describes the average allocation per round, for Benchmarks.report
+     * @param bytes the bytes allocated over all timed rounds
+     * @param rounds the number of timed rounds
+     * @return the average allocation per round
+     */
+    private static String allocated(long bytes, int rounds){
+        return String.format("   %8.1f KB allocated", bytes / 1024.0 / rounds);
+    }
+
+    /**
+     * Returns the number of bytes this thread has allocated so far
+     * @return the bytes allocated, or 0 if the JVM does not count them
+     */
+    private static long allocatedBytes(){
+        java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if(threads instanceof com.sun.management.ThreadMXBean){
+            return ((com.sun.management.ThreadMXBean)threads)
+                    .getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Author: Ryan Nelson
+ * Provided as is without any warranty
+ */
+
+package pathfinder.junitTests;
+
+import multigraph.Edge;
+import multigraph.Multigraph;
+import multigraph.NodeMultigraph;
+
+import java.util.Random;
+
+/**
+ * Random graphs shared by the search tests
+ */
+final class RandomGraphs {
+
+    /**
+     * Don't allow instantiation of this class
+     */
+    private RandomGraphs(){}
+
+    /**
+     * builds a random directed graph with parallel edges and self edges, whose edges cost less than 20
+     * @param random the source of randomness
+     * @param nodes the number of nodes
+     * @param edges the number of edges
+     * @return the built graph, with nodes 0 through nodes - 1
+     */
+    static Multigraph<Integer, Double> randomGraph(Random random, int nodes, int edges){
+        return randomGraph(random, nodes, edges, 20);
+    }
+
+    /**
+     * builds a random directed graph with parallel edges and self edges
+     * @param random the source of randomness
+     * @param nodes the number of nodes
+     * @param edges the number of edges
+     * @param costs the number of distinct whole edge costs, starting at 0
+     * @return the built graph, with nodes 0 through nodes - 1
+     */
+    static Multigraph<Integer, Double> randomGraph(Random random, int nodes, int edges, int costs){
+        Multigraph<Integer, Double> graph = new NodeMultigraph<>();
+        for(int i = 0; i < nodes; i++){
+            graph.addNode(i);
+        }
+        for(int i = 0; i < edges; i++){
+            graph.addEdge(new Edge<>(random.nextInt(nodes), random.nextInt(nodes), (double)random.nextInt(costs)));
+        }
+        return graph;
+    }
+}
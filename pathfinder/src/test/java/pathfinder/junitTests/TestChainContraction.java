@@ -0,0 +1,156 @@
+/*
+ * Author: Ryan Nelson
+ * Provided as is without any warranty
+ */
+
+package pathfinder.junitTests;
+
+import multigraph.DoubleCsrMultigraph;
+import multigraph.Edge;
+import multigraph.UndirectedMultigraph;
+import org.junit.Test;
+import pathfinder.ChainContraction;
+import pathfinder.GraphUtils;
+
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks searches over a contracted graph against searches over the original
+ */
+public class TestChainContraction {
+
+    private static final double EPSILON = Math.pow(10.0D, -9.0D);
+
+    /**
+     * builds a random graph of grid junctions joined by walkways of pass-through nodes
+     * @param random the source of randomness
+     * @param side the number of junctions along each side of the grid
+     * @return the built graph, with junctions 0 through side * side - 1 and the other nodes numbered after them
+     */
+    private static UndirectedMultigraph<Integer, Double> randomGraph(Random random, int side){
+        UndirectedMultigraph<Integer, Double> graph = new UndirectedMultigraph<>();
+        int next = side * side;
+        for(int i = 0; i < next; i++){
+            graph.addNode(i);
+        }
+        for(int i = 0; i < side * side; i++){
+            for(int j : new int[]{i + 1, i + side}){
+                if(j >= side * side || (j == i + 1 && j % side == 0) || random.nextInt(4) == 0) continue;
+                int previous = i;
+                for(int k = random.nextInt(4); k > 0; k--){
+                    graph.addNode(next);
+                    graph.addEdge(new Edge<>(previous, next, (double)random.nextInt(10)));
+                    previous = next++;
+                }
+                graph.addEdge(new Edge<>(previous, j, (double)random.nextInt(10)));
+            }
+        }
+        return graph;
+    }
+
+    @Test
+    public void testSmallGraph(){
+        UndirectedMultigraph<String, Double> graph = new UndirectedMultigraph<>();
+        for(String node : List.of("a", "b", "c", "d", "e", "f")){
+            graph.addNode(node);
+        }
+        graph.addEdge(new Edge<>("a", "b", 1.0));
+        graph.addEdge(new Edge<>("b", "c", 2.0));
+        graph.addEdge(new Edge<>("c", "d", 3.0));
+        graph.addEdge(new Edge<>("d", "e", 4.0));
+        graph.addEdge(new Edge<>("c", "f", 5.0));
+        ChainContraction<String> contraction = new ChainContraction<>(graph, Set.of("d"));
+        UndirectedMultigraph<String, Double> contracted = contraction.graph();
+
+        //b passes through, d is kept though it passes through too
+        assertEquals(1, contraction.removedCount());
+        assertEquals(Set.of("a", "c", "d", "e", "f"), Set.copyOf(contracted.listNodes()));
+        assertTrue(contracted.containsEdge(new Edge<>("a", "c", 3.0)));
+        assertTrue(contracted.containsEdge(new Edge<>("c", "d", 3.0)));
+        assertEquals(4, contracted.undirectedEdgeCount());
+        //graph is left alone
+        assertEquals(6, graph.size());
+
+        GraphUtils.Path<String> expected = new GraphUtils.Path<>("e").extend("d", 4.0).extend("c", 3.0)
+                .extend("b", 2.0).extend("a", 1.0);
+        assertEquals(expected, contraction.unpack(GraphUtils.shortestPath(contracted, "e", "a")));
+        assertEquals(new GraphUtils.Path<>("a"), contraction.unpack(new GraphUtils.Path<>("a")));
+    }
+
+    @Test
+    public void testLoop(){
+        //a walkway that leaves a junction and comes back to it is dropped
+        UndirectedMultigraph<String, Double> graph = new UndirectedMultigraph<>();
+        for(String node : List.of("a", "b", "c", "d")){
+            graph.addNode(node);
+        }
+        graph.addEdge(new Edge<>("a", "b", 1.0));
+        graph.addEdge(new Edge<>("b", "c", 1.0));
+        graph.addEdge(new Edge<>("c", "a", 1.0));
+        graph.addEdge(new Edge<>("a", "d", 1.0));
+        ChainContraction<String> contraction = new ChainContraction<>(graph, Set.of());
+        assertEquals(Set.of("a", "d"), Set.copyOf(contraction.graph().listNodes()));
+        assertEquals(List.of(new Edge<>("a", "d", 1.0)), contraction.graph().listUndirectedEdges());
+    }
+
+    @Test
+    public void testParallelChains(){
+        //a and c are joined directly and by two walkways, only the shortest of which is kept
+        UndirectedMultigraph<String, Double> graph = new UndirectedMultigraph<>();
+        for(String node : List.of("a", "b", "c", "d", "e")){
+            graph.addNode(node);
+        }
+        graph.addEdge(new Edge<>("a", "c", 5.0));
+        graph.addEdge(new Edge<>("a", "b", 1.0));
+        graph.addEdge(new Edge<>("b", "c", 1.0));
+        graph.addEdge(new Edge<>("c", "d", 2.0));
+        graph.addEdge(new Edge<>("d", "a", 2.0));
+        graph.addEdge(new Edge<>("c", "e", 1.0));
+        ChainContraction<String> contraction = new ChainContraction<>(graph, Set.of());
+        assertEquals(Set.of("a", "c", "e"), Set.copyOf(contraction.graph().listNodes()));
+        assertEquals(2, contraction.graph().undirectedEdgeCount());
+        assertTrue(contraction.graph().containsEdge(new Edge<>("a", "c", 2.0)));
+
+        GraphUtils.Path<String> expected = new GraphUtils.Path<>("e").extend("c", 1.0).extend("b", 1.0)
+                .extend("a", 1.0);
+        assertEquals(expected, contraction.unpack(GraphUtils.shortestPath(contraction.graph(), "e", "a")));
+    }
+
+    @Test
+    public void testRandomGraphs(){
+        Random random = new Random(11);
+        for(int trial = 0; trial < 10; trial++){
+            UndirectedMultigraph<Integer, Double> graph = randomGraph(random, 6);
+            Set<Integer> keep = Set.of(graph.size() - 1, graph.size() - 2);
+            ChainContraction<Integer> contraction = new ChainContraction<>(graph, keep);
+            DoubleCsrMultigraph<Integer> compact = new DoubleCsrMultigraph<>(contraction.graph());
+            assertEquals(graph.size(), compact.size() + contraction.removedCount());
+            assertTrue(contraction.graph().listNodes().containsAll(keep));
+
+            List<Integer> ends = compact.listNodes();
+            for(int query = 0; query < 20; query++){
+                int start = ends.get(random.nextInt(ends.size())), end = ends.get(random.nextInt(ends.size()));
+                double expected;
+                try{
+                    expected = GraphUtils.shortestPath(graph, start, end).getCost();
+                }catch(IllegalArgumentException iae){
+                    assertThrows(IllegalArgumentException.class, ()->GraphUtils.shortestPath(compact, start, end));
+                    continue;
+                }
+                GraphUtils.Path<Integer> path = contraction.unpack(GraphUtils.shortestPath(compact, start, end));
+                assertEquals(expected, path.getCost(), EPSILON);
+                assertEquals((Integer)start, path.getStart());
+                assertEquals((Integer)end, path.getEnd());
+                //every segment of the unpacked path is an edge of the original graph
+                for(GraphUtils.Path.Segment<Integer> segment : path){
+                    assertTrue(graph.containsEdge(
+                            new Edge<>(segment.getStart(), segment.getEnd(), segment.getCost())));
+                }
+            }
+        }
+    }
+}
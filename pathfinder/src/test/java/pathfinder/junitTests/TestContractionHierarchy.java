@@ -0,0 +1,159 @@
+/*
+ * Author: Ryan Nelson
+ * Provided as is without any warranty
+ */
+
+package pathfinder.junitTests;
+
+import multigraph.DoubleCsrMultigraph;
+import multigraph.Edge;
+import multigraph.Multigraph;
+import multigraph.NodeMultigraph;
+import org.junit.Test;
+import pathfinder.ContractionHierarchy;
+import pathfinder.GraphUtils;
+
+import java.util.HashSet;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static pathfinder.junitTests.RandomGraphs.randomGraph;
+
+/**
+ * Checks queries on a contraction hierarchy against dijkstra's algorithm on the graph it was built from
+ */
+public class TestContractionHierarchy {
+
+    private static final double EPSILON = Math.pow(10.0D, -9.0D);
+
+    /**
+     * checks that path is an unbroken path from start to end along edges of graph
+     */
+    private static void assertFollowsEdges(Multigraph<Integer, Double> graph, GraphUtils.Path<Integer> path,
+                                           int start, int end){
+        Integer at = start;
+        for(GraphUtils.Path.Segment<Integer> segment : path){
+            assertEquals(at, segment.getStart());
+            assertTrue(graph.containsEdge(new Edge<>(segment.getStart(), segment.getEnd(), segment.getCost())));
+            at = segment.getEnd();
+        }
+        assertEquals((Integer)end, at);
+    }
+
+    @Test
+    public void testSmallGraph(){
+        Multigraph<String, Double> graph = new NodeMultigraph<>();
+        for(String node : List.of("a", "b", "c", "d")){
+            graph.addNode(node);
+        }
+        graph.addEdge(new Edge<>("a", "b", 1.0));
+        graph.addEdge(new Edge<>("b", "c", 1.0));
+        graph.addEdge(new Edge<>("a", "c", 5.0));
+        graph.addEdge(new Edge<>("c", "d", 1.0));
+        ContractionHierarchy<String> hierarchy = new ContractionHierarchy<>(graph);
+
+        GraphUtils.Path<String> expected = new GraphUtils.Path<>("a").extend("b", 1.0).extend("c", 1.0)
+                .extend("d", 1.0);
+        assertEquals(expected, hierarchy.shortestPath("a", "d"));
+        assertEquals(new GraphUtils.Path<>("c"), hierarchy.shortestPath("c", "c"));
+        //edges only go one way
+        assertThrows(IllegalArgumentException.class, ()->hierarchy.shortestPath("d", "a"));
+        assertThrows(NoSuchElementException.class, ()->hierarchy.shortestPath("a", "e"));
+
+        Set<Integer> ranks = new HashSet<>();
+        for(String node : graph.listNodes()){
+            ranks.add(hierarchy.rankOf(node));
+        }
+        assertEquals(Set.of(0, 1, 2, 3), ranks);
+    }
+
+    @Test
+    public void testRandomGraphs(){
+        Random random = new Random(23);
+        for(int trial = 0; trial < 20; trial++){
+            Multigraph<Integer, Double> graph = randomGraph(random, 60, 60 + random.nextInt(200));
+            DoubleCsrMultigraph<Integer> compact = new DoubleCsrMultigraph<>(graph);
+            ContractionHierarchy<Integer> hierarchy = new ContractionHierarchy<>(graph);
+            for(int query = 0; query < 40; query++){
+                int start = random.nextInt(60), end = random.nextInt(60);
+                double expected;
+                try{
+                    expected = GraphUtils.shortestPath(compact, start, end).getCost();
+                }catch(IllegalArgumentException iae){
+                    assertThrows(IllegalArgumentException.class, ()->hierarchy.shortestPath(start, end));
+                    continue;
+                }
+                GraphUtils.Path<Integer> path = hierarchy.shortestPath(start, end);
+                assertEquals(expected, path.getCost(), EPSILON);
+                assertFollowsEdges(graph, path, start, end);
+            }
+        }
+    }
+
+    @Test
+    public void testGrid(){
+        //a grid needs shortcuts of shortcuts, several levels deep
+        Random random = new Random(24);
+        int side = 30;
+        Multigraph<Integer, Double> graph = new NodeMultigraph<>();
+        for(int i = 0; i < side * side; i++){
+            graph.addNode(i);
+        }
+        for(int i = 0; i < side * side; i++){
+            for(int j : new int[]{i + 1, i + side}){
+                if(j >= side * side || (j == i + 1 && j % side == 0)) continue;
+                double weight = 1 + random.nextInt(9);
+                graph.addEdge(new Edge<>(i, j, weight));
+                graph.addEdge(new Edge<>(j, i, weight));
+            }
+        }
+        DoubleCsrMultigraph<Integer> compact = new DoubleCsrMultigraph<>(graph);
+        ContractionHierarchy<Integer> hierarchy = new ContractionHierarchy<>(graph);
+        assertTrue(hierarchy.shortcutCount() > 0);
+        for(int query = 0; query < 100; query++){
+            int start = random.nextInt(side * side), end = random.nextInt(side * side);
+            GraphUtils.Path<Integer> path = hierarchy.shortestPath(start, end);
+            assertEquals(GraphUtils.shortestPath(compact, start, end).getCost(), path.getCost(), EPSILON);
+            assertFollowsEdges(graph, path, start, end);
+        }
+    }
+
+    @Test
+    public void testConcurrentQueries() throws Exception {
+        Random random = new Random(25);
+        Multigraph<Integer, Double> graph = randomGraph(random, 200, 800);
+        DoubleCsrMultigraph<Integer> compact = new DoubleCsrMultigraph<>(graph);
+        ContractionHierarchy<Integer> hierarchy = new ContractionHierarchy<>(graph);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try{
+            List<Future<?>> results = new ArrayList<>();
+            for(int task = 0; task < 8; task++){
+                long seed = random.nextLong();
+                results.add(pool.submit(() -> {
+                    Random queries = new Random(seed);
+                    for(int query = 0; query < 200; query++){
+                        int start = queries.nextInt(200), end = queries.nextInt(200);
+                        try{
+                            double expected = GraphUtils.shortestPath(compact, start, end).getCost();
+                            assertEquals(expected, hierarchy.shortestPath(start, end).getCost(), EPSILON);
+                        }catch(IllegalArgumentException iae){
+                            assertThrows(IllegalArgumentException.class, ()->hierarchy.shortestPath(start, end));
+                        }
+                    }
+                }));
+            }
+            for(Future<?> result : results){
+                result.get();
+            }
+        }finally{
+            pool.shutdown();
+        }
+    }
+}
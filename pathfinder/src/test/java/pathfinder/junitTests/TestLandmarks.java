@@ -0,0 +1,133 @@
+/*
+ * Author: Ryan Nelson
+ * Provided as is without any warranty
+ */
+
+package pathfinder.junitTests;
+
+import multigraph.DoubleCsrMultigraph;
+import multigraph.Edge;
+import multigraph.Multigraph;
+import multigraph.NodeMultigraph;
+import org.junit.Test;
+import pathfinder.GraphUtils;
+import pathfinder.Landmarks;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+import static pathfinder.junitTests.RandomGraphs.randomGraph;
+
+/**
+ * Checks that landmark bounds never overestimate, and that A* search steered by them finds shortest paths
+ */
+public class TestLandmarks {
+
+    private static final double EPSILON = Math.pow(10.0D, -9.0D);
+
+    /**
+     * finds the distance between two nodes, infinite if there is no path
+     */
+    private static double distance(DoubleCsrMultigraph<Integer> graph, int start, int end){
+        try{
+            return GraphUtils.shortestPath(graph, start, end).getCost();
+        }catch(IllegalArgumentException iae){
+            return Double.POSITIVE_INFINITY;
+        }
+    }
+
+    @Test
+    public void testLowerBounds(){
+        Random random = new Random(26);
+        for(int trial = 0; trial < 10; trial++){
+            DoubleCsrMultigraph<Integer> graph = new DoubleCsrMultigraph<>(randomGraph(random, 40, 40 + 4 * trial));
+            Landmarks landmarks = new Landmarks(graph, 4);
+            assertEquals(4, landmarks.count());
+            double[][] distances = new double[graph.size()][graph.size()];
+            for(int v = 0; v < graph.size(); v++){
+                for(int t = 0; t < graph.size(); t++){
+                    distances[v][t] = distance(graph, v, t);
+                }
+            }
+            for(int t = 0; t < graph.size(); t++){
+                for(int v = 0; v < graph.size(); v++){
+                    double bound = landmarks.lowerBound(v, t);
+                    assertTrue(bound >= 0 && !Double.isInfinite(bound));
+                    assertTrue(bound <= distances[v][t] + EPSILON);
+                    //consistent as well as admissible along every edge a path to t can take
+                    for(int e = graph.childStart(v); e < graph.childEnd(v); e++){
+                        int child = graph.childOf(e);
+                        if(Double.isInfinite(distances[child][t])) continue;
+                        assertTrue(bound <= graph.weightOf(e) + landmarks.lowerBound(child, t) + EPSILON);
+                    }
+                }
+            }
+            //bounds to a landmark are exact
+            for(int i = 0; i < landmarks.count(); i++){
+                int landmark = landmarks.landmark(i);
+                for(int v = 0; v < graph.size(); v++){
+                    double expected = distances[v][landmark];
+                    if(!Double.isInfinite(expected)) assertEquals(expected, landmarks.lowerBound(v, landmark), EPSILON);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testLandmarkPaths(){
+        Random random = new Random(27);
+        for(int trial = 0; trial < 20; trial++){
+            DoubleCsrMultigraph<Integer> graph = new DoubleCsrMultigraph<>(randomGraph(random, 60, 60 + 10 * trial));
+            Landmarks landmarks = new Landmarks(graph, Landmarks.DEFAULT_COUNT);
+            for(int query = 0; query < 40; query++){
+                int start = random.nextInt(60), end = random.nextInt(60);
+                double expected = distance(graph, start, end);
+                if(Double.isInfinite(expected)){
+                    assertThrows(IllegalArgumentException.class,
+                            ()->GraphUtils.landmarkShortestPath(graph, landmarks, start, end));
+                    continue;
+                }
+                GraphUtils.Path<Integer> path = GraphUtils.landmarkShortestPath(graph, landmarks, start, end);
+                assertEquals(expected, path.getCost(), EPSILON);
+                assertEquals((Integer)start, path.getStart());
+                assertEquals((Integer)end, path.getEnd());
+            }
+        }
+    }
+
+    @Test
+    public void testLandmarkCount(){
+        Multigraph<Integer, Double> graph = new NodeMultigraph<>();
+        for(int i = 0; i < 6; i++){
+            graph.addNode(i);
+        }
+        //two separate chains, 0-1-2 and 3-4-5
+        for(int i : new int[]{0, 1, 3, 4}){
+            graph.addEdge(new Edge<>(i, i + 1, 1.0));
+            graph.addEdge(new Edge<>(i + 1, i, 1.0));
+        }
+        DoubleCsrMultigraph<Integer> compact = new DoubleCsrMultigraph<>(graph);
+
+        Landmarks two = new Landmarks(compact, 2);
+        Set<Integer> sides = new HashSet<>();
+        for(int i = 0; i < two.count(); i++){
+            sides.add(compact.nodeOf(two.landmark(i)) / 3);
+        }
+        assertEquals("each chain gets a landmark", Set.of(0, 1), sides);
+
+        Landmarks all = new Landmarks(compact, 10);
+        assertEquals(6, all.count());
+        Set<Integer> picked = new HashSet<>();
+        for(int i = 0; i < all.count(); i++){
+            picked.add(all.landmark(i));
+        }
+        assertEquals(6, picked.size());
+
+        Landmarks none = new Landmarks(compact, 0);
+        assertEquals(0, none.count());
+        assertEquals(0, none.lowerBound(0, 2), 0);
+        assertThrows(IllegalArgumentException.class, ()->new Landmarks(compact, -1));
+    }
+}
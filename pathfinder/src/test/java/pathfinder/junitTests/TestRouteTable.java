@@ -0,0 +1,71 @@
+/*
+ * Author: Ryan Nelson
+ * Provided as is without any warranty
+ */
+
+package pathfinder.junitTests;
+
+import multigraph.DoubleCsrMultigraph;
+import org.junit.Test;
+import pathfinder.GraphUtils;
+import pathfinder.RouteTable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+import static pathfinder.junitTests.RandomGraphs.randomGraph;
+
+/**
+ * Checks routes read out of a route table against dijkstra's algorithm, and that the table keeps to its memory
+ * bound
+ */
+public class TestRouteTable {
+
+    @Test
+    public void testRandomGraphs(){
+        Random random = new Random(28);
+        for(int trial = 0; trial < 20; trial++){
+            DoubleCsrMultigraph<Integer> graph = new DoubleCsrMultigraph<>(randomGraph(random, 60, 60 + 10 * trial));
+            List<Integer> sources = new ArrayList<>();
+            for(int i = 0; i < 10; i++){
+                sources.add(random.nextInt(60));
+            }
+            RouteTable<Integer> table = new RouteTable<>(graph, sources, Long.MAX_VALUE);
+            for(Integer start : sources){
+                assertTrue(table.covers(start));
+                for(int end = 0; end < 60; end++){
+                    GraphUtils.Path<Integer> expected;
+                    try{
+                        expected = GraphUtils.shortestPath(graph, start, end);
+                    }catch(IllegalArgumentException iae){
+                        int unreachable = end;
+                        assertThrows(IllegalArgumentException.class, ()->table.shortestPath(start, unreachable));
+                        continue;
+                    }
+                    //ties are broken the same way, so the paths match segment for segment
+                    assertEquals(expected, table.shortestPath(start, end));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testMemoryBound(){
+        DoubleCsrMultigraph<Integer> graph = new DoubleCsrMultigraph<>(randomGraph(new Random(29), 50, 200));
+        List<Integer> sources = List.of(4, 7, 4, 9, 12);
+        //each tree takes one int per node
+        RouteTable<Integer> table = new RouteTable<>(graph, sources, 3 * 4 * 50 + 1);
+        assertEquals(3, table.size());
+        assertTrue(table.covers(4) && table.covers(7) && table.covers(9));
+        assertFalse(table.covers(12));
+        assertThrows(NoSuchElementException.class, ()->table.shortestPath(12, 4));
+        assertEquals(new GraphUtils.Path<>(4), table.shortestPath(4, 4));
+
+        assertEquals(0, new RouteTable<>(graph, sources, 0).size());
+        assertEquals(4, new RouteTable<>(graph, sources, Long.MAX_VALUE).size());
+        assertThrows(IllegalArgumentException.class, ()->new RouteTable<>(graph, sources, -1));
+    }
+}
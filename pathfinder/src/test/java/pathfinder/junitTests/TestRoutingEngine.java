@@ -0,0 +1,93 @@
+/*
+ * Author: Ryan Nelson
+ * Provided as is without any warranty
+ */
+
+package pathfinder.junitTests;
+
+import multigraph.DoubleCsrMultigraph;
+import multigraph.Edge;
+import multigraph.NodeMultigraph;
+import org.junit.Test;
+import pathfinder.CampusMap;
+import pathfinder.GraphUtils;
+import pathfinder.RoutingEngine;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+import pathfinder.parser.CampusPath;
+import pathfinder.parser.CampusPathsParser;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.BiFunction;
+import java.util.function.ToDoubleBiFunction;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that every routing engine, and the route table, find routes as short as dijkstra's algorithm does on
+ * the campus graph
+ */
+public class TestRoutingEngine {
+
+    private static final double EPSILON = Math.pow(10.0D, -9.0D);
+
+    @Test
+    public void testCampusPoints(){
+        //every path end on campus, not just the building entrances, over the uncontracted graph
+        NodeMultigraph<Point, Double> graph = new NodeMultigraph<>();
+        for(CampusPath path : CampusPathsParser.parseCampusPaths("campus_paths.csv")){
+            Point start = new Point(path.getX1(), path.getY1()), end = new Point(path.getX2(), path.getY2());
+            graph.addNode(start);
+            graph.addNode(end);
+            graph.addEdge(new Edge<>(start, end, path.getDistance()));
+        }
+        DoubleCsrMultigraph<Point> compact = new DoubleCsrMultigraph<>(graph);
+        ToDoubleBiFunction<Point, Point> heuristic = GraphUtils.straightLine(compact);
+        Map<RoutingEngine, BiFunction<Point, Point, GraphUtils.Path<Point>>> routers =
+                new EnumMap<>(RoutingEngine.class);
+        for(RoutingEngine engine : RoutingEngine.values()){
+            routers.put(engine, engine.prepare(compact, heuristic));
+        }
+        List<Point> points = new ArrayList<>(graph.listNodes());
+        Random random = new Random(21);
+        for(int query = 0; query < 300; query++){
+            Point start = points.get(random.nextInt(points.size())), end = points.get(random.nextInt(points.size()));
+            double expected = GraphUtils.shortestPath(graph, start, end).getCost();
+            for(RoutingEngine engine : RoutingEngine.values()){
+                GraphUtils.Path<Point> path = routers.get(engine).apply(start, end);
+                assertEquals(engine.name(), expected, path.getCost(), EPSILON);
+                assertEquals(start, path.getStart());
+                assertEquals(end, path.getEnd());
+            }
+        }
+    }
+
+    @Test
+    public void testCampusBuildings(){
+        //with no room for a route table every route is searched for by the engine
+        CampusMap expected = new CampusMap(RoutingEngine.DIJKSTRA, 0);
+        List<String> names = new ArrayList<>(expected.buildingNames().keySet());
+        Random random = new Random(22);
+        List<CampusMap> maps = new ArrayList<>();
+        for(RoutingEngine engine : RoutingEngine.values()){
+            maps.add(new CampusMap(engine, 0));
+        }
+        CampusMap tabled = new CampusMap(RoutingEngine.DIJKSTRA);
+        for(int query = 0; query < 200; query++){
+            String start = names.get(random.nextInt(names.size())), end = names.get(random.nextInt(names.size()));
+            Path route = expected.findShortestPath(start, end);
+            //the table breaks ties the same way dijkstra's algorithm does
+            assertEquals(route, tabled.findShortestPath(start, end));
+            for(CampusMap map : maps){
+                Path other = map.findShortestPath(start, end);
+                assertEquals(route.getCost(), other.getCost(), EPSILON);
+                assertEquals(route.getStart(), other.getStart());
+                assertEquals(route.getEnd(), other.getEnd());
+            }
+        }
+    }
+}
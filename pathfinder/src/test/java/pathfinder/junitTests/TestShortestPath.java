@@ -0,0 +1,246 @@
+/*
+ * Author: Ryan Nelson
+ * Provided as is without any warranty
+ */
+
+package pathfinder.junitTests;
+
+import multigraph.ConcurrentMultigraph;
+import multigraph.DoubleCsrMultigraph;
+import multigraph.Edge;
+import multigraph.LinearMultigraph;
+import multigraph.MappedMultigraph;
+import multigraph.Multigraph;
+import multigraph.NodeMultigraph;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import pathfinder.GraphUtils;
+import pathfinder.datastructures.Point;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.function.ToDoubleBiFunction;
+
+import static org.junit.Assert.*;
+import static pathfinder.junitTests.RandomGraphs.randomGraph;
+
+/**
+ * Checks the primitive shortest path search against the generic one
+ */
+public class TestShortestPath {
+
+    private static final double EPSILON = Math.pow(10.0D, -9.0D);
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testSmallGraph(){
+        Multigraph<String, Double> graph = new NodeMultigraph<>();
+        graph.addNode("a");
+        graph.addNode("b");
+        graph.addNode("c");
+        graph.addNode("island");
+        graph.addEdge(new Edge<>("a", "b", 5.0));
+        graph.addEdge(new Edge<>("a", "c", 1.0));
+        graph.addEdge(new Edge<>("c", "b", 1.5));
+        graph.addEdge(new Edge<>("b", "a", 0.5));
+        DoubleCsrMultigraph<String> compact = new DoubleCsrMultigraph<>(graph);
+
+        GraphUtils.Path<String> path = GraphUtils.shortestPath(compact, "a", "b");
+        assertEquals(GraphUtils.shortestPath(graph, "a", "b"), path);
+        assertEquals(2.5, path.getCost(), EPSILON);
+        assertEquals(new GraphUtils.Path<>("a"), GraphUtils.shortestPath(compact, "a", "a"));
+        assertThrows(IllegalArgumentException.class, ()->GraphUtils.shortestPath(compact, "a", "island"));
+    }
+
+    @Test
+    public void testRandomGraphs(){
+        Random random = new Random(5);
+        for(int trial = 0; trial < 20; trial++){
+            Multigraph<Integer, Double> graph = randomGraph(random, 40, 120, 100);
+            DoubleCsrMultigraph<Integer> compact = new DoubleCsrMultigraph<>(graph);
+            for(int query = 0; query < 20; query++){
+                int start = random.nextInt(40), end = random.nextInt(40);
+                double expected;
+                try{
+                    expected = GraphUtils.shortestPath(graph, start, end).getCost();
+                }catch(IllegalArgumentException iae){
+                    assertThrows(IllegalArgumentException.class, ()->GraphUtils.shortestPath(compact, start, end));
+                    continue;
+                }
+                GraphUtils.Path<Integer> path = GraphUtils.shortestPath(compact, start, end);
+                assertEquals(expected, path.getCost(), EPSILON);
+                assertEquals((Integer)start, path.getStart());
+                assertEquals((Integer)end, path.getEnd());
+            }
+        }
+    }
+
+    @Test
+    public void testHashKeyedGraphs(){
+        //graphs without a lasting node index are searched with hash keyed state rather than dense ids
+        Random random = new Random(30);
+        for(int trial = 0; trial < 10; trial++){
+            Multigraph<Integer, Double> graph = randomGraph(random, 40, 120, 100);
+            Multigraph<Integer, Double> linear = new LinearMultigraph<>(graph);
+            Multigraph<Integer, Double> concurrent = new ConcurrentMultigraph<>(graph);
+            for(int query = 0; query < 20; query++){
+                int start = random.nextInt(40), end = random.nextInt(40);
+                GraphUtils.Path<Integer> expected;
+                try{
+                    expected = GraphUtils.shortestPath(graph, start, end);
+                }catch(IllegalArgumentException iae){
+                    assertThrows(IllegalArgumentException.class, ()->GraphUtils.shortestPath(linear, start, end));
+                    assertThrows(IllegalArgumentException.class, ()->GraphUtils.shortestPath(concurrent, start, end));
+                    continue;
+                }
+                for(Multigraph<Integer, Double> other : List.of(linear, concurrent)){
+                    GraphUtils.Path<Integer> path = GraphUtils.shortestPath(other, start, end);
+                    assertEquals(expected.getCost(), path.getCost(), EPSILON);
+                    assertEquals((Integer)start, path.getStart());
+                    assertEquals((Integer)end, path.getEnd());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testConcurrentEdits() throws InterruptedException {
+        //nodes added by another thread while a search runs must not break it
+        ConcurrentMultigraph<Integer, Double> graph =
+                new ConcurrentMultigraph<>(randomGraph(new Random(31), 40, 160, 100));
+        Thread writer = new Thread(() -> {
+            for(int node = 40; node < 4000; node++){
+                graph.addNode(node);
+                graph.addEdge(new Edge<>(node % 40, node, 1.0));
+            }
+        });
+        writer.start();
+        Random random = new Random(32);
+        while(writer.isAlive()){
+            try{
+                GraphUtils.shortestPath(graph, random.nextInt(40), random.nextInt(40));
+            }catch(IllegalArgumentException iae){
+                //unreachable
+            }
+        }
+        writer.join();
+        assertEquals(4000, graph.size());
+    }
+
+    @Test
+    public void testMappedGraph() throws IOException {
+        Random random = new Random(8);
+        Multigraph<Integer, Double> graph = randomGraph(random, 60, 200, 100);
+        DoubleCsrMultigraph<Integer> compact = new DoubleCsrMultigraph<>(graph);
+        Path file = folder.newFile().toPath();
+        MappedMultigraph.write(compact, file);
+        MappedMultigraph mapped = MappedMultigraph.open(file);
+        for(int query = 0; query < 50; query++){
+            int start = random.nextInt(60), end = random.nextInt(60);
+            double expected;
+            try{
+                expected = GraphUtils.shortestPath(compact, start, end).getCost();
+            }catch(IllegalArgumentException iae){
+                assertThrows(IllegalArgumentException.class,
+                        ()->GraphUtils.shortestPath(mapped, compact.idOf(start), compact.idOf(end)));
+                continue;
+            }
+            GraphUtils.Path<Integer> path = GraphUtils.shortestPath(mapped, compact.idOf(start), compact.idOf(end));
+            assertEquals(expected, path.getCost(), EPSILON);
+            assertEquals((Integer)compact.idOf(end), path.getEnd());
+        }
+    }
+
+    @Test
+    public void testAStar(){
+        //points on a jittered grid, joined to their neighbours by weights between one and three times as long as
+        //the straight line between them
+        Random random = new Random(12);
+        int side = 12;
+        Point[] points = new Point[side * side];
+        Multigraph<Point, Double> graph = new NodeMultigraph<>();
+        for(int i = 0; i < points.length; i++){
+            points[i] = new Point(i % side * 10 + random.nextDouble(), i / side * 10 + random.nextDouble());
+            graph.addNode(points[i]);
+        }
+        for(int i = 0; i < points.length; i++){
+            for(int j : new int[]{i + 1, i + side}){
+                if(j >= points.length || (j == i + 1 && j % side == 0) || random.nextInt(5) == 0) continue;
+                double line = Math.hypot(points[i].getX() - points[j].getX(), points[i].getY() - points[j].getY());
+                double weight = line * (1 + 2 * random.nextDouble());
+                graph.addEdge(new Edge<>(points[i], points[j], weight));
+                graph.addEdge(new Edge<>(points[j], points[i], weight));
+            }
+        }
+        DoubleCsrMultigraph<Point> compact = new DoubleCsrMultigraph<>(graph);
+        ToDoubleBiFunction<Point, Point> heuristic = GraphUtils.straightLine(graph);
+        for(int query = 0; query < 50; query++){
+            Point start = points[random.nextInt(points.length)], end = points[random.nextInt(points.length)];
+            double expected;
+            try{
+                expected = GraphUtils.shortestPath(compact, start, end).getCost();
+            }catch(IllegalArgumentException iae){
+                assertThrows(IllegalArgumentException.class,
+                        ()->GraphUtils.shortestPath(compact, start, end, heuristic));
+                continue;
+            }
+            GraphUtils.Path<Point> path = GraphUtils.shortestPath(compact, start, end, heuristic);
+            assertEquals(expected, path.getCost(), EPSILON);
+            assertEquals(start, path.getStart());
+            assertEquals(end, path.getEnd());
+        }
+    }
+
+    @Test
+    public void testStraightLineScale(){
+        //the heuristic is scaled down to the edge that is shortest for its straight line length
+        Multigraph<Point, Double> graph = new NodeMultigraph<>();
+        Point a = new Point(0, 0), b = new Point(3, 4), c = new Point(3, 0);
+        graph.addNode(a);
+        graph.addNode(b);
+        graph.addNode(c);
+        graph.addEdge(new Edge<>(a, b, 10.0));
+        graph.addEdge(new Edge<>(a, c, 1.5));
+        graph.addEdge(new Edge<>(c, c, 0.0));
+        assertEquals(2.5, GraphUtils.straightLine(graph).applyAsDouble(a, b), EPSILON);
+        assertEquals(0.0, GraphUtils.straightLine(new NodeMultigraph<Point, Double>()).applyAsDouble(a, b), EPSILON);
+    }
+
+    @Test
+    public void testBidirectional(){
+        Random random = new Random(13);
+        for(int trial = 0; trial < 20; trial++){
+            Multigraph<Integer, Double> graph = randomGraph(random, 40, 100, 100);
+            DoubleCsrMultigraph<Integer> compact = new DoubleCsrMultigraph<>(graph);
+            for(int query = 0; query < 20; query++){
+                int start = random.nextInt(40), end = random.nextInt(40);
+                double expected;
+                try{
+                    expected = GraphUtils.shortestPath(compact, start, end).getCost();
+                }catch(IllegalArgumentException iae){
+                    assertThrows(IllegalArgumentException.class,
+                            ()->GraphUtils.bidirectionalShortestPath(compact, start, end));
+                    continue;
+                }
+                GraphUtils.Path<Integer> path = GraphUtils.bidirectionalShortestPath(compact, start, end);
+                assertEquals(expected, path.getCost(), EPSILON);
+                assertEquals((Integer)start, path.getStart());
+                assertEquals((Integer)end, path.getEnd());
+                //the two halves join into one unbroken path along edges of the graph
+                Integer at = start;
+                for(GraphUtils.Path.Segment<Integer> segment : path){
+                    assertEquals(at, segment.getStart());
+                    assertTrue(graph.containsEdge(new Edge<>(segment.getStart(), segment.getEnd(), segment.getCost())));
+                    at = segment.getEnd();
+                }
+            }
+        }
+        DoubleCsrMultigraph<Integer> tiny = new DoubleCsrMultigraph<>(randomGraph(random, 5, 5, 100));
+        assertEquals(new GraphUtils.Path<>(3), GraphUtils.bidirectionalShortestPath(tiny, 3, 3));
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Author: Ryan Nelson
+ * Provided as is without any warranty
+ */
+
+package pathfinder.junitTests.datastructures;
+
+import org.junit.Test;
+import pathfinder.datastructures.IndexedMinHeap;
+
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class TestIndexedMinHeap {
+
+    private static final double EPSILON = Math.pow(10.0D, -9.0D);
+
+    @Test
+    public void testEmpty() {
+        IndexedMinHeap heap = new IndexedMinHeap(4);
+        assertTrue(heap.isEmpty());
+        assertEquals(0, heap.size());
+        assertThrows(NoSuchElementException.class, heap::poll);
+        assertThrows(NoSuchElementException.class, heap::peek);
+        assertThrows(NoSuchElementException.class, heap::peekKey);
+    }
+
+    @Test
+    public void testOfferAndDecrease() {
+        IndexedMinHeap heap = new IndexedMinHeap(4);
+        assertTrue(heap.offer(2, 5.0));
+        assertTrue(heap.offer(1, 3.0));
+        assertTrue(heap.offer(3, 4.0));
+        assertEquals(1, heap.peek());
+        assertEquals(3.0, heap.peekKey(), EPSILON);
+
+        //larger keys are ignored, smaller keys move the id up
+        assertFalse(heap.offer(1, 10.0));
+        assertTrue(heap.offer(2, 1.0));
+        assertEquals(3, heap.size());
+        assertTrue(heap.contains(2));
+        assertFalse(heap.contains(0));
+
+        assertEquals(2, heap.poll());
+        assertEquals(1, heap.poll());
+        assertEquals(3, heap.poll());
+        assertTrue(heap.isEmpty());
+        assertFalse(heap.contains(2));
+
+        //ids can be offered again once removed
+        assertTrue(heap.offer(2, 7.0));
+        heap.clear();
+        assertTrue(heap.isEmpty());
+        assertFalse(heap.contains(2));
+    }
+
+    @Test
+    public void testMatchesPriorityQueue() {
+        Random random = new Random(42);
+        IndexedMinHeap heap = new IndexedMinHeap(200);
+        PriorityQueue<Double> expected = new PriorityQueue<>();
+        for(int id = 0; id < 200; id++) {
+            double key = random.nextDouble();
+            heap.offer(id, key);
+            expected.add(key);
+        }
+        while(!expected.isEmpty()) {
+            assertEquals(expected.poll(), heap.peekKey(), EPSILON);
+            heap.poll();
+        }
+    }
+}
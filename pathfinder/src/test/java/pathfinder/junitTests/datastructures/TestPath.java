@@ -6,6 +6,7 @@ import pathfinder.datastructures.Path;
 import pathfinder.datastructures.Point;
 
 import java.util.Iterator;
+import java.util.List;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
@@ -106,4 +107,15 @@ public class TestPath {
         assertEquals(path2.hashCode(), path2.hashCode());
         assertEquals(path3.hashCode(), path3.hashCode());
     }
+
+    @Test
+    public void testPathFromSegments() {
+        Path extended = new Path(new Point(1.0, 2.0)).extend(new Point(3.0, 2.0), 2.0D)
+                .extend(new Point(3.0, 5.0), 3.0D);
+        Path built = new Path(new Point(1.0, 2.0), List.of(new Point(3.0, 2.0), new Point(3.0, 5.0)),
+                List.of(2.0D, 3.0D));
+        assertEquals(extended, built);
+        assertEquals(extended.getCost(), built.getCost(), EPSILON);
+        assertEquals(new Path(new Point(1.0, 2.0)), new Path(new Point(1.0, 2.0), List.of(), List.of()));
+    }
 }
@@ -0,0 +1,52 @@
+/*
+ * Author: Ryan Nelson
+ * Provided as is without any warranty
+ */
+
+package pathfinder.junitTests.datastructures;
+
+import multigraph.Codec;
+import multigraph.Edge;
+import multigraph.MultigraphSerializer;
+import multigraph.NodeMultigraph;
+import org.junit.Test;
+import pathfinder.datastructures.Point;
+import pathfinder.datastructures.PointCodec;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.HashSet;
+
+import static org.junit.Assert.*;
+
+public class TestPointCodec {
+
+    @Test
+    public void testRoundTrip() {
+        ByteBuffer buffer = ByteBuffer.allocate(PointCodec.INSTANCE.fixedSize());
+        PointCodec.INSTANCE.encode(new Point(15.5D, -19.25D), buffer);
+        assertFalse(buffer.hasRemaining());
+        buffer.flip();
+        assertEquals(new Point(15.5D, -19.25D), PointCodec.INSTANCE.decode(buffer));
+    }
+
+    @Test
+    public void testGraphOfPoints() throws IOException {
+        NodeMultigraph<Point, Double> graph = new NodeMultigraph<>();
+        Point a = new Point(0, 0), b = new Point(3, 4);
+        graph.addNode(a);
+        graph.addNode(b);
+        graph.addEdge(new Edge<>(a, b, 5.0));
+        graph.addEdge(new Edge<>(b, a, 5.0));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        MultigraphSerializer.write(graph, Channels.newChannel(bytes), PointCodec.INSTANCE, Codec.DOUBLE);
+        NodeMultigraph<Point, Double> read = MultigraphSerializer.read(
+                Channels.newChannel(new ByteArrayInputStream(bytes.toByteArray())), PointCodec.INSTANCE, Codec.DOUBLE);
+        assertEquals(new HashSet<>(graph.listNodes()), new HashSet<>(read.listNodes()));
+        assertEquals(new HashSet<>(graph.listEdges()), new HashSet<>(read.listEdges()));
+    }
+}